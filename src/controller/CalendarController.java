@@ -1,11 +1,17 @@
 package controller;
 
+import java.io.UncheckedIOException;
+
 /**
  * Represents the Controller part of the Calendar.
  */
 public interface CalendarController {
   /**
-   * Tells the Controller how to delegate the command.
+   * Tells the Controller how to delegate the command, until an exit command or the end of the
+   * input.
+   *
+   * @return true if an exit command ended the input, false if it ran out first
+   * @throws UncheckedIOException if the input could not be read
    */
-  void runController();
+  boolean runController();
 }
@@ -1,11 +1,12 @@
 package controller;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 
 import controller.commands.CalendarControllerCommands;
 import controller.commands.CreateCommand;
@@ -19,8 +20,12 @@ import view.CalendarView;
  * Represents the implementation of the Controller part of the Calendar.
  */
 public class CalendarControllerImpl implements CalendarController {
-  private final Scanner in;
+  // large enough that a replayed command file is read in few system calls
+  private static final int INPUT_BUFFER_SIZE = 1 << 16;
+
+  private final BufferedReader in;
   private final CalendarView view;
+  private final CommandTokenizer tokenizer = new CommandTokenizer();
   protected final Map<String, CalendarControllerCommands> knownCommands = new HashMap<>();
 
   /**
@@ -32,7 +37,7 @@ public class CalendarControllerImpl implements CalendarController {
    */
   public CalendarControllerImpl(CalendarModel model, InputStream in, CalendarView view) {
     this.view = view;
-    this.in = new Scanner(in);
+    this.in = new BufferedReader(new InputStreamReader(in), INPUT_BUFFER_SIZE);
 
     knownCommands.put("create", new CreateCommand(model, view));
     knownCommands.put("print", new PrintCommand(model, view));
@@ -42,24 +47,38 @@ public class CalendarControllerImpl implements CalendarController {
 
 
   /**
-   * Tells the Controller how to delegate the command.
+   * Tells the Controller how to delegate the command, reading the input one line at a time until
+   * an exit command or the end of the input.
+   *
+   * @return true if an exit command ended the input, false if it ran out
+   * @throws UncheckedIOException if the input could not be read, which is left to the caller to
+   *                              report so that it is not taken for input without an exit
    */
-  public void runController() {
-    boolean exit = false;
-    while (!exit) {
+  public boolean runController() {
+    while (true) {
       view.promptUser();
-      String input = in.nextLine().trim();
+      String line;
+      try {
+        line = in.readLine();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      if (line == null) {
+        return false;
+      }
+      String input = line.trim();
       if (input.equalsIgnoreCase("exit")) {
-        exit = true;
-        return;
+        return true;
       }
 
-      String[] inputTokens = parseCommand(input);
-      String commandKey = inputTokens[0].toLowerCase();
+      if (!parseCommand(input)) {
+        continue;
+      }
+      String commandKey = tokenizer.token(0).toLowerCase();
       CalendarControllerCommands command = knownCommands.get(commandKey);
 
       if (command != null) {
-        command.execute(inputTokens);
+        command.execute(tokenizer);
       } else {
         view.displayError("Invalid command: " + commandKey);
       }
@@ -68,48 +87,22 @@ public class CalendarControllerImpl implements CalendarController {
 
 
   /**
-   * Parses through the inputted command line.  Assumes that all multi-worded subjects
-   * will have quotations.
+   * Parses through the inputted command line into the controller's tokenizer, which commands
+   * then match their rules against without copying its words.  Words are separated by spaces,
+   * multi-worded subjects must be in quotations and may use \" for a quotation inside of them.
    *
    * @param input the line that the controller is parsing through.
-   * @return the parsed tokens.
+   * @return whether the line holds a command, false if it is empty or leaves a quotation open.
    */
-  protected String[] parseCommand(String input) {
-    if (input.isEmpty()) {
+  protected boolean parseCommand(String input) {
+    if (tokenizer.tokenize(input) == 0) {
       view.displayError("Empty command");
+      return false;
     }
-
-    List<String> tokens = new ArrayList<>();
-    boolean inQuotes = false;
-    StringBuilder currentToken = new StringBuilder();
-
-    for (String word : input.split(" ")) {
-      if (inQuotes) {
-        currentToken.append(" ").append(word);
-        if (word.endsWith("\"")) {
-          inQuotes = false;
-          tokens.add(currentToken.toString().replaceAll("^\"|\"$", ""));
-          currentToken.setLength(0);
-        }
-      } else {
-        if (word.startsWith("\"")) {
-          if (word.endsWith("\"") && word.length() > 1) {
-            tokens.add(word.substring(1, word.length() - 1));
-          } else {
-            inQuotes = true;
-            currentToken.append(word);
-          }
-        } else {
-          tokens.add(word);
-        }
-      }
-    }
-
-    if (inQuotes) {
+    if (tokenizer.hasUnclosedQuote()) {
       view.displayError("Unclosed quotes in input.");
+      return false;
     }
-
-    return tokens.toArray(new String[0]);
-
+    return true;
   }
 }
@@ -0,0 +1,201 @@
+package controller;
+
+import java.util.Arrays;
+
+/**
+ * Splits a command line into tokens in a single pass over its characters. Tokens are separated by
+ * spaces or tabs, and a token starting with a quote runs until a quote that is followed by a
+ * separator or the end of the line, so it may hold spaces. Inside quotes \" stands for a quote and
+ * \\ for a backslash. Each token is kept only as the offsets of its characters in the line (inside
+ * the quotes for a quoted token) in arrays reused from line to line, so tokenizing allocates
+ * nothing once the arrays are big enough; Strings are only made for the tokens that are asked for.
+ */
+public final class CommandTokenizer {
+  private CharSequence line = "";
+  private int count;
+  private int[] starts = new int[16];
+  private int[] ends = new int[16];
+  private boolean[] escaped = new boolean[16];
+  private boolean unclosedQuote;
+  private final StringBuilder unescaped = new StringBuilder();
+
+  /**
+   * Splits the line into tokens, replacing the tokens of the line before it.
+   *
+   * @param line the command line
+   * @return the number of tokens found
+   */
+  public int tokenize(CharSequence line) {
+    this.line = line;
+    count = 0;
+    unclosedQuote = false;
+    int length = line.length();
+    int i = 0;
+    while (i < length) {
+      char c = line.charAt(i);
+      if (isSeparator(c)) {
+        i++;
+      } else if (c == '"') {
+        i = quoted(i + 1);
+      } else {
+        int start = i;
+        while (i < length && !isSeparator(line.charAt(i))) {
+          i++;
+        }
+        add(start, i, false);
+      }
+    }
+    return count;
+  }
+
+  // Scans a quoted token whose characters start at the given offset, returning the offset after
+  // its closing quote
+  private int quoted(int start) {
+    int length = line.length();
+    boolean hasEscapes = false;
+    for (int i = start; i < length; i++) {
+      char c = line.charAt(i);
+      if (c == '\\' && i + 1 < length && (line.charAt(i + 1) == '"'
+          || line.charAt(i + 1) == '\\')) {
+        hasEscapes = true;
+        i++;
+      } else if (c == '"' && (i + 1 == length || isSeparator(line.charAt(i + 1)))) {
+        add(start, i, hasEscapes);
+        return i + 1;
+      }
+    }
+    // the rest of the line is the token but the command is not complete
+    unclosedQuote = true;
+    add(start, length, hasEscapes);
+    return length;
+  }
+
+  private void add(int start, int end, boolean hasEscapes) {
+    if (count == starts.length) {
+      starts = Arrays.copyOf(starts, count * 2);
+      ends = Arrays.copyOf(ends, count * 2);
+      escaped = Arrays.copyOf(escaped, count * 2);
+    }
+    starts[count] = start;
+    ends[count] = end;
+    escaped[count] = hasEscapes;
+    count++;
+  }
+
+  private static boolean isSeparator(char c) {
+    return c == ' ' || c == '\t';
+  }
+
+  /**
+   * Gets the number of tokens in the last line.
+   *
+   * @return the number of tokens
+   */
+  public int count() {
+    return count;
+  }
+
+  /**
+   * Gets whether the last line ended inside a quoted token.
+   *
+   * @return whether a quote was left open
+   */
+  public boolean hasUnclosedQuote() {
+    return unclosedQuote;
+  }
+
+  /**
+   * Gets the offset in the line of the first character of a token.
+   *
+   * @param index which token
+   * @return the offset, after the opening quote for a quoted token
+   * @throws IndexOutOfBoundsException if there is no such token
+   */
+  public int start(int index) {
+    return starts[check(index)];
+  }
+
+  /**
+   * Gets the offset in the line just past the last character of a token.
+   *
+   * @param index which token
+   * @return the offset, of the closing quote for a quoted token
+   * @throws IndexOutOfBoundsException if there is no such token
+   */
+  public int end(int index) {
+    return ends[check(index)];
+  }
+
+  /**
+   * Checks whether a token is the given text, without making a String of the token.
+   *
+   * @param index      which token
+   * @param text       the text to compare it to
+   * @param ignoreCase whether upper and lower case letters count as the same
+   * @return whether they are the same
+   * @throws IndexOutOfBoundsException if there is no such token
+   */
+  public boolean matches(int index, String text, boolean ignoreCase) {
+    check(index);
+    int start = starts[index];
+    int length = ends[index] - start;
+    if (escaped[index]) {
+      return ignoreCase ? token(index).equalsIgnoreCase(text) : token(index).equals(text);
+    }
+    if (length != text.length()) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char a = line.charAt(start + i);
+      char b = text.charAt(i);
+      if (a != b && !(ignoreCase && Character.toLowerCase(a) == Character.toLowerCase(b))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Makes a String of a token with its escapes replaced.
+   *
+   * @param index which token
+   * @return the token
+   * @throws IndexOutOfBoundsException if there is no such token
+   */
+  public String token(int index) {
+    check(index);
+    if (!escaped[index]) {
+      return line.subSequence(starts[index], ends[index]).toString();
+    }
+    unescaped.setLength(0);
+    for (int i = starts[index]; i < ends[index]; i++) {
+      char c = line.charAt(i);
+      if (c == '\\' && i + 1 < ends[index]
+          && (line.charAt(i + 1) == '"' || line.charAt(i + 1) == '\\')) {
+        c = line.charAt(++i);
+      }
+      unescaped.append(c);
+    }
+    return unescaped.toString();
+  }
+
+  /**
+   * Makes Strings of all the tokens of the last line.
+   *
+   * @return the tokens in order
+   */
+  public String[] tokens() {
+    String[] tokens = new String[count];
+    for (int i = 0; i < count; i++) {
+      tokens[i] = token(i);
+    }
+    return tokens;
+  }
+
+  private int check(int index) {
+    if (index < 0 || index >= count) {
+      throw new IndexOutOfBoundsException("No token " + index + " in a line of " + count);
+    }
+    return index;
+  }
+}
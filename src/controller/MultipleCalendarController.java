@@ -5,6 +5,8 @@ import java.io.InputStream;
 import controller.commands.CopyCommand;
 import controller.commands.CreateCalendarCommand;
 import controller.commands.EditCalendarCommand;
+import controller.commands.ExportCommand;
+import controller.commands.ImportCommand;
 import controller.commands.UseCommand;
 import model.MultipleCalendarModel;
 import view.CalendarView;
@@ -28,5 +30,7 @@ public class MultipleCalendarController extends CalendarControllerImpl {
     knownCommands.put("edit", new EditCalendarCommand(model, view));
     knownCommands.put("use", new UseCommand(model, view));
     knownCommands.put("copy", new CopyCommand(model, view));
+    knownCommands.put("export", new ExportCommand(model, view));
+    knownCommands.put("import", new ImportCommand(model, view));
   }
 }
@@ -1,5 +1,7 @@
 package controller.commands;
 
+import controller.CommandTokenizer;
+
 /**
  * Represents the interface that holds all the commands that the user can utilize.
  */
@@ -10,4 +12,14 @@ public interface CalendarControllerCommands {
    * @param inputTokens the users input line.
    */
   void execute(String[] inputTokens);
+
+  /**
+   * Completes the command in the line a tokenizer last split. Unless overridden this makes Strings
+   * of all the tokens and runs {@link #execute(String[])}.
+   *
+   * @param tokens the tokenizer holding the users input line.
+   */
+  default void execute(CommandTokenizer tokens) {
+    execute(tokens.tokens());
+  }
 }
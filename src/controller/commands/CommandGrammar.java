@@ -0,0 +1,487 @@
+package controller.commands;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import controller.CommandTokenizer;
+import model.RecurrenceRule;
+
+/**
+ * The forms a command can take, written as rules such as
+ * {@code "event <subject> from <start:datetime> to <end:datetime>"} and compiled into a tree of
+ * decisions when the command is made. Each word of a rule is either a keyword, matched ignoring
+ * case, or a typed slot that takes any word of its type, and "..." at the end of a rule takes the
+ * rest of the line as it is. A line is matched in one pass over its words, each word taking one
+ * step down the tree and being compared only with the few keywords that can come at that step, so
+ * how long matching takes does not grow with the number of rules. A keyword is tried before the
+ * slot of the same step, and no two rules may have different slots at the same step.
+ *
+ * <p>A line can be matched straight from a {@link CommandTokenizer}, in which case keywords are
+ * compared with the characters of the line and Strings are only made for the words slots take.
+ *
+ * <p>Matching a line gives either the action of its rule along with the typed values of its slots,
+ * or the error for the first word that does not fit: the error of its slot's type if a slot did not
+ * take it, otherwise the error given for the deepest part of the rules it got through (where %s
+ * stands for the word), or the usage error if there is none or if the line ran out.
+ */
+public final class CommandGrammar {
+
+  /**
+   * The types of value a slot can take, each with the error for a word that is not one.
+   */
+  public enum SlotType {
+    TEXT("text", null, word -> word),
+    DATE_TIME("datetime", "Invalid date time format! Should be: yyyy-MM-ddTHH:mm",
+        word -> LocalDateTime.parse(word, Formats.DATE_TIME)),
+    DATE("date", "Invalid date format! Should be: yyyy-MM-dd", LocalDate::parse),
+    ID("id", "Invalid event id! Should be a whole number greater than 0.",
+        word -> positive(Long.parseLong(word))),
+    COUNT("count", "Invalid number of times to repeat! Should be a whole number greater than 0.",
+        word -> positive(Integer.parseInt(word))),
+    LIMIT("limit", "Invalid limit! Should be a whole number that is 0 or more.",
+        word -> notNegative(Integer.parseInt(word))),
+    WEEKDAYS("weekdays", "Invalid weekdays! Should be some of the letters MTWRFSU.",
+        word -> RecurrenceRule.parseWeekdays(word) == 0 ? null : word);
+
+    private final String keyword;
+    private final String error;
+    private final Function<String, Object> parser;
+
+    SlotType(String keyword, String error, Function<String, Object> parser) {
+      this.keyword = keyword;
+      this.error = error;
+      this.parser = parser;
+    }
+
+    /**
+     * Gets the error shown when a word is not of this type.
+     *
+     * @return the error, null for text which takes any word
+     */
+    public String getError() {
+      return error;
+    }
+
+    // Converts the word into a value of this type, or returns null if it is not one
+    private Object parse(String word) {
+      try {
+        return parser.apply(word);
+      } catch (DateTimeParseException | IllegalArgumentException e) {
+        // NumberFormatException is an IllegalArgumentException
+        return null;
+      }
+    }
+
+    private static <T extends Number> T positive(T number) {
+      if (number.longValue() <= 0) {
+        throw new IllegalArgumentException("Not positive: " + number);
+      }
+      return number;
+    }
+
+    private static int notNegative(int number) {
+      if (number < 0) {
+        throw new IllegalArgumentException("Negative: " + number);
+      }
+      return number;
+    }
+
+    private static SlotType named(String name, String rule) {
+      for (SlotType type : values()) {
+        if (type.keyword.equals(name)) {
+          return type;
+        }
+      }
+      throw new IllegalArgumentException("Unknown slot type " + name + " in rule: " + rule);
+    }
+  }
+
+  // Holds the formatter apart so the enum constants can use it while being made
+  private static final class Formats {
+    private static final DateTimeFormatter DATE_TIME =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+  }
+
+  // One step of the tree, a rule ends at a node with an action
+  private static final class Node {
+    // the lower case keywords that can come next and the step each one leads to
+    private String[] keywords = new String[0];
+    private Node[] keywordNodes = new Node[0];
+    private String slotName;
+    private SlotType slotType;
+    private Node slotNext;
+    private boolean rest;
+    private Consumer<Match> action;
+    private String error;
+  }
+
+  /**
+   * The result of matching a line: either the action of its rule and the values of its slots, or
+   * the error saying what is wrong with it.
+   */
+  public static final class Match {
+    // the line is either these words or, when they are null, the tokens of the tokenizer
+    private String[] words;
+    private final CommandTokenizer tokens;
+    private final int count;
+    private final String[] names;
+    private final Object[] values;
+    private int size;
+    private Consumer<Match> action;
+    private String error;
+
+    private Match(String[] words, CommandTokenizer tokens, int count) {
+      this.words = words;
+      this.tokens = tokens;
+      this.count = count;
+      this.names = new String[count];
+      this.values = new Object[count];
+    }
+
+    /**
+     * Gets what is wrong with the line.
+     *
+     * @return the error, or null if the line matched a rule
+     */
+    public String getError() {
+      return error;
+    }
+
+    /**
+     * Gets the words of the line, for rules that end with "...". For a line matched from a
+     * tokenizer they are made the first time they are asked for, and are only valid until the
+     * tokenizer is given another line.
+     *
+     * @return the words including the command's own
+     */
+    public String[] getWords() {
+      if (words == null) {
+        words = tokens.tokens();
+      }
+      return words;
+    }
+
+    /**
+     * Hands the whole line to another command, for rules that end with "...". A line matched from
+     * a tokenizer is handed over as its tokens, without making Strings of its words.
+     *
+     * @param command the command to run the line
+     */
+    public void handTo(CalendarControllerCommands command) {
+      if (tokens != null) {
+        command.execute(tokens);
+      } else {
+        command.execute(words);
+      }
+    }
+
+    /**
+     * Checks whether the rule the line matched has a slot with the given name.
+     *
+     * @param name the name of the slot
+     * @return whether it does
+     */
+    public boolean has(String name) {
+      return indexOf(name) >= 0;
+    }
+
+    /**
+     * Gets the word a text or weekdays slot took.
+     *
+     * @param name the name of the slot
+     * @return the word
+     * @throws IllegalArgumentException if the rule has no such slot
+     */
+    public String text(String name) {
+      return (String) get(name);
+    }
+
+    /**
+     * Gets the value a datetime slot took.
+     *
+     * @param name the name of the slot
+     * @return the date and time
+     * @throws IllegalArgumentException if the rule has no such slot
+     */
+    public LocalDateTime dateTime(String name) {
+      return (LocalDateTime) get(name);
+    }
+
+    /**
+     * Gets the value a date slot took.
+     *
+     * @param name the name of the slot
+     * @return the date
+     * @throws IllegalArgumentException if the rule has no such slot
+     */
+    public LocalDate date(String name) {
+      return (LocalDate) get(name);
+    }
+
+    /**
+     * Gets the value a count or limit slot took.
+     *
+     * @param name the name of the slot
+     * @return the number
+     * @throws IllegalArgumentException if the rule has no such slot
+     */
+    public int number(String name) {
+      return (Integer) get(name);
+    }
+
+    /**
+     * Gets the value an id slot took.
+     *
+     * @param name the name of the slot
+     * @return the id
+     * @throws IllegalArgumentException if the rule has no such slot
+     */
+    public long id(String name) {
+      return (Long) get(name);
+    }
+
+    /**
+     * Runs the action of the rule the line matched.
+     *
+     * @throws IllegalStateException if the line did not match a rule
+     */
+    public void run() {
+      if (action == null) {
+        throw new IllegalStateException("The line did not match: " + error);
+      }
+      action.accept(this);
+    }
+
+    private Object get(String name) {
+      int i = indexOf(name);
+      if (i < 0) {
+        throw new IllegalArgumentException("No slot named " + name);
+      }
+      return values[i];
+    }
+
+    private int indexOf(String name) {
+      for (int i = 0; i < size; i++) {
+        if (names[i].equals(name)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private Match fail(String error) {
+      this.error = error;
+      return this;
+    }
+
+    // Whether the word at the index is the given lower case keyword, ignoring case
+    private boolean isKeyword(int index, String keyword) {
+      return words != null ? words[index].equalsIgnoreCase(keyword)
+          : tokens.matches(index, keyword, true);
+    }
+
+    private String word(int index) {
+      return words != null ? words[index] : tokens.token(index);
+    }
+  }
+
+  /**
+   * Collects the rules of a command and compiles them.
+   */
+  public static final class Builder {
+    private final Node root = new Node();
+    private final String usage;
+    private int minimumWords;
+
+    private Builder(String usage) {
+      this.usage = usage;
+    }
+
+    /**
+     * Makes every line with fewer words than this get the usage error, whatever its words are.
+     *
+     * @param words the fewest words a line can have, the command's own included
+     * @return this builder
+     */
+    public Builder minimumWords(int words) {
+      this.minimumWords = words;
+      return this;
+    }
+
+    /**
+     * Adds a rule. The words of the rule come after the command's own word.
+     *
+     * @param rule   the words of the rule separated by spaces
+     * @param action what to do with a line that matches it
+     * @return this builder
+     * @throws IllegalArgumentException if the rule has an unknown slot type, has a slot that
+     *                                  conflicts with another rule's, or is already a rule
+     */
+    public Builder rule(String rule, Consumer<Match> action) {
+      Node node = walk(rule);
+      if (node.action != null) {
+        throw new IllegalArgumentException("Rule given twice: " + rule);
+      }
+      node.action = action;
+      return this;
+    }
+
+    /**
+     * Gives the error for a line that matches the start of some rules but then has a word that
+     * fits none of them, unless a longer start has its own error.
+     *
+     * @param start   the start of the rules, an empty start for the first word of the line
+     * @param message the error, where %s stands for the word that did not fit
+     * @return this builder
+     * @throws IllegalArgumentException if the start is not a valid start of a rule
+     */
+    public Builder error(String start, String message) {
+      walk(start).error = message;
+      return this;
+    }
+
+    /**
+     * Compiles the rules.
+     *
+     * @return the grammar
+     */
+    public CommandGrammar build() {
+      return new CommandGrammar(this);
+    }
+
+    // Finds the node at the end of the given words, adding the nodes that are missing
+    private Node walk(String rule) {
+      Node node = root;
+      for (String word : rule.trim().split(" +")) {
+        if (word.isEmpty()) {
+          continue;
+        }
+        if (node.rest) {
+          throw new IllegalArgumentException("Nothing can follow ...: " + rule);
+        }
+        if (word.equals("...")) {
+          if (node.keywords.length > 0 || node.slotNext != null) {
+            throw new IllegalArgumentException("... conflicts with another rule: " + rule);
+          }
+          node.rest = true;
+        } else if (word.startsWith("<") && word.endsWith(">")) {
+          String[] slot = word.substring(1, word.length() - 1).split(":", 2);
+          SlotType type = slot.length == 1 ? SlotType.TEXT : SlotType.named(slot[1], rule);
+          if (node.slotNext == null) {
+            node.slotName = slot[0];
+            node.slotType = type;
+            node.slotNext = new Node();
+          } else if (!node.slotName.equals(slot[0]) || node.slotType != type) {
+            throw new IllegalArgumentException("Slot " + word + " conflicts with <"
+                + node.slotName + "> in rule: " + rule);
+          }
+          node = node.slotNext;
+        } else {
+          node = keyword(node, word.toLowerCase(Locale.ROOT));
+        }
+      }
+      return node;
+    }
+
+    // Finds the step a keyword leads to, adding it if the keyword is new at this step
+    private static Node keyword(Node node, String keyword) {
+      for (int i = 0; i < node.keywords.length; i++) {
+        if (node.keywords[i].equals(keyword)) {
+          return node.keywordNodes[i];
+        }
+      }
+      int n = node.keywords.length;
+      node.keywords = Arrays.copyOf(node.keywords, n + 1);
+      node.keywordNodes = Arrays.copyOf(node.keywordNodes, n + 1);
+      node.keywords[n] = keyword;
+      node.keywordNodes[n] = new Node();
+      return node.keywordNodes[n];
+    }
+  }
+
+  private final Node root;
+  private final String usage;
+  private final int minimumWords;
+
+  private CommandGrammar(Builder builder) {
+    this.root = builder.root;
+    this.usage = builder.usage;
+    this.minimumWords = builder.minimumWords;
+  }
+
+  /**
+   * Starts a grammar.
+   *
+   * @param usage the error for a line that is too short or fits no rule at all
+   * @return the builder to add the rules to
+   */
+  public static Builder builder(String usage) {
+    return new Builder(usage);
+  }
+
+  /**
+   * Matches a line against the rules, skipping its first word which names the command.
+   *
+   * @param words the words of the line
+   * @return the match, which has an error if the line fits no rule
+   */
+  public Match match(String[] words) {
+    return match(new Match(words, null, words.length));
+  }
+
+  /**
+   * Matches the line a tokenizer last split against the rules, skipping its first token which
+   * names the command. The match is only valid until the tokenizer is given another line.
+   *
+   * @param tokens the tokenizer holding the line
+   * @return the match, which has an error if the line fits no rule
+   */
+  public Match match(CommandTokenizer tokens) {
+    return match(new Match(null, tokens, tokens.count()));
+  }
+
+  private Match match(Match match) {
+    if (match.count < minimumWords) {
+      return match.fail(usage);
+    }
+    Node node = root;
+    String error = null;
+    for (int i = 1; i < match.count && !node.rest; i++) {
+      if (node.error != null) {
+        error = node.error;
+      }
+      Node next = null;
+      for (int k = 0; k < node.keywords.length && next == null; k++) {
+        if (match.isKeyword(i, node.keywords[k])) {
+          next = node.keywordNodes[k];
+        }
+      }
+      if (next == null && node.slotNext != null) {
+        Object value = node.slotType.parse(match.word(i));
+        if (value == null) {
+          return match.fail(node.slotType.error);
+        }
+        match.names[match.size] = node.slotName;
+        match.values[match.size++] = value;
+        next = node.slotNext;
+      }
+      if (next == null) {
+        return match.fail(error == null ? usage
+            : error.contains("%s") ? error.replace("%s", match.word(i)) : error);
+      }
+      node = next;
+    }
+    if (node.action == null) {
+      // the line ended before any rule did
+      return match.fail(usage);
+    }
+    match.action = node.action;
+    return match;
+  }
+}
@@ -1,18 +1,15 @@
 package controller.commands;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-
+import controller.CommandTokenizer;
 import view.CalendarView;
 
 /**
- * Represents an abstract class that parses through a possible Local Date Time.
+ * Represents an abstract class for commands whose forms are described by a
+ * {@link CommandGrammar}, which matches the user's input line against them and reports what is
+ * wrong with it to the view.
  */
 public abstract class CommandParsing implements CalendarControllerCommands {
   protected final CalendarView view;
-  private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
 
   /**
    * The constructor for any ACommand class.
@@ -23,29 +20,50 @@ public abstract class CommandParsing implements CalendarControllerCommands {
     this.view = view;
   }
 
-  // Tries to convert a String into a LocalDateTime if it fails it sends an error to the view and
-  // returns null
-  protected LocalDateTime tryToGetLocalDateTime(String input) {
-    LocalDateTime dateTime;
-    try {
-      dateTime = LocalDateTime.parse(input, formatter);
-    } catch (DateTimeParseException e) {
-      view.displayError("Invalid date time format! Should be: yyyy-MM-ddTHH:mm");
-      return null;
-    }
-    return dateTime;
+  /**
+   * Gets the grammar of the command, compiled once when the command is made.
+   *
+   * @return the grammar
+   */
+  protected abstract CommandGrammar grammar();
+
+  /**
+   * Completes the command by matching the input line against the grammar and running the action
+   * of the rule it matches, or sending the error to the view if it matches none.
+   *
+   * @param inputTokens the users input line.
+   */
+  @Override
+  public void execute(String[] inputTokens) {
+    run(grammar().match(inputTokens));
   }
 
-  // Tries to convert a String into a LocalDate if it fails it sends an error to the view and
-  // returns null
-  protected LocalDate tryToGetLocalDate(String input) {
-    LocalDate date;
-    try {
-      date = LocalDate.parse(input);
-    } catch (DateTimeParseException e) {
-      view.displayError("Invalid date format! Should be: yyyy-MM-dd");
-      return null;
+  /**
+   * Completes the command by matching the line straight from the tokenizer, so that only the
+   * words the rule's slots take are made into Strings.
+   *
+   * @param tokens the tokenizer holding the users input line.
+   */
+  @Override
+  public void execute(CommandTokenizer tokens) {
+    run(grammar().match(tokens));
+  }
+
+  // Runs the matched rule or reports why the line matched none
+  private void run(CommandGrammar.Match match) {
+    if (match.getError() != null) {
+      reportError(match.getError());
+    } else {
+      match.run();
     }
-    return date;
+  }
+
+  /**
+   * Sends the error for a line that matches no rule of the grammar to the view.
+   *
+   * @param error what is wrong with the line
+   */
+  protected void reportError(String error) {
+    view.displayError(error);
   }
 }
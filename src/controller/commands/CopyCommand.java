@@ -1,8 +1,5 @@
 package controller.commands;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-
 import model.exceptions.InvalidCalendar;
 import model.exceptions.InvalidEvent;
 import model.exceptions.NoCalendar;
@@ -13,7 +10,12 @@ import view.CalendarView;
  * Represents the copying of an event or events.
  */
 public class CopyCommand extends CommandParsing {
+  private static final String EVENT = "event <subject> on <start:datetime>";
+  private static final String ON = "events on <date:date>";
+  private static final String BETWEEN = "events between <start:date> and <end:date>";
+
   final private MultipleCalendarModel model;
+  private final CommandGrammar grammar;
 
   /**
    * The constructor for CopyCommand class.
@@ -24,123 +26,84 @@ public class CopyCommand extends CommandParsing {
   public CopyCommand(MultipleCalendarModel model, CalendarView view) {
     super(view);
     this.model = model;
+    this.grammar = CommandGrammar.builder("Invalid copy command.")
+        .minimumWords(7)
+        .rule(EVENT + " --target <calendar> to <newStart:datetime>", this::copyEvent)
+        .rule(ON + " --target <calendar> to <newDate:date>", this::copyEventsOn)
+        .rule(BETWEEN + " --target <calendar> to <newStart:date>", this::copyEventsBetween)
+        .error("", "Please specify if you are copying an event or events.")
+        .error("event <subject>", "Please state the date the event is on.")
+        .error(EVENT, "Please specify a target calendar to copy the events of.")
+        .error(EVENT + " --target <calendar>",
+            "Please close the range of events that are to be copied.")
+        .error("events", "Please state the date the event is on.")
+        .error(ON, "Please specify a target calendar.")
+        .error(ON + " --target <calendar>",
+            "Please say what date you would like to stop copying events")
+        .error("events between <start:date>", "Please specify when the date range ends.")
+        .error(BETWEEN, "Please specify a target calendar.")
+        .error(BETWEEN + " --target <calendar>",
+            "Please specify to when the range will be moved to.")
+        .build();
   }
 
-  /**
-   * Completes the copying of an event/events.
-   *
-   * @param inputTokens the users input line.
-   */
   @Override
-  public void execute(String[] inputTokens) {
-    //checks if it was a valid copy command
-    if (inputTokens.length < 7) {
-      view.displayError("Invalid copy command.");
-      return;
-    }
+  protected CommandGrammar grammar() {
+    return grammar;
+  }
 
+  // Checks there is a calendar to copy from, if not it sends an error to the view
+  private boolean hasCurrentCalendar() {
     if (model.getCurrentCalendar() == null) {
       view.displayError("You must have an active calendar to copy");
-    } else {
-      //for a single event
-      if (inputTokens[1].equals("event")) {
-        String eventName = inputTokens[2];
+      return false;
+    }
+    return true;
+  }
 
-        if (inputTokens[3].equals("on")) {
-          LocalDateTime start = tryToGetLocalDateTime(inputTokens[4]);
-          if (start == null) {
-            return;
-          }
-          if (inputTokens[5].equals("--target")) {
-            String calendarName = inputTokens[6];
-            if (inputTokens[7].equals("to")) {
-              LocalDateTime end = tryToGetLocalDateTime(inputTokens[8]);
-              if (end == null) {
-                return;
-              }
-              try {
-                model.copyEvent(eventName, start, calendarName, end);
-                view.displayMessage("Event copied.");
-              } catch (InvalidCalendar e) {
-                view.displayError(e.getMessage());
-              } catch (InvalidEvent e) {
-                view.displayError(e.getMessage());
-              } catch (NoCalendar e) {
-                view.displayError(e.getMessage());
-              }
-            } else {
-              view.displayError("Please close the range of events that " +
-                  "are to be copied.");
-            }
-          } else {
-            view.displayError("Please specify a target calendar to " +
-                "copy the events of.");
-          }
-        } else {
-          view.displayError("Please state the date the event is on.");
-        }
-      } else if (inputTokens[1].equals("events")) {
-        if (inputTokens[2].equals("on")) {
-          LocalDate start = tryToGetLocalDate(inputTokens[3]);
-          if (start == null) {
-            return;
-          }
-          if (inputTokens[4].equals("--target")) {
-            String calendarName = inputTokens[5];
-            if (inputTokens[6].equals("to")) {
-              LocalDate end = tryToGetLocalDate(inputTokens[7]);
-              if (end == null) {
-                return;
-              }
-              try {
-                model.copyEvents(start, calendarName, end);
-                view.displayMessage("Events copied.");
-              } catch (InvalidCalendar e) {
-                view.displayError(e.getMessage());
-              } catch (NoCalendar e) {
-                view.displayError(e.getMessage());
-              }
-            } else {
-              view.displayError("Please say what date you would like to stop copying events");
-            }
-          } else {
-            view.displayError("Please specify a target calendar.");
-          }
-        } else if (inputTokens[2].equals("between")) {
-          LocalDate start = tryToGetLocalDate(inputTokens[3]);
-          if (inputTokens[4].equals("and")) {
-            LocalDate end = tryToGetLocalDate(inputTokens[5]);
-            if (inputTokens[6].equals("--target")) {
-              String calendarName = inputTokens[7];
-              if (inputTokens[8].equals("to")) {
-                LocalDate newStart = tryToGetLocalDate(inputTokens[9]);
-                if (start == null || end == null) {
-                  return;
-                }
-                try {
-                  model.copyEvents(start, end, calendarName, newStart);
-                  view.displayMessage("Events copied.");
-                } catch (InvalidCalendar e) {
-                  view.displayError(e.getMessage());
-                } catch (NoCalendar e) {
-                  view.displayError(e.getMessage());
-                }
-              } else {
-                view.displayError("Please specify to when the range will be moved to.");
-              }
-            } else {
-              view.displayError("Please specify a target calendar.");
-            }
-          } else {
-            view.displayError("Please specify when the date range ends.");
-          }
-        } else {
-          view.displayError("Please state the date the event is on.");
-        }
-      } else {
-        view.displayError("Please specify if you are copying an event or events.");
-      }
+  private void copyEvent(CommandGrammar.Match match) {
+    if (!hasCurrentCalendar()) {
+      return;
     }
+    try {
+      model.copyEvent(match.text("subject"), match.dateTime("start"), match.text("calendar"),
+          match.dateTime("newStart"));
+      view.displayMessage("Event copied.");
+    } catch (InvalidCalendar e) {
+      view.displayError(e.getMessage());
+    } catch (InvalidEvent e) {
+      view.displayError(e.getMessage());
+    } catch (NoCalendar e) {
+      view.displayError(e.getMessage());
+    }
+  }
+
+  private void copyEventsOn(CommandGrammar.Match match) {
+    if (!hasCurrentCalendar()) {
+      return;
+    }
+    try {
+      model.copyEvents(match.date("date"), match.text("calendar"), match.date("newDate"));
+      view.displayMessage("Events copied.");
+    } catch (InvalidCalendar e) {
+      view.displayError(e.getMessage());
+    } catch (NoCalendar e) {
+      view.displayError(e.getMessage());
+    }
+  }
 
+  private void copyEventsBetween(CommandGrammar.Match match) {
+    if (!hasCurrentCalendar()) {
+      return;
+    }
+    try {
+      model.copyEvents(match.date("start"), match.date("end"), match.text("calendar"),
+          match.date("newStart"));
+      view.displayMessage("Events copied.");
+    } catch (InvalidCalendar e) {
+      view.displayError(e.getMessage());
+    } catch (NoCalendar e) {
+      view.displayError(e.getMessage());
+    }
   }
 }
@@ -8,10 +8,10 @@ import view.CalendarView;
 /**
  * Represents the creation of a new calendar.
  */
-public class CreateCalendarCommand implements CalendarControllerCommands {
+public class CreateCalendarCommand extends CommandParsing {
   protected final MultipleCalendarModel model;
-  protected final CalendarView view;
   CreateCommand createCommand;
+  private final CommandGrammar grammar;
 
 
   /**
@@ -21,47 +21,38 @@ public class CreateCalendarCommand implements CalendarControllerCommands {
    * @param view  the view that was passed into the controller.
    */
   public CreateCalendarCommand(MultipleCalendarModel model, CalendarView view) {
+    super(view);
     this.model = model;
-    this.view = view;
     this.createCommand = new CreateCommand(model, view);
+    this.grammar = CommandGrammar.builder("Invalid create command.")
+        .rule("calendar --name <name> --timezone <timezone>", this::createCalendar)
+        .rule("event ...", this::createEvent)
+        .error("calendar --name <name>", "Invalid time zone.")
+        .build();
   }
 
-  /**
-   * Completes the creation of a calendar.
-   * @param inputTokens the users input line.
-   */
   @Override
-  public void execute(String[] inputTokens) {
-    if (inputTokens.length > 4 && (inputTokens[1].equals("event") ||
-        inputTokens[1].equals("events"))) {
-      if (model.getCurrentCalendar() == null) {
-        view.displayError("No calendar selected. Use the 'use' command first.");
-      } else {
-        createCommand.execute(inputTokens);
-        return;
-      }
-    }
+  protected CommandGrammar grammar() {
+    return grammar;
+  }
 
-    if (inputTokens.length < 6 ||
-        !inputTokens[1].equals("calendar") || (!inputTokens[2].equals("--name"))) {
-      view.displayError("Invalid create command.");
-      return;
+  // Hands the creation of an event to the calendar being used
+  private void createEvent(CommandGrammar.Match match) {
+    if (model.getCurrentCalendar() == null) {
+      view.displayError("No calendar selected. Use the 'use' command first.");
+    } else {
+      match.handTo(createCommand);
     }
+  }
 
-    if (inputTokens[1].equals("calendar")) {
-      String calendarName = inputTokens[3];
-      if (inputTokens[4].equals("--timezone")) {
-        try {
-          this.model.create(calendarName, inputTokens[5]);
-          view.displayMessage("Calendar created successfully.");
-        } catch (InvalidProperty e) {
-          view.displayError(e.getMessage());
-        } catch (InvalidTimeZoneFormat e) {
-          view.displayError(e.getMessage());
-        }
-      } else {
-        view.displayError("Invalid time zone.");
-      }
+  private void createCalendar(CommandGrammar.Match match) {
+    try {
+      this.model.create(match.text("name"), match.text("timezone"));
+      view.displayMessage("Calendar created successfully.");
+    } catch (InvalidProperty e) {
+      view.displayError(e.getMessage());
+    } catch (InvalidTimeZoneFormat e) {
+      view.displayError(e.getMessage());
     }
   }
 }
@@ -10,6 +10,11 @@ import view.CalendarView;
  * Represents the creation of a new event.
  */
 public class CreateCommand extends ACommand {
+  private static final String TIMED = "event <subject> from <start:datetime> to <end:datetime>";
+  private static final String ALL_DAY = "event <subject> on <date:date>";
+  private static final String REPEATS = " repeats <weekdays:weekdays>";
+
+  private final CommandGrammar grammar;
 
   /**
    * The public constructor of the CreateCommand class.
@@ -18,97 +23,54 @@ public class CreateCommand extends ACommand {
    */
   public CreateCommand(CalendarModel model, CalendarView view) {
     super(model, view);
-  }
-
-  /**
-   * Completes the create command.
-   * @param inputTokens the users input line.
-   */
-  public void execute(String[] inputTokens) {
-
-    if (inputTokens.length < 4 || !inputTokens[1].equals("event")) {
-      view.displayError("Invalid create command.");
-      return;
+    CommandGrammar.Builder builder = CommandGrammar.builder("Invalid create command.")
+        .error("event <subject>", "Please say when the event is, either "
+            + "'from <dateTime> to <dateTime>' or 'on <date>'.")
+        .error("event <subject> from <start:datetime>", "Please say when the event ends with "
+            + "'to <dateTime>'.");
+    for (String when : new String[]{TIMED, ALL_DAY}) {
+      builder.rule(when, this::create)
+          .rule(when + REPEATS + " for <count:count>", this::create)
+          .rule(when + REPEATS + " for <count:count> times", this::create)
+          .rule(when + REPEATS + " until <until:date>", this::create)
+          .error(when, "Only 'repeats <weekdays>' can follow when the event is.")
+          .error(when + REPEATS, "Please say how long the event repeats, either "
+              + "'for <count> times' or 'until <date>'.");
     }
+    this.grammar = builder.build();
+  }
 
-    String subject = inputTokens[2];
-    if (inputTokens[3].equals("from")) {
-      LocalDateTime start = tryToGetLocalDateTime(inputTokens[4]);
-      LocalDateTime end = tryToGetLocalDateTime(inputTokens[6]);
-      if (start == null || end == null) {
-        return;
-      }
-
-      if (inputTokens.length == 7) {
-        if (model.addSingleEvent(subject, start, end)) {
-          view.displayMessage("Event created.");
-        } else {
-          view.displayError("Event already exists.");
-        }
-      } else if (inputTokens[7].equals("repeats")) {
-        String weekdays = inputTokens[8];
-
-        if (inputTokens[9].equals("for")) {
-          int count = Integer.parseInt(inputTokens[10]);
-          if (model.addRepeatingEvent(subject, start, end, weekdays, count)) {
-            view.displayMessage("Repeating event created.");
-          } else {
-            view.displayError("Repeating event already exists.");
-          }
-        } else if (inputTokens[9].equals("until")) {
-          LocalDate endDate = LocalDate.parse(inputTokens[10]);
-          if (model.addRepeatingEvent(subject, start, end, weekdays, endDate)) {
-            view.displayMessage("Repeating event created.");
-          } else {
-            view.displayError("Repeating event already exists.");
-          }
-        }
-      }
+  @Override
+  protected CommandGrammar grammar() {
+    return grammar;
+  }
 
-    } else if (inputTokens[3].equals("on")) {
-      LocalDate date = tryToGetLocalDate(inputTokens[4]);
-      if (date == null) {
-        return;
-      }
-      LocalDateTime start = date.atTime(8, 0);
-      LocalDateTime end = date.atTime(17, 0);
+  // Creates the single, all day, or repeating event the line describes
+  private void create(CommandGrammar.Match match) {
+    String subject = match.text("subject");
+    boolean allDay = match.has("date");
+    LocalDateTime start = allDay ? match.date("date").atTime(8, 0) : match.dateTime("start");
+    LocalDateTime end = allDay ? match.date("date").atTime(17, 0) : match.dateTime("end");
 
-      if (inputTokens.length == 5) {
-        if (model.addSingleEvent(subject, start, end)) {
-          view.displayMessage("All day event created.");
-        } else {
-          view.displayError("All day event already exists.");
-        }
-      } else if (inputTokens[5].equals("repeats")) {
-        String weekdays = inputTokens[6];
+    boolean created;
+    String kind;
+    if (match.has("count")) {
+      created = model.addRepeatingEvent(subject, start, end, match.text("weekdays"),
+          match.number("count"));
+      kind = allDay ? "All day repeating event" : "Repeating event";
+    } else if (match.has("until")) {
+      LocalDate until = match.date("until");
+      created = model.addRepeatingEvent(subject, start, end, match.text("weekdays"), until);
+      kind = allDay ? "All day repeating event" : "Repeating event";
+    } else {
+      created = model.addSingleEvent(subject, start, end);
+      kind = allDay ? "All day event" : "Event";
+    }
 
-        if (inputTokens[7].equals("for")) {
-          int count;
-          try {
-            count = Integer.parseInt(inputTokens[8]);
-          } catch (NumberFormatException e) {
-            view.displayError("Cound not convert number of times to repeat into an integer.");
-            return;
-          }
-          if (model.addRepeatingEvent(subject, start, end, weekdays, count)) {
-            view.displayMessage("All day repeating event created.");
-          } else {
-            view.displayError("All day repeating event already exists.");
-          }
-        } else if (inputTokens[7].equals("until")) {
-          LocalDate endDate = tryToGetLocalDate(inputTokens[8]);
-          if (endDate == null) {
-            return;
-          }
-          if (model.addRepeatingEvent(subject, start, end, weekdays, endDate)) {
-            view.displayMessage("All day repeating event created.");
-          } else {
-            view.displayError("All day repeating event already exists.");
-          }
-        }
-      }
+    if (created) {
+      view.displayMessage(kind + " created.");
     } else {
-      view.displayError("Invalid create command.");
+      view.displayError(kind + " already exists.");
     }
   }
 }
@@ -8,10 +8,10 @@ import view.CalendarView;
 /**
  * Represents the editing of an existing calendar.
  */
-public class EditCalendarCommand implements CalendarControllerCommands {
+public class EditCalendarCommand extends CommandParsing {
   private final MultipleCalendarModel model;
-  private final CalendarView view;
   private EditCommand editCommand;
+  private final CommandGrammar grammar;
 
   /**
    * The public constructor of the EditCalendarCommand class.
@@ -20,57 +20,44 @@ public class EditCalendarCommand implements CalendarControllerCommands {
    * @param view  the view that was passed into the controller.
    */
   public EditCalendarCommand(MultipleCalendarModel model, CalendarView view) {
+    super(view);
     this.model = model;
-    this.view = view;
     this.editCommand = new EditCommand(model, view);
+    this.grammar = CommandGrammar.builder("Wrong number of arguments!")
+        .rule("calendar --name <name> --property <property> <value>", this::editCalendar)
+        .rule("event ...", this::editEvent)
+        .rule("events ...", this::editEvent)
+        .rule("series ...", this::editEvent)
+        .rule("id ...", this::editEvent)
+        .error("", "If you are editing a calendar, please start with 'edit calendar'")
+        .error("calendar", "You must specify a calendar name.")
+        .error("calendar --name <name>", "Please add a property and a property name!")
+        .build();
   }
 
-  /**
-   * Allows a user to edit either a calendars name or timezone.
-   * @param inputTokens the users input line.
-   */
   @Override
-  public void execute(String[] inputTokens) {
-
-    if (inputTokens.length < 7) {
-      view.displayError("Wrong number of arguments!");
-      return;
-    }
+  protected CommandGrammar grammar() {
+    return grammar;
+  }
 
-    if (inputTokens[1].equals("event") || inputTokens[1].equals("events") ||
-        inputTokens[1].equals("series")) {
-      if (model.getCurrentCalendar() == null) {
-        view.displayError("No calendar selected. Use the 'use' command first.");
-        return;
-      } else {
-        this.editCommand.execute(inputTokens);
-        return;
-      }
+  // Hands the editing of events to the calendar being used
+  private void editEvent(CommandGrammar.Match match) {
+    if (model.getCurrentCalendar() == null) {
+      view.displayError("No calendar selected. Use the 'use' command first.");
+    } else {
+      match.handTo(this.editCommand);
     }
+  }
 
-    if ((inputTokens.length < 7) || (!inputTokens[1].equals("calendar"))) {
-      view.displayError("If you are editing a calendar, please start with 'edit calendar'");
-    } else if (inputTokens[1].equals("calendar")) {
-      if (inputTokens[2].equals("--name")) {
-        String calendarName = inputTokens[3];
-        if (inputTokens[4].equals("--property")) {
-          String propertyName = inputTokens[5];
-          String propertyValue = inputTokens[6];
-          try {
-            model.edit(calendarName, propertyName, propertyValue);
-            view.displayMessage("Edited calendar successfully!");
-          } catch (InvalidProperty e) {
-            view.displayError(e.getMessage());
-          } catch (InvalidCalendar e) {
-            view.displayError(e.getMessage());
-          }
-        } else {
-          view.displayError("Please add a property and a property name!");
-        }
-      } else {
-        view.displayError("You must specify a calendar name.");
-      }
+  // Allows a user to edit either a calendars name or timezone
+  private void editCalendar(CommandGrammar.Match match) {
+    try {
+      model.edit(match.text("name"), match.text("property"), match.text("value"));
+      view.displayMessage("Edited calendar successfully!");
+    } catch (InvalidProperty e) {
+      view.displayError(e.getMessage());
+    } catch (InvalidCalendar e) {
+      view.displayError(e.getMessage());
     }
-
   }
 }
@@ -1,7 +1,5 @@
 package controller.commands;
 
-import java.time.LocalDateTime;
-
 import model.CalendarModel;
 import view.CalendarView;
 
@@ -9,6 +7,11 @@ import view.CalendarView;
  * Represents the editing of an existing event.
  */
 public class EditCommand extends ACommand {
+  private static final String EVENT_FORMAT = "Invalid format edit command.  Please give a subject,"
+      + "start date and time, and an end date and time.";
+
+  private final CommandGrammar grammar;
+
   /**
    * The public constructor of the EditCommand class.
    * @param model the model that was passed into the controller.
@@ -16,94 +19,79 @@ public class EditCommand extends ACommand {
    */
   public EditCommand(CalendarModel model, CalendarView view) {
     super(model, view);
+    this.grammar = CommandGrammar.builder("Invalid edit command.")
+        .rule("event <property> <subject> from <start:datetime> to <end:datetime> with <value>",
+            this::editEvent)
+        .rule("events <property> <subject> from <start:datetime> with <value>",
+            this::editEvents)
+        .rule("series <property> <subject> from <start:datetime> with <value>",
+            this::editSeries)
+        .rule("id <property> <id:id> with <value>", this::editById)
+        .error("", "Unknown edit command: %s")
+        .error("event", EVENT_FORMAT)
+        .error("events", "Invalid format edit command.  Please give a subject, "
+            + "start date and time, and an end date and time.")
+        .error("series", "Invalid format edit command.  Please add a property, "
+            + "subject, start date and time, and the property you would like to edit. ")
+        .error("id", "Invalid format edit command.  Please give a property, the event id, "
+            + "and the new value.")
+        .build();
   }
 
-  /**
-   * Completes the edit command.
-   * @param inputTokens the users input line.
-   */
   @Override
-  public void execute(String[] inputTokens) {
+  protected CommandGrammar grammar() {
+    return grammar;
+  }
 
-    if (inputTokens.length < 7) {
-      view.displayError("Invalid edit command.");
-      return;
+  @Override
+  protected void reportError(String error) {
+    // the single event form has always reported its format as a message
+    if (error.equals(EVENT_FORMAT)) {
+      view.displayMessage(error);
+    } else {
+      view.displayError(error);
     }
+  }
 
-    String eventType = inputTokens[1].toLowerCase();
-    String property = inputTokens[2].toLowerCase();
-    String subject = inputTokens[3];
-
-    switch (eventType) {
-      case "event": {
-        if (!inputTokens[4].equals("from") || !inputTokens[6].equals("to") ||
-            (!inputTokens[8].equals("with"))) {
-          view.displayMessage("Invalid format edit command.  Please give a subject," +
-              "start date and time, and an end date and time.");
-          return;
-        }
-        LocalDateTime start = tryToGetLocalDateTime(inputTokens[5]);
-        LocalDateTime end = tryToGetLocalDateTime(inputTokens[7]);
-        if (start == null || end == null) {
-          return;
-        }
-
-        String newProperty = inputTokens[9];
-
-        if (model.editSingleEvent(subject, start, end, property, newProperty)) {
-          view.displayMessage("Single event edited.");
-        } else {
-          view.displayMessage("Event not found.");
-        }
-
-        break;
-      }
-      case "events": {
-        if (!inputTokens[4].equals("from") || !inputTokens[6].equals("with")) {
-          view.displayError("Invalid format edit command.  Please give a subject, " +
-              "start date and time, and an end date and time.");
-          return;
-        }
-
-        LocalDateTime start = tryToGetLocalDateTime(inputTokens[5]);
-        if (start == null) {
-          return;
-        }
-        String newProperty = inputTokens[7];
-
-        if (model.editFutureSeriesEvents(subject, start, property, newProperty)) {
-          view.displayMessage("Future series edited.");
-        } else {
-          view.displayMessage("Event not found or causes overlap.");
-        }
-
-        break;
-      }
-      case "series": {
-        if (!inputTokens[4].equals("from") || !inputTokens[6].equals("with")) {
-          view.displayError("Invalid format edit command.  Please add a property, " +
-              "subject, start date and time, and the property you would like to edit. ");
-        }
-        LocalDateTime start = tryToGetLocalDateTime(inputTokens[5]);
-        if (start == null) {
-          return;
-        }
-        String newProperty = inputTokens[7];
+  private void editEvent(CommandGrammar.Match match) {
+    if (model.editSingleEvent(match.text("subject"), match.dateTime("start"),
+        match.dateTime("end"), property(match), match.text("value"))) {
+      view.displayMessage("Single event edited.");
+    } else {
+      view.displayMessage("Event not found.");
+    }
+  }
 
-        if (model.editEntireSeries(subject, start, property, newProperty)) {
-          view.displayMessage("Entire series edited.");
-        } else {
-          view.displayMessage("Event not found.");
-        }
+  private void editEvents(CommandGrammar.Match match) {
+    if (model.editFutureSeriesEvents(match.text("subject"), match.dateTime("start"),
+        property(match), match.text("value"))) {
+      view.displayMessage("Future series edited.");
+    } else {
+      view.displayMessage("Event not found or causes overlap.");
+    }
+  }
 
-        break;
-      }
-      default:
-        view.displayError("Unknown edit command: " + eventType);
+  private void editSeries(CommandGrammar.Match match) {
+    if (model.editEntireSeries(match.text("subject"), match.dateTime("start"),
+        property(match), match.text("value"))) {
+      view.displayMessage("Entire series edited.");
+    } else {
+      view.displayMessage("Event not found.");
     }
   }
 
+  // Completes "edit id <property> <id> with <newValue>", which edits a single event or a whole
+  // series
+  private void editById(CommandGrammar.Match match) {
+    long id = match.id("id");
+    if (model.editById(id, property(match), match.text("value"))) {
+      view.displayMessage("Event " + id + " edited.");
+    } else {
+      view.displayMessage("Event not found or causes overlap.");
+    }
+  }
 
+  private static String property(CommandGrammar.Match match) {
+    return match.text("property").toLowerCase();
+  }
 }
-
-
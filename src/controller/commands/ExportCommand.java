@@ -0,0 +1,211 @@
+package controller.commands;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import model.ModifiableCalendar;
+import model.MultipleCalendarModel;
+import view.CalendarView;
+
+/**
+ * Represents exporting calendars to files. "export calendar --name X --format csv --file path"
+ * writes one calendar, "export calendars --format csv --dir path" writes every calendar (or only
+ * the ones named with --name) to its own file in the directory, each on its own thread. The
+ * format is csv for one row per occurrence in start time order or ics for an iCalendar document.
+ */
+public class ExportCommand implements CalendarControllerCommands {
+  private final MultipleCalendarModel model;
+  private final CalendarView view;
+
+  /**
+   * The constructor for the ExportCommand class.
+   *
+   * @param model the model that was passed into the controller.
+   * @param view  the view that was passed into the controller.
+   */
+  public ExportCommand(MultipleCalendarModel model, CalendarView view) {
+    this.model = model;
+    this.view = view;
+  }
+
+  /**
+   * Completes the export command.
+   *
+   * @param inputTokens the users input line.
+   */
+  @Override
+  public void execute(String[] inputTokens) {
+    if (inputTokens.length < 2 || inputTokens.length % 2 != 0) {
+      view.displayError("Invalid export command.");
+      return;
+    }
+    List<String> names = new ArrayList<>();
+    String format = null;
+    String destination = null;
+    boolean many = inputTokens[1].equals("calendars");
+    String destinationFlag = many ? "--dir" : "--file";
+    for (int i = 2; i < inputTokens.length; i += 2) {
+      if (inputTokens[i].equals("--name")) {
+        names.add(inputTokens[i + 1]);
+      } else if (inputTokens[i].equals("--format")) {
+        format = inputTokens[i + 1].toLowerCase();
+      } else if (inputTokens[i].equals(destinationFlag)) {
+        destination = inputTokens[i + 1];
+      } else {
+        view.displayError("Invalid export command.");
+        return;
+      }
+    }
+
+    if (!many && !inputTokens[1].equals("calendar")) {
+      view.displayError("Invalid export command.");
+    } else if (!many && names.size() != 1) {
+      view.displayError("Please specify the name");
+    } else if (format == null || !(format.equals("csv") || format.equals("ics"))) {
+      view.displayError("Please specify the format as csv or ics");
+    } else if (destination == null) {
+      view.displayError("Please specify the " + destinationFlag.substring(2));
+    } else {
+      List<ModifiableCalendar> calendars = findCalendars(names);
+      if (calendars == null) {
+        return;
+      }
+      Path path = tryToGetPath(destination);
+      if (path == null) {
+        return;
+      }
+      if (many) {
+        exportAll(calendars, format, path);
+      } else {
+        try {
+          export(calendars.get(0), format, path);
+          view.displayMessage("Exported " + calendars.get(0).getName() + " to " + path);
+        } catch (IOException e) {
+          view.displayError("Could not export " + calendars.get(0).getName() + ": "
+              + e.getMessage());
+        }
+      }
+    }
+  }
+
+  // Finds the calendars with the given names or all of them if there are no names, if one can't
+  // be found it sends an error to the view and returns null
+  private List<ModifiableCalendar> findCalendars(List<String> names) {
+    List<ModifiableCalendar> calendars = model.getCalendars();
+    if (names.isEmpty()) {
+      return calendars;
+    }
+    List<ModifiableCalendar> found = new ArrayList<>();
+    for (String name : names) {
+      ModifiableCalendar match = null;
+      for (ModifiableCalendar calendar : calendars) {
+        if (calendar.getName().equals(name)) {
+          match = calendar;
+        }
+      }
+      if (match == null) {
+        view.displayError("Could not find calendar " + name);
+        return null;
+      }
+      found.add(match);
+    }
+    return found;
+  }
+
+  // Tries to convert a String into a Path if it fails it sends an error to the view and returns
+  // null
+  private Path tryToGetPath(String input) {
+    try {
+      return Paths.get(input);
+    } catch (InvalidPathException e) {
+      view.displayError("Invalid path: " + input);
+      return null;
+    }
+  }
+
+  // Writes each calendar to its own file in the directory, one writer per calendar running in
+  // parallel, then reports how each of them went in the order they were given
+  private void exportAll(List<ModifiableCalendar> calendars, String format, Path directory) {
+    if (calendars.isEmpty()) {
+      view.displayMessage("No calendars to export");
+      return;
+    }
+    int threads = Math.min(calendars.size(), Runtime.getRuntime().availableProcessors());
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Path>> results = new ArrayList<>();
+      for (ModifiableCalendar calendar : calendars) {
+        Path path = fileIn(directory, calendar.getName(), format);
+        results.add(path == null ? null : pool.submit(() -> {
+          export(calendar, format, path);
+          return path;
+        }));
+      }
+      for (int i = 0; i < calendars.size(); i++) {
+        String name = calendars.get(i).getName();
+        if (results.get(i) == null) {
+          view.displayError("Could not export " + name
+              + ": a calendar name used as a file name cannot contain a path separator");
+          continue;
+        }
+        try {
+          view.displayMessage("Exported " + name + " to " + results.get(i).get());
+        } catch (ExecutionException e) {
+          view.displayError("Could not export " + name + ": " + e.getCause().getMessage());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      view.displayError("Export was interrupted");
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  // The file for the calendar in the directory, or null if the calendar's name would put it
+  // anywhere else
+  private static Path fileIn(Path directory, String name, String format) {
+    if (name.indexOf('/') >= 0 || name.indexOf('\\') >= 0
+        || name.indexOf(File.separatorChar) >= 0) {
+      return null;
+    }
+    Path path;
+    try {
+      path = directory.resolve(name + "." + format);
+    } catch (InvalidPathException e) {
+      return null;
+    }
+    Path inside = directory.toAbsolutePath().normalize();
+    Path file = path.toAbsolutePath().normalize();
+    return file.startsWith(inside) && !file.equals(inside) ? path : null;
+  }
+
+  // Writes one calendar to the file through a channel, replacing whatever the file held
+  private static void export(ModifiableCalendar calendar, String format, Path path)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      if (format.equals("csv")) {
+        calendar.exportCsv(channel);
+      } else {
+        Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+        calendar.exportICalendar(out);
+      }
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package controller.commands;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import model.exceptions.InvalidCalendar;
+import model.ImportResult;
+import model.MultipleCalendarModel;
+import view.CalendarView;
+
+/**
+ * Represents importing an iCalendar file into a calendar. "import calendar --name X --file path"
+ * reads the events of the file into the calendar named X, leaving out the ones it already has,
+ * and reports how many were added and how many could not be read.
+ */
+public class ImportCommand extends CommandParsing {
+  private final MultipleCalendarModel model;
+  private final CommandGrammar grammar;
+
+  /**
+   * The constructor for the ImportCommand class.
+   *
+   * @param model the model that was passed into the controller.
+   * @param view  the view that was passed into the controller.
+   */
+  public ImportCommand(MultipleCalendarModel model, CalendarView view) {
+    super(view);
+    this.model = model;
+    this.grammar = CommandGrammar.builder("Invalid import command.")
+        .rule("calendar --name <name> --file <file>", this::importCalendar)
+        .error("calendar", "Please specify the name")
+        .error("calendar --name <name>", "Please specify the file")
+        .build();
+  }
+
+  @Override
+  protected CommandGrammar grammar() {
+    return grammar;
+  }
+
+  // Reads the file into the calendar
+  private void importCalendar(CommandGrammar.Match match) {
+    String name = match.text("name");
+    String file = match.text("file");
+    Path path;
+    try {
+      path = Paths.get(file);
+    } catch (InvalidPathException e) {
+      view.displayError("Invalid path: " + file);
+      return;
+    }
+    try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      ImportResult result = model.importCalendar(name, in);
+      String message = "Imported " + events(result.getAdded()) + " into " + name + " from " + path;
+      if (result.getSkipped() > 0) {
+        message += ", skipped " + events(result.getSkipped())
+            + " that could not be read or have an unsupported rule";
+      }
+      view.displayMessage(message);
+    } catch (InvalidCalendar e) {
+      view.displayError(e.getMessage());
+    } catch (NoSuchFileException e) {
+      view.displayError("File not found: " + file);
+    } catch (IOException e) {
+      view.displayError("Could not import " + name + ": " + e.getMessage());
+    }
+  }
+
+  private static String events(int count) {
+    return count + (count == 1 ? " event" : " events");
+  }
+}
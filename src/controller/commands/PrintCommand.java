@@ -2,17 +2,23 @@ package controller.commands;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 import model.CalendarModel;
 import model.IEvent;
+import model.SeriesEvent;
 import view.CalendarView;
 
 /**
- * Represents the printing of existing events that fit the parameters given in the command.
+ * Represents the printing of existing events that fit the parameters given in the command. Events
+ * are printed one occurrence per line in start time order as the model streams them, optionally
+ * only the first few of them when a "print events" command ends with "limit N". "print id N"
+ * prints the event or every occurrence of the series with that id.
  */
 public class PrintCommand extends ACommand {
+  private final CommandGrammar grammar;
+
   /**
    * The public constructor of the PrintCommand class.
    * @param model the model that was passed into the controller.
@@ -20,51 +26,58 @@ public class PrintCommand extends ACommand {
    */
   public PrintCommand(CalendarModel model, CalendarView view) {
     super(model, view);
+    CommandGrammar.Builder builder = CommandGrammar.builder("Invalid print command format.")
+        .rule("id <id:id>", this::printId);
+    for (String limit : new String[]{"", " limit <limit:limit>"}) {
+      builder.rule("events on <date:date>" + limit, this::printOn)
+          .rule("events from <start:datetime> to <end:datetime>" + limit, this::printBetween);
+    }
+    this.grammar = builder.build();
   }
 
-  /**
-   * Completes the print command.
-   * @param inputTokens the users input line.
-   */
   @Override
-  public void execute(String[] inputTokens) {
-    if (inputTokens.length == 4 && inputTokens[1].equals("events")
-        && inputTokens[2].equals("on")) {
-      LocalDate date = tryToGetLocalDate(inputTokens[3]);
-      if (date == null) {
-        return;
-      }
-      HashSet<IEvent> events = model.queryEvent(date);
+  protected CommandGrammar grammar() {
+    return grammar;
+  }
 
-      if (events.isEmpty()) {
-        view.displayMessage("No events on " + date);
-      } else {
-        for (IEvent event : events) {
-          view.displayMessage(event.toString());
-        }
-      }
+  private void printId(CommandGrammar.Match match) {
+    long id = match.id("id");
+    IEvent event = model.queryById(id);
+    if (event == null) {
+      view.displayMessage("No event with id " + id);
+    } else if (event instanceof SeriesEvent) {
+      display(((SeriesEvent) event).getEvents().stream(), match);
+    } else {
+      view.displayMessage(event.toString());
+    }
+  }
 
-    } else if (inputTokens.length == 6 && inputTokens[1].equals("events") &&
-        inputTokens[2].equals("from") && inputTokens[4].equals("to")) {
-      LocalDateTime start = tryToGetLocalDateTime(inputTokens[3]);
-      LocalDateTime end = tryToGetLocalDateTime(inputTokens[5]);
-      if (start == null || end == null) {
-        return;
-      }
+  private void printOn(CommandGrammar.Match match) {
+    LocalDate date = match.date("date");
+    if (!display(model.streamEvents(date), match)) {
+      view.displayMessage("No events on " + date);
+    }
+  }
 
-      HashSet<IEvent> events = model.queryEvent(start, end);
+  private void printBetween(CommandGrammar.Match match) {
+    LocalDateTime start = match.dateTime("start");
+    LocalDateTime end = match.dateTime("end");
+    if (!display(model.streamEvents(start, end), match)) {
+      view.displayMessage("No events between " + start + " and " + end);
+    }
+  }
 
-      if (events.isEmpty()) {
-        view.displayMessage("No events between " + inputTokens[3] +
-            " and " + inputTokens[5]);
-      } else {
-        for (IEvent event : events) {
-          view.displayMessage(event.toString());
-        }
+  // Sends at most the line's limit of the events to the view as the model hands them out and
+  // closes the stream, returns whether there were any
+  private boolean display(Stream<IEvent> events, CommandGrammar.Match match) {
+    int limit = match.has("limit") ? match.number("limit") : Integer.MAX_VALUE;
+    try (Stream<IEvent> limited = events.limit(limit)) {
+      Iterator<IEvent> it = limited.iterator();
+      boolean any = it.hasNext();
+      while (it.hasNext()) {
+        view.displayMessage(it.next().toString());
       }
-
-    } else {
-      view.displayError("Invalid print command format.");
+      return any;
     }
   }
 }
@@ -1,7 +1,5 @@
 package controller.commands;
 
-import java.time.LocalDateTime;
-
 import model.CalendarModel;
 import view.CalendarView;
 
@@ -9,6 +7,8 @@ import view.CalendarView;
  * Represents the showing of existing events that fit the parameters given in the command.
  */
 public class ShowCommand extends ACommand {
+  private final CommandGrammar grammar;
+
   /**
    * The public constructor of the ShowCommand class.
    * @param model the model that was passed into the controller.
@@ -16,29 +16,20 @@ public class ShowCommand extends ACommand {
    */
   public ShowCommand(CalendarModel model, CalendarView view) {
     super(model, view);
+    this.grammar = CommandGrammar.builder("Invalid show command.")
+        .minimumWords(4)
+        .rule("status on <time:datetime>", this::showStatus)
+        .error("", "Invalid show command format.")
+        .build();
   }
 
-  /**
-   * Completes the show command.
-   * @param inputTokens the users input line.
-   */
   @Override
-  public void execute(String[] inputTokens) {
-    if (inputTokens.length != 4) {
-      view.displayError("Invalid show command.");
-      return;
-    }
-    else if (!(inputTokens[1].equals("status") && inputTokens[2].equals("on"))) {
-      view.displayError("Invalid show command format.");
-      return;
-    }
-
-    LocalDateTime dateTime = tryToGetLocalDateTime(inputTokens[3]);
-    if (dateTime == null) {
-      return;
-    }
+  protected CommandGrammar grammar() {
+    return grammar;
+  }
 
-    if (model.getStatus(dateTime)) {
+  private void showStatus(CommandGrammar.Match match) {
+    if (model.getStatus(match.dateTime("time"))) {
       view.displayMessage("Busy");
     } else {
       view.displayMessage("Free");
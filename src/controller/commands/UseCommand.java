@@ -7,9 +7,9 @@ import view.CalendarView;
 /**
  * Represents a user's ability to select a calendar to create events in.
  */
-public class UseCommand implements CalendarControllerCommands {
+public class UseCommand extends CommandParsing {
   private final MultipleCalendarModel model;
-  private final CalendarView view;
+  private final CommandGrammar grammar;
 
   /**
    * The constructor for UseCommand class.
@@ -18,36 +18,29 @@ public class UseCommand implements CalendarControllerCommands {
    * @param view  the view that was passed into the controller.
    */
   public UseCommand(MultipleCalendarModel model, CalendarView view) {
+    super(view);
     this.model = model;
-    this.view = view;
+    this.grammar = CommandGrammar.builder("Please ensure that you are using the correct syntax")
+        .minimumWords(3)
+        .rule("calendar --name <name>", this::use)
+        .error("", "Please enter a valid calendar name")
+        .error("calendar", "Please specify the name")
+        .build();
   }
 
-  /**
-   * Completes the use command.  Allows the user to use a certain calendar.
-   *
-   * @param inputTokens the users input line.
-   */
   @Override
-  public void execute(String[] inputTokens) {
-    if (inputTokens.length < 3) {
-      view.displayError("Please ensure that you are using the correct syntax");
-      return;
-    }
+  protected CommandGrammar grammar() {
+    return grammar;
+  }
 
-    if (inputTokens[1].equals("calendar")) {
-      if (inputTokens[2].equals("--name")) {
-        String calendarName = inputTokens[3];
-        try {
-          model.use(calendarName);
-          view.displayMessage("Successfully using " + calendarName);
-        } catch (InvalidCalendar e) {
-          view.displayError(e.getMessage());
-        }
-      } else {
-        view.displayError("Please specify the name");
-      }
-    } else {
-      view.displayError("Please enter a valid calendar name");
+  // Allows the user to use a certain calendar
+  private void use(CommandGrammar.Match match) {
+    String calendarName = match.text("name");
+    try {
+      model.use(calendarName);
+      view.displayMessage("Successfully using " + calendarName);
+    } catch (InvalidCalendar e) {
+      view.displayError(e.getMessage());
     }
   }
 }
@@ -1,11 +1,10 @@
 package main;
 
-import java.io.BufferedReader;
-import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 
 import controller.CalendarController;
 import controller.CalendarControllerImpl;
@@ -37,7 +36,11 @@ public class Main {
       case "--interactive":
         CalendarController interactiveController =
                 new CalendarControllerImpl(model, System.in, view);
-        interactiveController.runController();
+        try {
+          interactiveController.runController();
+        } catch (UncheckedIOException e) {
+          view.displayError("Could not read input: " + e.getCause().getMessage());
+        }
         break;
 
       case "--headless":
@@ -46,40 +49,19 @@ public class Main {
           return;
         }
 
-        // makes sure the file contains "exit"
-        File commandFile = new File(args[1]);
-
-        if (!commandFile.exists()) {
-          view.displayError("File not found: " + args[1]);
-          return;
-        }
-
-        boolean hasExit = false;
-        try (BufferedReader reader = new BufferedReader(new FileReader(commandFile))) {
-          String line;
-          while ((line = reader.readLine()) != null) {
-            if (line.equals("exit")) {
-              hasExit = true;
-              break;
-            }
-          }
-        } catch (IOException e) {
-          view.displayError("Could not read file: " + e.getMessage());
-          return;
-        }
-        if (!hasExit) {
-          view.displayError("File must include an 'exit' command.");
-          return;
-        }
-
-        // actually runs the controller
-        try {
-          FileInputStream fileInput = new FileInputStream(args[1]);
+        // runs the file in one pass, which must end with "exit"
+        try (InputStream fileInput = new FileInputStream(args[1])) {
           CalendarController headlessController =
                   new CalendarControllerImpl(model, fileInput, view);
-          headlessController.runController();
+          if (!headlessController.runController()) {
+            view.displayError("File must include an 'exit' command.");
+          }
         } catch (FileNotFoundException e) {
           view.displayError("File not found: " + args[1]);
+        } catch (IOException e) {
+          view.displayError("Could not read file: " + e.getMessage());
+        } catch (UncheckedIOException e) {
+          view.displayError("Could not read file: " + e.getCause().getMessage());
         }
         break;
 
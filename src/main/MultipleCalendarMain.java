@@ -1,14 +1,19 @@
 package main;
 
-import java.io.BufferedReader;
-import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import controller.CalendarController;
 import controller.MultipleCalendarController;
+import model.JournaledCalendarModel;
 import model.MultipleCalendarModel;
 import model.MultipleCalendarModelImpl;
 import view.CalendarView;
@@ -20,16 +25,49 @@ import view.CalendarViewImpl;
 public class MultipleCalendarMain {
 
   /**
-   * Runs the program in either headless or interactive mode.
+   * Runs the program in either headless or interactive mode. With "--data [directory]" the
+   * calendars are kept in that directory and are still there the next time the program is run.
    *
    * @param args the argument line that determines how the program will be run.
    */
   public static void main(String[] args) {
-    MultipleCalendarModel model = new MultipleCalendarModelImpl();
     CalendarView view = new CalendarViewImpl(System.out);
+    List<String> rest = new ArrayList<>(Arrays.asList(args));
+    int data = rest.indexOf("--data");
+    if (data < 0) {
+      run(new MultipleCalendarModelImpl(), rest.toArray(new String[0]), view);
+      return;
+    }
+    if (data + 1 >= rest.size()) {
+      view.displayError("Please enter a directory after --data");
+      return;
+    }
+    Path directory = Paths.get(rest.get(data + 1));
+    rest.subList(data, data + 2).clear();
+
+    JournaledCalendarModel model;
+    try {
+      model = new JournaledCalendarModel(directory);
+    } catch (IOException e) {
+      view.displayError("Could not open data directory: " + e.getMessage());
+      return;
+    }
+    try {
+      run(model, rest.toArray(new String[0]), view);
+    } finally {
+      try {
+        model.close();
+      } catch (IOException e) {
+        view.displayError("Could not save calendars: " + e.getMessage());
+      }
+    }
+  }
 
+  // Runs the mode the arguments ask for on the given model
+  private static void run(MultipleCalendarModel model, String[] args, CalendarView view) {
     if (args.length < 1) {
-      view.displayError("Please enter a mode: --interactive or --headless [filename]");
+      view.displayError("Please enter a mode: --interactive or --headless [filename], "
+          + "optionally followed by --data [directory]");
       return;
     }
     String mode = args[0].toLowerCase();
@@ -38,7 +76,11 @@ public class MultipleCalendarMain {
       case "--interactive":
         CalendarController interactiveController =
             new MultipleCalendarController(model, System.in, view);
-        interactiveController.runController();
+        try {
+          interactiveController.runController();
+        } catch (UncheckedIOException e) {
+          view.displayError("Could not read input: " + e.getCause().getMessage());
+        }
         break;
 
       case "--headless":
@@ -47,40 +89,19 @@ public class MultipleCalendarMain {
           return;
         }
 
-        // makes sure the file contains "exit"
-        File commandFile = new File(args[1]);
-
-        if (!commandFile.exists()) {
-          view.displayError("File not found: " + args[1]);
-          return;
-        }
-
-        boolean hasExit = false;
-        try (BufferedReader reader = new BufferedReader(new FileReader(commandFile))) {
-          String line;
-          while ((line = reader.readLine()) != null) {
-            if (line.equals("exit")) {
-              hasExit = true;
-              break;
-            }
-          }
-        } catch (IOException e) {
-          view.displayError("Could not read file: " + e.getMessage());
-          return;
-        }
-        if (!hasExit) {
-          view.displayError("File must include an 'exit' command.");
-          return;
-        }
-
-        // actually runs the controller
-        try {
-          FileInputStream fileInput = new FileInputStream(args[1]);
+        // runs the file in one pass, which must end with "exit"
+        try (InputStream fileInput = new FileInputStream(args[1])) {
           CalendarController headlessController =
               new MultipleCalendarController(model, fileInput, view);
-          headlessController.runController();
+          if (!headlessController.runController()) {
+            view.displayError("File must include an 'exit' command.");
+          }
         } catch (FileNotFoundException e) {
           view.displayError("File not found: " + args[1]);
+        } catch (IOException e) {
+          view.displayError("Could not read file: " + e.getMessage());
+        } catch (UncheckedIOException e) {
+          view.displayError("Could not read file: " + e.getCause().getMessage());
         }
         break;
 
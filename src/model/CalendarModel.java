@@ -3,7 +3,10 @@ package model;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Represents all the methods needed for a Google Calendar-like calendar that can add single and
@@ -57,6 +60,16 @@ public interface CalendarModel {
   boolean addRepeatingEvent(String subject, LocalDateTime start, LocalDateTime end,
                             String weekdays, LocalDate endDate);
 
+  /**
+   * Attempts to add many single events and series at once, either all of them or none.
+   *
+   * @param specs The events to add
+   * @return Whether the events were added. If any of them could not be added on its own, or any
+   *     two of them or one of them and a preexisting event have a matching subject, start date,
+   *     and end date, none of them will be added
+   */
+  boolean addAll(Collection<EventSpec> specs);
+
   /**
    * Edits a SingleEvent.
    *
@@ -98,6 +111,19 @@ public interface CalendarModel {
   boolean editEntireSeries(String subject, LocalDateTime start, String property,
                            String newProperty);
 
+  /**
+   * Edits the event or whole series with the given id. Every event or series added to a calendar
+   * is given the next id starting from 1, it keeps that id through edits, and the later part of a
+   * series split off by editFutureSeriesEvents is given a new one.
+   *
+   * @param id          The id of the event to edit
+   * @param property    Which field the user intends to change.  Must be either "subject", "start",
+   *                    "end", "location", "description", or "status" to be a valid property.
+   * @param newProperty What the user would like to change the field's information to.
+   * @return whether the event could be changed.
+   */
+  boolean editById(long id, String property, String newProperty);
+
   /**
    * Finds all events on the given date.
    *
@@ -115,6 +141,64 @@ public interface CalendarModel {
    */
   HashSet<IEvent> queryEvent(LocalDateTime startTime, LocalDateTime endTime);
 
+  /**
+   * Finds the event or series with the given id.
+   *
+   * @param id The id of the event
+   * @return The event or null if there is no event with that id
+   */
+  IEvent queryById(long id);
+
+  /**
+   * Finds the occurrences on the given date in start time order. Every occurrence of a series is
+   * returned on its own.
+   *
+   * @param date   The date to check
+   * @param offset How many of the first occurrences to skip
+   * @param limit  The most occurrences to return
+   * @return The occurrences found on that date (if any)
+   * @throws IllegalArgumentException if the offset or limit is negative
+   */
+  List<IEvent> queryEventsInOrder(LocalDate date, int offset, int limit)
+      throws IllegalArgumentException;
+
+  /**
+   * Finds the occurrences completely between a range of days/times in start time order. Every
+   * occurrence of a series is returned on its own. Only the occurrences up to offset + limit are
+   * looked at, so asking for the first few events of a long range is cheap.
+   *
+   * @param startTime The DateTime lower bound
+   * @param endTime   The DateTime upper bound
+   * @param offset    How many of the first occurrences to skip
+   * @param limit     The most occurrences to return
+   * @return The occurrences found in the given range (if any)
+   * @throws IllegalArgumentException if the offset or limit is negative
+   */
+  List<IEvent> queryEventsInOrder(LocalDateTime startTime, LocalDateTime endTime, int offset,
+                                  int limit) throws IllegalArgumentException;
+
+  /**
+   * Streams the occurrences on the given date in start time order. Every occurrence of a series is
+   * returned on its own and occurrences are only created as the stream is consumed. The calendar
+   * must not be changed while the stream is in use, and the stream should be closed when done.
+   *
+   * @param date The date to check
+   * @return The occurrences found on that date (if any)
+   */
+  Stream<IEvent> streamEvents(LocalDate date);
+
+  /**
+   * Streams the occurrences completely between a range of days/times in start time order. Every
+   * occurrence of a series is returned on its own and occurrences are only created as the stream
+   * is consumed, so going through a long range needs no more memory than a short one. The calendar
+   * must not be changed while the stream is in use, and the stream should be closed when done.
+   *
+   * @param startTime The DateTime lower bound
+   * @param endTime   The DateTime upper bound
+   * @return The occurrences found in the given range (if any)
+   */
+  Stream<IEvent> streamEvents(LocalDateTime startTime, LocalDateTime endTime);
+
   /**
    * Checks whether an event overlaps with the given DateTime.
    *
@@ -3,20 +3,34 @@ package model;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Represents the implementation of all the methods needed for a Google Calendar
  * like Calendar that can add single and repeating events, edit them, and query them.
  */
 public class CalendarModelImpl implements CalendarModel {
-  protected final HashSet<IEvent> events;
+  // id -> top level event, events are edited in place so they are never used as keys
+  protected final Map<Long, IEvent> events;
+  private final EventIndex index;
+  private long nextId;
 
   /**
    * A public constructor for the CalendarModelImpl class.
    */
   public CalendarModelImpl() {
-    this.events = new HashSet<IEvent>();
+    this.events = new HashMap<>();
+    this.index = new EventIndex();
+    this.nextId = 1;
   }
 
   /**
@@ -32,7 +46,7 @@ public class CalendarModelImpl implements CalendarModel {
   public boolean addSingleEvent(String subject, LocalDateTime start, LocalDateTime end) {
     SingleEvent possibleEvent = new SingleEvent(subject, start, end);
     if (!eventAlreadyExists(possibleEvent)) {
-      this.events.add(possibleEvent);
+      storeEvent(possibleEvent);
       return true;
     }
     return false;
@@ -52,10 +66,11 @@ public class CalendarModelImpl implements CalendarModel {
   @Override
   public boolean editSingleEvent(String subject, LocalDateTime start, LocalDateTime end,
                                  String property, String newProperty) {
-    HashSet<IEvent> toEdit = new HashSet<>();
-    for (IEvent event : this.events) {
-      if (event.getExactMatch(subject, start, end) != null) {
-        toEdit.add(event);
+    Map<IEvent, IEvent> toEdit = new IdentityHashMap<>();
+    for (IEvent event : index.eventsSpanning(start)) {
+      IEvent match = event.getExactMatch(subject, start, end);
+      if (match != null) {
+        toEdit.put(event, match);
       }
     }
     return attemptToEdit(property, newProperty, toEdit);
@@ -75,7 +90,7 @@ public class CalendarModelImpl implements CalendarModel {
   @Override
   public boolean editFutureSeriesEvents(String subject, LocalDateTime start, String property,
                                         String newProperty) {
-    return helpEditSeries(subject, start, property, newProperty, "after", this.events);
+    return helpEditSeries(subject, start, property, newProperty, "after");
   }
 
   /**
@@ -91,23 +106,35 @@ public class CalendarModelImpl implements CalendarModel {
   @Override
   public boolean editEntireSeries(String subject, LocalDateTime start, String property,
                                   String newProperty) {
-    return helpEditSeries(subject, start, property, newProperty, "all", this.events);
+    return helpEditSeries(subject, start, property, newProperty, "all");
+  }
+
+  @Override
+  public boolean editById(long id, String property, String newProperty) {
+    IEvent event = events.get(id);
+    if (event == null) {
+      return false;
+    }
+    Map<IEvent, IEvent> toEdit = new IdentityHashMap<>();
+    toEdit.put(event, event);
+    return attemptToEdit(property, newProperty, toEdit);
   }
 
   //the helper method that edits a series either from the date given or the start date
   private boolean helpEditSeries(String subject, LocalDateTime start, String property,
-                                 String newProperty, String addOrAfter, HashSet<IEvent> events) {
+                                 String newProperty, String addOrAfter) {
 
-    HashSet<IEvent> toEdit = new HashSet<>();
-    for (IEvent event : events) {
+    Map<IEvent, IEvent> toEdit = new IdentityHashMap<>();
+    // only events whose span includes the start can have an occurrence starting there
+    for (IEvent event : index.eventsSpanning(start)) {
+      IEvent match;
       if (addOrAfter.equals("all")) {
-        if (event.getAllMatchingEvents(subject, start) != null) {
-          toEdit.add(event.getAllMatchingEvents(subject, start));
-        }
+        match = event.getAllMatchingEvents(subject, start);
       } else {
-        if (event.getAllMatchingEventsAfter(subject, start) != null) {
-          toEdit.add(event.getAllMatchingEventsAfter(subject, start));
-        }
+        match = event.getAllMatchingEventsAfter(subject, start);
+      }
+      if (match != null) {
+        toEdit.put(event, match);
       }
     }
     return attemptToEdit(property, newProperty, toEdit);
@@ -175,6 +202,29 @@ public class CalendarModelImpl implements CalendarModel {
     return addSeriesIfNotDuplicated(possibleEvent);
   }
 
+  /**
+   * Attempts to add every described event at once. The occurrences of the whole batch are sorted
+   * once, checked against each other, and checked against the calendar in one pass over it, so
+   * adding many events costs about as much as sorting them.
+   *
+   * @param specs The events to add
+   * @return Whether the events were added, if any of them could not be added on its own or two
+   *         of them or one of them and a preexisting event have the same subject, start, and
+   *         end, none of them are added
+   */
+  @Override
+  public boolean addAll(Collection<EventSpec> specs) {
+    List<IEvent> batch = new ArrayList<>(specs.size());
+    try {
+      for (EventSpec spec : specs) {
+        batch.add(spec.toEvent());
+      }
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    return addAllIfNotDuplicated(batch);
+  }
+
   /**
    * Finds all events on the given date.
    *
@@ -183,14 +233,7 @@ public class CalendarModelImpl implements CalendarModel {
    */
   @Override
   public HashSet<IEvent> queryEvent(LocalDate date) {
-    HashSet<IEvent> r = new HashSet<IEvent>();
-    for (IEvent event : this.events) {
-      IEvent toAdd = event.getIfEventIsOnDate(date);
-      if (toAdd != null) {
-        r.add(toAdd);
-      }
-    }
-    return r;
+    return index.queryOnDate(date);
   }
 
   /**
@@ -202,14 +245,57 @@ public class CalendarModelImpl implements CalendarModel {
    */
   @Override
   public HashSet<IEvent> queryEvent(LocalDateTime startTime, LocalDateTime endTime) {
-    HashSet<IEvent> r = new HashSet<IEvent>();
-    for (IEvent event : this.events) {
-      IEvent toAdd = event.getIfBetween(startTime, endTime);
-      if (toAdd != null) {
-        r.add(toAdd);
-      }
-    }
-    return r;
+    return index.queryBetween(startTime, endTime);
+  }
+
+  @Override
+  public IEvent queryById(long id) {
+    return events.get(id);
+  }
+
+  @Override
+  public List<IEvent> queryEventsInOrder(LocalDate date, int offset, int limit)
+      throws IllegalArgumentException {
+    return page(streamEvents(date), offset, limit);
+  }
+
+  @Override
+  public List<IEvent> queryEventsInOrder(LocalDateTime startTime, LocalDateTime endTime,
+                                         int offset, int limit)
+      throws IllegalArgumentException {
+    return page(streamEvents(startTime, endTime), offset, limit);
+  }
+
+  @Override
+  public Stream<IEvent> streamEvents(LocalDate date) {
+    return EventIndex.stream(index.occurrencesOn(date).iterator());
+  }
+
+  @Override
+  public Stream<IEvent> streamEvents(LocalDateTime startTime, LocalDateTime endTime) {
+    return EventIndex.stream(index.occurrencesBetween(startTime, endTime));
+  }
+
+  /**
+   * Streams the same events {@link #queryEvent(LocalDate)} finds without collecting them first.
+   *
+   * @param date The date to check
+   * @return All the events found on that date (if any)
+   */
+  public Stream<IEvent> streamQuery(LocalDate date) {
+    return index.matchesOn(date);
+  }
+
+  /**
+   * Streams the same events {@link #queryEvent(LocalDateTime, LocalDateTime)} finds without
+   * collecting them first.
+   *
+   * @param startTime The DateTime lower bound
+   * @param endTime   The DateTime upper bound
+   * @return All the events found in the given range (if any)
+   */
+  public Stream<IEvent> streamQuery(LocalDateTime startTime, LocalDateTime endTime) {
+    return index.matchesBetween(startTime, endTime);
   }
 
   /**
@@ -220,22 +306,42 @@ public class CalendarModelImpl implements CalendarModel {
    */
   @Override
   public boolean getStatus(LocalDateTime dateTime) {
-    for (IEvent event : this.events) {
-      if (event.containsDateTime(dateTime)) {
-        return true;
-      }
+    return index.anyContaining(dateTime);
+  }
+
+  /**
+   * Counts how many whole minutes starting in the range an event overlaps, a minute counts once
+   * no matter how many events overlap it.
+   *
+   * @param startTime The DateTime lower bound
+   * @param endTime   The DateTime upper bound, minutes starting at it are not counted
+   * @return the number of busy minutes
+   */
+  public long getBusyMinutes(LocalDateTime startTime, LocalDateTime endTime) {
+    return index.busyMinutes(startTime, endTime);
+  }
+
+  // Skips the first offset occurrences and returns at most limit of the ones after them
+  private static List<IEvent> page(Stream<IEvent> occurrences, int offset, int limit) {
+    if (offset < 0 || limit < 0) {
+      throw new IllegalArgumentException("Offset and limit cannot be negative");
     }
-    return false;
+    return occurrences.skip(offset).limit(limit).collect(Collectors.toList());
+  }
+
+  // Streams the events that overlap the range at all, a series as the part of it that overlaps
+  protected Stream<IEvent> streamOverlapping(LocalDateTime startTime, LocalDateTime endTime) {
+    return index.matchesOverlapping(startTime, endTime);
+  }
+
+  // The events whose span includes the time, only they can have an occurrence starting at it
+  protected List<IEvent> eventsSpanning(LocalDateTime dateTime) {
+    return index.eventsSpanning(dateTime);
   }
 
   // Checks if the given event already exists
   protected boolean eventAlreadyExists(IEvent newEvent) {
-    for (IEvent event : this.events) {
-      if (event.checkDuplicate(newEvent)) {
-        return true;
-      }
-    }
-    return false;
+    return index.containsDuplicateOf(newEvent);
   }
 
   // Adds a series event if none of its events will overlap with pre-existing events
@@ -245,23 +351,89 @@ public class CalendarModelImpl implements CalendarModel {
         return false;
       }
     }
-    events.add(possibleEvent);
+    storeEvent(possibleEvent);
     return true;
   }
 
-  // Attempts to edit a list of events
-  protected boolean attemptToEdit(String property, String newProperty, HashSet<IEvent> toEdit) {
+  // Puts events back under the ids they had when the calendar was saved, indexing them together
+  void restoreEvents(long[] ids, IEvent[] restored) {
+    for (int i = 0; i < ids.length; i++) {
+      this.events.put(ids[i], restored[i]);
+      this.nextId = Math.max(nextId, ids[i] + 1);
+    }
+    this.index.addAll(Arrays.asList(restored));
+  }
+
+  // The id the next event added will get
+  long getNextId() {
+    return nextId;
+  }
+
+  void setNextId(long nextId) {
+    this.nextId = nextId;
+  }
+
+  // Adds all of the events if none of their occurrences are duplicates of each other or of
+  // events already in the calendar
+  protected boolean addAllIfNotDuplicated(List<IEvent> batch) {
+    List<SingleEvent> occurrences = new ArrayList<>();
+    for (IEvent event : batch) {
+      if (event instanceof SeriesEvent) {
+        occurrences.addAll(((SeriesEvent) event).occurrences());
+      } else {
+        occurrences.add((SingleEvent) event);
+      }
+    }
+    occurrences.sort(EventIndex.ORDER);
+    for (int i = 1; i < occurrences.size(); i++) {
+      if (EventIndex.ORDER.compare(occurrences.get(i - 1), occurrences.get(i)) == 0) {
+        return false;
+      }
+    }
+    if (index.containsAnyOf(occurrences)) {
+      return false;
+    }
+    for (IEvent event : batch) {
+      storeEvent(event);
+    }
+    return true;
+  }
+
+  // Adds a new top level event to the calendar under the next id and indexes it
+  protected void storeEvent(IEvent event) {
+    this.events.put(nextId++, event);
+    this.index.add(event);
+  }
+
+  // Removes every event from the calendar and its indexes
+  protected void clearEvents() {
+    this.events.clear();
+    this.index.clear();
+  }
+
+  // Attempts to edit events, toEdit maps each top level event to the part of it being edited
+  // (the event itself, one occurrence of a series, or the later part of a series)
+  protected boolean attemptToEdit(String property, String newProperty,
+                                  Map<IEvent, IEvent> toEdit) {
     if (toEdit.isEmpty()) {
       return false;
     }
+    // the new value is parsed once and the same edit is applied to every event
+    EventEdit edit;
+    try {
+      edit = EventEdit.parse(property, newProperty);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
 
-    if (property.equals("subject") || property.equals("start") || property.equals("end")) {
-      // checks to make sure there won't be any duplicates made bc of this
-      HashSet<IEvent> potentialEvents = new HashSet<>();
-      for (IEvent event : toEdit) {
+    if (edit.changesIdentity()) {
+      // checks to make sure there won't be any duplicates made bc of this, either with the
+      // events already stored or between the edited events themselves
+      Set<SingleEvent> edited = new HashSet<>();
+      for (IEvent event : toEdit.values()) {
         IEvent newEvent;
         try {
-          newEvent = event.getEdittedCopy(property, newProperty);
+          newEvent = event.getEdittedCopy(edit);
         } catch (IllegalArgumentException e) {
           return false;
         }
@@ -269,16 +441,38 @@ public class CalendarModelImpl implements CalendarModel {
         if (eventAlreadyExists(newEvent)) {
           return false;
         }
-        potentialEvents.add(newEvent);
+        List<SingleEvent> occurrences = newEvent instanceof SeriesEvent
+            ? ((SeriesEvent) newEvent).occurrences() : List.of((SingleEvent) newEvent);
+        for (SingleEvent occurrence : occurrences) {
+          if (!edited.add(occurrence)) {
+            return false;
+          }
+        }
       }
     }
 
-    // actually applies the edits
-    for (IEvent event : toEdit) {
+    // actually applies the edits, the edited events are re-indexed with their new times
+    for (Map.Entry<IEvent, IEvent> entry : toEdit.entrySet()) {
+      IEvent owner = entry.getKey();
+      IEvent part = entry.getValue();
+      index.remove(owner);
       try {
-        event.editEvent(property, newProperty);
+        if (part == owner) {
+          owner.editEvent(edit);
+        } else if (part instanceof SeriesEvent) {
+          // the later part of a series is split off into its own series
+          SeriesEvent later = (SeriesEvent) part;
+          LocalDate from = later.firstSlot();
+          later.editEvent(edit);
+          ((SeriesEvent) owner).truncateBefore(from);
+          storeEvent(later);
+        } else {
+          ((SeriesEvent) owner).editOccurrence((SingleEvent) part, edit);
+        }
       } catch (IllegalArgumentException e) {
         return false;
+      } finally {
+        index.add(owner);
       }
     }
     return true;
@@ -0,0 +1,83 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The calendars of a {@link MultipleCalendarModelImpl} keyed by their names, so finding one by
+ * name does not depend on how many there are. A calendar made with the registry tells it when it is
+ * renamed, however the rename is done, so its key never goes stale. The registry may be used from
+ * several threads at once.
+ */
+class CalendarRegistry {
+  private final ConcurrentMap<String, ModifiableCalendar> byName;
+
+  CalendarRegistry() {
+    this.byName = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Finds the calendar with the given name.
+   *
+   * @param calendarName the name to look up
+   * @return the calendar or null if there is none with that name
+   */
+  ModifiableCalendar get(String calendarName) {
+    return byName.get(calendarName);
+  }
+
+  /**
+   * Adds a calendar under its current name unless the name is already taken. The calendar should
+   * have been made with this registry so that it reports its renames back to it.
+   *
+   * @param calendar the calendar to add
+   * @return whether the calendar was added
+   */
+  boolean register(ModifiableCalendar calendar) {
+    return byName.putIfAbsent(calendar.getName(), calendar) == null;
+  }
+
+  /**
+   * Moves a calendar from its old name to a new one unless the new name is already taken.
+   *
+   * @param calendar the calendar being renamed
+   * @param oldName  the name it is registered under
+   * @param newName  the name it is being given
+   * @return whether the calendar was moved
+   */
+  boolean rename(ModifiableCalendar calendar, String oldName, String newName) {
+    if (oldName.equals(newName)) {
+      return true;
+    }
+    if (byName.putIfAbsent(newName, calendar) != null) {
+      return false;
+    }
+    byName.remove(oldName, calendar);
+    return true;
+  }
+
+  /**
+   * Gets the names of every calendar in alphabetical order.
+   *
+   * @return the names
+   */
+  List<String> names() {
+    List<String> r = new ArrayList<>(byName.keySet());
+    r.sort(Comparator.naturalOrder());
+    return r;
+  }
+
+  /**
+   * Gets every calendar ordered by name.
+   *
+   * @return the calendars
+   */
+  List<ModifiableCalendar> calendars() {
+    List<ModifiableCalendar> r = new ArrayList<>(byName.values());
+    r.sort(Comparator.comparing(ModifiableCalendar::getName));
+    return r;
+  }
+}
@@ -0,0 +1,452 @@
+package model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Saves every calendar of a {@link MultipleCalendarModelImpl} to a binary file and loads it back
+ * exactly as it was: the calendars with their timezones, every event under its id, and series as
+ * their rule and explicitly stored occurrences rather than every occurrence. A rule made in
+ * another timezone than the one its calendar keeps events in is stored with that timezone.
+ *
+ * <p>The file starts with a magic number, the format version, and the journal sequence number,
+ * followed by a table of every distinct string (subjects, descriptions, calendar names, and zone
+ * ids) that the rest of the file refers to by index. Each calendar then stores its single events,
+ * its series, and the occurrences of its series as columns of primitives, one column per field,
+ * so loading is a handful of bulk reads from a memory mapped file. Times are stored to the
+ * second, locations and statuses by their ordinal, and -1 stands for null. Version 1 files, which
+ * have no rule timezones, can still be loaded.
+ */
+final class CalendarSnapshot {
+  // "CALS"
+  private static final int MAGIC = 0x43414c53;
+  private static final int VERSION = 2;
+  private static final int NONE = -1;
+
+  private CalendarSnapshot() {
+  }
+
+  /**
+   * Writes a snapshot to a temporary file, forces it to disk, and then moves it over the given
+   * file so there is always one complete snapshot.
+   *
+   * @param model    the calendars to save
+   * @param sequence the sequence number of the last journal record the calendars include
+   * @param file     the file to save to
+   * @throws IOException if the file could not be written
+   */
+  static void write(MultipleCalendarModelImpl model, long sequence, Path file)
+      throws IOException {
+    List<ModifiableCalendar> calendars = model.calendars.calendars();
+    StringTable strings = new StringTable();
+    List<Section> sections = new ArrayList<>();
+    for (ModifiableCalendar calendar : calendars) {
+      sections.add(new Section((ModifiableCalendarImpl) calendar, strings));
+    }
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeLong(sequence);
+      strings.write(out);
+      out.writeInt(sections.size());
+      out.writeInt(model.currentCalendar == null ? NONE : calendars.indexOf(model.currentCalendar));
+      for (Section section : sections) {
+        section.write(out);
+      }
+    }
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+      channel.force(true);
+    }
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Loads a snapshot written by {@link #write(MultipleCalendarModelImpl, long, Path)} by mapping
+   * the file into memory.
+   *
+   * @param file  the file to load
+   * @param model the empty model to load the calendars into
+   * @return the sequence number of the last journal record the snapshot includes
+   * @throws IOException if the file could not be read, is not a snapshot, or is of a version this
+   *                     does not know
+   */
+  static long read(Path file, MultipleCalendarModelImpl model) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Calendar snapshot is too large to map: " + file);
+      }
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+        throw new IOException("Not a calendar snapshot: " + file);
+      }
+      int version = buffer.getInt();
+      if (version < 1 || version > VERSION) {
+        throw new IOException("Unsupported calendar snapshot version " + version + ": " + file);
+      }
+      try {
+        return read(buffer, model, version);
+      } catch (RuntimeException e) {
+        throw new IOException("Damaged calendar snapshot: " + file, e);
+      }
+    }
+  }
+
+  // Reads everything after the version
+  private static long read(ByteBuffer buffer, MultipleCalendarModelImpl model, int version) {
+    long sequence = buffer.getLong();
+    String[] strings = new String[buffer.getInt()];
+    for (int i = 0; i < strings.length; i++) {
+      byte[] bytes = new byte[buffer.getInt()];
+      buffer.get(bytes);
+      strings[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+    int calendarCount = buffer.getInt();
+    int current = buffer.getInt();
+    for (int c = 0; c < calendarCount; c++) {
+      ModifiableCalendarImpl calendar = readCalendar(buffer, strings, model.calendars, version);
+      model.calendars.register(calendar);
+      if (c == current) {
+        model.currentCalendar = calendar;
+      }
+    }
+    return sequence;
+  }
+
+  // Reads one calendar and its events
+  private static ModifiableCalendarImpl readCalendar(ByteBuffer buffer, String[] strings,
+                                                     CalendarRegistry registry, int version) {
+    String name = strings[buffer.getInt()];
+    String timeZone = strings[buffer.getInt()];
+    String storageZone = strings[buffer.getInt()];
+    long nextId = buffer.getLong();
+    int singleCount = buffer.getInt();
+    int seriesCount = buffer.getInt();
+    int occurrenceCount = buffer.getInt();
+    ModifiableCalendarImpl calendar = new ModifiableCalendarImpl(name,
+        ZoneRegistry.getTimeZone(timeZone), ZoneId.of(storageZone), registry);
+    calendar.setNextId(nextId);
+
+    long[] singleIds = longs(buffer, singleCount);
+    calendar.restoreEvents(singleIds, readEvents(buffer, singleCount, strings));
+
+    long[] seriesIds = longs(buffer, seriesCount);
+    int[] subjects = ints(buffer, seriesCount);
+    byte[] locations = bytes(buffer, seriesCount);
+    byte[] statuses = bytes(buffer, seriesCount);
+    int[] descriptions = ints(buffer, seriesCount);
+    byte[] hasRule = bytes(buffer, seriesCount);
+    long[] firstDays = longs(buffer, seriesCount);
+    int[] masks = ints(buffer, seriesCount);
+    int[] startTimes = ints(buffer, seriesCount);
+    long[] durations = longs(buffer, seriesCount);
+    int[] counts = ints(buffer, seriesCount);
+    int[] ruleZones = version >= 2 ? ints(buffer, seriesCount) : null;
+    int[] explicitCounts = ints(buffer, seriesCount);
+
+    long[] slotDays = longs(buffer, occurrenceCount);
+    SingleEvent[] occurrences = readEvents(buffer, occurrenceCount, strings);
+
+    SeriesEvent[] series = new SeriesEvent[seriesCount];
+    int next = 0;
+    for (int i = 0; i < seriesCount; i++) {
+      EventMetadata metadata = new EventMetadata(string(strings, subjects[i]),
+          location(locations[i]), status(statuses[i]), string(strings, descriptions[i]));
+      RecurrenceRule rule = null;
+      if (hasRule[i] != 0) {
+        rule = RecurrenceRule.restore(LocalDate.ofEpochDay(firstDays[i]), masks[i],
+            LocalTime.ofSecondOfDay(startTimes[i]), Duration.ofSeconds(durations[i]), counts[i]);
+      }
+      TreeMap<LocalDate, SingleEvent> explicit = new TreeMap<>();
+      for (int j = 0; j < explicitCounts[i]; j++, next++) {
+        explicit.put(LocalDate.ofEpochDay(slotDays[next]), occurrences[next]);
+      }
+      ZoneShift zone = null;
+      if (ruleZones != null && ruleZones[i] != NONE) {
+        zone = new ZoneShift(ZoneId.of(strings[ruleZones[i]]), calendar.getStorageZone());
+      }
+      series[i] = SeriesEvent.restore(metadata, rule, explicit, zone);
+    }
+    calendar.restoreEvents(seriesIds, series);
+    return calendar;
+  }
+
+  // Reads the columns of a run of single events
+  private static SingleEvent[] readEvents(ByteBuffer buffer, int count, String[] strings) {
+    int[] subjects = ints(buffer, count);
+    long[] starts = longs(buffer, count);
+    long[] ends = longs(buffer, count);
+    byte[] locations = bytes(buffer, count);
+    byte[] statuses = bytes(buffer, count);
+    int[] descriptions = ints(buffer, count);
+    SingleEvent[] events = new SingleEvent[count];
+    Times times = new Times();
+    for (int i = 0; i < count; i++) {
+      events[i] = new SingleEvent(string(strings, subjects[i]), times.of(starts[i]),
+          times.of(ends[i]), location(locations[i]), status(statuses[i]),
+          string(strings, descriptions[i]));
+    }
+    return events;
+  }
+
+  // Writes the columns of a run of single events
+  private static void writeEvents(DataOutputStream out, List<SingleEvent> events,
+                                  StringTable strings) throws IOException {
+    for (SingleEvent event : events) {
+      out.writeInt(strings.indexOf(event.subject));
+    }
+    for (SingleEvent event : events) {
+      out.writeLong(seconds(event.startDateTime));
+    }
+    for (SingleEvent event : events) {
+      out.writeLong(seconds(event.endDateTime));
+    }
+    for (SingleEvent event : events) {
+      out.writeByte(ordinal(event.location));
+    }
+    for (SingleEvent event : events) {
+      out.writeByte(ordinal(event.status));
+    }
+    for (SingleEvent event : events) {
+      out.writeInt(strings.indexOf(event.description));
+    }
+  }
+
+  private static long[] longs(ByteBuffer buffer, int count) {
+    long[] values = new long[count];
+    buffer.asLongBuffer().get(values);
+    buffer.position(buffer.position() + count * Long.BYTES);
+    return values;
+  }
+
+  private static int[] ints(ByteBuffer buffer, int count) {
+    int[] values = new int[count];
+    buffer.asIntBuffer().get(values);
+    buffer.position(buffer.position() + count * Integer.BYTES);
+    return values;
+  }
+
+  private static byte[] bytes(ByteBuffer buffer, int count) {
+    byte[] values = new byte[count];
+    buffer.get(values);
+    return values;
+  }
+
+  private static String string(String[] strings, int index) {
+    return index == NONE ? null : strings[index];
+  }
+
+  private static long seconds(LocalDateTime dateTime) {
+    return dateTime.toEpochSecond(ZoneOffset.UTC);
+  }
+
+  // Makes the times of a run of events, sharing the date and time of day objects between them:
+  // events are read in start order and most of them start and end at a few times of day, so a
+  // large calendar holds far fewer objects and loads with far less garbage collection
+  private static final class Times {
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private final LocalTime[] timesOfDay = new LocalTime[SECONDS_PER_DAY];
+    private final Map<Long, LocalDate> dates = new HashMap<>();
+    private long lastDay = Long.MIN_VALUE;
+    private LocalDate lastDate;
+
+    LocalDateTime of(long seconds) {
+      long day = Math.floorDiv(seconds, SECONDS_PER_DAY);
+      int second = Math.floorMod(seconds, SECONDS_PER_DAY);
+      if (day != lastDay) {
+        lastDay = day;
+        lastDate = dates.computeIfAbsent(day, LocalDate::ofEpochDay);
+      }
+      LocalTime time = timesOfDay[second];
+      if (time == null) {
+        time = LocalTime.ofSecondOfDay(second);
+        timesOfDay[second] = time;
+      }
+      return LocalDateTime.of(lastDate, time);
+    }
+  }
+
+  private static int ordinal(Enum<?> value) {
+    return value == null ? NONE : value.ordinal();
+  }
+
+  private static Location location(byte ordinal) {
+    return ordinal == NONE ? null : Location.values()[ordinal];
+  }
+
+  private static Status status(byte ordinal) {
+    return ordinal == NONE ? null : Status.values()[ordinal];
+  }
+
+  /**
+   * Gives each distinct string an index in the order they are first seen.
+   */
+  private static final class StringTable {
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    // Gets the index of a string, adding it if it is new, or NONE for null
+    int indexOf(String value) {
+      if (value == null) {
+        return NONE;
+      }
+      return indexes.computeIfAbsent(value, s -> {
+        strings.add(s);
+        return strings.size() - 1;
+      });
+    }
+
+    void write(DataOutputStream out) throws IOException {
+      out.writeInt(strings.size());
+      for (String value : strings) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+    }
+  }
+
+  /**
+   * One calendar's events split into singles, series, and the explicit occurrences of the series,
+   * with every string they use already in the table.
+   */
+  private static final class Section {
+    private final ModifiableCalendarImpl calendar;
+    private final StringTable strings;
+    private final int name;
+    private final int timeZone;
+    private final int storageZone;
+    private final List<Long> singleIds = new ArrayList<>();
+    private final List<SingleEvent> singles = new ArrayList<>();
+    private final List<Long> seriesIds = new ArrayList<>();
+    private final List<SeriesEvent> series = new ArrayList<>();
+    private final List<LocalDate> slots = new ArrayList<>();
+    private final List<SingleEvent> occurrences = new ArrayList<>();
+
+    Section(ModifiableCalendarImpl calendar, StringTable strings) {
+      this.calendar = calendar;
+      this.strings = strings;
+      this.name = strings.indexOf(calendar.getName());
+      this.timeZone = strings.indexOf(calendar.getTimeZone().getID());
+      this.storageZone = strings.indexOf(calendar.getStorageZone().getId());
+      List<Map.Entry<Long, IEvent>> singleEntries = new ArrayList<>();
+      List<Map.Entry<Long, IEvent>> seriesEntries = new ArrayList<>();
+      for (Map.Entry<Long, IEvent> entry : calendar.events.entrySet()) {
+        (entry.getValue() instanceof SingleEvent ? singleEntries : seriesEntries).add(entry);
+      }
+      // singles go in time order so they can be indexed in one go when they are loaded
+      singleEntries.sort(Comparator.comparing(
+          (Map.Entry<Long, IEvent> entry) -> (SingleEvent) entry.getValue(), EventIndex.ORDER));
+      seriesEntries.sort(Map.Entry.comparingByKey());
+      for (Map.Entry<Long, IEvent> entry : singleEntries) {
+        singleIds.add(entry.getKey());
+        singles.add((SingleEvent) entry.getValue());
+      }
+      for (Map.Entry<Long, IEvent> entry : seriesEntries) {
+        SeriesEvent s = (SeriesEvent) entry.getValue();
+        seriesIds.add(entry.getKey());
+        series.add(s);
+        EventMetadata metadata = s.getMetadata();
+        strings.indexOf(metadata.getSubject());
+        strings.indexOf(metadata.getDescription());
+        if (s.getZone() != null) {
+          strings.indexOf(s.getZone().getFrom().getId());
+        }
+        for (Map.Entry<LocalDate, SingleEvent> explicit : s.explicitByDate().entrySet()) {
+          slots.add(explicit.getKey());
+          occurrences.add(explicit.getValue());
+        }
+      }
+      for (SingleEvent event : singles) {
+        strings.indexOf(event.subject);
+        strings.indexOf(event.description);
+      }
+      for (SingleEvent event : occurrences) {
+        strings.indexOf(event.subject);
+        strings.indexOf(event.description);
+      }
+    }
+
+    void write(DataOutputStream out) throws IOException {
+      out.writeInt(name);
+      out.writeInt(timeZone);
+      out.writeInt(storageZone);
+      out.writeLong(calendar.getNextId());
+      out.writeInt(singles.size());
+      out.writeInt(series.size());
+      out.writeInt(occurrences.size());
+
+      for (long id : singleIds) {
+        out.writeLong(id);
+      }
+      writeEvents(out, singles, strings);
+
+      for (long id : seriesIds) {
+        out.writeLong(id);
+      }
+      for (SeriesEvent s : series) {
+        out.writeInt(strings.indexOf(s.getMetadata().getSubject()));
+      }
+      for (SeriesEvent s : series) {
+        out.writeByte(ordinal(s.getMetadata().getLocation()));
+      }
+      for (SeriesEvent s : series) {
+        out.writeByte(ordinal(s.getMetadata().getStatus()));
+      }
+      for (SeriesEvent s : series) {
+        out.writeInt(strings.indexOf(s.getMetadata().getDescription()));
+      }
+      for (SeriesEvent s : series) {
+        out.writeByte(s.getRule() == null ? 0 : 1);
+      }
+      for (SeriesEvent s : series) {
+        out.writeLong(s.getRule() == null ? 0 : s.getRule().getFirstDate().toEpochDay());
+      }
+      for (SeriesEvent s : series) {
+        out.writeInt(s.getRule() == null ? 0 : s.getRule().getWeekdayMask());
+      }
+      for (SeriesEvent s : series) {
+        out.writeInt(s.getRule() == null ? 0 : s.getRule().getStartTime().toSecondOfDay());
+      }
+      for (SeriesEvent s : series) {
+        out.writeLong(s.getRule() == null ? 0 : s.getRule().getDuration().getSeconds());
+      }
+      for (SeriesEvent s : series) {
+        out.writeInt(s.getRule() == null ? 0 : s.getRule().getCount());
+      }
+      for (SeriesEvent s : series) {
+        out.writeInt(s.getZone() == null ? NONE : strings.indexOf(s.getZone().getFrom().getId()));
+      }
+      for (SeriesEvent s : series) {
+        out.writeInt(s.explicitByDate().size());
+      }
+
+      for (LocalDate slot : slots) {
+        out.writeLong(slot.toEpochDay());
+      }
+      writeEvents(out, occurrences, strings);
+    }
+  }
+}
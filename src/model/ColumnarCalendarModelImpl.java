@@ -0,0 +1,638 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A calendar that stores its events column by column in primitive arrays instead of as event
+ * objects, for when many large calendars have to fit in memory at once. Every occurrence is one
+ * row: its start and end in minutes since the epoch, an id into a {@link SymbolTable} of subjects,
+ * its location and status as a byte, an id into the same table for its description, the id of
+ * the series it belongs to, and the id of the event (every row of a series shares one). Rows are
+ * kept sorted by start (then end) so queries are binary searches followed by a scan. Event
+ * objects are only created for the events a query returns.
+ *
+ * <p>Times are stored to the minute, any seconds are dropped.
+ */
+public class ColumnarCalendarModelImpl implements CalendarModel {
+  private static final int NO_SERIES = -1;
+  private static final int NO_DESCRIPTION = -1;
+  private static final long MINUTES_PER_DAY = 24 * 60;
+
+  private long[] starts;
+  private long[] ends;
+  private int[] subjects;
+  private byte[] locations;
+  private byte[] statuses;
+  private int[] descriptions;
+  private int[] series;
+  private long[] ids;
+  private int size;
+
+  // the longest any event lasts, bounds how far back a scan for overlapping events has to start
+  private long longestEvent;
+  private int nextSeriesId;
+  private long nextId = 1;
+  // series id -> the starts of its rows, with how many of its rows start then, so the rows of a
+  // series are found by binary searches instead of a scan of every row
+  private final Map<Integer, TreeMap<Long, Integer>> seriesStarts;
+  // event id -> the series its rows belong to, or the start of its one row if it is not in a
+  // series, so the rows of an event are found without a scan of every row
+  private final Map<Long, Integer> seriesOfIds;
+  private final Map<Long, Long> singleStarts;
+
+  // the subjects and descriptions, rows hold their id in this table
+  private final SymbolTable symbols;
+
+  /**
+   * A public constructor for the ColumnarCalendarModelImpl class.
+   */
+  public ColumnarCalendarModelImpl() {
+    this.starts = new long[16];
+    this.ends = new long[16];
+    this.subjects = new int[16];
+    this.locations = new byte[16];
+    this.statuses = new byte[16];
+    this.descriptions = new int[16];
+    this.series = new int[16];
+    this.ids = new long[16];
+    this.symbols = new SymbolTable();
+    this.seriesStarts = new HashMap<>();
+    this.seriesOfIds = new HashMap<>();
+    this.singleStarts = new HashMap<>();
+  }
+
+  @Override
+  public boolean addSingleEvent(String subject, LocalDateTime start, LocalDateTime end) {
+    SingleEvent possibleEvent = new SingleEvent(subject, start, end);
+    if (exists(possibleEvent)) {
+      return false;
+    }
+    insert(possibleEvent, NO_SERIES, nextId++);
+    return true;
+  }
+
+  @Override
+  public boolean addRepeatingEvent(String subject, LocalDateTime start, LocalDateTime end,
+                                   String weekdays, int count) {
+    if (count <= 0) {
+      return false;
+    }
+    try {
+      return addSeries(new SeriesEvent(subject, start, end, weekdays, count));
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean addRepeatingEvent(String subject, LocalDateTime start, LocalDateTime end,
+                                   String weekdays, LocalDate endDate) {
+    if (start.toLocalDate().isAfter(endDate)) {
+      return false;
+    }
+    try {
+      return addSeries(new SeriesEvent(subject, start, end, weekdays, endDate));
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean addAll(Collection<EventSpec> specs) {
+    List<IEvent> events = new ArrayList<>(specs.size());
+    try {
+      for (EventSpec spec : specs) {
+        events.add(spec.toEvent());
+      }
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+
+    // every occurrence of the batch with the series and event it belongs to
+    List<SingleEvent> batch = new ArrayList<>();
+    List<Integer> batchSeries = new ArrayList<>();
+    List<Long> batchIds = new ArrayList<>();
+    int seriesId = nextSeriesId;
+    long eventId = nextId;
+    for (IEvent event : events) {
+      if (event instanceof SeriesEvent) {
+        for (SingleEvent occurrence : ((SeriesEvent) event).occurrences()) {
+          batch.add(occurrence);
+          batchSeries.add(seriesId);
+          batchIds.add(eventId);
+        }
+        seriesId++;
+      } else {
+        batch.add((SingleEvent) event);
+        batchSeries.add(NO_SERIES);
+        batchIds.add(eventId);
+      }
+      eventId++;
+    }
+    int[] order = IntStream.range(0, batch.size()).boxed()
+        .sorted((a, b) -> compareRows(batch.get(a), batch.get(b)))
+        .mapToInt(Integer::intValue).toArray();
+    for (int k = 1; k < order.length; k++) {
+      if (compareRows(batch.get(order[k - 1]), batch.get(order[k])) == 0) {
+        return false;
+      }
+    }
+    if (anyExists(batch, order)) {
+      return false;
+    }
+
+    // merges the sorted batch into the rows from the back so every row moves at most once
+    while (starts.length < size + order.length) {
+      grow();
+    }
+    int row = size - 1;
+    int at = size + order.length - 1;
+    for (int k = order.length - 1; k >= 0; k--) {
+      SingleEvent event = batch.get(order[k]);
+      long start = toMinutes(event.startDateTime);
+      long end = toMinutes(event.endDateTime);
+      while (row >= 0 && (starts[row] > start || (starts[row] == start && ends[row] > end))) {
+        moveRow(row--, at--);
+      }
+      write(at--, event, batchSeries.get(order[k]), batchIds.get(order[k]));
+    }
+    size += order.length;
+    nextSeriesId = seriesId;
+    nextId = eventId;
+    return true;
+  }
+
+  @Override
+  public boolean editSingleEvent(String subject, LocalDateTime start, LocalDateTime end,
+                                 String property, String newProperty) {
+    List<Integer> rows = new ArrayList<>();
+    int subjectId = symbols.idOf(subject);
+    if (end == null || subjectId == SymbolTable.ABSENT) {
+      return false;
+    }
+    for (int i = firstStartingAt(toMinutes(start)); i < size && starts[i] == toMinutes(start);
+         i++) {
+      if (ends[i] == toMinutes(end) && subjects[i] == subjectId) {
+        rows.add(i);
+      }
+    }
+    return attemptToEdit(rows, false, false, property, newProperty);
+  }
+
+  @Override
+  public boolean editFutureSeriesEvents(String subject, LocalDateTime start, String property,
+                                        String newProperty) {
+    return editSeries(subject, start, true, property, newProperty);
+  }
+
+  @Override
+  public boolean editEntireSeries(String subject, LocalDateTime start, String property,
+                                  String newProperty) {
+    return editSeries(subject, start, false, property, newProperty);
+  }
+
+  @Override
+  public boolean editById(long id, String property, String newProperty) {
+    List<Integer> rows = rowsOf(id);
+    boolean seriesWide = !rows.isEmpty() && series[rows.get(0)] != NO_SERIES;
+    return attemptToEdit(rows, seriesWide, false, property, newProperty);
+  }
+
+  @Override
+  public IEvent queryById(long id) {
+    HashSet<IEvent> found = materialize(rowsOf(id));
+    return found.isEmpty() ? null : found.iterator().next();
+  }
+
+  @Override
+  public HashSet<IEvent> queryEvent(LocalDate date) {
+    long dayStart = toMinutes(date.atStartOfDay());
+    long dayEnd = dayStart + MINUTES_PER_DAY - 1;
+    List<Integer> rows = new ArrayList<>();
+    for (int i = firstStartingAt(dayStart - longestEvent); i < size && starts[i] <= dayEnd; i++) {
+      if (ends[i] >= dayStart) {
+        rows.add(i);
+      }
+    }
+    return materialize(rows);
+  }
+
+  @Override
+  public HashSet<IEvent> queryEvent(LocalDateTime startTime, LocalDateTime endTime) {
+    long from = toMinutes(startTime);
+    long to = toMinutes(endTime);
+    List<Integer> rows = new ArrayList<>();
+    for (int i = firstStartingAt(from); i < size && starts[i] <= to; i++) {
+      if (ends[i] <= to) {
+        rows.add(i);
+      }
+    }
+    return materialize(rows);
+  }
+
+  @Override
+  public List<IEvent> queryEventsInOrder(LocalDate date, int offset, int limit)
+      throws IllegalArgumentException {
+    checkPage(offset, limit);
+    return streamEvents(date).skip(offset).limit(limit).collect(Collectors.toList());
+  }
+
+  @Override
+  public List<IEvent> queryEventsInOrder(LocalDateTime startTime, LocalDateTime endTime,
+                                         int offset, int limit)
+      throws IllegalArgumentException {
+    checkPage(offset, limit);
+    return streamEvents(startTime, endTime).skip(offset).limit(limit)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public Stream<IEvent> streamEvents(LocalDate date) {
+    long dayStart = toMinutes(date.atStartOfDay());
+    long dayEnd = dayStart + MINUTES_PER_DAY - 1;
+    return IntStream.range(firstStartingAt(dayStart - longestEvent), firstStartingAt(dayEnd + 1))
+        .filter(i -> ends[i] >= dayStart)
+        .mapToObj(this::view);
+  }
+
+  @Override
+  public Stream<IEvent> streamEvents(LocalDateTime startTime, LocalDateTime endTime) {
+    long from = toMinutes(startTime);
+    long to = toMinutes(endTime);
+    return IntStream.range(firstStartingAt(from), firstStartingAt(to + 1))
+        .filter(i -> ends[i] <= to)
+        .mapToObj(this::view);
+  }
+
+  @Override
+  public boolean getStatus(LocalDateTime dateTime) {
+    long time = toMinutes(dateTime);
+    for (int i = firstStartingAt(time - longestEvent); i < size && starts[i] <= time; i++) {
+      if (ends[i] >= time) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Adds every occurrence of a series if none of them would be duplicates
+  private boolean addSeries(SeriesEvent possibleEvent) {
+    List<SingleEvent> occurrences = possibleEvent.occurrences();
+    for (SingleEvent occurrence : occurrences) {
+      if (exists(occurrence)) {
+        return false;
+      }
+    }
+    int id = nextSeriesId++;
+    long eventId = nextId++;
+    for (SingleEvent occurrence : occurrences) {
+      insert(occurrence, id, eventId);
+    }
+    return true;
+  }
+
+  // Finds the rows of the series (or single event) with the given subject and start, and edits
+  // them, or only the ones from that start onwards which are split off into their own series
+  private boolean editSeries(String subject, LocalDateTime start, boolean onlyFuture,
+                             String property, String newProperty) {
+    long time = toMinutes(start);
+    int subjectId = symbols.idOf(subject);
+    HashSet<Integer> matchedSeries = new HashSet<>();
+    List<Integer> rows = new ArrayList<>();
+    for (int i = firstStartingAt(time); i < size && starts[i] == time; i++) {
+      if (subjects[i] == subjectId) {
+        if (series[i] == NO_SERIES) {
+          rows.add(i);
+        } else {
+          matchedSeries.add(series[i]);
+        }
+      }
+    }
+    boolean split = false;
+    for (int id : matchedSeries) {
+      for (int i : rowsOfSeries(id)) {
+        if (!onlyFuture || starts[i] >= time) {
+          rows.add(i);
+        } else {
+          split = true;
+        }
+      }
+    }
+    return attemptToEdit(rows, !matchedSeries.isEmpty(), split, property, newProperty);
+  }
+
+  // Edits the given rows all at once or not at all. Edits to whole series change the time of day
+  // of every occurrence, a split moves the edited rows into new series.
+  private boolean attemptToEdit(List<Integer> rows, boolean seriesWide, boolean split,
+                                String property, String newProperty) {
+    if (rows.isEmpty()) {
+      return false;
+    }
+    EventEdit edit;
+    try {
+      edit = EventEdit.parse(property, newProperty);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    List<SingleEvent> edited = new ArrayList<>();
+    for (int row : rows) {
+      SingleEvent event = view(row);
+      EventEdit rowEdit = edit;
+      if (seriesWide && series[row] != NO_SERIES && edit.getKind() == EventEdit.Kind.START) {
+        rowEdit = edit.onDate(event.startDateTime.toLocalDate());
+      } else if (seriesWide && series[row] != NO_SERIES
+          && edit.getKind() == EventEdit.Kind.END) {
+        rowEdit = edit.onDate(event.endDateTime.toLocalDate());
+      }
+      try {
+        edited.add((SingleEvent) event.getEdittedCopy(rowEdit));
+      } catch (IllegalArgumentException e) {
+        return false;
+      }
+    }
+
+    if (edit.changesIdentity()) {
+      // checks to make sure there won't be any duplicates made bc of this, either with the rows
+      // already stored or between the edited rows themselves
+      HashSet<SingleEvent> seen = new HashSet<>();
+      for (SingleEvent event : edited) {
+        if (exists(event) || !seen.add(event)) {
+          return false;
+        }
+      }
+    }
+
+    // actually applies the edits, every edited row is removed and inserted again in order
+    Map<Integer, Integer> newSeriesIds = new HashMap<>();
+    Map<Integer, Long> newEventIds = new HashMap<>();
+    int[] seriesOfRows = new int[rows.size()];
+    long[] idsOfRows = new long[rows.size()];
+    for (int i = 0; i < rows.size(); i++) {
+      int id = series[rows.get(i)];
+      idsOfRows[i] = ids[rows.get(i)];
+      if (split && id != NO_SERIES) {
+        idsOfRows[i] = newEventIds.computeIfAbsent(id, k -> nextId++);
+        id = newSeriesIds.computeIfAbsent(id, k -> nextSeriesId++);
+      }
+      seriesOfRows[i] = id;
+    }
+    int[] sorted = rows.stream().mapToInt(Integer::intValue).sorted().toArray();
+    for (int i = sorted.length - 1; i >= 0; i--) {
+      removeRow(sorted[i]);
+    }
+    for (int i = 0; i < edited.size(); i++) {
+      insert(edited.get(i), seriesOfRows[i], idsOfRows[i]);
+    }
+    return true;
+  }
+
+  // The rows of the event with the given id, found through its series or the start of its row
+  private List<Integer> rowsOf(long id) {
+    Integer seriesId = seriesOfIds.get(id);
+    if (seriesId != null) {
+      return rowsOfSeries(seriesId);
+    }
+    List<Integer> rows = new ArrayList<>();
+    Long start = singleStarts.get(id);
+    if (start != null) {
+      for (int i = firstStartingAt(start); i < size && starts[i] == start; i++) {
+        if (ids[i] == id) {
+          rows.add(i);
+        }
+      }
+    }
+    return rows;
+  }
+
+  // The rows of the series with the given id, in order
+  private List<Integer> rowsOfSeries(int seriesId) {
+    List<Integer> rows = new ArrayList<>();
+    for (long start : seriesStarts.getOrDefault(seriesId, new TreeMap<>()).keySet()) {
+      for (int i = firstStartingAt(start); i < size && starts[i] == start; i++) {
+        if (series[i] == seriesId) {
+          rows.add(i);
+        }
+      }
+    }
+    return rows;
+  }
+
+  // Checks whether any of the events, in the given order, is already stored by walking the rows
+  // alongside them once
+  private boolean anyExists(List<SingleEvent> events, int[] order) {
+    int row = 0;
+    for (int k : order) {
+      SingleEvent event = events.get(k);
+      long start = toMinutes(event.startDateTime);
+      long end = toMinutes(event.endDateTime);
+      while (row < size && (starts[row] < start || (starts[row] == start && ends[row] < end))) {
+        row++;
+      }
+      int subject = symbols.idOf(event.subject);
+      for (int i = row; i < size && starts[i] == start && ends[i] == end; i++) {
+        if (subjects[i] == subject) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  // Orders events the way rows are stored: by start, then end to the minute, then subject
+  private static int compareRows(SingleEvent a, SingleEvent b) {
+    int c = Long.compare(toMinutes(a.startDateTime), toMinutes(b.startDateTime));
+    if (c == 0) {
+      c = Long.compare(toMinutes(a.endDateTime), toMinutes(b.endDateTime));
+    }
+    return c != 0 ? c : a.subject.compareTo(b.subject);
+  }
+
+  // Checks whether an event with the same subject, start, and end is already stored
+  private boolean exists(SingleEvent event) {
+    long start = toMinutes(event.startDateTime);
+    long end = toMinutes(event.endDateTime);
+    int subject = symbols.idOf(event.subject);
+    if (subject == SymbolTable.ABSENT) {
+      return false;
+    }
+    for (int i = firstStartingAt(start); i < size && starts[i] == start; i++) {
+      if (ends[i] == end && subjects[i] == subject) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Builds the events for the given rows, rows of the same series are grouped into one series
+  // holding only those occurrences
+  private HashSet<IEvent> materialize(List<Integer> rows) {
+    HashSet<IEvent> r = new HashSet<>();
+    Map<Integer, List<SingleEvent>> bySeries = new LinkedHashMap<>();
+    Map<Integer, String> seriesSubjects = new HashMap<>();
+    for (int row : rows) {
+      if (series[row] == NO_SERIES) {
+        r.add(view(row));
+      } else {
+        bySeries.computeIfAbsent(series[row], k -> new ArrayList<>()).add(view(row));
+        seriesSubjects.putIfAbsent(series[row], symbols.get(subjects[row]));
+      }
+    }
+    for (Map.Entry<Integer, List<SingleEvent>> entry : bySeries.entrySet()) {
+      r.add(SeriesEvent.of(seriesSubjects.get(entry.getKey()), entry.getValue()));
+    }
+    return r;
+  }
+
+  private static void checkPage(int offset, int limit) {
+    if (offset < 0 || limit < 0) {
+      throw new IllegalArgumentException("Offset and limit cannot be negative");
+    }
+  }
+
+  // Creates the event a row describes
+  private SingleEvent view(int row) {
+    return new SingleEvent(symbols.get(subjects[row]), fromMinutes(starts[row]),
+        fromMinutes(ends[row]), decodeLocation(locations[row]), decodeStatus(statuses[row]),
+        descriptions[row] == NO_DESCRIPTION ? null : symbols.get(descriptions[row]));
+  }
+
+  private void insert(SingleEvent event, int seriesId, long eventId) {
+    long start = toMinutes(event.startDateTime);
+    long end = toMinutes(event.endDateTime);
+    int at = firstStartingAt(start);
+    while (at < size && starts[at] == start && ends[at] <= end) {
+      at++;
+    }
+    if (size == starts.length) {
+      grow();
+    }
+    int moved = size - at;
+    System.arraycopy(starts, at, starts, at + 1, moved);
+    System.arraycopy(ends, at, ends, at + 1, moved);
+    System.arraycopy(subjects, at, subjects, at + 1, moved);
+    System.arraycopy(locations, at, locations, at + 1, moved);
+    System.arraycopy(statuses, at, statuses, at + 1, moved);
+    System.arraycopy(descriptions, at, descriptions, at + 1, moved);
+    System.arraycopy(series, at, series, at + 1, moved);
+    System.arraycopy(ids, at, ids, at + 1, moved);
+    write(at, event, seriesId, eventId);
+    size++;
+  }
+
+  // Fills in the given row with an event, the row must already be free
+  private void write(int at, SingleEvent event, int seriesId, long eventId) {
+    long start = toMinutes(event.startDateTime);
+    long end = toMinutes(event.endDateTime);
+    starts[at] = start;
+    ends[at] = end;
+    subjects[at] = symbols.acquire(event.subject);
+    locations[at] = event.location == null ? 0 : (byte) (event.location.ordinal() + 1);
+    statuses[at] = event.status == null ? 0 : (byte) (event.status.ordinal() + 1);
+    descriptions[at] = event.description == null ? NO_DESCRIPTION
+        : symbols.acquire(event.description);
+    series[at] = seriesId;
+    ids[at] = eventId;
+    if (seriesId != NO_SERIES) {
+      seriesStarts.computeIfAbsent(seriesId, k -> new TreeMap<>()).merge(start, 1, Integer::sum);
+      seriesOfIds.put(eventId, seriesId);
+    } else {
+      singleStarts.put(eventId, start);
+    }
+    longestEvent = Math.max(longestEvent, end - start);
+  }
+
+  private void moveRow(int from, int to) {
+    starts[to] = starts[from];
+    ends[to] = ends[from];
+    subjects[to] = subjects[from];
+    locations[to] = locations[from];
+    statuses[to] = statuses[from];
+    descriptions[to] = descriptions[from];
+    series[to] = series[from];
+    ids[to] = ids[from];
+  }
+
+  private void removeRow(int row) {
+    if (series[row] != NO_SERIES) {
+      TreeMap<Long, Integer> rowStarts = seriesStarts.get(series[row]);
+      rowStarts.merge(starts[row], -1, (a, b) -> a + b == 0 ? null : a + b);
+      if (rowStarts.isEmpty()) {
+        seriesStarts.remove(series[row]);
+        seriesOfIds.remove(ids[row]);
+      }
+    } else {
+      singleStarts.remove(ids[row]);
+    }
+    symbols.release(subjects[row]);
+    if (descriptions[row] != NO_DESCRIPTION) {
+      symbols.release(descriptions[row]);
+    }
+    int moved = size - row - 1;
+    System.arraycopy(starts, row + 1, starts, row, moved);
+    System.arraycopy(ends, row + 1, ends, row, moved);
+    System.arraycopy(subjects, row + 1, subjects, row, moved);
+    System.arraycopy(locations, row + 1, locations, row, moved);
+    System.arraycopy(statuses, row + 1, statuses, row, moved);
+    System.arraycopy(descriptions, row + 1, descriptions, row, moved);
+    System.arraycopy(series, row + 1, series, row, moved);
+    System.arraycopy(ids, row + 1, ids, row, moved);
+    size--;
+  }
+
+  private void grow() {
+    int capacity = starts.length * 2;
+    starts = Arrays.copyOf(starts, capacity);
+    ends = Arrays.copyOf(ends, capacity);
+    subjects = Arrays.copyOf(subjects, capacity);
+    locations = Arrays.copyOf(locations, capacity);
+    statuses = Arrays.copyOf(statuses, capacity);
+    descriptions = Arrays.copyOf(descriptions, capacity);
+    series = Arrays.copyOf(series, capacity);
+    ids = Arrays.copyOf(ids, capacity);
+  }
+
+  // The index of the first row starting at or after the given minute
+  private int firstStartingAt(long minute) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (starts[mid] < minute) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private static Location decodeLocation(byte code) {
+    return code == 0 ? null : Location.values()[code - 1];
+  }
+
+  private static Status decodeStatus(byte code) {
+    return code == 0 ? null : Status.values()[code - 1];
+  }
+
+  private static long toMinutes(LocalDateTime dateTime) {
+    return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+  }
+
+  private static LocalDateTime fromMinutes(long minutes) {
+    return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+  }
+}
@@ -0,0 +1,183 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Writes event occurrences as UTF-8 CSV (RFC 4180) rows straight into a buffer that is drained
+ * into a channel whenever it fills, so no row is ever built as a String. Each row is the subject,
+ * start, end, location, status and description of one occurrence, times as yyyy-MM-ddTHH:mm.
+ */
+final class CsvWriter {
+  static final String HEADER = "Subject,Start,End,Location,Status,Description";
+  private static final int BUFFER_SIZE = 1 << 16;
+  // the longest thing written without checking for room one character at a time
+  private static final int MAX_DATE_TIME = 32;
+
+  private final WritableByteChannel out;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  // a lone surrogate is written as a replacement character the way String.getBytes would
+  private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+  /**
+   * Starts a CSV document by writing its header row.
+   *
+   * @param out where to write the rows, it is not closed by this writer
+   * @throws IOException if the header could not be written
+   */
+  CsvWriter(WritableByteChannel out) throws IOException {
+    this.out = out;
+    ascii(HEADER);
+    endRow();
+  }
+
+  /**
+   * Writes one occurrence as a row.
+   *
+   * @param event the occurrence to write
+   * @throws IOException if the row could not be written
+   */
+  void write(SingleEvent event) throws IOException {
+    text(event.subject);
+    comma();
+    dateTime(event.startDateTime);
+    comma();
+    dateTime(event.endDateTime);
+    comma();
+    if (event.location != null) {
+      ascii(event.location.name());
+    }
+    comma();
+    if (event.status != null) {
+      ascii(event.status.name());
+    }
+    comma();
+    if (event.description != null) {
+      text(event.description);
+    }
+    endRow();
+  }
+
+  /**
+   * Writes out whatever is still buffered.
+   *
+   * @throws IOException if it could not be written
+   */
+  void finish() throws IOException {
+    drain();
+  }
+
+  private void comma() throws IOException {
+    room(1);
+    buffer.put((byte) ',');
+  }
+
+  private void endRow() throws IOException {
+    room(2);
+    buffer.put((byte) '\r').put((byte) '\n');
+  }
+
+  // Writes a value known to be plain ASCII that never needs quoting
+  private void ascii(String value) throws IOException {
+    for (int i = 0; i < value.length(); i++) {
+      room(1);
+      buffer.put((byte) value.charAt(i));
+    }
+  }
+
+  // Writes a value quoted if it holds a comma, quote or line break, doubling any quotes in it
+  private void text(String value) throws IOException {
+    boolean quote = false;
+    for (int i = 0; i < value.length() && !quote; i++) {
+      char c = value.charAt(i);
+      quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    if (quote) {
+      room(1);
+      buffer.put((byte) '"');
+    }
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c >= 0x80) {
+        // rare enough to go through the encoder, which handles surrogate pairs
+        int end = i + 1;
+        while (end < value.length() && value.charAt(end) >= 0x80) {
+          end++;
+        }
+        encode(CharBuffer.wrap(value, i, end));
+        i = end - 1;
+        continue;
+      }
+      room(2);
+      if (c == '"') {
+        buffer.put((byte) '"');
+      }
+      buffer.put((byte) c);
+    }
+    if (quote) {
+      room(1);
+      buffer.put((byte) '"');
+    }
+  }
+
+  private void encode(CharBuffer chars) throws IOException {
+    encoder.reset();
+    while (encoder.encode(chars, buffer, true).isOverflow()) {
+      drain();
+    }
+    while (encoder.flush(buffer).isOverflow()) {
+      drain();
+    }
+  }
+
+  private void dateTime(LocalDateTime time) throws IOException {
+    room(MAX_DATE_TIME);
+    int year = time.getYear();
+    if (year < 0 || year > 9999) {
+      // outside of what fits in four digits, written the way LocalDateTime prints it
+      ascii(time.toString());
+      return;
+    }
+    digits(year, 4);
+    buffer.put((byte) '-');
+    digits(time.getMonthValue(), 2);
+    buffer.put((byte) '-');
+    digits(time.getDayOfMonth(), 2);
+    buffer.put((byte) 'T');
+    digits(time.getHour(), 2);
+    buffer.put((byte) ':');
+    digits(time.getMinute(), 2);
+  }
+
+  // Writes a non-negative number zero padded to the given width
+  private void digits(int value, int width) {
+    int at = buffer.position() + width;
+    for (int i = 1; i <= width; i++) {
+      buffer.put(at - i, (byte) ('0' + value % 10));
+      value /= 10;
+    }
+    buffer.position(at);
+  }
+
+  private void room(int bytes) throws IOException {
+    if (buffer.remaining() < bytes) {
+      drain();
+    }
+  }
+
+  private void drain() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      out.write(buffer);
+    }
+    buffer.clear();
+  }
+}
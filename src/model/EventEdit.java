@@ -0,0 +1,305 @@
+package model;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * One change to make to an event, with its new value already parsed. Edits coming from the user
+ * are parsed once with {@link #parse(String, String)} and the same edit is then applied to every
+ * occurrence it affects, edits the model makes on its own (moving or copying events between dates
+ * and timezones) are created directly with the other factory methods.
+ */
+public final class EventEdit {
+
+  /**
+   * The kinds of edits that can be made.
+   */
+  public enum Kind {
+    SUBJECT,
+    DESCRIPTION,
+    LOCATION,
+    STATUS,
+    START,
+    END,
+    // moves the start to the new time, keeping the length of the event
+    MOVE_START,
+    // moves the event to the new date, then by the shift
+    MOVE_TO_DATE,
+    // moves the event by the days between the two dates and its time of day by the shift
+    MOVE_RELATIVE
+  }
+
+  private final Kind kind;
+  private final String text;
+  private final Location location;
+  private final Status status;
+  private final LocalDateTime dateTime;
+  private final LocalDate date;
+  private final LocalDate relativeTo;
+  private final Duration shift;
+
+  private EventEdit(Kind kind, String text, Location location, Status status,
+                    LocalDateTime dateTime, LocalDate date, LocalDate relativeTo, Duration shift) {
+    this.kind = kind;
+    this.text = text;
+    this.location = location;
+    this.status = status;
+    this.dateTime = dateTime;
+    this.date = date;
+    this.relativeTo = relativeTo;
+    this.shift = shift;
+  }
+
+  /**
+   * Parses an edit the user asked for.
+   *
+   * @param property    the property to change one of: subject, start, end, description,
+   *                    location, status, or one of the moves written as text: endWithStart
+   *                    (start), tzAndDateChange (date/shift), tzAndRelativeDateChange
+   *                    (relativeTo/date/shift)
+   * @param newProperty the new value the property should have
+   * @return the parsed edit
+   * @throws IllegalArgumentException if the property or newProperty are not valid properties or
+   *                                  property values respectively
+   */
+  public static EventEdit parse(String property, String newProperty)
+      throws IllegalArgumentException {
+    switch (property) {
+      case "subject":
+        return setSubject(newProperty);
+      case "description":
+        return setDescription(newProperty);
+      case "location":
+        switch (newProperty) {
+          case "online":
+            return setLocation(Location.ONLINE);
+          case "physical":
+            return setLocation(Location.PHYSICAL);
+          default:
+            throw new IllegalArgumentException("Invalid location property must be one of" +
+                "'online', 'physical'");
+        }
+      case "status":
+        switch (newProperty) {
+          case "public":
+            return setStatus(Status.PUBLIC);
+          case "private":
+            return setStatus(Status.PRIVATE);
+          default:
+            throw new IllegalArgumentException("Invalid status property must be one of" +
+                "'public', 'private'");
+        }
+      case "start":
+        return setStart(parseDateTime(newProperty));
+      case "end":
+        return setEnd(parseDateTime(newProperty));
+      case "endWithStart":
+        return moveStartTo(parseDateTime(newProperty));
+      case "tzAndDateChange":
+      case "tzAndRelativeDateChange":
+        return parseMove(property, newProperty.split("/"));
+      default:
+        throw new IllegalArgumentException("Unknown property: " + property);
+    }
+  }
+
+  /**
+   * Creates an edit that changes the subject.
+   *
+   * @param subject the new subject
+   * @return the edit
+   */
+  public static EventEdit setSubject(String subject) {
+    return new EventEdit(Kind.SUBJECT, subject, null, null, null, null, null, null);
+  }
+
+  /**
+   * Creates an edit that changes the description.
+   *
+   * @param description the new description
+   * @return the edit
+   */
+  public static EventEdit setDescription(String description) {
+    return new EventEdit(Kind.DESCRIPTION, description, null, null, null, null, null, null);
+  }
+
+  /**
+   * Creates an edit that changes the location.
+   *
+   * @param location the new location
+   * @return the edit
+   */
+  public static EventEdit setLocation(Location location) {
+    return new EventEdit(Kind.LOCATION, null, location, null, null, null, null, null);
+  }
+
+  /**
+   * Creates an edit that changes the status.
+   *
+   * @param status the new status
+   * @return the edit
+   */
+  public static EventEdit setStatus(Status status) {
+    return new EventEdit(Kind.STATUS, null, null, status, null, null, null, null);
+  }
+
+  /**
+   * Creates an edit that changes the start, for a whole series only its time of day is used.
+   *
+   * @param start the new start
+   * @return the edit
+   */
+  public static EventEdit setStart(LocalDateTime start) {
+    return new EventEdit(Kind.START, null, null, null, start, null, null, null);
+  }
+
+  /**
+   * Creates an edit that changes the end, for a whole series only its time of day is used.
+   *
+   * @param end the new end
+   * @return the edit
+   */
+  public static EventEdit setEnd(LocalDateTime end) {
+    return new EventEdit(Kind.END, null, null, null, end, null, null, null);
+  }
+
+  /**
+   * Creates an edit that moves an event to start at the given time and keeps its length. The
+   * other occurrences of a series keep their distance from the first one.
+   *
+   * @param start the new start of the (first) occurrence
+   * @return the edit
+   */
+  public static EventEdit moveStartTo(LocalDateTime start) {
+    return new EventEdit(Kind.MOVE_START, null, null, null, start, null, null, null);
+  }
+
+  /**
+   * Creates an edit that moves an event to the given date at the same time of day and then by the
+   * shift, which may move it to another day. The other occurrences of a series move by as much as
+   * the first one.
+   *
+   * @param date  the new date of the (first) occurrence
+   * @param shift how much to move it by afterwards
+   * @return the edit
+   */
+  public static EventEdit moveToDate(LocalDate date, Duration shift) {
+    return new EventEdit(Kind.MOVE_TO_DATE, null, null, null, null, date, null, shift);
+  }
+
+  /**
+   * Creates an edit that moves an event by the days between the two dates and its time of day by
+   * the shift, so an event a few days after relativeTo ends up as many days after date.
+   *
+   * @param relativeTo the date the event's distance is measured from
+   * @param date       the date to keep the same distance from
+   * @param shift      how much to move the time of day by
+   * @return the edit
+   */
+  public static EventEdit moveRelative(LocalDate relativeTo, LocalDate date, Duration shift) {
+    return new EventEdit(Kind.MOVE_RELATIVE, null, null, null, null, date, relativeTo, shift);
+  }
+
+  /**
+   * Gets what kind of edit this is.
+   *
+   * @return the kind of edit
+   */
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Checks whether the edit changes the subject, start, or end, which is what makes two events
+   * duplicates of each other.
+   *
+   * @return whether the edit could create a duplicate
+   */
+  public boolean changesIdentity() {
+    return kind == Kind.SUBJECT || kind == Kind.START || kind == Kind.END;
+  }
+
+  /**
+   * Checks whether the edit only changes the subject, description, location, or status.
+   *
+   * @return whether the edit leaves the times alone
+   */
+  boolean isMetadata() {
+    return kind == Kind.SUBJECT || kind == Kind.DESCRIPTION || kind == Kind.LOCATION
+        || kind == Kind.STATUS;
+  }
+
+  /**
+   * Gets the same start or end edit but on another date, keeping the time of day.
+   *
+   * @param newDate the date to use
+   * @return the edit on the new date
+   */
+  EventEdit onDate(LocalDate newDate) {
+    return new EventEdit(kind, null, null, null, newDate.atTime(dateTime.toLocalTime()), null,
+        null, null);
+  }
+
+  /**
+   * Gets the same start, end, or move edit but to another time.
+   *
+   * @param newDateTime the time to use
+   * @return the edit to the new time
+   */
+  EventEdit at(LocalDateTime newDateTime) {
+    return new EventEdit(kind, null, null, null, newDateTime, null, null, null);
+  }
+
+  String getText() {
+    return text;
+  }
+
+  Location getLocation() {
+    return location;
+  }
+
+  Status getStatus() {
+    return status;
+  }
+
+  LocalDateTime getDateTime() {
+    return dateTime;
+  }
+
+  LocalDate getDate() {
+    return date;
+  }
+
+  LocalDate getRelativeTo() {
+    return relativeTo;
+  }
+
+  Duration getShift() {
+    return shift;
+  }
+
+  // Parses the parts of a move written as text
+  private static EventEdit parseMove(String property, String[] info) {
+    try {
+      if (property.equals("tzAndDateChange") && info.length == 2) {
+        return moveToDate(LocalDate.parse(info[0]), Duration.parse(info[1]));
+      } else if (property.equals("tzAndRelativeDateChange") && info.length == 3) {
+        return moveRelative(LocalDate.parse(info[0]), LocalDate.parse(info[1]),
+            Duration.parse(info[2]));
+      }
+    } catch (DateTimeParseException e) {
+      // reported below
+    }
+    throw new IllegalArgumentException("Invalid " + property + " value");
+  }
+
+  private static LocalDateTime parseDateTime(String value) {
+    try {
+      return LocalDateTime.parse(value);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid date time format");
+    }
+  }
+}
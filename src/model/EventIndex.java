@@ -0,0 +1,617 @@
+package model;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Keeps the lookup structures of a calendar in sync with its events. Single events are indexed on
+ * their own, a series is indexed once by the span of time it covers and by the shape of its
+ * regular occurrences, so adding a long series does not cost one entry per occurrence. Only the
+ * occurrences a series stores explicitly are indexed one by one for duplicate checks.
+ *
+ * <p>Events added with {@link #addAll(List)}, as when a calendar is loaded, only go into the
+ * interval trees at first. Everything else is built from them in one pass the first time the index
+ * is changed or checked for duplicates, so a loaded calendar can answer queries straight away.
+ */
+class EventIndex {
+  /**
+   * The order occurrences are returned in: by start, then end, then subject.
+   */
+  static final Comparator<SingleEvent> ORDER = Comparator
+      .comparing((SingleEvent e) -> e.startDateTime)
+      .thenComparing(e -> e.endDateTime)
+      .thenComparing(e -> e.subject);
+  // ORDER without the subject, occurrences with the same start and end are next to each other
+  private static final Comparator<SingleEvent> BY_TIME = Comparator
+      .comparing((SingleEvent e) -> e.startDateTime)
+      .thenComparing(e -> e.endDateTime);
+
+  private final IntervalTree<SingleEvent> singles;
+  // epoch day -> single events on that day, an event spanning several days is in each of them
+  private final Map<Long, List<SingleEvent>> byDay;
+  private final IntervalTree<SeriesEvent> series;
+  // (subject, start time, duration) -> series whose regular occurrences look like that
+  private final Map<ShapeKey, List<SeriesEvent>> byShape;
+  // subject -> series whose rule is in another timezone, their regular occurrences do not all
+  // start at the same time of day so they have no one shape
+  private final Map<String, List<SeriesEvent>> zonedBySubject;
+  // (subject, start, end) -> how many single events or stored occurrences have that key
+  private final Map<DuplicateKey, Integer> byKey;
+  // what was indexed for each top level event, events are mutable so this is needed to remove them
+  private final Map<IEvent, Indexed> indexed;
+  private final FreeBusyMap busy;
+  // events added by addAll that are only in the interval trees so far, null once all are indexed
+  private List<IEvent> unsettled;
+
+  EventIndex() {
+    this.singles = new IntervalTree<>();
+    this.byDay = new HashMap<>();
+    this.series = new IntervalTree<>();
+    this.byShape = new HashMap<>();
+    this.zonedBySubject = new HashMap<>();
+    this.byKey = new HashMap<>();
+    this.indexed = new IdentityHashMap<>();
+    this.busy = new FreeBusyMap(this::occurrencesOn);
+  }
+
+  /**
+   * Indexes a top level event of the calendar.
+   *
+   * @param event the event that was added to the calendar
+   */
+  void add(IEvent event) {
+    settle();
+    if (event instanceof SingleEvent) {
+      SingleEvent single = (SingleEvent) event;
+      singles.insert(single.startDateTime, single.endDateTime, single);
+      busy.mark(single.startDateTime, single.endDateTime);
+    } else if (event instanceof SeriesEvent) {
+      SeriesEvent seriesEvent = (SeriesEvent) event;
+      if (seriesEvent.spanStart() != null) {
+        series.insert(seriesEvent.spanStart(), seriesEvent.spanEnd(), seriesEvent);
+        busy.forget(seriesEvent.spanStart(), seriesEvent.spanEnd());
+      }
+    }
+    index(event);
+  }
+
+  /**
+   * Indexes many top level events at once, the single events are put in their interval tree
+   * together which is much faster into an empty index when they are in {@link #ORDER}. Only the
+   * interval trees are filled now, the rest of the index is built when it is first needed, and
+   * every day the free/busy map had worked out is worked out again.
+   *
+   * @param events the events that were added to the calendar
+   */
+  void addAll(List<? extends IEvent> events) {
+    List<SingleEvent> added = new ArrayList<>(events.size());
+    for (IEvent event : events) {
+      if (event instanceof SingleEvent) {
+        added.add((SingleEvent) event);
+      } else if (event instanceof SeriesEvent) {
+        SeriesEvent seriesEvent = (SeriesEvent) event;
+        if (seriesEvent.spanStart() != null) {
+          series.insert(seriesEvent.spanStart(), seriesEvent.spanEnd(), seriesEvent);
+        }
+      }
+    }
+    singles.insertAll(added, e -> e.startDateTime, e -> e.endDateTime);
+    busy.clear();
+    if (unsettled == null) {
+      unsettled = new ArrayList<>(events.size());
+    }
+    unsettled.addAll(events);
+  }
+
+  // Indexes the events addAll only put in the interval trees. Done before anything but the trees
+  // is read or changed, and so before any of those events can have been changed.
+  private void settle() {
+    if (unsettled == null) {
+      return;
+    }
+    List<IEvent> pending = unsettled;
+    unsettled = null;
+    for (IEvent event : pending) {
+      index(event);
+    }
+  }
+
+  // Indexes an event everywhere but its interval tree and the free/busy map
+  private void index(IEvent event) {
+    Indexed entry = new Indexed();
+    if (event instanceof SingleEvent) {
+      SingleEvent single = (SingleEvent) event;
+      entry.start = single.startDateTime;
+      entry.end = single.endDateTime;
+      entry.keys.add(new DuplicateKey(single));
+      for (long day = firstDay(entry); day <= lastDay(entry); day++) {
+        byDay.computeIfAbsent(day, k -> new ArrayList<>(2)).add(single);
+      }
+    } else if (event instanceof SeriesEvent) {
+      SeriesEvent seriesEvent = (SeriesEvent) event;
+      entry.start = seriesEvent.spanStart();
+      entry.end = seriesEvent.spanEnd();
+      RecurrenceRule rule = seriesEvent.getRule();
+      if (rule != null && rule.getCount() > 0 && seriesEvent.getZone() != null) {
+        entry.zonedSubject = seriesEvent.getSubject();
+        zonedBySubject.computeIfAbsent(entry.zonedSubject, k -> new ArrayList<>(1))
+            .add(seriesEvent);
+      } else if (rule != null && rule.getCount() > 0) {
+        entry.shape = new ShapeKey(seriesEvent.getSubject(), rule.getStartTime(),
+            rule.getDuration());
+        byShape.computeIfAbsent(entry.shape, k -> new ArrayList<>(1)).add(seriesEvent);
+      }
+      for (SingleEvent occurrence : seriesEvent.explicitOccurrences()) {
+        entry.keys.add(new DuplicateKey(occurrence));
+      }
+    } else {
+      return;
+    }
+    for (DuplicateKey key : entry.keys) {
+      byKey.merge(key, 1, Integer::sum);
+    }
+    indexed.put(event, entry);
+  }
+
+  /**
+   * Removes a top level event from the index using what it looked like when it was added, so it
+   * may be called after the event has been changed.
+   *
+   * @param event the event to remove
+   */
+  void remove(IEvent event) {
+    settle();
+    Indexed entry = indexed.remove(event);
+    if (entry == null) {
+      return;
+    }
+    if (entry.start != null) {
+      busy.forget(entry.start, entry.end);
+    }
+    if (event instanceof SingleEvent) {
+      singles.remove(entry.start, entry.end, (SingleEvent) event);
+      for (long day = firstDay(entry); day <= lastDay(entry); day++) {
+        List<SingleEvent> onDay = byDay.get(day);
+        if (onDay != null) {
+          removeByIdentity(onDay, event);
+          if (onDay.isEmpty()) {
+            byDay.remove(day);
+          }
+        }
+      }
+    } else {
+      if (entry.start != null) {
+        series.remove(entry.start, entry.end, (SeriesEvent) event);
+      }
+      if (entry.shape != null) {
+        List<SeriesEvent> sameShape = byShape.get(entry.shape);
+        removeByIdentity(sameShape, event);
+        if (sameShape.isEmpty()) {
+          byShape.remove(entry.shape);
+        }
+      }
+      if (entry.zonedSubject != null) {
+        List<SeriesEvent> sameSubject = zonedBySubject.get(entry.zonedSubject);
+        removeByIdentity(sameSubject, event);
+        if (sameSubject.isEmpty()) {
+          zonedBySubject.remove(entry.zonedSubject);
+        }
+      }
+    }
+    for (DuplicateKey key : entry.keys) {
+      byKey.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+  }
+
+  /**
+   * Removes everything from the index.
+   */
+  void clear() {
+    singles.clear();
+    byDay.clear();
+    series.clear();
+    byShape.clear();
+    zonedBySubject.clear();
+    byKey.clear();
+    indexed.clear();
+    busy.clear();
+    unsettled = null;
+  }
+
+  /**
+   * Checks whether any occurrence of the given event has the same subject, start, and end as an
+   * occurrence already in the index.
+   *
+   * @param event the event to check
+   * @return whether the event would be a duplicate
+   */
+  boolean containsDuplicateOf(IEvent event) {
+    settle();
+    List<SingleEvent> occurrences = new ArrayList<>();
+    if (event instanceof SeriesEvent) {
+      occurrences.addAll(((SeriesEvent) event).occurrences());
+    } else if (event instanceof SingleEvent) {
+      occurrences.add((SingleEvent) event);
+    }
+    for (SingleEvent occurrence : occurrences) {
+      if (byKey.containsKey(new DuplicateKey(occurrence))) {
+        return true;
+      }
+      List<SeriesEvent> sameShape = byShape.get(new ShapeKey(occurrence.subject,
+          occurrence.startDateTime.toLocalTime(),
+          Duration.between(occurrence.startDateTime, occurrence.endDateTime)));
+      if (sameShape != null) {
+        for (SeriesEvent candidate : sameShape) {
+          if (candidate.generatesOn(occurrence.startDateTime.toLocalDate())) {
+            return true;
+          }
+        }
+      }
+      List<SeriesEvent> sameSubject = zonedBySubject.get(occurrence.subject);
+      if (sameSubject != null) {
+        for (SeriesEvent candidate : sameSubject) {
+          if (candidate.generates(occurrence)) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether any of the given occurrences has the same subject, start, and end as an
+   * occurrence already in the index. The occurrences must be sorted in {@link #ORDER}, the index
+   * is then walked once in the same order alongside them instead of being looked up for each.
+   *
+   * @param sorted the occurrences to check in order
+   * @return whether any of them would be a duplicate
+   */
+  boolean containsAnyOf(List<SingleEvent> sorted) {
+    if (sorted.isEmpty()) {
+      return false;
+    }
+    LocalDateTime last = sorted.get(0).endDateTime;
+    for (SingleEvent occurrence : sorted) {
+      if (occurrence.endDateTime.isAfter(last)) {
+        last = occurrence.endDateTime;
+      }
+    }
+    Iterator<SingleEvent> existing = occurrencesBetween(sorted.get(0).startDateTime, last);
+    SingleEvent current = existing.hasNext() ? existing.next() : null;
+    // the subjects of the existing occurrences with the start and end being looked at
+    Set<String> sameTimes = new HashSet<>();
+    SingleEvent previous = null;
+    for (SingleEvent occurrence : sorted) {
+      if (previous == null || BY_TIME.compare(previous, occurrence) != 0) {
+        sameTimes.clear();
+        while (current != null && BY_TIME.compare(current, occurrence) < 0) {
+          current = existing.hasNext() ? existing.next() : null;
+        }
+        while (current != null && BY_TIME.compare(current, occurrence) == 0) {
+          sameTimes.add(current.subject);
+          current = existing.hasNext() ? existing.next() : null;
+        }
+      }
+      if (sameTimes.contains(occurrence.subject)) {
+        return true;
+      }
+      previous = occurrence;
+    }
+    return false;
+  }
+
+  /**
+   * Finds all events that are completely between the two times. A series is returned as a series
+   * holding only the matching occurrences.
+   *
+   * @param startTime The DateTime lower bound
+   * @param endTime   The DateTime upper bound
+   * @return All the events found in the given range (if any)
+   */
+  HashSet<IEvent> queryBetween(LocalDateTime startTime, LocalDateTime endTime) {
+    return matchesBetween(startTime, endTime).collect(Collectors.toCollection(HashSet::new));
+  }
+
+  /**
+   * Finds all events on the given date. A series is returned as a series holding only the
+   * occurrences on that date.
+   *
+   * @param date The date to check
+   * @return All the events found on that date (if any)
+   */
+  HashSet<IEvent> queryOnDate(LocalDate date) {
+    return matchesOn(date).collect(Collectors.toCollection(HashSet::new));
+  }
+
+  /**
+   * Streams the events {@link #queryBetween} finds, each series is only cut down to its matching
+   * occurrences when the stream reaches it.
+   *
+   * @param startTime The DateTime lower bound
+   * @param endTime   The DateTime upper bound
+   * @return the events found in the given range
+   */
+  Stream<IEvent> matchesBetween(LocalDateTime startTime, LocalDateTime endTime) {
+    return Stream.concat(stream(singles.iterateWithin(startTime, endTime)),
+        series.findOverlapping(startTime, endTime).stream()
+            .map(candidate -> candidate.getIfBetween(startTime, endTime))
+            .filter(Objects::nonNull));
+  }
+
+  /**
+   * Streams the events {@link #queryOnDate} finds, each series is only cut down to its occurrences
+   * on that date when the stream reaches it.
+   *
+   * @param date The date to check
+   * @return the events found on that date
+   */
+  Stream<IEvent> matchesOn(LocalDate date) {
+    return Stream.concat(singlesOn(date).stream(),
+        series.findOverlapping(date.atStartOfDay(), date.atTime(LocalTime.MAX)).stream()
+            .map(candidate -> candidate.getIfEventIsOnDate(date))
+            .filter(Objects::nonNull));
+  }
+
+  /**
+   * Streams the events that overlap the range at all, each series is only cut down to its
+   * overlapping occurrences when the stream reaches it.
+   *
+   * @param startTime The DateTime lower bound
+   * @param endTime   The DateTime upper bound
+   * @return the events overlapping the range
+   */
+  Stream<IEvent> matchesOverlapping(LocalDateTime startTime, LocalDateTime endTime) {
+    return Stream.concat(singles.findOverlapping(startTime, endTime).stream(),
+        series.findOverlapping(startTime, endTime).stream()
+            .map(candidate -> candidate.getIfOverlapping(startTime, endTime))
+            .filter(Objects::nonNull));
+  }
+
+  /**
+   * Wraps an iterator in a sequential stream that pulls from it only as it is consumed.
+   *
+   * @param events the iterator to wrap
+   * @return the stream
+   */
+  static Stream<IEvent> stream(Iterator<? extends IEvent> events) {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(events,
+        Spliterator.ORDERED | Spliterator.NONNULL), false);
+  }
+
+  /**
+   * Iterates lazily over every occurrence that is completely between the two times in start time
+   * order, occurrences of a series are returned one by one.
+   *
+   * @param startTime The DateTime lower bound
+   * @param endTime   The DateTime upper bound
+   * @return an iterator over the occurrences
+   */
+  Iterator<SingleEvent> occurrencesBetween(LocalDateTime startTime, LocalDateTime endTime) {
+    List<Iterator<SingleEvent>> sources = new ArrayList<>();
+    sources.add(singles.iterateWithin(startTime, endTime));
+    for (SeriesEvent candidate : series.findOverlapping(startTime, endTime)) {
+      sources.add(candidate.occurrencesWithin(startTime, endTime));
+    }
+    return merge(sources);
+  }
+
+  /**
+   * Finds every occurrence on the given date in start time order, occurrences of a series are
+   * returned one by one.
+   *
+   * @param date The date to check
+   * @return the occurrences
+   */
+  List<SingleEvent> occurrencesOn(LocalDate date) {
+    List<SingleEvent> r = new ArrayList<>(singlesOn(date));
+    for (SeriesEvent candidate : series.findOverlapping(date.atStartOfDay(),
+        date.atTime(LocalTime.MAX))) {
+      IEvent found = candidate.getIfEventIsOnDate(date);
+      if (found != null) {
+        r.addAll(((SeriesEvent) found).explicitOccurrences());
+      }
+    }
+    r.sort(ORDER);
+    return r;
+  }
+
+  /**
+   * Merges iterators that are each in {@link #ORDER} into one iterator in that order, taking from
+   * each of them only when needed.
+   *
+   * @param sources the iterators to merge
+   * @return the merged iterator
+   */
+  static Iterator<SingleEvent> merge(List<Iterator<SingleEvent>> sources) {
+    // each entry is the next occurrence of a source paired with the rest of that source
+    PriorityQueue<Map.Entry<SingleEvent, Iterator<SingleEvent>>> heads =
+        new PriorityQueue<>(Math.max(1, sources.size()), Map.Entry.comparingByKey(ORDER));
+    for (Iterator<SingleEvent> source : sources) {
+      if (source.hasNext()) {
+        heads.add(new AbstractMap.SimpleEntry<>(source.next(), source));
+      }
+    }
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return !heads.isEmpty();
+      }
+
+      @Override
+      public SingleEvent next() {
+        Map.Entry<SingleEvent, Iterator<SingleEvent>> head = heads.poll();
+        if (head == null) {
+          throw new NoSuchElementException();
+        }
+        if (head.getValue().hasNext()) {
+          heads.add(new AbstractMap.SimpleEntry<>(head.getValue().next(), head.getValue()));
+        }
+        return head.getKey();
+      }
+    };
+  }
+
+  /**
+   * Finds the top level events whose span includes the given time, which are the only ones that
+   * can have an occurrence starting at it.
+   *
+   * @param dateTime the time to check
+   * @return the events spanning the time
+   */
+  List<IEvent> eventsSpanning(LocalDateTime dateTime) {
+    List<IEvent> r = new ArrayList<>(singles.findOverlapping(dateTime, dateTime));
+    r.addAll(series.findOverlapping(dateTime, dateTime));
+    return r;
+  }
+
+  /**
+   * Checks whether any occurrence overlaps with the given time.
+   *
+   * @param dateTime the time to check
+   * @return whether an occurrence overlaps it
+   */
+  boolean anyContaining(LocalDateTime dateTime) {
+    if (dateTime.getSecond() == 0 && dateTime.getNano() == 0) {
+      return busy.isBusy(dateTime);
+    }
+    if (singles.anyContaining(dateTime)) {
+      return true;
+    }
+    for (SeriesEvent candidate : series.findOverlapping(dateTime, dateTime)) {
+      if (candidate.containsDateTime(dateTime)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Counts the whole minutes at or after the start and before the end that an occurrence
+   * overlaps.
+   *
+   * @param startTime the start of the range
+   * @param endTime   the end of the range
+   * @return the number of busy minutes
+   */
+  long busyMinutes(LocalDateTime startTime, LocalDateTime endTime) {
+    return busy.busyMinutes(startTime, endTime);
+  }
+
+  // The single events on a date, found in their interval tree while the index is not settled
+  private List<SingleEvent> singlesOn(LocalDate date) {
+    if (unsettled != null) {
+      return singles.findOverlapping(date.atStartOfDay(), date.atTime(LocalTime.MAX));
+    }
+    return byDay.getOrDefault(date.toEpochDay(), List.of());
+  }
+
+  private static long firstDay(Indexed entry) {
+    return entry.start.toLocalDate().toEpochDay();
+  }
+
+  private static long lastDay(Indexed entry) {
+    return entry.end.toLocalDate().toEpochDay();
+  }
+
+  private static void removeByIdentity(List<?> list, Object value) {
+    for (int i = 0; i < list.size(); i++) {
+      if (list.get(i) == value) {
+        list.remove(i);
+        return;
+      }
+    }
+  }
+
+  // The keys a top level event was indexed under when it was added
+  private static final class Indexed {
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private ShapeKey shape;
+    private String zonedSubject;
+    private final List<DuplicateKey> keys = new ArrayList<>(1);
+  }
+
+  // The fields two occurrences must share to be considered duplicates of each other
+  private static final class DuplicateKey {
+    private final String subject;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    private DuplicateKey(SingleEvent occurrence) {
+      this.subject = occurrence.subject;
+      this.start = occurrence.startDateTime;
+      this.end = occurrence.endDateTime;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof DuplicateKey)) {
+        return false;
+      }
+      DuplicateKey otherKey = (DuplicateKey) other;
+      return subject.equals(otherKey.subject) && start.equals(otherKey.start)
+          && end.equals(otherKey.end);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(subject, start, end);
+    }
+  }
+
+  // What every regular occurrence of a series shares, two occurrences with the same shape on the
+  // same date are duplicates
+  private static final class ShapeKey {
+    private final String subject;
+    private final LocalTime startTime;
+    private final Duration duration;
+
+    private ShapeKey(String subject, LocalTime startTime, Duration duration) {
+      this.subject = subject;
+      this.startTime = startTime;
+      this.duration = duration;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof ShapeKey)) {
+        return false;
+      }
+      ShapeKey otherKey = (ShapeKey) other;
+      return subject.equals(otherKey.subject) && startTime.equals(otherKey.startTime)
+          && duration.equals(otherKey.duration);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(subject, startTime, duration);
+    }
+  }
+}
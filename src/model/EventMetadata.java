@@ -0,0 +1,59 @@
+package model;
+
+/**
+ * The properties every occurrence of a series shares apart from its timing: subject, location,
+ * status, and description. A record is never changed once created so one record is shared by a
+ * series, the parts of it returned by queries, and every occurrence it generates, an edit swaps
+ * the whole record for a new one.
+ */
+final class EventMetadata {
+  private final String subject;
+  private final Location location;
+  private final Status status;
+  private final String description;
+
+  EventMetadata(String subject, Location location, Status status, String description) {
+    this.subject = subject;
+    this.location = location;
+    this.status = status;
+    this.description = description;
+  }
+
+  /**
+   * Creates a copy of this record with one property changed.
+   *
+   * @param edit the edit to make, must be one that {@link EventEdit#isMetadata()}
+   * @return the changed record
+   * @throws IllegalArgumentException if the edit changes the timing
+   */
+  EventMetadata with(EventEdit edit) throws IllegalArgumentException {
+    switch (edit.getKind()) {
+      case SUBJECT:
+        return new EventMetadata(edit.getText(), location, status, description);
+      case DESCRIPTION:
+        return new EventMetadata(subject, location, status, edit.getText());
+      case LOCATION:
+        return new EventMetadata(subject, edit.getLocation(), status, description);
+      case STATUS:
+        return new EventMetadata(subject, location, edit.getStatus(), description);
+      default:
+        throw new IllegalArgumentException("Unknown property: " + edit.getKind());
+    }
+  }
+
+  String getSubject() {
+    return subject;
+  }
+
+  Location getLocation() {
+    return location;
+  }
+
+  Status getStatus() {
+    return status;
+  }
+
+  String getDescription() {
+    return description;
+  }
+}
@@ -0,0 +1,121 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Describes an event to add to a calendar, either a single event or a series repeating a number
+ * of times or until a date. Used to add many events at once with
+ * {@link CalendarModel#addAll(java.util.Collection)}.
+ */
+public final class EventSpec {
+  private final String subject;
+  private final LocalDateTime start;
+  private final LocalDateTime end;
+  private final String weekdays;
+  private final int count;
+  private final LocalDate untilDate;
+
+  private EventSpec(String subject, LocalDateTime start, LocalDateTime end, String weekdays,
+                    int count, LocalDate untilDate) {
+    this.subject = subject;
+    this.start = start;
+    this.end = end;
+    this.weekdays = weekdays;
+    this.count = count;
+    this.untilDate = untilDate;
+  }
+
+  /**
+   * Describes a single event.
+   *
+   * @param subject The subject of the event
+   * @param start   When the event starts
+   * @param end     When the event ends
+   * @return the description of the event
+   */
+  public static EventSpec single(String subject, LocalDateTime start, LocalDateTime end) {
+    return new EventSpec(subject, start, end, null, 0, null);
+  }
+
+  /**
+   * Describes a series that repeats a number of times.
+   *
+   * @param subject  The subject of the events
+   * @param start    When to consider starting to add the events as well as the time they will
+   *                 occur
+   * @param end      The end time the events will have
+   * @param weekdays Which weekdays to repeat on in the form of a string containing the characters
+   *                 MTWRFSU to represent the days
+   * @param count    The amount of times to repeat the event
+   * @return the description of the series
+   */
+  public static EventSpec repeating(String subject, LocalDateTime start, LocalDateTime end,
+                                    String weekdays, int count) {
+    return new EventSpec(subject, start, end, weekdays, count, null);
+  }
+
+  /**
+   * Describes a series that repeats until a date.
+   *
+   * @param subject   The subject of the events
+   * @param start     When to consider starting to add the events as well as the time they will
+   *                  occur
+   * @param end       The end time the events will have
+   * @param weekdays  Which weekdays to repeat on in the form of a string containing the
+   *                  characters MTWRFSU to represent the days
+   * @param untilDate The date it should stop trying to add days until
+   * @return the description of the series
+   */
+  public static EventSpec repeatingUntil(String subject, LocalDateTime start, LocalDateTime end,
+                                         String weekdays, LocalDate untilDate) {
+    return new EventSpec(subject, start, end, weekdays, 0, untilDate);
+  }
+
+  String getSubject() {
+    return subject;
+  }
+
+  LocalDateTime getStart() {
+    return start;
+  }
+
+  LocalDateTime getEnd() {
+    return end;
+  }
+
+  String getWeekdays() {
+    return weekdays;
+  }
+
+  int getCount() {
+    return count;
+  }
+
+  LocalDate getUntilDate() {
+    return untilDate;
+  }
+
+  /**
+   * Creates the event this describes.
+   *
+   * @return the event
+   * @throws IllegalArgumentException if the event could not be added on its own with
+   *                                  addSingleEvent or addRepeatingEvent
+   */
+  IEvent toEvent() throws IllegalArgumentException {
+    if (weekdays == null) {
+      return new SingleEvent(subject, start, end);
+    }
+    if (untilDate == null) {
+      if (count <= 0) {
+        throw new IllegalArgumentException("A series has to repeat at least once");
+      }
+      return new SeriesEvent(subject, start, end, weekdays, count);
+    }
+    if (start.toLocalDate().isAfter(untilDate)) {
+      throw new IllegalArgumentException("A series cannot end before it starts");
+    }
+    return new SeriesEvent(subject, start, end, weekdays, untilDate);
+  }
+}
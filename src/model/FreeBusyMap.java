@@ -0,0 +1,203 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Remembers, for each day that has been asked about, which minutes of it are covered by an event
+ * as one bit per minute. A day is worked out from the calendar the first time it is needed and is
+ * then kept up to date as single events are added, days a series or a removed event touches are
+ * simply worked out again the next time they are needed. A minute is busy when an event contains
+ * the instant it starts at. Only the days used most recently are kept, so a long-running calendar
+ * does not keep a day for every date it has ever been asked about.
+ *
+ * <p>Asking about a day changes the map, so its methods are synchronized to let callers that only
+ * read the calendar share it.
+ */
+class FreeBusyMap {
+  private static final int MINUTES_PER_DAY = 24 * 60;
+  private static final int WORDS_PER_DAY = (MINUTES_PER_DAY + 63) / 64;
+  // about eleven years of days, a little over a megabyte of bits
+  private static final int MAX_DAYS = 4096;
+
+  // epoch day -> bits of the minutes of that day that are busy, least recently used first
+  private final Map<Long, long[]> days;
+  private final Function<LocalDate, List<SingleEvent>> occurrencesOn;
+
+  /**
+   * Creates an empty map.
+   *
+   * @param occurrencesOn finds every occurrence that overlaps a date, used to work out a day
+   */
+  FreeBusyMap(Function<LocalDate, List<SingleEvent>> occurrencesOn) {
+    this.days = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+        return size() > MAX_DAYS;
+      }
+    };
+    this.occurrencesOn = occurrencesOn;
+  }
+
+  /**
+   * Checks whether an event contains the start of the given minute.
+   *
+   * @param minute a time with no seconds or smaller parts
+   * @return whether the minute is busy
+   */
+  synchronized boolean isBusy(LocalDateTime minute) {
+    long at = toMinutes(minute);
+    int ofDay = Math.floorMod(at, MINUTES_PER_DAY);
+    return (bitsOf(Math.floorDiv(at, MINUTES_PER_DAY))[ofDay >>> 6] & (1L << ofDay)) != 0;
+  }
+
+  /**
+   * Counts the busy minutes that start at or after the start and before the end.
+   *
+   * @param start the start of the range
+   * @param end   the end of the range
+   * @return the number of busy minutes
+   */
+  synchronized long busyMinutes(LocalDateTime start, LocalDateTime end) {
+    long from = ceilMinutes(start);
+    long to = ceilMinutes(end);
+    long r = 0;
+    for (long day = Math.floorDiv(from, MINUTES_PER_DAY); from < to; day++) {
+      long dayStart = day * MINUTES_PER_DAY;
+      long dayEnd = Math.min(to, dayStart + MINUTES_PER_DAY);
+      r += count(bitsOf(day), (int) (from - dayStart), (int) (dayEnd - dayStart));
+      from = dayEnd;
+    }
+    return r;
+  }
+
+  /**
+   * Marks the minutes a newly added event covers on the days that have already been worked out.
+   *
+   * @param start the start of the event
+   * @param end   the end of the event
+   */
+  synchronized void mark(LocalDateTime start, LocalDateTime end) {
+    long from = ceilMinutes(start);
+    long to = toMinutes(end) + 1;
+    if (from >= to) {
+      return;
+    }
+    long first = Math.floorDiv(from, MINUTES_PER_DAY);
+    long last = Math.floorDiv(to - 1, MINUTES_PER_DAY);
+    for (Map.Entry<Long, long[]> day : daysBetween(first, last)) {
+      long dayStart = day.getKey() * MINUTES_PER_DAY;
+      set(day.getValue(), (int) (Math.max(from, dayStart) - dayStart),
+          (int) (Math.min(to, dayStart + MINUTES_PER_DAY) - dayStart));
+    }
+  }
+
+  /**
+   * Forgets the days that overlap the given times so that they are worked out again.
+   *
+   * @param start the start of the changed times
+   * @param end   the end of the changed times
+   */
+  synchronized void forget(LocalDateTime start, LocalDateTime end) {
+    long first = start.toLocalDate().toEpochDay();
+    long last = end.toLocalDate().toEpochDay();
+    if (last - first >= days.size()) {
+      days.keySet().removeIf(day -> day >= first && day <= last);
+    } else {
+      for (long day = first; day <= last; day++) {
+        days.remove(day);
+      }
+    }
+  }
+
+  /**
+   * Forgets every day.
+   */
+  synchronized void clear() {
+    days.clear();
+  }
+
+  // The kept days from the first to the last, found by looking each one up or, when there are
+  // fewer kept days than days in the range, by going through the kept ones
+  private List<Map.Entry<Long, long[]>> daysBetween(long first, long last) {
+    List<Map.Entry<Long, long[]>> r = new ArrayList<>();
+    if (last - first >= days.size()) {
+      for (Map.Entry<Long, long[]> day : days.entrySet()) {
+        if (day.getKey() >= first && day.getKey() <= last) {
+          r.add(day);
+        }
+      }
+    } else {
+      for (long day = first; day <= last; day++) {
+        long[] bits = days.get(day);
+        if (bits != null) {
+          r.add(Map.entry(day, bits));
+        }
+      }
+    }
+    return r;
+  }
+
+  // Gets the bits of a day, working them out if needed
+  private long[] bitsOf(long epochDay) {
+    long[] bits = days.get(epochDay);
+    if (bits == null) {
+      bits = new long[WORDS_PER_DAY];
+      days.put(epochDay, bits);
+      fill(LocalDate.ofEpochDay(epochDay), bits);
+    }
+    return bits;
+  }
+
+  // Sets the bits of every occurrence on the date
+  private void fill(LocalDate date, long[] bits) {
+    long dayStart = date.toEpochDay() * MINUTES_PER_DAY;
+    for (SingleEvent occurrence : occurrencesOn.apply(date)) {
+      long from = Math.max(ceilMinutes(occurrence.startDateTime), dayStart);
+      long to = Math.min(toMinutes(occurrence.endDateTime) + 1, dayStart + MINUTES_PER_DAY);
+      if (from < to) {
+        set(bits, (int) (from - dayStart), (int) (to - dayStart));
+      }
+    }
+  }
+
+  // Sets the bits from the first index up to but not including the second
+  private static void set(long[] bits, int from, int to) {
+    for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+      bits[word] |= mask(word, from, to);
+    }
+  }
+
+  // Counts the set bits from the first index up to but not including the second
+  private static int count(long[] bits, int from, int to) {
+    int r = 0;
+    for (int word = from >>> 6; from < to && word <= (to - 1) >>> 6; word++) {
+      r += Long.bitCount(bits[word] & mask(word, from, to));
+    }
+    return r;
+  }
+
+  // The bits of a word that are between the two indexes
+  private static long mask(int word, int from, int to) {
+    int low = Math.max(from - (word << 6), 0);
+    int high = Math.min(to - (word << 6), 64);
+    long upTo = high == 64 ? -1L : (1L << high) - 1;
+    return upTo & (-1L << low);
+  }
+
+  private static long toMinutes(LocalDateTime time) {
+    return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+  }
+
+  // The first whole minute at or after the time
+  private static long ceilMinutes(LocalDateTime time) {
+    long minutes = toMinutes(time);
+    return time.getSecond() == 0 && time.getNano() == 0 ? minutes : minutes + 1;
+  }
+}
@@ -0,0 +1,518 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Reads the events of an iCalendar (RFC 5545) document one at a time, holding only the event
+ * being read. A VEVENT becomes a {@link SingleEvent}, or a {@link SeriesEvent} when it has an
+ * RRULE, and the VEVENTs with a RECURRENCE-ID that directly follow a series become its edited
+ * occurrences. Every time is converted to the timezone the events are wanted in.
+ *
+ * <p>Only what a series here can hold is read: daily or weekly rules with an interval of one that
+ * end after a count or on a date. Events with any other rule are skipped and counted, as are
+ * events that cannot be read at all. A series with EXDATEs keeps its remaining occurrences but not
+ * its rule. Dates without a time are taken as all day events, which run from 8am to 5pm like
+ * events created without an end.
+ */
+final class ICalendarReader {
+  private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+  private final BufferedReader in;
+  private final ZoneId zone;
+  private final ZoneId floatingZone;
+  // the line after the one being unfolded, it may be a continuation
+  private String lookahead;
+  private boolean started;
+  private final Deque<IEvent> ready = new ArrayDeque<>();
+  // the series read last, kept until a VEVENT that is not one of its edited occurrences is read
+  private PendingSeries pending;
+  // the UID of the last series that could not be read, its edited occurrences are skipped too
+  private String skippedUid;
+  private int skipped;
+
+  /**
+   * Creates a reader.
+   *
+   * @param in           the document
+   * @param zone         the timezone the events are wanted in
+   * @param floatingZone the timezone of times that do not say which one they are in
+   */
+  ICalendarReader(Reader in, ZoneId zone, ZoneId floatingZone) {
+    this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in, 1 << 16);
+    this.zone = zone;
+    this.floatingZone = floatingZone;
+  }
+
+  /**
+   * Reads the next event.
+   *
+   * @return the event in the wanted timezone, or null when there are no more
+   * @throws IOException if the document could not be read
+   */
+  IEvent next() throws IOException {
+    while (ready.isEmpty()) {
+      Map<String, Property> properties = readEvent();
+      if (properties == null) {
+        flushPending();
+        return ready.poll();
+      }
+      try {
+        accept(properties);
+      } catch (RuntimeException e) {
+        skipped++;
+      }
+    }
+    return ready.poll();
+  }
+
+  /**
+   * Gets how many events were skipped because they could not be read or have a rule a series
+   * here cannot hold.
+   *
+   * @return the number of events skipped so far
+   */
+  int getSkipped() {
+    return skipped;
+  }
+
+  // Turns the properties of a VEVENT into an event, or adds them to the pending series
+  private void accept(Map<String, Property> properties) {
+    Property uid = properties.get("UID");
+    Property recurrenceId = properties.get("RECURRENCE-ID");
+    if (recurrenceId != null && pending != null && uid != null
+        && uid.value.equals(pending.uid) && pending.addOccurrence(recurrenceId, properties)) {
+      return;
+    }
+    if (recurrenceId != null && uid != null && uid.value.equals(skippedUid)) {
+      skipped++;
+      return;
+    }
+    flushPending();
+    Property rrule = properties.get("RRULE");
+    if (rrule != null && recurrenceId == null) {
+      skippedUid = uid == null ? null : uid.value;
+      pending = new PendingSeries(skippedUid, properties, rrule.value);
+      skippedUid = null;
+    } else {
+      ready.add(single(properties, zone));
+    }
+  }
+
+  private void flushPending() {
+    if (pending != null) {
+      ready.add(pending.toEvent());
+      pending = null;
+    }
+  }
+
+  // Reads up to the end of the next VEVENT and returns its properties, ignoring everything
+  // outside of VEVENTs and any component nested inside one, or null at the end of the document
+  private Map<String, Property> readEvent() throws IOException {
+    Map<String, Property> properties = null;
+    int nested = 0;
+    for (String line = readLine(); line != null; line = readLine()) {
+      Property property = Property.parse(line);
+      if (property == null) {
+        continue;
+      }
+      if (property.name.equals("BEGIN")) {
+        if (properties == null && property.value.equalsIgnoreCase("VEVENT")) {
+          properties = new HashMap<>();
+        } else if (properties != null) {
+          nested++;
+        }
+      } else if (property.name.equals("END") && properties != null) {
+        if (nested == 0) {
+          return properties;
+        }
+        nested--;
+      } else if (properties != null && nested == 0) {
+        if (property.name.equals("EXDATE") && properties.containsKey("EXDATE")) {
+          // several EXDATE lines are kept as one list
+          Property first = properties.get("EXDATE");
+          properties.put("EXDATE", new Property("EXDATE", first.value + "," + property.value,
+              property.tzid, property.dateOnly));
+        } else {
+          properties.putIfAbsent(property.name, property);
+        }
+      }
+    }
+    return null;
+  }
+
+  // Reads the next content line, joining the lines it was folded into
+  private String readLine() throws IOException {
+    String line = started ? lookahead : in.readLine();
+    started = true;
+    if (line == null) {
+      return null;
+    }
+    StringBuilder unfolded = null;
+    for (lookahead = in.readLine(); lookahead != null && !lookahead.isEmpty()
+        && (lookahead.charAt(0) == ' ' || lookahead.charAt(0) == '\t');
+         lookahead = in.readLine()) {
+      if (unfolded == null) {
+        unfolded = new StringBuilder(line);
+      }
+      unfolded.append(lookahead, 1, lookahead.length());
+    }
+    return unfolded == null ? line : unfolded.toString();
+  }
+
+  // Reads a VEVENT without a rule as a single event in the given timezone
+  private SingleEvent single(Map<String, Property> properties, ZoneId to) {
+    Property dtStart = required(properties, "DTSTART");
+    LocalDateTime start = in(dtStart, startTime(dtStart), to);
+    LocalDateTime end = in(dtStart, endTime(properties, dtStart), to);
+    return new SingleEvent(subject(properties), start, end, location(properties),
+        status(properties), text(properties.get("DESCRIPTION")));
+  }
+
+  // The start in the timezone of the property, all day events start at 8am
+  private static LocalDateTime startTime(Property dtStart) {
+    if (dtStart.dateOnly) {
+      return LocalDate.parse(dtStart.value, DATE).atTime(8, 0);
+    }
+    return dtStart.localDateTime();
+  }
+
+  // The end in the timezone of the start, from DTEND or DURATION, all day events end at 5pm on
+  // their last day
+  private LocalDateTime endTime(Map<String, Property> properties, Property dtStart) {
+    Property dtEnd = properties.get("DTEND");
+    Property duration = properties.get("DURATION");
+    if (dtStart.dateOnly) {
+      LocalDate first = LocalDate.parse(dtStart.value, DATE);
+      LocalDate last = first;
+      if (dtEnd != null) {
+        last = LocalDate.parse(dtEnd.value.substring(0, 8), DATE).minusDays(1);
+      } else if (duration != null) {
+        last = first.plus(parseDuration(duration.value)).minusDays(1);
+      }
+      return (last.isBefore(first) ? first : last).atTime(17, 0);
+    }
+    LocalDateTime start = dtStart.localDateTime();
+    if (dtEnd != null) {
+      return LocalDateTime.ofInstant(dtEnd.localDateTime().atZone(zoneOf(dtEnd)).toInstant(),
+          zoneOf(dtStart));
+    }
+    if (duration != null) {
+      return start.plus(parseDuration(duration.value));
+    }
+    return start;
+  }
+
+  // Converts a time in the timezone of the given property to another timezone
+  private LocalDateTime in(Property property, LocalDateTime time, ZoneId to) {
+    ZoneId from = property.dateOnly ? floatingZone : zoneOf(property);
+    if (from.equals(to)) {
+      return time;
+    }
+    return time.atZone(from).withZoneSameInstant(to).toLocalDateTime();
+  }
+
+  // The timezone a time is in: UTC, its TZID, or the floating zone
+  private ZoneId zoneOf(Property property) {
+    if (property.value.endsWith("Z")) {
+      return ZoneOffset.UTC;
+    }
+    if (property.tzid != null) {
+      try {
+        return ZoneId.of(property.tzid);
+      } catch (DateTimeException e) {
+        // a name only defined by a VTIMEZONE in the document is taken as floating
+      }
+    }
+    return floatingZone;
+  }
+
+  private static Property required(Map<String, Property> properties, String name) {
+    Property property = properties.get(name);
+    if (property == null) {
+      throw new IllegalArgumentException("Missing " + name);
+    }
+    return property;
+  }
+
+  private static String subject(Map<String, Property> properties) {
+    String subject = text(properties.get("SUMMARY"));
+    return subject == null ? "" : subject;
+  }
+
+  private static Location location(Map<String, Property> properties) {
+    String location = text(properties.get("LOCATION"));
+    if ("online".equalsIgnoreCase(location)) {
+      return Location.ONLINE;
+    } else if ("physical".equalsIgnoreCase(location)) {
+      return Location.PHYSICAL;
+    }
+    return null;
+  }
+
+  private static Status status(Map<String, Property> properties) {
+    Property status = properties.get("CLASS");
+    if (status == null) {
+      return null;
+    }
+    return status.value.equalsIgnoreCase("PUBLIC") ? Status.PUBLIC : Status.PRIVATE;
+  }
+
+  // Undoes the escaping of a TEXT value
+  private static String text(Property property) {
+    if (property == null) {
+      return null;
+    }
+    String value = property.value;
+    if (value.indexOf('\\') < 0) {
+      return value;
+    }
+    StringBuilder sb = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\' && i + 1 < value.length()) {
+        char next = value.charAt(++i);
+        sb.append(next == 'n' || next == 'N' ? '\n' : next);
+      } else {
+        sb.append(c);
+      }
+    }
+    return sb.toString();
+  }
+
+  // Reads a duration such as P1D, PT1H30M, or P2W
+  private static Duration parseDuration(String value) {
+    int weeks = value.indexOf('W');
+    if (weeks >= 0) {
+      boolean negative = value.startsWith("-");
+      long n = Long.parseLong(value.substring(value.indexOf('P') + 1, weeks));
+      return Duration.ofDays((negative ? -7 : 7) * n);
+    }
+    return Duration.parse(value);
+  }
+
+  /**
+   * One property of a content line: its name, the parameters that matter here, and its value.
+   */
+  private static final class Property {
+    private final String name;
+    private final String value;
+    private final String tzid;
+    private final boolean dateOnly;
+
+    private Property(String name, String value, String tzid, boolean dateOnly) {
+      this.name = name;
+      this.value = value;
+      this.tzid = tzid;
+      this.dateOnly = dateOnly;
+    }
+
+    // Splits a content line into its parts, or null if it is not one
+    static Property parse(String line) {
+      int nameEnd = 0;
+      while (nameEnd < line.length() && line.charAt(nameEnd) != ';'
+          && line.charAt(nameEnd) != ':') {
+        nameEnd++;
+      }
+      if (nameEnd == line.length() || nameEnd == 0) {
+        return null;
+      }
+      String name = line.substring(0, nameEnd).toUpperCase();
+      String tzid = null;
+      boolean dateOnly = false;
+      int i = nameEnd;
+      while (line.charAt(i) == ';') {
+        int paramStart = i + 1;
+        boolean quoted = false;
+        for (i = paramStart; i < line.length(); i++) {
+          char c = line.charAt(i);
+          if (c == '"') {
+            quoted = !quoted;
+          } else if (!quoted && (c == ';' || c == ':')) {
+            break;
+          }
+        }
+        if (i == line.length()) {
+          return null;
+        }
+        String param = line.substring(paramStart, i);
+        int equals = param.indexOf('=');
+        String key = equals < 0 ? param : param.substring(0, equals);
+        String paramValue = equals < 0 ? "" : param.substring(equals + 1).replace("\"", "");
+        if (key.equalsIgnoreCase("TZID")) {
+          tzid = paramValue;
+        } else if (key.equalsIgnoreCase("VALUE")) {
+          dateOnly = paramValue.equalsIgnoreCase("DATE");
+        }
+      }
+      String value = line.substring(i + 1);
+      if (!dateOnly && value.length() == 8 && (name.startsWith("DT")
+          || name.equals("RECURRENCE-ID"))) {
+        // a date written without VALUE=DATE
+        dateOnly = true;
+      }
+      return new Property(name, value, tzid, dateOnly);
+    }
+
+    // The value as a local date and time, without a trailing Z
+    LocalDateTime localDateTime() {
+      String v = value.endsWith("Z") ? value.substring(0, value.length() - 1) : value;
+      if (v.length() == 8) {
+        return LocalDate.parse(v, DATE).atStartOfDay();
+      }
+      LocalDate date = LocalDate.parse(v.substring(0, 8), DATE);
+      LocalTime time = LocalTime.of(Integer.parseInt(v.substring(9, 11)),
+          Integer.parseInt(v.substring(11, 13)), Integer.parseInt(v.substring(13, 15)));
+      return date.atTime(time);
+    }
+  }
+
+  /**
+   * A series that has been read along with the edited occurrences that followed it so far, kept in
+   * the timezone of its DTSTART until it is complete.
+   */
+  private final class PendingSeries {
+    private final String uid;
+    private final ZoneId seriesZone;
+    private final EventMetadata metadata;
+    private final RecurrenceRule rule;
+    private final Set<LocalDate> excluded = new HashSet<>();
+    private final TreeMap<LocalDate, SingleEvent> explicit = new TreeMap<>();
+
+    PendingSeries(String uid, Map<String, Property> properties, String rrule) {
+      this.uid = uid;
+      Property dtStart = required(properties, "DTSTART");
+      this.seriesZone = dtStart.dateOnly ? floatingZone : zoneOf(dtStart);
+      LocalDateTime start = startTime(dtStart);
+      Duration duration = Duration.between(start, endTime(properties, dtStart));
+      this.metadata = new EventMetadata(subject(properties), location(properties),
+          status(properties), text(properties.get("DESCRIPTION")));
+      this.rule = parseRule(rrule, start, duration, seriesZone);
+      Property exdate = properties.get("EXDATE");
+      if (exdate != null) {
+        for (String value : exdate.value.split(",")) {
+          Property one = new Property("EXDATE", value, exdate.tzid, value.length() == 8);
+          excluded.add(slotOf(one));
+        }
+      }
+    }
+
+    // Stores an edited occurrence if it replaces one of the rule's occurrences
+    boolean addOccurrence(Property recurrenceId, Map<String, Property> properties) {
+      LocalDate slot = slotOf(recurrenceId);
+      if (!rule.occursOn(slot) || excluded.contains(slot)) {
+        return false;
+      }
+      explicit.put(slot, single(properties, seriesZone));
+      return true;
+    }
+
+    // The date in the series' timezone of the occurrence a RECURRENCE-ID or EXDATE names
+    private LocalDate slotOf(Property property) {
+      if (property.dateOnly) {
+        return LocalDate.parse(property.value.substring(0, 8), DATE);
+      }
+      return in(property, property.localDateTime(), seriesZone).toLocalDate();
+    }
+
+    IEvent toEvent() {
+      SeriesEvent series;
+      if (excluded.isEmpty()) {
+        series = SeriesEvent.restore(metadata, rule, explicit);
+      } else {
+        // a series here cannot leave out an occurrence, so every remaining one is kept
+        TreeMap<LocalDate, SingleEvent> remaining = new TreeMap<>();
+        for (LocalDate slot : rule.datesBetween(rule.getFirstDate(), rule.getLastDate())) {
+          if (explicit.containsKey(slot)) {
+            remaining.put(slot, explicit.get(slot));
+          } else if (!excluded.contains(slot)) {
+            LocalDateTime start = slot.atTime(rule.getStartTime());
+            remaining.put(slot, new SingleEvent(metadata.getSubject(), start,
+                start.plus(rule.getDuration()), metadata.getLocation(), metadata.getStatus(),
+                metadata.getDescription()));
+          }
+        }
+        series = SeriesEvent.restore(metadata, null, remaining);
+      }
+      return seriesZone.equals(zone) ? series : new ZoneShift(seriesZone, zone).convert(series);
+    }
+  }
+
+  // Reads the parts of an RRULE a series here can hold, start is in the series' timezone
+  private RecurrenceRule parseRule(String rrule, LocalDateTime start, Duration duration,
+                                   ZoneId seriesZone) {
+    String freq = null;
+    int mask = 0;
+    Integer count = null;
+    String until = null;
+    for (String part : rrule.split(";")) {
+      int equals = part.indexOf('=');
+      String key = part.substring(0, equals).toUpperCase();
+      String value = part.substring(equals + 1);
+      switch (key) {
+        case "FREQ":
+          freq = value.toUpperCase();
+          break;
+        case "BYDAY":
+          for (String day : value.split(",")) {
+            int i = ICalendarWriter.WEEKDAYS.indexOf(day.toUpperCase());
+            if (day.length() != 2 || i < 0) {
+              throw new IllegalArgumentException("Unsupported BYDAY " + day);
+            }
+            mask |= 1 << (i / 3);
+          }
+          break;
+        case "COUNT":
+          count = Integer.parseInt(value);
+          break;
+        case "UNTIL":
+          until = value;
+          break;
+        case "INTERVAL":
+          if (Integer.parseInt(value) != 1) {
+            throw new IllegalArgumentException("Unsupported INTERVAL " + value);
+          }
+          break;
+        case "WKST":
+          break;
+        default:
+          throw new IllegalArgumentException("Unsupported RRULE part " + key);
+      }
+    }
+    if ("DAILY".equals(freq)) {
+      mask = mask == 0 ? 0x7F : mask;
+    } else if ("WEEKLY".equals(freq)) {
+      mask = mask == 0 ? 1 << (start.getDayOfWeek().getValue() - 1) : mask;
+    } else {
+      throw new IllegalArgumentException("Unsupported FREQ " + freq);
+    }
+    if (count != null) {
+      return RecurrenceRule.restore(start.toLocalDate(), mask, start.toLocalTime(), duration,
+          count);
+    }
+    if (until != null) {
+      Property untilTime = new Property("UNTIL", until, null, until.length() == 8);
+      LocalDate untilDate = untilTime.dateOnly ? LocalDate.parse(until, DATE)
+          : in(untilTime, untilTime.localDateTime(), seriesZone).toLocalDate();
+      return RecurrenceRule.restoreUntil(start.toLocalDate(), mask, start.toLocalTime(),
+          duration, untilDate);
+    }
+    throw new IllegalArgumentException("A series has to end");
+  }
+}
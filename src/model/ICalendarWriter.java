@@ -0,0 +1,207 @@
+package model;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Writes events as an iCalendar (RFC 5545) document one event at a time, so exporting a calendar
+ * never holds more than the event being written. A single event is one VEVENT. A series is one
+ * VEVENT with a weekly RRULE for its regular occurrences followed by a VEVENT with the same UID
+ * and a RECURRENCE-ID for every occurrence that was edited on its own. Times are written in the
+ * timezone the events are kept in using its IANA id as the TZID, except the start, end, and
+ * RECURRENCE-IDs of a series whose rule was made in another timezone which are written in that
+ * one so the rule keeps meaning the same times. Location is written as LOCATION and status as
+ * CLASS.
+ */
+final class ICalendarWriter {
+  static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+  static final String WEEKDAYS = "MO,TU,WE,TH,FR,SA,SU";
+  private static final int MAX_LINE_OCTETS = 75;
+
+  private final Writer out;
+  private final ZoneId zone;
+  private final String stamp;
+  private final StringBuilder line = new StringBuilder(128);
+
+  /**
+   * Starts a document by writing the calendar's header.
+   *
+   * @param out  where to write the document, buffering is up to the caller
+   * @param name the name of the calendar
+   * @param zone the timezone the times of the events that will be written are in
+   * @throws IOException if the header could not be written
+   */
+  ICalendarWriter(Writer out, String name, ZoneId zone) throws IOException {
+    this.out = out;
+    this.zone = zone;
+    this.stamp = DATE_TIME.format(LocalDateTime.ofInstant(
+        Instant.now().truncatedTo(ChronoUnit.SECONDS), ZoneOffset.UTC)) + "Z";
+    property("BEGIN", "VCALENDAR");
+    property("VERSION", "2.0");
+    property("PRODID", "-//Calendar//Calendar Export//EN");
+    property("CALSCALE", "GREGORIAN");
+    text("X-WR-CALNAME", name);
+    property("X-WR-TIMEZONE", zone.getId());
+  }
+
+  /**
+   * Writes one top level event of a calendar.
+   *
+   * @param id    the id of the event in its calendar, used for the UID
+   * @param event the event to write, in the timezone this writer was given
+   * @throws IOException if the event could not be written
+   */
+  void write(long id, IEvent event) throws IOException {
+    String uid = id + "@calendar";
+    if (event instanceof SingleEvent) {
+      writeEvent(uid, (SingleEvent) event, null, null);
+      return;
+    }
+    SeriesEvent series = (SeriesEvent) event;
+    RecurrenceRule rule = series.getRule();
+    Map<LocalDate, SingleEvent> explicit = series.explicitByDate();
+    if (rule == null || rule.getCount() == 0) {
+      // without regular occurrences there is nothing to hang the edited ones on
+      int n = 0;
+      for (SingleEvent occurrence : explicit.values()) {
+        writeEvent(id + "-" + n++ + "@calendar", occurrence, null, null);
+      }
+      return;
+    }
+    EventMetadata metadata = series.getMetadata();
+    ZoneId ruleZone = series.getZone() == null ? zone : series.getZone().getFrom();
+    LocalDateTime start = rule.getFirstDate().atTime(rule.getStartTime());
+    begin(uid, start, start.plus(rule.getDuration()), ruleZone);
+    line.setLength(0);
+    line.append("FREQ=WEEKLY;BYDAY=");
+    appendWeekdays(rule.getWeekdayMask());
+    line.append(";COUNT=").append(rule.getCount());
+    property("RRULE", line.toString());
+    end(metadata.getSubject(), metadata.getLocation(), metadata.getStatus(),
+        metadata.getDescription());
+    for (Map.Entry<LocalDate, SingleEvent> entry : explicit.entrySet()) {
+      writeEvent(uid, entry.getValue(), entry.getKey().atTime(rule.getStartTime()), ruleZone);
+    }
+  }
+
+  /**
+   * Ends the document and flushes it, the writer given to the constructor is left open.
+   *
+   * @throws IOException if the end could not be written
+   */
+  void finish() throws IOException {
+    property("END", "VCALENDAR");
+    out.flush();
+  }
+
+  // Writes a VEVENT for a single event or the edited occurrence of a series, whose RECURRENCE-ID
+  // is in the timezone of the series' rule
+  private void writeEvent(String uid, SingleEvent event, LocalDateTime recurrenceId,
+                          ZoneId recurrenceZone) throws IOException {
+    begin(uid, event.startDateTime, event.endDateTime, zone);
+    if (recurrenceId != null) {
+      dateTime("RECURRENCE-ID", recurrenceId, recurrenceZone);
+    }
+    end(event.subject, event.location, event.status, event.description);
+  }
+
+  private void begin(String uid, LocalDateTime start, LocalDateTime end, ZoneId in)
+      throws IOException {
+    property("BEGIN", "VEVENT");
+    text("UID", uid);
+    property("DTSTAMP", stamp);
+    dateTime("DTSTART", start, in);
+    dateTime("DTEND", end, in);
+  }
+
+  private void end(String subject, Location location, Status status, String description)
+      throws IOException {
+    text("SUMMARY", subject);
+    if (location != null) {
+      property("LOCATION", location.name().toLowerCase());
+    }
+    if (status != null) {
+      property("CLASS", status.name());
+    }
+    if (description != null && !description.isEmpty()) {
+      text("DESCRIPTION", description);
+    }
+    property("END", "VEVENT");
+  }
+
+  private void dateTime(String name, LocalDateTime time, ZoneId in) throws IOException {
+    line.setLength(0);
+    line.append(name).append(";TZID=").append(in.getId()).append(':');
+    DATE_TIME.formatTo(time, line);
+    flushLine();
+  }
+
+  private void property(String name, String value) throws IOException {
+    line.setLength(0);
+    line.append(name).append(':').append(value);
+    flushLine();
+  }
+
+  // Writes a TEXT value with backslashes, semicolons, commas, and newlines escaped
+  private void text(String name, String value) throws IOException {
+    line.setLength(0);
+    line.append(name).append(':');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\':
+        case ';':
+        case ',':
+          line.append('\\').append(c);
+          break;
+        case '\n':
+          line.append("\\n");
+          break;
+        case '\r':
+          break;
+        default:
+          line.append(c);
+      }
+    }
+    flushLine();
+  }
+
+  private void appendWeekdays(int mask) {
+    boolean first = true;
+    for (int day = 0; day < 7; day++) {
+      if ((mask & (1 << day)) != 0) {
+        if (!first) {
+          line.append(',');
+        }
+        line.append(WEEKDAYS, day * 3, day * 3 + 2);
+        first = false;
+      }
+    }
+  }
+
+  // Writes the line being built folded so no line is longer than 75 octets, then CRLF
+  private void flushLine() throws IOException {
+    int octets = 0;
+    int from = 0;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      int size = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isSurrogate(c) ? 2 : 3;
+      if (octets + size > MAX_LINE_OCTETS && !Character.isLowSurrogate(c)) {
+        out.append(line, from, i).append("\r\n ");
+        from = i;
+        // the space the folded line starts with counts towards its length
+        octets = 1;
+      }
+      octets += size;
+    }
+    out.append(line, from, line.length()).append("\r\n");
+  }
+}
@@ -109,6 +109,15 @@ public interface IEvent {
    */
   IEvent getEdittedCopy(String property, String newProperty) throws IllegalArgumentException;
 
+  /**
+   * Creates a copy of this event with the given edit applied.
+   *
+   * @param edit The edit to make
+   * @return     The editted copy of this event
+   * @throws IllegalArgumentException if the edit would make the event invalid
+   */
+  IEvent getEdittedCopy(EventEdit edit) throws IllegalArgumentException;
+
   /**
    * Edits the actual event changing its information to match the passed property and value.
    *
@@ -120,6 +129,14 @@ public interface IEvent {
    */
   void editEvent(String property, String newProperty) throws IllegalArgumentException;
 
+  /**
+   * Edits the actual event applying the given edit.
+   *
+   * @param edit The edit to make
+   * @throws IllegalArgumentException if the edit would make the event invalid
+   */
+  void editEvent(EventEdit edit) throws IllegalArgumentException;
+
   /**
    * Gets the start date of this event if possible.
    *
@@ -0,0 +1,41 @@
+package model;
+
+/**
+ * What importing a document into a calendar did: how many events were added and how many were
+ * skipped because they could not be read or have a rule a calendar cannot hold. Events left out
+ * because they duplicate one already in the calendar are neither.
+ */
+public final class ImportResult {
+  private final int added;
+  private final int skipped;
+
+  /**
+   * Describes an import.
+   *
+   * @param added   the number of events added
+   * @param skipped the number of events skipped
+   */
+  public ImportResult(int added, int skipped) {
+    this.added = added;
+    this.skipped = skipped;
+  }
+
+  /**
+   * Gets how many events were added.
+   *
+   * @return the number of events added
+   */
+  public int getAdded() {
+    return added;
+  }
+
+  /**
+   * Gets how many events were skipped because they could not be read or have a rule a calendar
+   * cannot hold.
+   *
+   * @return the number of events skipped
+   */
+  public int getSkipped() {
+    return skipped;
+  }
+}
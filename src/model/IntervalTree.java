@@ -0,0 +1,414 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * An augmented interval tree keyed on the start and end of an interval. Each node also stores the
+ * latest end time found in its subtree so that queries can skip whole branches that could not
+ * possibly match. The tree is kept balanced (AVL) so every query runs in O(log n + k).
+ *
+ * @param <T> the type of value stored with every interval
+ */
+public class IntervalTree<T> {
+  private Node<T> root;
+  private int size;
+
+  /**
+   * Adds a value with the given interval to the tree.
+   *
+   * @param start the start of the interval
+   * @param end   the end of the interval
+   * @param value the value to store
+   * @throws IllegalArgumentException if the end is before the start
+   */
+  public void insert(LocalDateTime start, LocalDateTime end, T value)
+      throws IllegalArgumentException {
+    if (end.isBefore(start)) {
+      throw new IllegalArgumentException("End Date cannot be before Start Date");
+    }
+    root = insert(root, start, end, value);
+    size++;
+  }
+
+  /**
+   * Adds many values at once. When the tree is empty and the values are already ordered by start
+   * and then end, the balanced tree is built directly in O(n) instead of by n inserts.
+   *
+   * @param values the values to add
+   * @param start  gets the start of a value's interval
+   * @param end    gets the end of a value's interval
+   * @throws IllegalArgumentException if an end is before its start
+   */
+  public void insertAll(List<T> values, Function<? super T, LocalDateTime> start,
+                        Function<? super T, LocalDateTime> end) throws IllegalArgumentException {
+    if (values.isEmpty()) {
+      return;
+    }
+    List<Node<T>> nodes = new ArrayList<>(values.size());
+    for (T value : values) {
+      LocalDateTime s = start.apply(value);
+      LocalDateTime e = end.apply(value);
+      if (e.isBefore(s)) {
+        throw new IllegalArgumentException("End Date cannot be before Start Date");
+      }
+      Node<T> last = nodes.isEmpty() ? null : nodes.get(nodes.size() - 1);
+      if (last != null && compare(s, e, last) == 0) {
+        last.values.add(value);
+        continue;
+      }
+      if (root != null || (last != null && compare(s, e, last) < 0)) {
+        // not something that can be built directly
+        for (T v : values) {
+          insert(start.apply(v), end.apply(v), v);
+        }
+        return;
+      }
+      Node<T> node = new Node<>(s, e);
+      node.values.add(value);
+      nodes.add(node);
+    }
+    root = build(nodes, 0, nodes.size() - 1);
+    size = values.size();
+  }
+
+  /**
+   * Removes the given value (compared by identity) stored with the given interval.
+   *
+   * @param start the start of the interval the value was stored with
+   * @param end   the end of the interval the value was stored with
+   * @param value the value to remove
+   * @return whether the value was found and removed
+   */
+  public boolean remove(LocalDateTime start, LocalDateTime end, T value) {
+    int before = size;
+    root = remove(root, start, end, value);
+    return size < before;
+  }
+
+  /**
+   * Finds every value whose interval lies completely inside the given range (inclusive).
+   *
+   * @param rangeStart the lower bound
+   * @param rangeEnd   the upper bound
+   * @return the values found, in start time order
+   */
+  public List<T> findWithin(LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+    List<T> r = new ArrayList<>();
+    findWithin(root, rangeStart, rangeEnd, r);
+    return r;
+  }
+
+  /**
+   * Iterates lazily over every value whose interval lies completely inside the given range
+   * (inclusive) in start time order. Only the part of the tree that is actually iterated over is
+   * visited so stopping early is cheap. The tree must not be changed while iterating.
+   *
+   * @param rangeStart the lower bound
+   * @param rangeEnd   the upper bound
+   * @return an iterator over the values found
+   */
+  public Iterator<T> iterateWithin(LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+    return new WithinIterator(rangeStart, rangeEnd);
+  }
+
+  /**
+   * Finds every value whose interval overlaps the given range (inclusive).
+   *
+   * @param rangeStart the lower bound
+   * @param rangeEnd   the upper bound
+   * @return the values found, in start time order
+   */
+  public List<T> findOverlapping(LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+    List<T> r = new ArrayList<>();
+    findOverlapping(root, rangeStart, rangeEnd, r);
+    return r;
+  }
+
+  /**
+   * Checks whether any interval contains the given time.
+   *
+   * @param dateTime the time to check
+   * @return whether at least one interval contains it
+   */
+  public boolean anyContaining(LocalDateTime dateTime) {
+    Node<T> node = root;
+    while (node != null) {
+      if (!node.start.isAfter(dateTime) && !node.end.isBefore(dateTime)) {
+        return true;
+      }
+      // Everything in the right subtree starts after this node so if the left subtree can reach
+      // the time it is the only place left to look, otherwise only the right subtree can.
+      if (node.left != null && !node.left.maxEnd.isBefore(dateTime)) {
+        node = node.left;
+      } else if (node.start.isAfter(dateTime)) {
+        return false;
+      } else {
+        node = node.right;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the number of values stored in the tree.
+   *
+   * @return the number of values
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Removes every value from the tree.
+   */
+  public void clear() {
+    root = null;
+    size = 0;
+  }
+
+  // A single node holding every value that shares the exact same interval
+  private static class Node<T> {
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final List<T> values = new ArrayList<>(1);
+    private LocalDateTime maxEnd;
+    private int height = 1;
+    private Node<T> left;
+    private Node<T> right;
+
+    private Node(LocalDateTime start, LocalDateTime end) {
+      this.start = start;
+      this.end = end;
+      this.maxEnd = end;
+    }
+  }
+
+  // Walks the tree in order with an explicit stack, skipping subtrees that cannot match
+  private class WithinIterator implements Iterator<T> {
+    private final LocalDateTime rangeStart;
+    private final LocalDateTime rangeEnd;
+    private final Deque<Node<T>> stack = new ArrayDeque<>();
+    private Iterator<T> current;
+
+    private WithinIterator(LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+      this.rangeStart = rangeStart;
+      this.rangeEnd = rangeEnd;
+      pushLeft(root);
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (current == null || !current.hasNext()) {
+        current = null;
+        if (stack.isEmpty()) {
+          return false;
+        }
+        Node<T> node = stack.pop();
+        if (node.start.isAfter(rangeEnd)) {
+          // everything left on the stack starts even later
+          stack.clear();
+          return false;
+        }
+        pushLeft(node.right);
+        if (!node.start.isBefore(rangeStart) && !node.end.isAfter(rangeEnd)) {
+          current = node.values.iterator();
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return current.next();
+    }
+
+    // Pushes the node and its left descendants that could still hold a match
+    private void pushLeft(Node<T> node) {
+      while (node != null && !node.maxEnd.isBefore(rangeStart)) {
+        stack.push(node);
+        node = node.start.isBefore(rangeStart) ? null : node.left;
+      }
+    }
+  }
+
+  // Orders intervals by start and then by end
+  private static int compare(LocalDateTime start, LocalDateTime end, Node<?> node) {
+    int c = start.compareTo(node.start);
+    if (c != 0) {
+      return c;
+    }
+    return end.compareTo(node.end);
+  }
+
+  private Node<T> insert(Node<T> node, LocalDateTime start, LocalDateTime end, T value) {
+    if (node == null) {
+      Node<T> created = new Node<>(start, end);
+      created.values.add(value);
+      return created;
+    }
+    int c = compare(start, end, node);
+    if (c == 0) {
+      node.values.add(value);
+      return node;
+    } else if (c < 0) {
+      node.left = insert(node.left, start, end, value);
+    } else {
+      node.right = insert(node.right, start, end, value);
+    }
+    return rebalance(node);
+  }
+
+  // Builds a balanced tree out of nodes that are already in order
+  private Node<T> build(List<Node<T>> nodes, int from, int to) {
+    if (from > to) {
+      return null;
+    }
+    int middle = (from + to) >>> 1;
+    Node<T> node = nodes.get(middle);
+    node.left = build(nodes, from, middle - 1);
+    node.right = build(nodes, middle + 1, to);
+    update(node);
+    return node;
+  }
+
+  private Node<T> remove(Node<T> node, LocalDateTime start, LocalDateTime end, T value) {
+    if (node == null) {
+      return null;
+    }
+    int c = compare(start, end, node);
+    if (c < 0) {
+      node.left = remove(node.left, start, end, value);
+    } else if (c > 0) {
+      node.right = remove(node.right, start, end, value);
+    } else {
+      for (int i = 0; i < node.values.size(); i++) {
+        if (node.values.get(i) == value) {
+          node.values.remove(i);
+          size--;
+          break;
+        }
+      }
+      if (!node.values.isEmpty()) {
+        return node;
+      }
+      if (node.left == null) {
+        return node.right;
+      } else if (node.right == null) {
+        return node.left;
+      }
+      Node<T> successor = node.right;
+      while (successor.left != null) {
+        successor = successor.left;
+      }
+      Node<T> replacement = new Node<>(successor.start, successor.end);
+      replacement.values.addAll(successor.values);
+      replacement.left = node.left;
+      replacement.right = removeMin(node.right);
+      node = replacement;
+    }
+    return rebalance(node);
+  }
+
+  // Removes the leftmost node of the given subtree without touching the size
+  private Node<T> removeMin(Node<T> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    node.left = removeMin(node.left);
+    return rebalance(node);
+  }
+
+  private void findWithin(Node<T> node, LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                          List<T> r) {
+    if (node == null || node.maxEnd.isBefore(rangeStart)) {
+      return;
+    }
+    if (!node.start.isBefore(rangeStart)) {
+      findWithin(node.left, rangeStart, rangeEnd, r);
+    }
+    if (node.start.isAfter(rangeEnd)) {
+      return;
+    }
+    if (!node.start.isBefore(rangeStart) && !node.end.isAfter(rangeEnd)) {
+      r.addAll(node.values);
+    }
+    findWithin(node.right, rangeStart, rangeEnd, r);
+  }
+
+  private void findOverlapping(Node<T> node, LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                               List<T> r) {
+    if (node == null || node.maxEnd.isBefore(rangeStart)) {
+      return;
+    }
+    findOverlapping(node.left, rangeStart, rangeEnd, r);
+    if (node.start.isAfter(rangeEnd)) {
+      return;
+    }
+    if (!node.end.isBefore(rangeStart)) {
+      r.addAll(node.values);
+    }
+    findOverlapping(node.right, rangeStart, rangeEnd, r);
+  }
+
+  private int height(Node<T> node) {
+    return node == null ? 0 : node.height;
+  }
+
+  // Recomputes the height and the max end of a node from its children
+  private void update(Node<T> node) {
+    node.height = 1 + Math.max(height(node.left), height(node.right));
+    LocalDateTime max = node.end;
+    if (node.left != null && node.left.maxEnd.isAfter(max)) {
+      max = node.left.maxEnd;
+    }
+    if (node.right != null && node.right.maxEnd.isAfter(max)) {
+      max = node.right.maxEnd;
+    }
+    node.maxEnd = max;
+  }
+
+  private Node<T> rotateRight(Node<T> node) {
+    Node<T> newRoot = node.left;
+    node.left = newRoot.right;
+    newRoot.right = node;
+    update(node);
+    update(newRoot);
+    return newRoot;
+  }
+
+  private Node<T> rotateLeft(Node<T> node) {
+    Node<T> newRoot = node.right;
+    node.right = newRoot.left;
+    newRoot.left = node;
+    update(node);
+    update(newRoot);
+    return newRoot;
+  }
+
+  private Node<T> rebalance(Node<T> node) {
+    update(node);
+    int balance = height(node.left) - height(node.right);
+    if (balance > 1) {
+      if (height(node.left.left) < height(node.left.right)) {
+        node.left = rotateLeft(node.left);
+      }
+      return rotateRight(node);
+    } else if (balance < -1) {
+      if (height(node.right.right) < height(node.right.left)) {
+        node.right = rotateRight(node.right);
+      }
+      return rotateLeft(node);
+    }
+    return node;
+  }
+}
@@ -0,0 +1,363 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only file of records, each a list of strings. Every record is one line holding a
+ * checksum, its sequence number, and its fields separated by tabs, so a line that was only partly
+ * written when the program stopped is recognised and dropped.
+ *
+ * <p>Records are made durable in groups: a background thread writes everything appended since
+ * its last write and forces it to disk once, while {@link #append(List)} waits for the group its
+ * record is in. Callers on different threads therefore share one fsync instead of paying for one
+ * each.
+ */
+final class Journal implements Closeable {
+  private static final String NULL = "\\N";
+
+  private final FileChannel channel;
+  private final Thread flusher;
+  private final Object lock = new Object();
+
+  // guarded by lock
+  private List<byte[]> pending = new ArrayList<>();
+  private long appended;
+  private long durable;
+  private boolean closed;
+  private IOException failure;
+
+  private Journal(FileChannel channel, long lastSequence) {
+    this.channel = channel;
+    this.appended = lastSequence;
+    this.durable = lastSequence;
+    this.flusher = new Thread(this::flushLoop, "calendar-journal");
+    this.flusher.setDaemon(true);
+    this.flusher.start();
+  }
+
+  /**
+   * Opens a journal to append to, creating the file if it does not exist.
+   *
+   * @param file         the journal file, any damaged tail must already have been removed by
+   *                     {@link #recover(Path)}
+   * @param lastSequence the sequence number of the last record in the file or snapshot
+   * @return the journal
+   * @throws IOException if the file cannot be opened
+   */
+  static Journal open(Path file, long lastSequence) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    return new Journal(channel, lastSequence);
+  }
+
+  /**
+   * Reads every complete record in a journal file and cuts off anything after the last one, which
+   * can only be a record that was being written when the program stopped.
+   *
+   * @param file the journal file
+   * @return the records in order, each starting with its sequence number
+   * @throws IOException if the file cannot be read or truncated
+   */
+  static List<List<String>> recover(Path file) throws IOException {
+    List<List<String>> records = new ArrayList<>();
+    if (!Files.exists(file)) {
+      return records;
+    }
+    byte[] bytes = Files.readAllBytes(file);
+    int valid = 0;
+    while (valid < bytes.length) {
+      int end = valid;
+      while (end < bytes.length && bytes[end] != '\n') {
+        end++;
+      }
+      if (end == bytes.length) {
+        break;
+      }
+      List<String> record = parse(new String(bytes, valid, end - valid, StandardCharsets.UTF_8));
+      if (record == null) {
+        break;
+      }
+      records.add(record);
+      valid = end + 1;
+    }
+    if (valid < bytes.length) {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        channel.truncate(valid);
+        channel.force(true);
+      }
+    }
+    return records;
+  }
+
+  /**
+   * Appends a record and waits until it is on disk.
+   *
+   * @param fields the fields of the record, may contain nulls
+   * @return the sequence number given to the record
+   * @throws IOException if the journal could not be written
+   */
+  long append(List<String> fields) throws IOException {
+    long sequence = enqueue(fields);
+    awaitDurable(sequence);
+    return sequence;
+  }
+
+  /**
+   * Appends a record without waiting for it to be on disk, see {@link #awaitDurable(long)}.
+   *
+   * @param fields the fields of the record, may contain nulls
+   * @return the sequence number given to the record
+   * @throws IOException if the journal already failed or was closed
+   */
+  long enqueue(List<String> fields) throws IOException {
+    synchronized (lock) {
+      checkOpen();
+      appended++;
+      String body = appended + "\t" + encode(fields);
+      pending.add((checksum(body) + "\t" + body + "\n").getBytes(StandardCharsets.UTF_8));
+      lock.notifyAll();
+      return appended;
+    }
+  }
+
+  /**
+   * Waits until the record with the given sequence number and every one before it is on disk.
+   *
+   * @param sequence the sequence number returned when the record was appended
+   * @throws IOException if the journal could not be written
+   */
+  void awaitDurable(long sequence) throws IOException {
+    synchronized (lock) {
+      while (durable < sequence) {
+        checkOpen();
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException("Interrupted while waiting for the journal");
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks that records can still be appended.
+   *
+   * @throws IOException if the journal already failed or was closed
+   */
+  void checkWritable() throws IOException {
+    synchronized (lock) {
+      checkOpen();
+    }
+  }
+
+  /**
+   * Gets the sequence number of the last record appended.
+   *
+   * @return the last sequence number
+   */
+  long lastSequence() {
+    synchronized (lock) {
+      return appended;
+    }
+  }
+
+  /**
+   * Removes every record from the file once they are all on disk, used after a snapshot has
+   * saved everything they describe. Sequence numbers carry on from where they were.
+   *
+   * @throws IOException if the file could not be truncated
+   */
+  void reset() throws IOException {
+    synchronized (lock) {
+      awaitDurable(appended);
+      channel.truncate(0);
+      channel.force(true);
+    }
+  }
+
+  /**
+   * Waits for every record to be on disk and closes the file, which is closed even if the records
+   * could not be written.
+   *
+   * @throws IOException if the journal could not be written
+   */
+  @Override
+  public void close() throws IOException {
+    IOException failed = null;
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      try {
+        awaitDurable(appended);
+      } catch (IOException e) {
+        failed = e;
+      }
+      closed = true;
+      lock.notifyAll();
+    }
+    try {
+      flusher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      channel.close();
+    }
+    if (failed != null) {
+      throw failed;
+    }
+  }
+
+  /**
+   * Encodes fields as one line: separated by tabs, with backslashes, tabs, and newlines escaped
+   * and null written as \N.
+   *
+   * @param fields the fields to encode
+   * @return the encoded line
+   */
+  static String encode(List<String> fields) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < fields.size(); i++) {
+      if (i > 0) {
+        sb.append('\t');
+      }
+      String field = fields.get(i);
+      if (field == null) {
+        sb.append(NULL);
+        continue;
+      }
+      for (int j = 0; j < field.length(); j++) {
+        char c = field.charAt(j);
+        switch (c) {
+          case '\\':
+            sb.append("\\\\");
+            break;
+          case '\t':
+            sb.append("\\t");
+            break;
+          case '\n':
+            sb.append("\\n");
+            break;
+          case '\r':
+            sb.append("\\r");
+            break;
+          default:
+            sb.append(c);
+        }
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Decodes a line written by {@link #encode(List)}.
+   *
+   * @param line the encoded line
+   * @return the fields
+   */
+  static List<String> decode(String line) {
+    List<String> fields = new ArrayList<>();
+    for (String raw : line.split("\t", -1)) {
+      if (raw.equals(NULL)) {
+        fields.add(null);
+        continue;
+      }
+      StringBuilder sb = new StringBuilder(raw.length());
+      for (int j = 0; j < raw.length(); j++) {
+        char c = raw.charAt(j);
+        if (c == '\\' && j + 1 < raw.length()) {
+          char next = raw.charAt(++j);
+          sb.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+        } else {
+          sb.append(c);
+        }
+      }
+      fields.add(sb.toString());
+    }
+    return fields;
+  }
+
+  // Writes whatever was appended since the last write and forces it to disk, until closed
+  private void flushLoop() {
+    while (true) {
+      List<byte[]> batch;
+      long last;
+      synchronized (lock) {
+        while (pending.isEmpty() && !closed) {
+          try {
+            lock.wait();
+          } catch (InterruptedException e) {
+            return;
+          }
+        }
+        if (pending.isEmpty()) {
+          return;
+        }
+        batch = pending;
+        pending = new ArrayList<>();
+        last = appended;
+      }
+      try {
+        int length = 0;
+        for (byte[] line : batch) {
+          length += line.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        for (byte[] line : batch) {
+          buffer.put(line);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        channel.force(false);
+        synchronized (lock) {
+          durable = last;
+          lock.notifyAll();
+        }
+      } catch (IOException e) {
+        synchronized (lock) {
+          failure = e;
+          lock.notifyAll();
+        }
+        return;
+      }
+    }
+  }
+
+  // Throws if nothing more can be written
+  private void checkOpen() throws IOException {
+    if (failure != null) {
+      throw new IOException("Journal could not be written", failure);
+    }
+    if (closed) {
+      throw new IOException("Journal is closed");
+    }
+  }
+
+  // The fields of a line with the sequence number first, or null if the line is damaged
+  private static List<String> parse(String line) {
+    int tab = line.indexOf('\t');
+    if (tab < 0 || !line.substring(0, tab).equals(checksum(line.substring(tab + 1)))) {
+      return null;
+    }
+    return decode(line.substring(tab + 1));
+  }
+
+  private static String checksum(String body) {
+    CRC32 crc = new CRC32();
+    crc.update(body.getBytes(StandardCharsets.UTF_8));
+    return String.format("%08x", crc.getValue());
+  }
+}
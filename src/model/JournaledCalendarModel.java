@@ -0,0 +1,485 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import model.exceptions.InvalidCalendar;
+import model.exceptions.InvalidEvent;
+import model.exceptions.InvalidProperty;
+import model.exceptions.InvalidTimeZoneFormat;
+import model.exceptions.NoCalendar;
+
+/**
+ * A {@link MultipleCalendarModel} that keeps its calendars in a directory so they survive a
+ * restart. Every operation that changes a calendar is applied in memory and, if it succeeds,
+ * appended to a journal; the call only returns once its record is on disk, with calls made at
+ * the same time sharing one fsync. Every so many records the calendars are saved to a snapshot
+ * and the journal is emptied, so opening the model again loads the snapshot and replays only the
+ * operations made after it.
+ *
+ * <p>The calendars returned by {@link #getCurrentCalendar()} and {@link #getCalendars()} can only
+ * be read, since changes made to them directly would not be journaled. Reads, exports, and streams
+ * share a read lock while changes take the write lock; a stream holds the read lock until it is
+ * closed, so streams must be closed, on the thread that opened them, before changing anything,
+ * taking a snapshot, or closing the model.
+ *
+ * <p>A change is refused, leaving the calendars as they were, once the journal has failed to be
+ * written or has been closed. If writing fails after a change was applied, that change stays in
+ * memory without being on disk: the call throws an {@link UncheckedIOException} and every later
+ * change is refused.
+ */
+public class JournaledCalendarModel implements MultipleCalendarModel, Closeable {
+  private static final int DEFAULT_SNAPSHOT_INTERVAL = 10000;
+
+  private final MultipleCalendarModelImpl model;
+  private final Journal journal;
+  private final Path snapshotFile;
+  private final int snapshotInterval;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private int sinceSnapshot;
+
+  /**
+   * Opens the calendars kept in the given directory, creating it if it does not exist.
+   *
+   * @param directory the directory holding the snapshot and journal
+   * @throws IOException if the directory could not be read or created
+   */
+  public JournaledCalendarModel(Path directory) throws IOException {
+    this(directory, DEFAULT_SNAPSHOT_INTERVAL);
+  }
+
+  /**
+   * Opens the calendars kept in the given directory, creating it if it does not exist.
+   *
+   * @param directory        the directory holding the snapshot and journal
+   * @param snapshotInterval how many operations to journal before taking a snapshot
+   * @throws IOException              if the directory could not be read or created
+   * @throws IllegalArgumentException if the interval is not positive
+   */
+  public JournaledCalendarModel(Path directory, int snapshotInterval) throws IOException {
+    if (snapshotInterval <= 0) {
+      throw new IllegalArgumentException("Snapshot interval must be positive");
+    }
+    Files.createDirectories(directory);
+    this.model = new MultipleCalendarModelImpl();
+    this.snapshotFile = directory.resolve("snapshot");
+    this.snapshotInterval = snapshotInterval;
+    long sequence = 0;
+    if (Files.exists(snapshotFile)) {
+      sequence = CalendarSnapshot.read(snapshotFile, model);
+    }
+    Path journalFile = directory.resolve("journal");
+    for (List<String> record : Journal.recover(journalFile)) {
+      long recordSequence = Long.parseLong(record.get(0));
+      if (recordSequence > sequence) {
+        replay(record.subList(1, record.size()));
+        sequence = recordSequence;
+        sinceSnapshot++;
+      }
+    }
+    this.journal = Journal.open(journalFile, sequence);
+  }
+
+  @Override
+  public boolean addSingleEvent(String subject, LocalDateTime start, LocalDateTime end) {
+    return change(() -> model.addSingleEvent(subject, start, end),
+        record("addSingleEvent", subject, start, end));
+  }
+
+  @Override
+  public boolean addRepeatingEvent(String subject, LocalDateTime start, LocalDateTime end,
+                                   String weekdays, int count) {
+    return change(() -> model.addRepeatingEvent(subject, start, end, weekdays, count),
+        record("addRepeatingEvent", subject, start, end, weekdays, count));
+  }
+
+  @Override
+  public boolean addRepeatingEvent(String subject, LocalDateTime start, LocalDateTime end,
+                                   String weekdays, LocalDate endDate) {
+    return change(() -> model.addRepeatingEvent(subject, start, end, weekdays, endDate),
+        record("addRepeatingEventUntil", subject, start, end, weekdays, endDate));
+  }
+
+  @Override
+  public boolean addAll(Collection<EventSpec> specs) {
+    List<EventSpec> batch = new ArrayList<>(specs);
+    List<String> record = record("addAll");
+    for (EventSpec spec : batch) {
+      record.addAll(Arrays.asList(spec.getSubject(), spec.getStart().toString(),
+          spec.getEnd().toString(), spec.getWeekdays(), Integer.toString(spec.getCount()),
+          spec.getUntilDate() == null ? null : spec.getUntilDate().toString()));
+    }
+    return change(() -> model.addAll(batch), record);
+  }
+
+  @Override
+  public boolean editSingleEvent(String subject, LocalDateTime start, LocalDateTime end,
+                                 String property, String newProperty) {
+    return change(() -> model.editSingleEvent(subject, start, end, property, newProperty),
+        record("editSingleEvent", subject, start, end, property, newProperty));
+  }
+
+  @Override
+  public boolean editFutureSeriesEvents(String subject, LocalDateTime start,
+                                        String property, String newProperty) {
+    return change(() -> model.editFutureSeriesEvents(subject, start, property, newProperty),
+        record("editFutureSeriesEvents", subject, start, property, newProperty));
+  }
+
+  @Override
+  public boolean editEntireSeries(String subject, LocalDateTime start,
+                                  String property, String newProperty) {
+    return change(() -> model.editEntireSeries(subject, start, property, newProperty),
+        record("editEntireSeries", subject, start, property, newProperty));
+  }
+
+  @Override
+  public boolean editById(long id, String property, String newProperty) {
+    return change(() -> model.editById(id, property, newProperty),
+        record("editById", id, property, newProperty));
+  }
+
+  @Override
+  public void create(String calendarName, String timezone) throws InvalidProperty,
+      InvalidTimeZoneFormat {
+    change(() -> {
+      model.create(calendarName, timezone);
+      return true;
+    }, record("create", calendarName, timezone));
+  }
+
+  @Override
+  public void edit(String calendarName, String property, String newProperty)
+      throws InvalidProperty, InvalidCalendar {
+    change(() -> {
+      model.edit(calendarName, property, newProperty);
+      return true;
+    }, record("edit", calendarName, property, newProperty));
+  }
+
+  @Override
+  public void use(String calendarName) throws InvalidCalendar {
+    change(() -> {
+      model.use(calendarName);
+      return true;
+    }, record("use", calendarName));
+  }
+
+  @Override
+  public void copyEvent(String eventName, LocalDateTime start, String calendarName,
+                        LocalDateTime newStart) throws InvalidCalendar, InvalidEvent, NoCalendar {
+    change(() -> {
+      model.copyEvent(eventName, start, calendarName, newStart);
+      return true;
+    }, record("copyEvent", eventName, start, calendarName, newStart));
+  }
+
+  @Override
+  public boolean copyEvents(LocalDate date, String calendarName, LocalDate toDate)
+      throws InvalidCalendar, NoCalendar {
+    return change(() -> model.copyEvents(date, calendarName, toDate),
+        record("copyEventsOnDate", date, calendarName, toDate));
+  }
+
+  @Override
+  public boolean copyEvents(LocalDate start, LocalDate end, String calendarName,
+                            LocalDate newStart) throws InvalidCalendar, NoCalendar {
+    return change(() -> model.copyEvents(start, end, calendarName, newStart),
+        record("copyEventsBetween", start, end, calendarName, newStart));
+  }
+
+  // An import can add any number of events read from a document that may not be there later, so
+  // instead of journaling it the calendars are saved to a snapshot, which also keeps the events
+  // of the batches that were added before a failure
+  @Override
+  public ImportResult importCalendar(String calendarName, Reader in)
+      throws InvalidCalendar, IOException {
+    Lock write = lockForChange();
+    try {
+      if (!model.getCalendarNames().contains(calendarName)) {
+        throw new InvalidCalendar("Could not find " + calendarName);
+      }
+      try {
+        return model.importCalendar(calendarName, in);
+      } finally {
+        snapshot();
+      }
+    } finally {
+      write.unlock();
+    }
+  }
+
+  @Override
+  public IEvent queryById(long id) {
+    return ReadOnlyCalendar.read(lock, () -> model.queryById(id));
+  }
+
+  @Override
+  public HashSet<IEvent> queryEvent(LocalDate date) {
+    return ReadOnlyCalendar.read(lock, () -> model.queryEvent(date));
+  }
+
+  @Override
+  public HashSet<IEvent> queryEvent(LocalDateTime startTime, LocalDateTime endTime) {
+    return ReadOnlyCalendar.read(lock, () -> model.queryEvent(startTime, endTime));
+  }
+
+  @Override
+  public List<IEvent> queryEventsInOrder(LocalDate date, int offset, int limit) {
+    return ReadOnlyCalendar.read(lock, () -> model.queryEventsInOrder(date, offset, limit));
+  }
+
+  @Override
+  public List<IEvent> queryEventsInOrder(LocalDateTime startTime, LocalDateTime endTime,
+                                         int offset, int limit) {
+    return ReadOnlyCalendar.read(lock,
+        () -> model.queryEventsInOrder(startTime, endTime, offset, limit));
+  }
+
+  // the streams hold the read lock until they are closed, so the calendars cannot change while
+  // they are in use
+  @Override
+  public Stream<IEvent> streamEvents(LocalDate date) {
+    return ReadOnlyCalendar.stream(lock, () -> model.streamEvents(date));
+  }
+
+  @Override
+  public Stream<IEvent> streamEvents(LocalDateTime startTime, LocalDateTime endTime) {
+    return ReadOnlyCalendar.stream(lock, () -> model.streamEvents(startTime, endTime));
+  }
+
+  @Override
+  public boolean getStatus(LocalDateTime dateTime) {
+    return ReadOnlyCalendar.read(lock, () -> model.getStatus(dateTime));
+  }
+
+  @Override
+  public ModifiableCalendar getCurrentCalendar() {
+    return ReadOnlyCalendar.read(lock, () -> {
+      ModifiableCalendar current = model.getCurrentCalendar();
+      return current == null ? null : new ReadOnlyCalendar(current, lock);
+    });
+  }
+
+  @Override
+  public List<String> getCalendarNames() {
+    return ReadOnlyCalendar.read(lock, model::getCalendarNames);
+  }
+
+  @Override
+  public List<ModifiableCalendar> getCalendars() {
+    return ReadOnlyCalendar.read(lock, () -> {
+      List<ModifiableCalendar> r = new ArrayList<>();
+      for (ModifiableCalendar calendar : model.getCalendars()) {
+        r.add(new ReadOnlyCalendar(calendar, lock));
+      }
+      return r;
+    });
+  }
+
+  /**
+   * Saves every calendar to the snapshot now and empties the journal.
+   *
+   * @throws UncheckedIOException if the snapshot could not be written
+   */
+  public void snapshot() {
+    Lock write = lockForWrite();
+    try {
+      CalendarSnapshot.write(model, journal.lastSequence(), snapshotFile);
+      journal.reset();
+      sinceSnapshot = 0;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      write.unlock();
+    }
+  }
+
+  /**
+   * Waits for every journaled operation to be on disk and closes the journal, nothing can be
+   * changed afterwards.
+   *
+   * @throws IOException if the journal could not be written
+   */
+  @Override
+  public void close() throws IOException {
+    Lock write = lockForWrite();
+    try {
+      journal.close();
+    } finally {
+      write.unlock();
+    }
+  }
+
+  // Applies an operation under the write lock and journals it if it changed anything, then waits
+  // for its record outside the lock so operations made at the same time share one fsync
+  private boolean change(BooleanSupplier operation, List<String> record) {
+    long sequence;
+    Lock write = lockForChange();
+    try {
+      if (!operation.getAsBoolean()) {
+        return false;
+      }
+      sequence = journal(record);
+    } finally {
+      write.unlock();
+    }
+    return durable(sequence);
+  }
+
+  // Takes the write lock, checking first that the journal can still take records so that an
+  // operation is not applied in memory only to be refused by the journal
+  private Lock lockForChange() {
+    Lock write = lockForWrite();
+    try {
+      journal.checkWritable();
+    } catch (IOException e) {
+      write.unlock();
+      throw new UncheckedIOException(e);
+    }
+    return write;
+  }
+
+  // Takes the write lock, refusing instead of waiting forever when this thread still has a stream
+  // open, since its read lock could never be given up
+  private Lock lockForWrite() {
+    if (lock.getReadHoldCount() > 0) {
+      throw new IllegalStateException(
+          "Streams of the calendars must be closed before the calendars are changed or saved");
+    }
+    Lock write = lock.writeLock();
+    write.lock();
+    return write;
+  }
+
+  // Journals an operation that was applied, taking a snapshot instead once enough operations have
+  // been journaled since the last one. Only called while holding the write lock, so records are in
+  // the order the operations were applied.
+  private long journal(List<String> record) {
+    try {
+      long sequence = journal.enqueue(record);
+      if (++sinceSnapshot >= snapshotInterval) {
+        snapshot();
+      }
+      return sequence;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // Waits for a journaled operation to be on disk, outside the lock so operations made at the same
+  // time share one fsync
+  private boolean durable(long sequence) {
+    try {
+      journal.awaitDurable(sequence);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return true;
+  }
+
+  // Turns an operation and its arguments into the fields of a record
+  private static List<String> record(String operation, Object... arguments) {
+    List<String> record = new ArrayList<>(arguments.length + 1);
+    record.add(operation);
+    for (Object argument : arguments) {
+      record.add(argument == null ? null : argument.toString());
+    }
+    return record;
+  }
+
+  // Applies a journaled operation again, it succeeded when it was journaled so it does again
+  private void replay(List<String> record) {
+    List<String> args = record.subList(1, record.size());
+    switch (record.get(0)) {
+      case "addSingleEvent":
+        model.addSingleEvent(args.get(0), dateTime(args.get(1)), dateTime(args.get(2)));
+        break;
+      case "addRepeatingEvent":
+        model.addRepeatingEvent(args.get(0), dateTime(args.get(1)), dateTime(args.get(2)),
+            args.get(3), Integer.parseInt(args.get(4)));
+        break;
+      case "addRepeatingEventUntil":
+        model.addRepeatingEvent(args.get(0), dateTime(args.get(1)), dateTime(args.get(2)),
+            args.get(3), date(args.get(4)));
+        break;
+      case "addAll":
+        List<EventSpec> specs = new ArrayList<>();
+        for (int i = 0; i + 6 <= args.size(); i += 6) {
+          specs.add(spec(args.subList(i, i + 6)));
+        }
+        model.addAll(specs);
+        break;
+      case "editSingleEvent":
+        model.editSingleEvent(args.get(0), dateTime(args.get(1)), dateTime(args.get(2)),
+            args.get(3), args.get(4));
+        break;
+      case "editFutureSeriesEvents":
+        model.editFutureSeriesEvents(args.get(0), dateTime(args.get(1)), args.get(2),
+            args.get(3));
+        break;
+      case "editEntireSeries":
+        model.editEntireSeries(args.get(0), dateTime(args.get(1)), args.get(2), args.get(3));
+        break;
+      case "editById":
+        model.editById(Long.parseLong(args.get(0)), args.get(1), args.get(2));
+        break;
+      case "create":
+        model.create(args.get(0), args.get(1));
+        break;
+      case "edit":
+        model.edit(args.get(0), args.get(1), args.get(2));
+        break;
+      case "use":
+        model.use(args.get(0));
+        break;
+      case "copyEvent":
+        model.copyEvent(args.get(0), dateTime(args.get(1)), args.get(2), dateTime(args.get(3)));
+        break;
+      case "copyEventsOnDate":
+        model.copyEvents(date(args.get(0)), args.get(1), date(args.get(2)));
+        break;
+      case "copyEventsBetween":
+        model.copyEvents(date(args.get(0)), date(args.get(1)), args.get(2), date(args.get(3)));
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown journal record: " + record.get(0));
+    }
+  }
+
+  // Reads the six fields of one spec of a journaled addAll
+  private static EventSpec spec(List<String> fields) {
+    if (fields.get(3) == null) {
+      return EventSpec.single(fields.get(0), dateTime(fields.get(1)), dateTime(fields.get(2)));
+    }
+    if (fields.get(5) == null) {
+      return EventSpec.repeating(fields.get(0), dateTime(fields.get(1)),
+          dateTime(fields.get(2)), fields.get(3), Integer.parseInt(fields.get(4)));
+    }
+    return EventSpec.repeatingUntil(fields.get(0), dateTime(fields.get(1)),
+        dateTime(fields.get(2)), fields.get(3), date(fields.get(5)));
+  }
+
+  private static LocalDateTime dateTime(String value) {
+    return value == null ? null : LocalDateTime.parse(value);
+  }
+
+  private static LocalDate date(String value) {
+    return value == null ? null : LocalDate.parse(value);
+  }
+}
@@ -1,10 +1,16 @@
 package model;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.TimeZone;
+import java.util.stream.Stream;
 
 import model.exceptions.InvalidEvent;
+import model.exceptions.InvalidProperty;
 
 /**
  * Represents all the methods needed for a Google Calendar-like calendar that can handle multiple
@@ -17,8 +23,10 @@ public interface ModifiableCalendar extends CalendarModel {
    * Changes this calendar's name.
    *
    * @param newName the new name for the calendar
+   * @throws InvalidProperty if the calendar belongs to a model that already has a calendar with
+   *                         that name
    */
-  void editName(String newName);
+  void editName(String newName) throws InvalidProperty;
 
   /**
    * Changes this calendar's timezone. Assumption: changing the timezone does not cause you to have
@@ -62,6 +70,27 @@ public interface ModifiableCalendar extends CalendarModel {
   void add(IEvent event, LocalDate newStart, LocalDate relativeTo, TimeZone oldTimeZone)
       throws InvalidEvent;
 
+  /**
+   * Streams the same events {@link #queryEvent(LocalDate)} finds without collecting them first, a
+   * series is returned as one event holding only its occurrences on that date. The calendar must
+   * not be changed while the stream is in use.
+   *
+   * @param date the date to check
+   * @return the events found on that date (if any)
+   */
+  Stream<IEvent> streamQuery(LocalDate date);
+
+  /**
+   * Streams the same events {@link #queryEvent(LocalDateTime, LocalDateTime)} finds without
+   * collecting them first, a series is returned as one event holding only its occurrences in the
+   * range. The calendar must not be changed while the stream is in use.
+   *
+   * @param startTime the DateTime lower bound
+   * @param endTime   the DateTime upper bound
+   * @return the events found in the given range (if any)
+   */
+  Stream<IEvent> streamQuery(LocalDateTime startTime, LocalDateTime endTime);
+
   /**
    * Tries to find the event in this calendar that has the given subject and start time.
    *
@@ -86,4 +115,36 @@ public interface ModifiableCalendar extends CalendarModel {
    */
   TimeZone getTimeZone();
 
+  /**
+   * Writes every event of this calendar to the given output as an iCalendar (RFC 5545) document,
+   * one event at a time. A series is written as one VEVENT with an RRULE followed by a VEVENT for
+   * each occurrence that was edited on its own.
+   *
+   * @param out where to write the document, it is flushed but left open
+   * @throws IOException if the document could not be written
+   */
+  void exportICalendar(Writer out) throws IOException;
+
+  /**
+   * Reads the events of an iCalendar (RFC 5545) document into this calendar, adding them in
+   * batches as they are read. Events that would duplicate one already in the calendar are left
+   * out, as are events whose rule this calendar cannot hold (anything but a daily or weekly rule
+   * with an interval of one and an end). Times without a timezone are taken as in this calendar's
+   * timezone.
+   *
+   * @param in the document to read
+   * @return how many events were added and how many were skipped
+   * @throws IOException if the document could not be read
+   */
+  ImportResult importICalendar(Reader in) throws IOException;
+
+  /**
+   * Writes every occurrence of this calendar to the given channel as CSV rows in start time order,
+   * in this calendar's timezone, after a header row. The rows are encoded straight into a buffer
+   * that is written to the channel whenever it fills.
+   *
+   * @param out where to write the rows, it is left open
+   * @throws IOException if the rows could not be written
+   */
+  void exportCsv(WritableByteChannel out) throws IOException;
 }
@@ -1,51 +1,247 @@
 package model;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 import java.util.TimeZone;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import model.exceptions.InvalidEvent;
+import model.exceptions.InvalidProperty;
 
 /**
  * Represents the implementation of a Google Calendar-like calendar has a timezone, can add single
- * and repeating events, edit events, and query events, and copy events.
+ * and repeating events, edit events, and query events, and copy events. Events are stored in the
+ * local times of the timezone the calendar was created in and converted to its current timezone
+ * as they are read, so changing the timezone does not touch the events.
  */
 public class ModifiableCalendarImpl extends CalendarModelImpl implements ModifiableCalendar {
 
+  // how many imported events are added to the calendar at once
+  private static final int IMPORT_BATCH = 1000;
+
   private TimeZone tz;
   private String name;
+  // the registry this calendar is listed in, told about renames so it can re-key the calendar,
+  // null for a calendar that is not listed in one
+  private final CalendarRegistry registry;
+  // the timezone the stored events' times are in
+  private final ZoneId storageZone;
+  // convert from the stored times to the current timezone and back, null while they are the same
+  private ZoneShift toView;
+  private ZoneShift toStorage;
 
   public ModifiableCalendarImpl(String calendarName, TimeZone tz) {
+    this(calendarName, tz, (CalendarRegistry) null);
+  }
+
+  // Creates a calendar that will be listed in the registry and tells it about its renames
+  ModifiableCalendarImpl(String calendarName, TimeZone tz, CalendarRegistry registry) {
     this.tz = tz;
     this.name = calendarName;
+    this.registry = registry;
+    this.storageZone = ZoneRegistry.zoneIdOf(tz);
+  }
+
+  // Recreates a saved calendar whose events are stored in the given timezone
+  ModifiableCalendarImpl(String calendarName, TimeZone tz, ZoneId storageZone,
+                         CalendarRegistry registry) {
+    this.name = calendarName;
+    this.registry = registry;
+    this.storageZone = storageZone;
+    editTimeZone(tz);
+  }
+
+  // The timezone the stored events' times are in
+  ZoneId getStorageZone() {
+    return storageZone;
   }
 
   @Override
-  public void editName(String newName) {
+  public void editName(String newName) throws InvalidProperty {
+    if (registry != null && !registry.rename(this, name, newName)) {
+      throw new InvalidProperty("Calendar with name " + newName + " already exists");
+    }
     this.name = newName;
   }
 
   @Override
   public void editTimeZone(TimeZone newTimeZone) {
-    TimeZone oldTimeZone = tz;
     this.tz = newTimeZone;
-    HashSet<IEvent> updatedEvents = new HashSet<>();
-    for (IEvent event : this.events) {
-      Duration tzDiff = getTZDifference(event.getStart().toLocalDate(), oldTimeZone);
-      updatedEvents.add(event.getEdittedCopy("tzAndDateChange",
-          event.getStart().toLocalDate().toString() + "/" + tzDiff.toString()));
+    ZoneId viewZone = ZoneRegistry.zoneIdOf(newTimeZone);
+    if (viewZone.equals(storageZone)) {
+      toView = null;
+      toStorage = null;
+    } else {
+      toView = new ZoneShift(storageZone, viewZone);
+      toStorage = new ZoneShift(viewZone, storageZone);
+    }
+  }
+
+  @Override
+  public boolean addSingleEvent(String subject, LocalDateTime start, LocalDateTime end) {
+    return super.addSingleEvent(subject, stored(start), stored(end));
+  }
+
+  @Override
+  public boolean addRepeatingEvent(String subject, LocalDateTime start, LocalDateTime end,
+                                   String weekdays, int count) {
+    if (toStorage == null || count <= 0) {
+      return super.addRepeatingEvent(subject, start, end, weekdays, count);
+    }
+    try {
+      return addIfNotDuplicated(new SeriesEvent(subject, start, end, weekdays, count));
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean addRepeatingEvent(String subject, LocalDateTime start, LocalDateTime end,
+                                   String weekdays, LocalDate endDate) {
+    if (toStorage == null || start.toLocalDate().isAfter(endDate)) {
+      return super.addRepeatingEvent(subject, start, end, weekdays, endDate);
+    }
+    try {
+      return addIfNotDuplicated(new SeriesEvent(subject, start, end, weekdays, endDate));
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean addAll(Collection<EventSpec> specs) {
+    if (toStorage == null) {
+      return super.addAll(specs);
     }
-    this.events.clear();
-    this.events.addAll(updatedEvents);
+    List<IEvent> batch = new ArrayList<>(specs.size());
+    try {
+      for (EventSpec spec : specs) {
+        batch.add(toStorage.convert(spec.toEvent()));
+      }
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    return addAllIfNotDuplicated(batch);
+  }
+
+  @Override
+  public boolean editSingleEvent(String subject, LocalDateTime start, LocalDateTime end,
+                                 String property, String newProperty) {
+    return super.editSingleEvent(subject, stored(start), stored(end), property,
+        storedProperty(property, newProperty));
+  }
+
+  @Override
+  public boolean editFutureSeriesEvents(String subject, LocalDateTime start, String property,
+                                        String newProperty) {
+    return super.editFutureSeriesEvents(subject, stored(start), property,
+        storedProperty(property, newProperty));
+  }
+
+  @Override
+  public boolean editEntireSeries(String subject, LocalDateTime start, String property,
+                                  String newProperty) {
+    return super.editEntireSeries(subject, stored(start), property,
+        storedProperty(property, newProperty));
+  }
+
+  @Override
+  public boolean editById(long id, String property, String newProperty) {
+    return super.editById(id, property, storedProperty(property, newProperty));
+  }
+
+  @Override
+  public IEvent queryById(long id) {
+    IEvent r = super.queryById(id);
+    return r == null || toView == null ? r : toView.convert(r);
+  }
+
+  @Override
+  public HashSet<IEvent> queryEvent(LocalDate date) {
+    if (toView == null) {
+      return super.queryEvent(date);
+    }
+    return streamQuery(date).collect(Collectors.toCollection(HashSet::new));
+  }
+
+  @Override
+  public HashSet<IEvent> queryEvent(LocalDateTime startTime, LocalDateTime endTime) {
+    if (toView == null) {
+      return super.queryEvent(startTime, endTime);
+    }
+    return streamQuery(startTime, endTime).collect(Collectors.toCollection(HashSet::new));
+  }
+
+  @Override
+  public Stream<IEvent> streamEvents(LocalDate date) {
+    if (toView == null) {
+      return super.streamEvents(date);
+    }
+    // the stored dates the date covers, an occurrence on more than one of them is only taken from
+    // the first
+    LocalDate first = stored(date.atStartOfDay()).toLocalDate();
+    LocalDate last = stored(date.plusDays(1).atStartOfDay()).minusNanos(1).toLocalDate();
+    Stream<IEvent> onStoredDates = Stream.iterate(first, day -> !day.isAfter(last),
+        day -> day.plusDays(1))
+        .flatMap(day -> super.streamEvents(day)
+            .filter(event -> day.equals(first) || event.getStart().toLocalDate().equals(day)));
+    return EventIndex.stream(toView.convertInOrder(onStoredDates.iterator()))
+        .filter(event -> event.getIfEventIsOnDate(date) != null);
+  }
+
+  @Override
+  public Stream<IEvent> streamEvents(LocalDateTime startTime, LocalDateTime endTime) {
+    if (toView == null) {
+      return super.streamEvents(startTime, endTime);
+    }
+    return EventIndex.stream(toView.convertInOrder(
+        super.streamEvents(stored(startTime), stored(endTime)).iterator()));
+  }
+
+  @Override
+  public Stream<IEvent> streamQuery(LocalDate date) {
+    if (toView == null) {
+      return super.streamQuery(date);
+    }
+    return onDate(date);
+  }
+
+  @Override
+  public Stream<IEvent> streamQuery(LocalDateTime startTime, LocalDateTime endTime) {
+    if (toView == null) {
+      return super.streamQuery(startTime, endTime);
+    }
+    return super.streamQuery(stored(startTime), stored(endTime)).map(toView::convert);
+  }
+
+  @Override
+  public boolean getStatus(LocalDateTime dateTime) {
+    return super.getStatus(stored(dateTime));
+  }
+
+  @Override
+  public long getBusyMinutes(LocalDateTime startTime, LocalDateTime endTime) {
+    return super.getBusyMinutes(stored(startTime), stored(endTime));
   }
 
   @Override
   public void add(IEvent event, LocalDateTime newStart) throws InvalidEvent {
-    IEvent tempEvent = event.getEdittedCopy("endWithStart", newStart.toString());
+    IEvent tempEvent = event.getEdittedCopy(EventEdit.moveStartTo(newStart));
     attemptToAddEvent(tempEvent);
   }
 
@@ -53,8 +249,7 @@ public class ModifiableCalendarImpl extends CalendarModelImpl implements Modifia
   public void add(IEvent event, LocalDate newStartDate, TimeZone oldTimeZone)
       throws InvalidEvent {
     Duration tzDiff = getTZDifference(newStartDate, oldTimeZone);
-    IEvent tempEvent = event.getEdittedCopy("tzAndDateChange",
-        newStartDate.toString() + "/" + tzDiff.toString());
+    IEvent tempEvent = event.getEdittedCopy(EventEdit.moveToDate(newStartDate, tzDiff));
     attemptToAddEvent(tempEvent);
   }
 
@@ -62,14 +257,14 @@ public class ModifiableCalendarImpl extends CalendarModelImpl implements Modifia
   public void add(IEvent event, LocalDate newStart, LocalDate relativeTo, TimeZone oldTimeZone)
       throws InvalidEvent {
     Duration tzDiff = getTZDifference(newStart, oldTimeZone);
-    IEvent tempEvent = event.getEdittedCopy("tzAndRelativeDateChange", relativeTo.toString() + "/" +
-        newStart.toString() + "/" + tzDiff.toString());
+    IEvent tempEvent = event.getEdittedCopy(EventEdit.moveRelative(relativeTo, newStart,
+        tzDiff));
     attemptToAddEvent(tempEvent);
   }
 
   private Duration getTZDifference(LocalDate date, TimeZone oldTimeZone) {
-    ZoneId oldTZ = oldTimeZone.toZoneId();
-    ZoneId newTZ = this.tz.toZoneId();
+    ZoneId oldTZ = ZoneRegistry.zoneIdOf(oldTimeZone);
+    ZoneId newTZ = ZoneRegistry.zoneIdOf(this.tz);
     ZonedDateTime oldTime = ZonedDateTime.of(date.atStartOfDay(), oldTZ);
     ZonedDateTime newTime = ZonedDateTime.of(date.atStartOfDay(), newTZ);
     return Duration.between(newTime, oldTime);
@@ -79,8 +274,9 @@ public class ModifiableCalendarImpl extends CalendarModelImpl implements Modifia
   public IEvent queryExactEvent(String subject, LocalDateTime start) throws InvalidEvent {
     IEvent found;
     IEvent r = null;
-    for (IEvent event : events) {
-      found = event.getExactMatch(subject, start);
+    LocalDateTime storedStart = stored(start);
+    for (IEvent event : eventsSpanning(storedStart)) {
+      found = event.getExactMatch(subject, storedStart);
       if (found != null) {
         if (r == null) {
           r = found;
@@ -90,7 +286,7 @@ public class ModifiableCalendarImpl extends CalendarModelImpl implements Modifia
         }
       }
     }
-    return r;
+    return r == null || toView == null ? r : toView.convert(r);
   }
 
   @Override
@@ -103,12 +299,105 @@ public class ModifiableCalendarImpl extends CalendarModelImpl implements Modifia
     return tz;
   }
 
+  @Override
+  public void exportICalendar(Writer out) throws IOException {
+    ICalendarWriter writer = new ICalendarWriter(out, name, storageZone);
+    List<Long> ids = new ArrayList<>(events.keySet());
+    ids.sort(null);
+    for (long id : ids) {
+      writer.write(id, events.get(id));
+    }
+    writer.finish();
+  }
+
+  @Override
+  public void exportCsv(WritableByteChannel out) throws IOException {
+    CsvWriter writer = new CsvWriter(out);
+    Iterator<IEvent> occurrences =
+        super.streamEvents(LocalDateTime.MIN, LocalDateTime.MAX).iterator();
+    if (toView != null) {
+      occurrences = toView.convertInOrder(occurrences);
+    }
+    while (occurrences.hasNext()) {
+      writer.write((SingleEvent) occurrences.next());
+    }
+    writer.finish();
+  }
+
+  @Override
+  public ImportResult importICalendar(Reader in) throws IOException {
+    ICalendarReader reader = new ICalendarReader(in, storageZone, ZoneRegistry.zoneIdOf(tz));
+    List<IEvent> batch = new ArrayList<>(IMPORT_BATCH);
+    int added = 0;
+    for (IEvent event = reader.next(); event != null; event = reader.next()) {
+      batch.add(event);
+      if (batch.size() == IMPORT_BATCH) {
+        added += addStoredBatch(batch);
+        batch.clear();
+      }
+    }
+    added += addStoredBatch(batch);
+    return new ImportResult(added, reader.getSkipped());
+  }
+
+  // Adds events already in the stored timezone all at once, or one at a time leaving out the
+  // duplicates if any of them is one
+  private int addStoredBatch(List<IEvent> batch) {
+    if (batch.isEmpty()) {
+      return 0;
+    }
+    if (addAllIfNotDuplicated(batch)) {
+      return batch.size();
+    }
+    int added = 0;
+    for (IEvent event : batch) {
+      if (!eventAlreadyExists(event)) {
+        storeEvent(event);
+        added++;
+      }
+    }
+    return added;
+  }
+
   private void attemptToAddEvent(IEvent event) throws InvalidEvent {
-    if (eventAlreadyExists(event)) {
+    if (!addIfNotDuplicated(event)) {
       throw new InvalidEvent("Event already exists");
     }
-    else {
-      this.events.add(event);
+  }
+
+  // Stores an event given in the current timezone unless any of its occurrences already exist
+  private boolean addIfNotDuplicated(IEvent event) {
+    IEvent storedEvent = toStorage == null ? event : toStorage.convert(event);
+    if (eventAlreadyExists(storedEvent)) {
+      return false;
+    }
+    storeEvent(storedEvent);
+    return true;
+  }
+
+  // The stored events that are on a date of the current timezone, converted to it
+  private Stream<IEvent> onDate(LocalDate date) {
+    LocalDateTime from = toStorage.convert(date.atStartOfDay());
+    LocalDateTime to = toStorage.convert(date.plusDays(1).atStartOfDay()).minusNanos(1);
+    return streamOverlapping(from, to)
+        .map(event -> toView.convert(event).getIfEventIsOnDate(date))
+        .filter(Objects::nonNull);
+  }
+
+  // Converts a time of the current timezone to the timezone the events are stored in
+  private LocalDateTime stored(LocalDateTime time) {
+    return toStorage == null ? time : toStorage.convert(time);
+  }
+
+  // Converts the new value of an edit to the stored timezone when it is a time
+  private String storedProperty(String property, String newProperty) {
+    if (toStorage == null || !(property.equals("start") || property.equals("end"))) {
+      return newProperty;
+    }
+    try {
+      return toStorage.convert(LocalDateTime.parse(newProperty)).toString();
+    } catch (DateTimeParseException e) {
+      return newProperty;
     }
   }
 }
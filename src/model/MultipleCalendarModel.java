@@ -1,7 +1,10 @@
 package model;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import model.exceptions.InvalidEvent;
 import model.exceptions.InvalidProperty;
@@ -95,10 +98,38 @@ public interface MultipleCalendarModel extends CalendarModel {
   public boolean copyEvents(LocalDate start, LocalDate end, String calendarName, LocalDate newStart)
       throws InvalidCalendar, NoCalendar;
 
+  /**
+   * Reads the events of an iCalendar (RFC 5545) document into the calendar with the given name,
+   * leaving out events that would duplicate one already in it, see
+   * {@link ModifiableCalendar#importICalendar(Reader)}.
+   *
+   * @param calendarName the name of the calendar to add the events to
+   * @param in           the document to read
+   * @return how many events were added and how many were skipped
+   * @throws InvalidCalendar if there is no calendar with that name
+   * @throws IOException     if the document could not be read
+   */
+  public ImportResult importCalendar(String calendarName, Reader in)
+      throws InvalidCalendar, IOException;
+
   /**
    * Gets the current calendar.
    *
    * @return the current calendar
    */
   public ModifiableCalendar getCurrentCalendar();
+
+  /**
+   * Gets the names of every calendar in alphabetical order.
+   *
+   * @return the names of the calendars
+   */
+  public List<String> getCalendarNames();
+
+  /**
+   * Gets every calendar in alphabetical order of their names.
+   *
+   * @return the calendars
+   */
+  public List<ModifiableCalendar> getCalendars();
 }
@@ -1,10 +1,18 @@
 package model;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.TimeZone;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import model.exceptions.InvalidCalendar;
 import model.exceptions.InvalidEvent;
@@ -18,11 +26,11 @@ import model.exceptions.NoCalendar;
  * query events, and copy events.
  */
 public class MultipleCalendarModelImpl implements MultipleCalendarModel {
-  HashSet<ModifiableCalendar> calendars;
+  CalendarRegistry calendars;
   ModifiableCalendar currentCalendar;
 
   public MultipleCalendarModelImpl() {
-    this.calendars = new HashSet<>();
+    this.calendars = new CalendarRegistry();
     this.currentCalendar = null;
   }
 
@@ -61,6 +69,21 @@ public class MultipleCalendarModelImpl implements MultipleCalendarModel {
     return currentCalendar.editEntireSeries(subject, start, property, newProperty);
   }
 
+  @Override
+  public boolean addAll(Collection<EventSpec> specs) {
+    return currentCalendar.addAll(specs);
+  }
+
+  @Override
+  public boolean editById(long id, String property, String newProperty) {
+    return currentCalendar.editById(id, property, newProperty);
+  }
+
+  @Override
+  public IEvent queryById(long id) {
+    return currentCalendar.queryById(id);
+  }
+
   @Override
   public HashSet<IEvent> queryEvent(LocalDate date) {
     return currentCalendar.queryEvent(date);
@@ -71,6 +94,27 @@ public class MultipleCalendarModelImpl implements MultipleCalendarModel {
     return currentCalendar.queryEvent(startTime, endTime);
   }
 
+  @Override
+  public List<IEvent> queryEventsInOrder(LocalDate date, int offset, int limit) {
+    return currentCalendar.queryEventsInOrder(date, offset, limit);
+  }
+
+  @Override
+  public List<IEvent> queryEventsInOrder(LocalDateTime startTime, LocalDateTime endTime,
+                                         int offset, int limit) {
+    return currentCalendar.queryEventsInOrder(startTime, endTime, offset, limit);
+  }
+
+  @Override
+  public Stream<IEvent> streamEvents(LocalDate date) {
+    return currentCalendar.streamEvents(date);
+  }
+
+  @Override
+  public Stream<IEvent> streamEvents(LocalDateTime startTime, LocalDateTime endTime) {
+    return currentCalendar.streamEvents(startTime, endTime);
+  }
+
   @Override
   public boolean getStatus(LocalDateTime dateTime) {
     return currentCalendar.getStatus(dateTime);
@@ -85,10 +129,8 @@ public class MultipleCalendarModelImpl implements MultipleCalendarModel {
     } catch (InvalidTimeZoneFormat e) {
       throw new InvalidProperty(e.getMessage());
     }
-    if (findCalendar(calendarName) != null) {
+    if (!calendars.register(new ModifiableCalendarImpl(calendarName, tz, calendars))) {
       throw new InvalidProperty("Calendar with name " + calendarName + " already exists");
-    } else {
-      calendars.add(new ModifiableCalendarImpl(calendarName, tz));
     }
   }
 
@@ -124,22 +166,22 @@ public class MultipleCalendarModelImpl implements MultipleCalendarModel {
 
   // Attempts to parse the given string into a timezone ID throws an exception if does not exist
   private TimeZone parseTimeZone(String timezone) throws InvalidTimeZoneFormat {
-    for (String id : TimeZone.getAvailableIDs()) {
-      if (id.equals(timezone)) {
-        return TimeZone.getTimeZone(id);
-      }
-    }
-    throw new InvalidTimeZoneFormat("Could not find timezone with id " + timezone);
+    return ZoneRegistry.getTimeZone(timezone);
   }
 
-  // Attempts to find the calendar with the given name in its list returns null if can't find
+  // Attempts to find the calendar with the given name returns null if can't find
   private ModifiableCalendar findCalendar(String calendarName) {
-    for (ModifiableCalendar calendar : calendars) {
-      if (calendar.getName().equals(calendarName)) {
-        return calendar;
-      }
-    }
-    return null;
+    return calendars.get(calendarName);
+  }
+
+  @Override
+  public List<String> getCalendarNames() {
+    return calendars.names();
+  }
+
+  @Override
+  public List<ModifiableCalendar> getCalendars() {
+    return calendars.calendars();
   }
 
   @Override
@@ -180,16 +222,9 @@ public class MultipleCalendarModelImpl implements MultipleCalendarModel {
     if (targetCalendar == null) {
       throw new InvalidCalendar("Could not find " + calendarName);
     }
-    HashSet<IEvent> events = currentCalendar.queryEvent(date);
-    int numberAdded = events.size();
-    for (IEvent event : events) {
-      try {
-        targetCalendar.add(event, toDate, currentCalendar.getTimeZone());
-      } catch (InvalidEvent e) {
-        numberAdded--;
-      }
-    }
-    return numberAdded > 0;
+    TimeZone timeZone = currentCalendar.getTimeZone();
+    return copyAll(currentCalendar.streamQuery(date), targetCalendar,
+        event -> targetCalendar.add(event, toDate, timeZone));
   }
 
   @Override
@@ -202,14 +237,36 @@ public class MultipleCalendarModelImpl implements MultipleCalendarModel {
     if (targetCalendar == null) {
       throw new InvalidCalendar("Could not find " + calendarName);
     }
-    HashSet<IEvent> events = currentCalendar.queryEvent(start.atTime(LocalTime.MIN),
-        end.atTime(LocalTime.MAX));
-    int numberAdded = events.size();
-    for (IEvent event : events) {
+    TimeZone timeZone = currentCalendar.getTimeZone();
+    return copyAll(currentCalendar.streamQuery(start.atTime(LocalTime.MIN),
+        end.atTime(LocalTime.MAX)), targetCalendar,
+        event -> targetCalendar.add(event, newStart, start, timeZone));
+  }
+
+  @Override
+  public ImportResult importCalendar(String calendarName, Reader in)
+      throws InvalidCalendar, IOException {
+    ModifiableCalendar calendar = findCalendar(calendarName);
+    if (calendar == null) {
+      throw new InvalidCalendar("Could not find " + calendarName);
+    }
+    return calendar.importICalendar(in);
+  }
+
+  // Copies each event as the stream hands it out and returns whether any of them were added, the
+  // events are collected first only when copying into the calendar they are read from
+  private boolean copyAll(Stream<IEvent> events, ModifiableCalendar targetCalendar,
+                          Consumer<IEvent> copy) {
+    if (targetCalendar == currentCalendar) {
+      events = events.collect(Collectors.toList()).stream();
+    }
+    int numberAdded = 0;
+    for (Iterator<IEvent> it = events.iterator(); it.hasNext(); ) {
       try {
-        targetCalendar.add(event, newStart, start, currentCalendar.getTimeZone());
+        copy.accept(it.next());
+        numberAdded++;
       } catch (InvalidEvent e) {
-        numberAdded--;
+        // a duplicate is skipped
       }
     }
     return numberAdded > 0;
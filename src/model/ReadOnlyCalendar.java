@@ -0,0 +1,242 @@
+package model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import model.exceptions.InvalidEvent;
+
+/**
+ * A view of a calendar that can only be read, used to hand out the calendars of a
+ * {@link JournaledCalendarModel} whose changes must all go through the model to be journaled.
+ * Every read holds the read lock of the model, with a stream holding it until the stream is
+ * closed. Every change throws an {@link UnsupportedOperationException}.
+ */
+final class ReadOnlyCalendar implements ModifiableCalendar {
+  private final ModifiableCalendar calendar;
+  private final ReadWriteLock lock;
+
+  /**
+   * Creates a view of a calendar.
+   *
+   * @param calendar the calendar to read
+   * @param lock     the lock changes to the calendar are made under
+   */
+  ReadOnlyCalendar(ModifiableCalendar calendar, ReadWriteLock lock) {
+    this.calendar = calendar;
+    this.lock = lock;
+  }
+
+  @Override
+  public boolean addSingleEvent(String subject, LocalDateTime start, LocalDateTime end) {
+    throw readOnly();
+  }
+
+  @Override
+  public boolean addRepeatingEvent(String subject, LocalDateTime start, LocalDateTime end,
+                                   String weekdays, int count) {
+    throw readOnly();
+  }
+
+  @Override
+  public boolean addRepeatingEvent(String subject, LocalDateTime start, LocalDateTime end,
+                                   String weekdays, LocalDate endDate) {
+    throw readOnly();
+  }
+
+  @Override
+  public boolean addAll(Collection<EventSpec> specs) {
+    throw readOnly();
+  }
+
+  @Override
+  public boolean editSingleEvent(String subject, LocalDateTime start, LocalDateTime end,
+                                 String property, String newProperty) {
+    throw readOnly();
+  }
+
+  @Override
+  public boolean editFutureSeriesEvents(String subject, LocalDateTime start, String property,
+                                        String newProperty) {
+    throw readOnly();
+  }
+
+  @Override
+  public boolean editEntireSeries(String subject, LocalDateTime start, String property,
+                                  String newProperty) {
+    throw readOnly();
+  }
+
+  @Override
+  public boolean editById(long id, String property, String newProperty) {
+    throw readOnly();
+  }
+
+  @Override
+  public void editName(String newName) {
+    throw readOnly();
+  }
+
+  @Override
+  public void editTimeZone(TimeZone newTimeZone) {
+    throw readOnly();
+  }
+
+  @Override
+  public void add(IEvent event, LocalDateTime newStart) {
+    throw readOnly();
+  }
+
+  @Override
+  public void add(IEvent event, LocalDate newStart, TimeZone oldTimeZone) {
+    throw readOnly();
+  }
+
+  @Override
+  public void add(IEvent event, LocalDate newStart, LocalDate relativeTo, TimeZone oldTimeZone) {
+    throw readOnly();
+  }
+
+  @Override
+  public ImportResult importICalendar(Reader in) {
+    throw readOnly();
+  }
+
+  @Override
+  public HashSet<IEvent> queryEvent(LocalDate date) {
+    return read(lock, () -> calendar.queryEvent(date));
+  }
+
+  @Override
+  public HashSet<IEvent> queryEvent(LocalDateTime startTime, LocalDateTime endTime) {
+    return read(lock, () -> calendar.queryEvent(startTime, endTime));
+  }
+
+  @Override
+  public IEvent queryById(long id) {
+    return read(lock, () -> calendar.queryById(id));
+  }
+
+  @Override
+  public List<IEvent> queryEventsInOrder(LocalDate date, int offset, int limit) {
+    return read(lock, () -> calendar.queryEventsInOrder(date, offset, limit));
+  }
+
+  @Override
+  public List<IEvent> queryEventsInOrder(LocalDateTime startTime, LocalDateTime endTime,
+                                         int offset, int limit) {
+    return read(lock, () -> calendar.queryEventsInOrder(startTime, endTime, offset, limit));
+  }
+
+  @Override
+  public Stream<IEvent> streamEvents(LocalDate date) {
+    return stream(lock, () -> calendar.streamEvents(date));
+  }
+
+  @Override
+  public Stream<IEvent> streamEvents(LocalDateTime startTime, LocalDateTime endTime) {
+    return stream(lock, () -> calendar.streamEvents(startTime, endTime));
+  }
+
+  @Override
+  public Stream<IEvent> streamQuery(LocalDate date) {
+    return stream(lock, () -> calendar.streamQuery(date));
+  }
+
+  @Override
+  public Stream<IEvent> streamQuery(LocalDateTime startTime, LocalDateTime endTime) {
+    return stream(lock, () -> calendar.streamQuery(startTime, endTime));
+  }
+
+  @Override
+  public boolean getStatus(LocalDateTime dateTime) {
+    return read(lock, () -> calendar.getStatus(dateTime));
+  }
+
+  @Override
+  public IEvent queryExactEvent(String subject, LocalDateTime start) throws InvalidEvent {
+    return read(lock, () -> calendar.queryExactEvent(subject, start));
+  }
+
+  @Override
+  public String getName() {
+    return read(lock, () -> calendar.getName());
+  }
+
+  @Override
+  public TimeZone getTimeZone() {
+    return read(lock, () -> calendar.getTimeZone());
+  }
+
+  @Override
+  public void exportICalendar(Writer out) throws IOException {
+    lock.readLock().lock();
+    try {
+      calendar.exportICalendar(out);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void exportCsv(WritableByteChannel out) throws IOException {
+    lock.readLock().lock();
+    try {
+      calendar.exportCsv(out);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Runs a query while holding the read lock.
+   *
+   * @param lock  the lock of the model
+   * @param query the query to run
+   * @param <T>   the type of the result
+   * @return the result of the query
+   */
+  static <T> T read(ReadWriteLock lock, Supplier<T> query) {
+    lock.readLock().lock();
+    try {
+      return query.get();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Opens a stream while holding the read lock and keeps holding it until the stream is closed,
+   * which must be done on the same thread.
+   *
+   * @param lock   the lock of the model
+   * @param events opens the stream
+   * @return the stream, releasing the lock when closed
+   */
+  static Stream<IEvent> stream(ReadWriteLock lock, Supplier<Stream<IEvent>> events) {
+    Lock read = lock.readLock();
+    read.lock();
+    try {
+      return events.get().onClose(read::unlock);
+    } catch (RuntimeException e) {
+      read.unlock();
+      throw e;
+    }
+  }
+
+  private static UnsupportedOperationException readOnly() {
+    return new UnsupportedOperationException(
+        "Calendars of a journaled model can only be changed through the model");
+  }
+}
@@ -0,0 +1,375 @@
+package model;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The rule a series of events repeats by: which weekdays it repeats on, the time each occurrence
+ * starts, how long each occurrence lasts, and how many occurrences there are. Occurrences are
+ * never stored, they are worked out from the rule whenever they are asked for. Finding the k-th
+ * occurrence, counting the occurrences in a range, and finding the next occurrence after a date
+ * are done with arithmetic on the weekday mask so they take the same time however long the rule
+ * runs for.
+ */
+public final class RecurrenceRule {
+  private static final String WEEKDAY_CHARS = "MTWRFSU";
+  // 1970-01-05 was a Monday
+  private static final long MONDAY_EPOCH_DAY = 4;
+
+  private final LocalDate firstDate;
+  // bit 0 is Monday through bit 6 which is Sunday
+  private final int weekdayMask;
+  private final LocalTime startTime;
+  private final Duration duration;
+  private final int count;
+  private final LocalDate lastDate;
+
+  // from is the first date to consider, the first occurrence is the first matching date on or
+  // after it
+  private RecurrenceRule(LocalDate from, int weekdayMask, LocalTime startTime, Duration duration,
+                         int count) {
+    if (duration.isNegative()) {
+      throw new IllegalArgumentException("End Date cannot be before Start Date");
+    }
+    this.weekdayMask = weekdayMask;
+    this.startTime = startTime;
+    this.duration = duration;
+    this.count = (weekdayMask == 0) ? 0 : Math.max(count, 0);
+    this.firstDate = (this.count == 0) ? from : firstOnOrAfter(weekdayMask, from);
+    this.lastDate = (this.count == 0) ? null : nthDate(this.count - 1);
+  }
+
+  /**
+   * Recreates a rule from the values its getters returned, used to load a saved calendar.
+   *
+   * @param firstDate   the date of the first occurrence
+   * @param weekdayMask the weekdays it repeats on as returned by getWeekdayMask
+   * @param startTime   the time every occurrence starts at
+   * @param duration    how long every occurrence lasts
+   * @param count       the number of occurrences
+   * @return the rule
+   */
+  static RecurrenceRule restore(LocalDate firstDate, int weekdayMask, LocalTime startTime,
+                                Duration duration, int count) {
+    return new RecurrenceRule(firstDate, weekdayMask, startTime, duration, count);
+  }
+
+  /**
+   * Creates a rule from its parts that repeats until a date, used to import a rule written by
+   * another program where an occurrence may last past midnight.
+   *
+   * @param from        the first date to consider, the first occurrence is the first matching
+   *                    date on or after it
+   * @param weekdayMask the weekdays it repeats on with bit 0 as Monday
+   * @param startTime   the time every occurrence starts at
+   * @param duration    how long every occurrence lasts
+   * @param untilDate   the last date an occurrence may be on
+   * @return the rule
+   * @throws IllegalArgumentException if the duration is negative
+   */
+  static RecurrenceRule restoreUntil(LocalDate from, int weekdayMask, LocalTime startTime,
+                                     Duration duration, LocalDate untilDate)
+      throws IllegalArgumentException {
+    long count = matchingBefore(weekdayMask, untilDate.toEpochDay() + 1)
+        - matchingBefore(weekdayMask, from.toEpochDay());
+    return new RecurrenceRule(from, weekdayMask, startTime, duration, (int) Math.max(count, 0));
+  }
+
+  /**
+   * Creates a rule that repeats a given number of times.
+   *
+   * @param start       When to consider starting the occurrences as well as the time they start
+   * @param end         The end time the occurrences will have
+   * @param weekdays    Which weekdays to repeat on in the form of a string containing the
+   *                    characters MTWRFSU to represent the days
+   * @param repeatTimes The number of times to repeat
+   * @return the rule
+   * @throws IllegalArgumentException If any of the weekday chars are not valid or the end time is
+   *                                  before the start time
+   */
+  public static RecurrenceRule repeatFor(LocalDateTime start, LocalDateTime end, String weekdays,
+                                         int repeatTimes) throws IllegalArgumentException {
+    return new RecurrenceRule(start.toLocalDate(), parseWeekdays(weekdays), start.toLocalTime(),
+        durationOf(start, end), repeatTimes);
+  }
+
+  /**
+   * Creates a rule that repeats until a given date.
+   *
+   * @param start     When to consider starting the occurrences as well as the time they start
+   * @param end       The end time the occurrences will have
+   * @param weekdays  Which weekdays to repeat on in the form of a string containing the
+   *                  characters MTWRFSU to represent the days
+   * @param untilDate The last date an occurrence may be on
+   * @return the rule
+   * @throws IllegalArgumentException If any of the weekday chars are not valid or the end time is
+   *                                  before the start time
+   */
+  public static RecurrenceRule repeatUntil(LocalDateTime start, LocalDateTime end,
+                                           String weekdays, LocalDate untilDate)
+      throws IllegalArgumentException {
+    int mask = parseWeekdays(weekdays);
+    long count = matchingBefore(mask, untilDate.toEpochDay() + 1)
+        - matchingBefore(mask, start.toLocalDate().toEpochDay());
+    return new RecurrenceRule(start.toLocalDate(), mask, start.toLocalTime(),
+        durationOf(start, end), (int) Math.max(count, 0));
+  }
+
+  /**
+   * Converts a string of the characters MTWRFSU into a weekday mask.
+   *
+   * @param weekdays the weekdays to convert
+   * @return the mask with bit 0 as Monday through bit 6 as Sunday
+   * @throws IllegalArgumentException If any of the weekday chars are not valid
+   */
+  public static int parseWeekdays(String weekdays) throws IllegalArgumentException {
+    int mask = 0;
+    for (char c : weekdays.toCharArray()) {
+      int i = WEEKDAY_CHARS.indexOf(c);
+      if (i == -1) {
+        throw new IllegalArgumentException("Invalid weekday character: " + c);
+      }
+      mask |= 1 << i;
+    }
+    return mask;
+  }
+
+  /**
+   * Checks whether an occurrence falls on the given date.
+   *
+   * @param date the date to check
+   * @return whether there is an occurrence on that date
+   */
+  public boolean occursOn(LocalDate date) {
+    return count > 0 && !date.isBefore(firstDate) && !date.isAfter(lastDate)
+        && matches(weekdayMask, date);
+  }
+
+  /**
+   * Finds the dates of every occurrence between two dates (inclusive) in order.
+   *
+   * @param from the first date to check
+   * @param to   the last date to check
+   * @return the dates of the occurrences
+   */
+  public List<LocalDate> datesBetween(LocalDate from, LocalDate to) {
+    List<LocalDate> r = new ArrayList<>();
+    if (count == 0) {
+      return r;
+    }
+    LocalDate last = to.isAfter(lastDate) ? lastDate : to;
+    if (from.isAfter(last)) {
+      return r;
+    }
+    LocalDate d = firstOnOrAfter(weekdayMask, from.isBefore(firstDate) ? firstDate : from);
+    for (; !d.isAfter(last); d = firstOnOrAfter(weekdayMask, d.plusDays(1))) {
+      r.add(d);
+    }
+    return r;
+  }
+
+  /**
+   * Counts the occurrences between two dates (inclusive) without visiting them.
+   *
+   * @param from the first date to count
+   * @param to   the last date to count
+   * @return the number of occurrences in the range
+   */
+  public int countBetween(LocalDate from, LocalDate to) {
+    if (count == 0) {
+      return 0;
+    }
+    LocalDate first = from.isBefore(firstDate) ? firstDate : from;
+    LocalDate last = to.isAfter(lastDate) ? lastDate : to;
+    if (first.isAfter(last)) {
+      return 0;
+    }
+    return (int) (matchingBefore(weekdayMask, last.toEpochDay() + 1)
+        - matchingBefore(weekdayMask, first.toEpochDay()));
+  }
+
+  /**
+   * Finds the date of the k-th occurrence (counting from 0).
+   *
+   * @param k which occurrence to find
+   * @return the date of that occurrence
+   * @throws IndexOutOfBoundsException if there is no such occurrence
+   */
+  public LocalDate nthDate(int k) throws IndexOutOfBoundsException {
+    if (k < 0 || k >= count) {
+      throw new IndexOutOfBoundsException("No occurrence " + k + " in a rule of " + count);
+    }
+    int perWeek = Integer.bitCount(weekdayMask);
+    long target = matchingBefore(weekdayMask, firstDate.toEpochDay()) + k;
+    long week = Math.floorDiv(target, perWeek);
+    int inWeek = Math.floorMod(target, perWeek);
+    // drop the lowest set bits until the wanted one is the lowest
+    int bits = weekdayMask;
+    for (int i = 0; i < inWeek; i++) {
+      bits &= bits - 1;
+    }
+    return LocalDate.ofEpochDay(MONDAY_EPOCH_DAY + week * 7
+        + Integer.numberOfTrailingZeros(bits));
+  }
+
+  /**
+   * Finds the date of the first occurrence on or after the given date.
+   *
+   * @param date the date to start looking from
+   * @return the date of the occurrence or null if there is none
+   */
+  public LocalDate firstOccurrenceOnOrAfter(LocalDate date) {
+    if (count == 0 || date.isAfter(lastDate)) {
+      return null;
+    }
+    return date.isBefore(firstDate) ? firstDate : firstOnOrAfter(weekdayMask, date);
+  }
+
+  /**
+   * Counts how many occurrences come before the given date.
+   *
+   * @param date the date to count up to (exclusive)
+   * @return the number of occurrences before the date
+   */
+  public int countBefore(LocalDate date) {
+    if (count == 0 || !date.isAfter(firstDate)) {
+      return 0;
+    }
+    return countBetween(firstDate, date.minusDays(1));
+  }
+
+  /**
+   * Creates the rule for only the occurrences on or after the given date.
+   *
+   * @param date the date to start at
+   * @return the later part of this rule
+   */
+  public RecurrenceRule startingAt(LocalDate date) {
+    LocalDate from = date.isBefore(firstDate) ? firstDate : date;
+    return new RecurrenceRule(from, weekdayMask, startTime, duration, count - countBefore(from));
+  }
+
+  /**
+   * Creates the rule for only the occurrences before the given date.
+   *
+   * @param date the date to stop at (exclusive)
+   * @return the earlier part of this rule
+   */
+  public RecurrenceRule endingBefore(LocalDate date) {
+    return new RecurrenceRule(firstDate, weekdayMask, startTime, duration, countBefore(date));
+  }
+
+  /**
+   * Creates the same rule moved by a number of days and starting at a new time. The weekdays it
+   * repeats on move along with it.
+   *
+   * @param days         how many days to move every occurrence by
+   * @param newStartTime the time every occurrence should start at
+   * @return the moved rule
+   */
+  public RecurrenceRule shifted(long days, LocalTime newStartTime) {
+    int shift = (int) Math.floorMod(days, 7L);
+    int mask = ((weekdayMask << shift) | (weekdayMask >>> (7 - shift))) & 0x7F;
+    return new RecurrenceRule(firstDate.plusDays(days), mask, newStartTime, duration, count);
+  }
+
+  /**
+   * Creates the same rule but with new start time and duration for every occurrence.
+   *
+   * @param newStartTime the time every occurrence should start at
+   * @param newDuration  how long every occurrence should last
+   * @return the new rule
+   * @throws IllegalArgumentException if the duration is negative
+   */
+  public RecurrenceRule withTimes(LocalTime newStartTime, Duration newDuration)
+      throws IllegalArgumentException {
+    return new RecurrenceRule(firstDate, weekdayMask, newStartTime, newDuration, count);
+  }
+
+  /**
+   * Gets the date of the first occurrence.
+   *
+   * @return the date of the first occurrence
+   */
+  public LocalDate getFirstDate() {
+    return firstDate;
+  }
+
+  /**
+   * Gets the date of the last occurrence, or null if there are no occurrences.
+   *
+   * @return the date of the last occurrence
+   */
+  public LocalDate getLastDate() {
+    return lastDate;
+  }
+
+  /**
+   * Gets the weekdays this rule repeats on.
+   *
+   * @return the mask with bit 0 as Monday through bit 6 as Sunday
+   */
+  public int getWeekdayMask() {
+    return weekdayMask;
+  }
+
+  /**
+   * Gets the time every occurrence starts at.
+   *
+   * @return the start time
+   */
+  public LocalTime getStartTime() {
+    return startTime;
+  }
+
+  /**
+   * Gets how long every occurrence lasts.
+   *
+   * @return the duration of an occurrence
+   */
+  public Duration getDuration() {
+    return duration;
+  }
+
+  /**
+   * Gets the number of occurrences.
+   *
+   * @return the number of occurrences
+   */
+  public int getCount() {
+    return count;
+  }
+
+  // The occurrence end keeps the occurrence's date and only takes the hour and minute of end
+  private static Duration durationOf(LocalDateTime start, LocalDateTime end) {
+    if (start.isAfter(end)) {
+      throw new IllegalArgumentException("Start date cannot be after end date");
+    }
+    return Duration.between(start, start.withHour(end.getHour()).withMinute(end.getMinute()));
+  }
+
+  private static boolean matches(int mask, LocalDate date) {
+    return (mask & (1 << (date.getDayOfWeek().getValue() - 1))) != 0;
+  }
+
+  // How many days before the given epoch day are on one of the weekdays, counted from the Monday
+  // at MONDAY_EPOCH_DAY (negative for days before it), only differences of this are meaningful
+  private static long matchingBefore(int mask, long epochDay) {
+    long days = epochDay - MONDAY_EPOCH_DAY;
+    int intoWeek = (int) Math.floorMod(days, 7L);
+    return Math.floorDiv(days, 7L) * Integer.bitCount(mask)
+        + Integer.bitCount(mask & ((1 << intoWeek) - 1));
+  }
+
+  // Finds the first date on or after the given one that is on one of the weekdays, the mask must
+  // not be empty
+  private static LocalDate firstOnOrAfter(int mask, LocalDate date) {
+    int weekday = date.getDayOfWeek().getValue() - 1;
+    int rotated = ((mask >>> weekday) | (mask << (7 - weekday))) & 0x7F;
+    return date.plusDays(Integer.numberOfTrailingZeros(rotated));
+  }
+}
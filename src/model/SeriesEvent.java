@@ -1,23 +1,143 @@
 package model;
 
-import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
-import java.util.HashSet;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
 
 /**
- * Represents a series of repeating events used for a Calendar like Google Calendar.
+ * Represents a series of repeating events used for a Calendar like Google Calendar. The regular
+ * occurrences are described by a {@link RecurrenceRule} and worked out when they are asked for,
+ * only occurrences that were edited on their own are stored.
  */
 public class SeriesEvent implements IEvent {
-  public HashSet<IEvent> events;
-  String subject;
+  private static final long NANOS_PER_DAY = Duration.ofDays(1).toNanos();
+
+  // the subject, location, status, and description shared by every regular occurrence
+  private EventMetadata metadata;
+
+  // How the regular occurrences repeat, null when this only holds explicit occurrences (for
+  // example the part of a series that was found by a query)
+  private RecurrenceRule rule;
+  // The date an occurrence was originally scheduled on -> the occurrence stored for it, which
+  // replaces the one the rule would have generated, kept in date order so the series can be
+  // split at a date without looking at the occurrences before it
+  private TreeMap<LocalDate, SingleEvent> explicit;
+  // Converts the times the rule gives from the timezone it was made in to the one this series is
+  // kept in, null when they are the same. The dates the rule and the explicit occurrences are
+  // keyed by stay in the rule's timezone.
+  private ZoneShift zone;
+
+  private SeriesEvent(EventMetadata metadata, RecurrenceRule rule,
+                      TreeMap<LocalDate, SingleEvent> explicit, ZoneShift zone) {
+    this.metadata = metadata;
+    this.rule = rule;
+    this.explicit = explicit;
+    this.zone = zone;
+  }
+
+  /**
+   * Constructor used to create a series of events that repeats until a given date.
+   *
+   * @param subject       The subject each of these events should have.
+   * @param startDateTime When to consider starting to add the events as well as the time they will
+   *                      occur
+   * @param endDateTime   The end time the events will have
+   * @param weekdays      Which weekdays to repeat on in the form of a string containing
+   *                      the characters MTWRFSU to represent the days
+   * @param untilDate     The date it should stop trying to add days until
+   * @throws IllegalArgumentException If the start date is after the end date
+   * @throws IllegalArgumentException If any of the weekday chars are not valid
+   */
+  public SeriesEvent(String subject, LocalDateTime startDateTime, LocalDateTime endDateTime,
+                     String weekdays, LocalDate untilDate) {
+    this(new EventMetadata(subject, null, null, null),
+        RecurrenceRule.repeatUntil(startDateTime, endDateTime, weekdays, untilDate),
+        new TreeMap<>(), null);
+  }
+
+  /**
+   * Constructor used to create a series of events that repeats a given number of times.
+   *
+   * @param subject       The subject each of these events should have.
+   * @param startDateTime When to consider starting to add the events as well as the time they will
+   *                      occur
+   * @param endDateTime   The end time the events will have
+   * @param weekdays      Which weekdays to repeat on in the form of a string containing the
+   *                      characters MTWRFSU to represent the days
+   * @param repeatTimes   The number of times the event should repeat.
+   * @throws IllegalArgumentException If the start date is after the end date
+   * @throws IllegalArgumentException If any of the weekday chars are not valid
+   */
+  public SeriesEvent(String subject, LocalDateTime startDateTime, LocalDateTime endDateTime,
+                     String weekdays, int repeatTimes) throws IllegalArgumentException {
+    this(new EventMetadata(subject, null, null, null),
+        RecurrenceRule.repeatFor(startDateTime, endDateTime, weekdays, repeatTimes),
+        new TreeMap<>(), null);
+  }
+
+  /**
+   * Creates a series holding only the given occurrences, used to return the part of a series
+   * that matched a query.
+   *
+   * @param subject     The subject of the series the occurrences belong to
+   * @param occurrences The occurrences the series should hold
+   * @return the series or null if there are no occurrences
+   */
+  static SeriesEvent of(String subject, List<SingleEvent> occurrences) {
+    TreeMap<LocalDate, SingleEvent> byDate = new TreeMap<>();
+    for (SingleEvent occurrence : occurrences) {
+      // without a rule the keys only have to be distinct
+      LocalDate key = occurrence.startDateTime.toLocalDate();
+      while (byDate.containsKey(key)) {
+        key = key.plusDays(1);
+      }
+      byDate.put(key, occurrence);
+    }
+    if (byDate.isEmpty()) {
+      return null;
+    }
+    return new SeriesEvent(new EventMetadata(subject, null, null, null), null, byDate, null);
+  }
 
-  protected SeriesEvent(HashSet<IEvent> events, String subject) {
-    this.events = events;
-    this.subject = subject;
+  /**
+   * Recreates a series from its parts, used to load a saved calendar.
+   *
+   * @param metadata the subject, location, status, and description of the regular occurrences
+   * @param rule     how the regular occurrences repeat, or null
+   * @param explicit the date each stored occurrence was scheduled on -> the occurrence
+   * @return the series
+   */
+  static SeriesEvent restore(EventMetadata metadata, RecurrenceRule rule,
+                             TreeMap<LocalDate, SingleEvent> explicit) {
+    return new SeriesEvent(metadata, rule, explicit, null);
+  }
 
+  /**
+   * Recreates a series whose rule was made in another timezone than the one it is kept in.
+   *
+   * @param metadata the subject, location, status, and description of the regular occurrences
+   * @param rule     how the regular occurrences repeat, or null
+   * @param explicit the date in the rule's timezone each stored occurrence was scheduled on -> the
+   *                 occurrence
+   * @param zone     the conversion from the rule's timezone to the one the series is kept in, or
+   *                 null if they are the same
+   * @return the series
+   */
+  static SeriesEvent restore(EventMetadata metadata, RecurrenceRule rule,
+                             TreeMap<LocalDate, SingleEvent> explicit, ZoneShift zone) {
+    return new SeriesEvent(metadata, rule, explicit, rule == null ? null : zone);
   }
 
   /**
@@ -28,11 +148,16 @@ public class SeriesEvent implements IEvent {
    */
   @Override
   public boolean containsDateTime(LocalDateTime dateTime) {
-    for (IEvent event : events) {
+    for (SingleEvent event : explicit.values()) {
       if (event.containsDateTime(dateTime)) {
         return true;
       }
     }
+    for (LocalDate date : generatedDatesTouching(dateTime.toLocalDate(), dateTime.toLocalDate())) {
+      if (generate(date).containsDateTime(dateTime)) {
+        return true;
+      }
+    }
     return false;
   }
 
@@ -40,22 +165,23 @@ public class SeriesEvent implements IEvent {
    * Checks whether the event is on the given date.
    *
    * @param date The date to check
-   * @return Whether the event is on the given date
+   * @return The occurrences on the given date as a series or null if there are none
    */
   @Override
   public IEvent getIfEventIsOnDate(LocalDate date) {
-    HashSet<IEvent> r = new HashSet<>();
-
-    for (IEvent event : events) {
-      IEvent toAdd = event.getIfEventIsOnDate(date);
-      if (toAdd != null) {
-        r.add(toAdd);
+    TreeMap<LocalDate, SingleEvent> r = new TreeMap<>();
+    for (Map.Entry<LocalDate, SingleEvent> entry : explicit.entrySet()) {
+      if (entry.getValue().getIfEventIsOnDate(date) != null) {
+        r.put(entry.getKey(), entry.getValue());
       }
     }
-    if (r.isEmpty()) {
-      return null;
+    for (LocalDate slot : generatedDatesTouching(date, date)) {
+      SingleEvent event = generate(slot);
+      if (event.getIfEventIsOnDate(date) != null) {
+        r.put(slot, event);
+      }
     }
-    return new SeriesEvent(r, subject);
+    return selection(r);
   }
 
   /**
@@ -63,22 +189,28 @@ public class SeriesEvent implements IEvent {
    *
    * @param startTime The lower date range to check
    * @param endTime   The upper date range to check
-   * @return Whether the event between the two DateTimes.
+   * @return The occurrences between the two DateTimes as a series or null if there are none
    */
   @Override
   public IEvent getIfBetween(LocalDateTime startTime, LocalDateTime endTime) {
-    HashSet<IEvent> r = new HashSet<>();
-
-    for (IEvent event : events) {
-      IEvent toAdd = event.getIfBetween(startTime, endTime);
-      if (toAdd != null) {
-        r.add(toAdd);
+    TreeMap<LocalDate, SingleEvent> r = new TreeMap<>();
+    for (Map.Entry<LocalDate, SingleEvent> entry : explicit.entrySet()) {
+      if (entry.getValue().getIfBetween(startTime, endTime) != null) {
+        r.put(entry.getKey(), entry.getValue());
       }
     }
-    if (r.isEmpty()) {
-      return null;
+    if (rule != null) {
+      for (LocalDate slot : rule.datesBetween(startTime.toLocalDate().minusDays(zoneDays()),
+          endTime.toLocalDate().plusDays(zoneDays()))) {
+        if (!explicit.containsKey(slot)) {
+          SingleEvent event = generate(slot);
+          if (event.getIfBetween(startTime, endTime) != null) {
+            r.put(slot, event);
+          }
+        }
+      }
     }
-    return new SeriesEvent(r, subject);
+    return selection(r);
   }
 
   /**
@@ -90,7 +222,7 @@ public class SeriesEvent implements IEvent {
    */
   @Override
   public boolean checkDuplicate(IEvent newEvent) {
-    for (IEvent event : events) {
+    for (SingleEvent event : occurrences()) {
       if (event.checkDuplicate(newEvent)) {
         return true;
       }
@@ -99,214 +231,599 @@ public class SeriesEvent implements IEvent {
   }
 
   /**
-   * Gets all the events this event contains.
+   * Gets all the events this event contains in start time order. The regular occurrences are
+   * generated from the rule each time this is called.
    *
    * @return All the events this event contains
    */
-  public HashSet<IEvent> getEvents() {
-    return events;
+  public List<IEvent> getEvents() {
+    return new ArrayList<>(occurrences());
   }
 
-  /**
-   * Constructor used to create a series of events that repeats until a given date.
-   *
-   * @param subject       The subject each of these events should have.
-   * @param startDateTime When to consider starting to add the events as well as the time they will
-   *                      occur
-   * @param endDateTime   The end time the events will have
-   * @param weekdays      Which weekdays to repeat on in the form of a string containing
-   *                      the characters MTWRFSU to represent the days
-   * @param untilDate     The date it should stop trying to add days until
-   * @throws IllegalArgumentException If the start date is after the end date
-   * @throws IllegalArgumentException If any of the weekday chars are not valid
-   */
-  public SeriesEvent(String subject, LocalDateTime startDateTime, LocalDateTime endDateTime,
-                     String weekdays, LocalDate untilDate) {
-    if (startDateTime.isAfter(endDateTime)) {
-      throw new IllegalArgumentException("Start date cannot be after end date");
+  @Override
+  public IEvent getAllMatchingEventsAfter(String subject, LocalDateTime start) {
+    LocalDate slot = findSlot(subject, start);
+    if (slot == null) {
+      return null;
+    }
+    if (!slot.isAfter(firstSlot())) {
+      return this;
+    }
+    TreeMap<LocalDate, SingleEvent> tail = new TreeMap<>(explicit.tailMap(slot, true));
+    return new SeriesEvent(metadata, rule == null ? null : rule.startingAt(slot), tail, zone);
+  }
+
+  @Override
+  public IEvent getAllMatchingEvents(String subject, LocalDateTime start) {
+    if (findSlot(subject, start) != null) {
+      return this;
+    }
+    return null;
+  }
+
+  @Override
+  public IEvent getExactMatch(String subject, LocalDateTime start, LocalDateTime end) {
+    IEvent found = getExactMatch(subject, start);
+    if (found != null && ((SingleEvent) found).endDateTime.equals(end)) {
+      return found;
+    }
+    for (SingleEvent event : explicit.values()) {
+      IEvent foundEvent = event.getExactMatch(subject, start, end);
+      if (foundEvent != null) {
+        return foundEvent;
+      }
     }
-    checkValidWeekdays(weekdays);
+    return null;
+  }
 
-    this.events = new HashSet<>();
-    this.subject = subject;
-    LocalDateTime current = startDateTime;
+  @Override
+  public IEvent getExactMatch(String subject, LocalDateTime start) {
+    LocalDate slot = findSlot(subject, start);
+    if (slot == null) {
+      return null;
+    }
+    SingleEvent stored = explicit.get(slot);
+    return stored != null ? stored : generate(slot);
+  }
 
-    while (!current.toLocalDate().isAfter(untilDate)) {
-      char dayChar = getDayChar(current.getDayOfWeek());
+  @Override
+  public IEvent getEdittedCopy(String property, String newProperty) {
+    return getEdittedCopy(EventEdit.parse(property, newProperty));
+  }
 
-      if (weekdays.indexOf(dayChar) != -1) {
-        LocalDateTime thisEnd = current.withHour(endDateTime.getHour())
-            .withMinute(endDateTime.getMinute());
-        events.add(new SingleEvent(subject, current, thisEnd));
+  @Override
+  public IEvent getEdittedCopy(EventEdit edit) {
+    if (isEmpty()) {
+      throw new IllegalStateException("No events available");
+    }
+    return applyEdit(edit);
+  }
+
+  @Override
+  public void editEvent(String property, String newProperty) {
+    editEvent(EventEdit.parse(property, newProperty));
+  }
+
+  @Override
+  public void editEvent(EventEdit edit) {
+    if (edit.isMetadata()) {
+      // the regular occurrences only need the shared record swapped
+      this.metadata = metadata.with(edit);
+      for (SingleEvent event : explicit.values()) {
+        event.editEvent(edit);
       }
+      return;
+    }
+    SeriesEvent updated = applyEdit(edit);
+    this.metadata = updated.metadata;
+    this.rule = updated.rule;
+    this.explicit = updated.explicit;
+    this.zone = updated.zone;
+  }
 
-      current = current.plusDays(1);
+  @Override
+  public LocalDateTime getStart() {
+    if (isEmpty()) {
+      throw new IllegalStateException("No events available");
     }
+    return occurrences().get(0).getStart();
   }
 
   /**
-   * Constructor used to create a series of events that repeats a given number of times.
+   * Edits one occurrence of this series on its own. The occurrence is stored explicitly from now
+   * on, the rest of the series is not changed.
    *
-   * @param subject       The subject each of these events should have.
-   * @param startDateTime When to consider starting to add the events as well as the time they will
-   *                      occur
-   * @param endDateTime   The end time the events will have
-   * @param weekdays      Which weekdays to repeat on in the form of a string containing the
-   *                      characters MTWRFSU to represent the days
-   * @param repeatTimes   The number of times the event should repeat.
-   * @throws IllegalArgumentException If the start date is after the end date
-   * @throws IllegalArgumentException If any of the weekday chars are not valid
+   * @param occurrence An occurrence of this series as returned by getExactMatch
+   * @param edit       The edit to make
+   * @throws IllegalArgumentException if the edit would make the occurrence invalid
    */
-  public SeriesEvent(String subject, LocalDateTime startDateTime, LocalDateTime endDateTime,
-                     String weekdays, int repeatTimes) throws IllegalArgumentException {
-    if (startDateTime.isAfter(endDateTime)) {
-      throw new IllegalArgumentException("Start date cannot be after end date");
+  void editOccurrence(SingleEvent occurrence, EventEdit edit) throws IllegalArgumentException {
+    for (SingleEvent stored : explicit.values()) {
+      if (stored == occurrence) {
+        occurrence.editEvent(edit);
+        return;
+      }
     }
-    checkValidWeekdays(weekdays);
-    this.events = new HashSet<>();
-    this.subject = subject;
+    LocalDate slot = slotOf(occurrence.getStart());
+    occurrence.editEvent(edit);
+    explicit.put(slot, occurrence);
+  }
 
-    LocalDateTime current = startDateTime;
-    int count = 0;
+  /**
+   * Removes every occurrence that was originally scheduled on or after the given date.
+   *
+   * @param date the first date to remove
+   */
+  void truncateBefore(LocalDate date) {
+    if (rule != null) {
+      rule = rule.endingBefore(date);
+    }
+    explicit.tailMap(date, true).clear();
+  }
+
+  /**
+   * Gets the earliest date any occurrence was originally scheduled on.
+   *
+   * @return the first scheduled date
+   */
+  LocalDate firstSlot() {
+    LocalDate first = null;
+    if (rule != null && rule.getCount() > 0) {
+      first = rule.getFirstDate();
+    }
+    if (!explicit.isEmpty() && (first == null || explicit.firstKey().isBefore(first))) {
+      first = explicit.firstKey();
+    }
+    return first;
+  }
 
-    while (count < repeatTimes) {
-      char dayChar = getDayChar(current.getDayOfWeek());
+  /**
+   * Checks whether the rule generates an occurrence on the given date that has not been replaced
+   * by an explicitly stored one.
+   *
+   * @param date the date to check
+   * @return whether a regular occurrence is on that date
+   */
+  boolean generatesOn(LocalDate date) {
+    return rule != null && rule.occursOn(date) && !explicit.containsKey(date);
+  }
 
-      if (weekdays.indexOf(dayChar) != -1) {
-        LocalDateTime thisEnd = current.withHour(endDateTime.getHour())
-            .withMinute(endDateTime.getMinute());
-        events.add(new SingleEvent(subject, current, thisEnd));
-        count++;
+  /**
+   * Gets the occurrences that are stored explicitly.
+   *
+   * @return the stored occurrences
+   */
+  Collection<SingleEvent> explicitOccurrences() {
+    return explicit.values();
+  }
+
+  /**
+   * Iterates lazily over the occurrences completely between two times in start time order. The
+   * regular occurrences are only generated as the iterator reaches them.
+   *
+   * @param startTime The lower date range to check
+   * @param endTime   The upper date range to check
+   * @return an iterator over the occurrences
+   */
+  Iterator<SingleEvent> occurrencesWithin(LocalDateTime startTime, LocalDateTime endTime) {
+    List<SingleEvent> stored = new ArrayList<>();
+    for (SingleEvent event : explicit.values()) {
+      if (event.getIfBetween(startTime, endTime) != null) {
+        stored.add(event);
+      }
+    }
+    stored.sort(EventIndex.ORDER);
+    Iterator<SingleEvent> generated = new Iterator<>() {
+      private LocalDate next = firstGeneratedFrom(startTime.toLocalDate().minusDays(zoneDays()));
+
+      @Override
+      public boolean hasNext() {
+        while (next != null && !next.isAfter(endTime.toLocalDate().plusDays(zoneDays()))) {
+          if (generate(next).getIfBetween(startTime, endTime) != null) {
+            return true;
+          }
+          next = firstGeneratedFrom(next.plusDays(1));
+        }
+        next = null;
+        return false;
       }
 
-      current = current.plusDays(1);
+      @Override
+      public SingleEvent next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        SingleEvent event = generate(next);
+        next = firstGeneratedFrom(next.plusDays(1));
+        return event;
+      }
+    };
+    return EventIndex.merge(List.of(stored.iterator(), generated));
+  }
+
+  /**
+   * Finds the occurrences that overlap the range at all, including its ends.
+   *
+   * @param startTime The lower date range to check
+   * @param endTime   The upper date range to check
+   * @return The overlapping occurrences as a series or null if there are none
+   */
+  SeriesEvent getIfOverlapping(LocalDateTime startTime, LocalDateTime endTime) {
+    TreeMap<LocalDate, SingleEvent> r = new TreeMap<>();
+    for (Map.Entry<LocalDate, SingleEvent> entry : explicit.entrySet()) {
+      if (entry.getValue().overlaps(startTime, endTime)) {
+        r.put(entry.getKey(), entry.getValue());
+      }
+    }
+    for (LocalDate slot : generatedDatesTouching(startTime.toLocalDate(), endTime.toLocalDate())) {
+      SingleEvent event = generate(slot);
+      if (event.overlaps(startTime, endTime)) {
+        r.put(slot, event);
+      }
     }
+    return selection(r);
   }
 
-  @Override
-  public IEvent getAllMatchingEventsAfter(String subject, LocalDateTime start) {
-    boolean searching = true;
-    HashSet<IEvent> newEvents = new HashSet<>();
-    for (IEvent event : events) {
-      if (searching) {
-        if (event.getAllMatchingEventsAfter(subject, start) != null) {
-          newEvents.add(event);
+  /**
+   * Creates a series holding every occurrence of this one changed by the given function, the
+   * result keeps this series' subject, location, status, and description but not its rule.
+   *
+   * @param change what to do to each occurrence
+   * @return the changed series
+   */
+  SeriesEvent mapOccurrences(UnaryOperator<SingleEvent> change) {
+    TreeMap<LocalDate, SingleEvent> r = new TreeMap<>();
+    for (Map.Entry<LocalDate, SingleEvent> entry : explicit.entrySet()) {
+      r.put(entry.getKey(), change.apply(entry.getValue()));
+    }
+    if (rule != null && rule.getCount() > 0) {
+      for (LocalDate slot : rule.datesBetween(rule.getFirstDate(), rule.getLastDate())) {
+        if (!explicit.containsKey(slot)) {
+          r.put(slot, change.apply(generate(slot)));
         }
-      } else {
-        newEvents.add(event);
-      }
-      if (!newEvents.isEmpty()) {
-        searching = false;
       }
     }
-    if (newEvents.isEmpty()) {
-      return null;
+    return new SeriesEvent(metadata, null, r, null);
+  }
+
+  /**
+   * Creates a copy of this series with every time converted to another timezone. The rule is kept
+   * in the timezone it was made in and the regular occurrences are converted as they are
+   * generated, so occurrences on either side of a daylight saving change each get their own
+   * offset.
+   *
+   * @param shift the conversion from the timezone this series is kept in
+   * @return the converted series
+   */
+  SeriesEvent convertedBy(ZoneShift shift) {
+    TreeMap<LocalDate, SingleEvent> r = new TreeMap<>();
+    for (Map.Entry<LocalDate, SingleEvent> entry : explicit.entrySet()) {
+      r.put(entry.getKey(), shift.convert(entry.getValue()));
     }
-    return new SeriesEvent(newEvents, subject);
+    ZoneShift newZone = null;
+    if (rule != null) {
+      ZoneId ruleZone = zone == null ? shift.getFrom() : zone.getFrom();
+      if (!ruleZone.equals(shift.getTo())) {
+        newZone = new ZoneShift(ruleZone, shift.getTo());
+      }
+    }
+    return new SeriesEvent(metadata, rule, r, newZone);
   }
 
-  @Override
-  public IEvent getAllMatchingEvents(String subject, LocalDateTime start) {
-    for (IEvent event : events) {
-      if (event.getAllMatchingEvents(subject, start) != null) {
-        return this;
+  /**
+   * Checks whether the rule generates an occurrence with the same subject, start, and end as the
+   * given one that has not been replaced by an explicitly stored one.
+   *
+   * @param occurrence the occurrence to look for
+   * @return whether it is one of the regular occurrences
+   */
+  boolean generates(SingleEvent occurrence) {
+    LocalDate slot = slotOf(occurrence.startDateTime);
+    return generatesOn(slot) && generate(slot).equals(occurrence);
+  }
+
+  /**
+   * Gets every occurrence in start time order.
+   *
+   * @return the occurrences
+   */
+  List<SingleEvent> occurrences() {
+    List<SingleEvent> r = new ArrayList<>(explicit.values());
+    if (rule != null && rule.getCount() > 0) {
+      for (LocalDate slot : rule.datesBetween(rule.getFirstDate(), rule.getLastDate())) {
+        if (!explicit.containsKey(slot)) {
+          r.add(generate(slot));
+        }
       }
     }
-    return null;
+    r.sort(EventIndex.ORDER);
+    return r;
   }
 
-  @Override
-  public IEvent getExactMatch(String subject, LocalDateTime start, LocalDateTime end) {
-    for (IEvent event : events) {
-      IEvent foundEvent = event.getExactMatch(subject, start, end);
-      if (foundEvent != null) {
-        return foundEvent;
+  /**
+   * Gets the earliest time any occurrence could start at, or null if there are no occurrences.
+   *
+   * @return the earliest start
+   */
+  LocalDateTime spanStart() {
+    LocalDateTime first = null;
+    if (rule != null && rule.getCount() > 0) {
+      first = startOf(rule.getFirstDate());
+    }
+    for (SingleEvent event : explicit.values()) {
+      if (first == null || event.startDateTime.isBefore(first)) {
+        first = event.startDateTime;
       }
     }
-    return null;
+    return first;
   }
 
-  @Override
-  public IEvent getExactMatch(String subject, LocalDateTime start) {
-    for (IEvent event : events) {
-      IEvent foundEvent = event.getExactMatch(subject, start);
-      if (foundEvent != null) {
-        return foundEvent;
+  /**
+   * Gets the latest time any occurrence could end at, or null if there are no occurrences.
+   *
+   * @return the latest end
+   */
+  LocalDateTime spanEnd() {
+    LocalDateTime last = null;
+    if (rule != null && rule.getCount() > 0) {
+      last = endOf(rule.getLastDate());
+    }
+    for (SingleEvent event : explicit.values()) {
+      if (last == null || event.endDateTime.isAfter(last)) {
+        last = event.endDateTime;
       }
     }
-    return null;
+    return last;
   }
 
-  @Override
-  public IEvent getEdittedCopy(String property, String newProperty) {
-    HashSet<IEvent> newEvents = new HashSet<>();
-    if (events.isEmpty()) {
-      throw new IllegalStateException("No events available");
+  /**
+   * Gets the rule the regular occurrences follow.
+   *
+   * @return the rule or null if this series only holds explicit occurrences
+   */
+  RecurrenceRule getRule() {
+    return rule;
+  }
+
+  /**
+   * Gets the conversion from the timezone the rule was made in to the one this series is kept in.
+   *
+   * @return the conversion or null if the rule is in the timezone the series is kept in
+   */
+  ZoneShift getZone() {
+    return zone;
+  }
+
+  /**
+   * Gets the subject, location, status, and description the regular occurrences have.
+   *
+   * @return the shared record
+   */
+  EventMetadata getMetadata() {
+    return metadata;
+  }
+
+  /**
+   * Gets the occurrences that are stored explicitly by the date they were scheduled on.
+   *
+   * @return the stored occurrences in date order
+   */
+  Map<LocalDate, SingleEvent> explicitByDate() {
+    return Collections.unmodifiableMap(explicit);
+  }
+
+  /**
+   * Gets the subject the regular occurrences have.
+   *
+   * @return the subject
+   */
+  String getSubject() {
+    return metadata.getSubject();
+  }
+
+  // The first date on or after the given one with a regular occurrence that was not replaced
+  private LocalDate firstGeneratedFrom(LocalDate date) {
+    if (rule == null) {
+      return null;
     }
-    LocalDate prev = events.iterator().next().getStart().toLocalDate();
-    for (IEvent event : events) {
-      newProperty = accountForOffsetIfNeeded(event, property, newProperty, prev);
-      prev = event.getStart().toLocalDate();
-      newEvents.add(event.getEdittedCopy(property, newProperty));
+    LocalDate d = rule.firstOccurrenceOnOrAfter(date);
+    while (d != null && explicit.containsKey(d)) {
+      d = rule.firstOccurrenceOnOrAfter(d.plusDays(1));
     }
-    return new SeriesEvent(newEvents, this.subject);
+    return d;
+  }
+
+  // Builds the regular occurrence scheduled on the given date
+  private SingleEvent generate(LocalDate date) {
+    return new SingleEvent(metadata.getSubject(), startOf(date), endOf(date),
+        metadata.getLocation(), metadata.getStatus(), metadata.getDescription());
+  }
+
+  // The start of the regular occurrence scheduled on the given date in the timezone kept in
+  private LocalDateTime startOf(LocalDate date) {
+    LocalDateTime start = date.atTime(rule.getStartTime());
+    return zone == null ? start : zone.convert(start);
   }
 
-  // When changing the start date of a series each event in the series must keep their offset
-  private String accountForOffsetIfNeeded(IEvent e, String property, String newProperty,
-                                          LocalDate prevStart) {
-    switch (property) {
-      case "endWithStart": {
-        LocalDateTime newStart = LocalDateTime.parse(newProperty);
-        long daysBetween = ChronoUnit.DAYS.between(prevStart, e.getStart().toLocalDate());
-        return newStart.plusDays(daysBetween).toString();
+  // The end of the regular occurrence scheduled on the given date in the timezone kept in
+  private LocalDateTime endOf(LocalDate date) {
+    LocalDateTime end = date.atTime(rule.getStartTime()).plus(rule.getDuration());
+    return zone == null ? end : zone.convert(end);
+  }
+
+  // The date in the rule's timezone of a time in the timezone kept in
+  private LocalDate slotOf(LocalDateTime time) {
+    return zone == null ? time.toLocalDate() : zone.reversed().convert(time).toLocalDate();
+  }
+
+  // How many days the dates of the regular occurrences can be away from the dates they were
+  // scheduled on because of the conversion, no two timezones are more than a day apart
+  private int zoneDays() {
+    return zone == null ? 0 : 2;
+  }
+
+  // The dates of regular occurrences that could overlap the given date
+  private List<LocalDate> generatedDatesTouching(LocalDate from, LocalDate to) {
+    List<LocalDate> r = new ArrayList<>();
+    if (rule == null) {
+      return r;
+    }
+    long spanDays = Math.floorDiv(rule.getStartTime().toNanoOfDay()
+        + rule.getDuration().toNanos(), NANOS_PER_DAY);
+    for (LocalDate slot : rule.datesBetween(from.minusDays(spanDays + zoneDays()),
+        to.plusDays(zoneDays()))) {
+      if (!explicit.containsKey(slot)) {
+        r.add(slot);
       }
-      case "tzAndDateChange": {
-        String[] info = newProperty.split("/");
-        LocalDate newStart = LocalDate.parse(info[0]);
-        long daysBetween = ChronoUnit.DAYS.between(prevStart, e.getStart().toLocalDate());
-        return newStart.plusDays(daysBetween).toString() + "/" + info[1];
+    }
+    return r;
+  }
+
+  // Finds the date the occurrence with the given subject and start was scheduled on
+  private LocalDate findSlot(String subject, LocalDateTime start) {
+    LocalDate date = slotOf(start);
+    if (generatesOn(date) && metadata.getSubject().equals(subject)
+        && startOf(date).equals(start)) {
+      return date;
+    }
+    // an occurrence is usually still on the date it was scheduled on
+    SingleEvent stored = explicit.get(date);
+    if (stored != null && stored.getExactMatch(subject, start) != null) {
+      return date;
+    }
+    for (Map.Entry<LocalDate, SingleEvent> entry : explicit.entrySet()) {
+      if (entry.getValue().getExactMatch(subject, start) != null) {
+        return entry.getKey();
       }
-      default:
-        return newProperty;
     }
+    return null;
   }
 
-  @Override
-  public void editEvent(String property, String newProperty) {
-    for (IEvent event : events) {
-      event.editEvent(property, newProperty);
+  private boolean isEmpty() {
+    return explicit.isEmpty() && (rule == null || rule.getCount() == 0);
+  }
+
+  // Wraps the given occurrences into a series holding just them
+  private SeriesEvent selection(TreeMap<LocalDate, SingleEvent> occurrences) {
+    if (occurrences.isEmpty()) {
+      return null;
     }
+    return new SeriesEvent(metadata, null, occurrences, null);
   }
 
-  @Override
-  public LocalDateTime getStart() {
-    for (IEvent event : events) {
-      return event.getStart();
-    }
-    throw new IllegalStateException("No events available");
-  }
-
-  // Converts a day into its respective character representation
-  private char getDayChar(DayOfWeek day) {
-    switch (day) {
-      case MONDAY:
-        return 'M';
-      case TUESDAY:
-        return 'T';
-      case WEDNESDAY:
-        return 'W';
-      case THURSDAY:
-        return 'R';
-      case FRIDAY:
-        return 'F';
-      case SATURDAY:
-        return 'S';
-      case SUNDAY:
-        return 'U';
+  // Creates a copy of this series with the edit applied to the rule and every stored occurrence
+  private SeriesEvent applyEdit(EventEdit edit) {
+    if (zone != null && !edit.isMetadata()) {
+      switch (edit.getKind()) {
+        case START:
+        case END:
+        case MOVE_START: {
+          // the new time is a time of day in the rule's timezone for every occurrence
+          ZoneShift back = zone.reversed();
+          return convertedBy(back).applyEdit(edit.at(back.convert(edit.getDateTime())))
+              .convertedBy(zone);
+        }
+        default:
+          // moves are by amounts of time in the timezone kept in
+          return mapOccurrences(UnaryOperator.identity()).applyEdit(edit);
+      }
+    }
+    EventMetadata newMetadata = metadata;
+    RecurrenceRule newRule = rule;
+    // how many days every scheduled date moves by
+    long slotShift = 0;
+    TreeMap<LocalDate, SingleEvent> newExplicit = new TreeMap<>();
+
+    switch (edit.getKind()) {
+      case SUBJECT:
+      case DESCRIPTION:
+      case LOCATION:
+      case STATUS:
+        newMetadata = metadata.with(edit);
+        break;
+      case START: {
+        LocalTime newStart = edit.getDateTime().toLocalTime();
+        if (rule != null) {
+          long endNanos = rule.getStartTime().toNanoOfDay() + rule.getDuration().toNanos();
+          newRule = rule.withTimes(newStart,
+              Duration.ofNanos(endNanos - newStart.toNanoOfDay()));
+        }
+        for (Map.Entry<LocalDate, SingleEvent> entry : explicit.entrySet()) {
+          LocalDate date = entry.getValue().startDateTime.toLocalDate();
+          newExplicit.put(entry.getKey(),
+              (SingleEvent) entry.getValue().getEdittedCopy(edit.onDate(date)));
+        }
+        break;
+      }
+      case END: {
+        LocalTime newEnd = edit.getDateTime().toLocalTime();
+        if (rule != null) {
+          long startNanos = rule.getStartTime().toNanoOfDay();
+          long endDay = Math.floorDiv(startNanos + rule.getDuration().toNanos(), NANOS_PER_DAY);
+          newRule = rule.withTimes(rule.getStartTime(),
+              Duration.ofNanos(endDay * NANOS_PER_DAY + newEnd.toNanoOfDay() - startNanos));
+        }
+        for (Map.Entry<LocalDate, SingleEvent> entry : explicit.entrySet()) {
+          LocalDate date = entry.getValue().endDateTime.toLocalDate();
+          newExplicit.put(entry.getKey(),
+              (SingleEvent) entry.getValue().getEdittedCopy(edit.onDate(date)));
+        }
+        break;
+      }
+      case MOVE_START: {
+        // the first occurrence moves to the new start and the others keep their offset from it
+        LocalDateTime newStart = edit.getDateTime();
+        LocalDate first = getStart().toLocalDate();
+        slotShift = ChronoUnit.DAYS.between(first, newStart.toLocalDate());
+        if (rule != null) {
+          newRule = rule.shifted(slotShift, newStart.toLocalTime());
+        }
+        for (Map.Entry<LocalDate, SingleEvent> entry : explicit.entrySet()) {
+          long offset = ChronoUnit.DAYS.between(first, entry.getValue().getStart().toLocalDate());
+          newExplicit.put(entry.getKey().plusDays(slotShift), (SingleEvent) entry.getValue()
+              .getEdittedCopy(EventEdit.moveStartTo(newStart.plusDays(offset))));
+        }
+        break;
+      }
+      case MOVE_TO_DATE: {
+        // the first occurrence moves to the new date and every occurrence moves by the difference
+        LocalDate first = getStart().toLocalDate();
+        long days = ChronoUnit.DAYS.between(first, edit.getDate());
+        slotShift = days;
+        if (rule != null) {
+          long nanos = rule.getStartTime().toNanoOfDay() + edit.getShift().toNanos();
+          slotShift += Math.floorDiv(nanos, NANOS_PER_DAY);
+          newRule = rule.shifted(slotShift,
+              LocalTime.ofNanoOfDay(Math.floorMod(nanos, NANOS_PER_DAY)));
+        }
+        for (Map.Entry<LocalDate, SingleEvent> entry : explicit.entrySet()) {
+          LocalDate date = entry.getValue().getStart().toLocalDate().plusDays(days);
+          newExplicit.put(entry.getKey().plusDays(slotShift), (SingleEvent) entry.getValue()
+              .getEdittedCopy(EventEdit.moveToDate(date, edit.getShift())));
+        }
+        break;
+      }
+      case MOVE_RELATIVE: {
+        slotShift = ChronoUnit.DAYS.between(edit.getRelativeTo(), edit.getDate());
+        if (rule != null) {
+          newRule = rule.shifted(slotShift, rule.getStartTime().plus(edit.getShift()));
+        }
+        for (Map.Entry<LocalDate, SingleEvent> entry : explicit.entrySet()) {
+          newExplicit.put(entry.getKey().plusDays(slotShift),
+              (SingleEvent) entry.getValue().getEdittedCopy(edit));
+        }
+        break;
+      }
       default:
-        throw new IllegalArgumentException("Invalid day: " + day);
+        throw new IllegalArgumentException("Unknown property: " + edit.getKind());
+    }
+
+    if (newExplicit.isEmpty()) {
+      for (Map.Entry<LocalDate, SingleEvent> entry : explicit.entrySet()) {
+        newExplicit.put(entry.getKey(), (SingleEvent) entry.getValue().getEdittedCopy(edit));
+      }
     }
+    return new SeriesEvent(newMetadata, newRule, newExplicit, null);
   }
 
   /**
@@ -326,7 +843,7 @@ public class SeriesEvent implements IEvent {
 
     SeriesEvent otherEvent = (SeriesEvent) other;
 
-    return Objects.equals(events, otherEvent.events);
+    return getEvents().equals(otherEvent.getEvents());
   }
 
   /**
@@ -336,22 +853,13 @@ public class SeriesEvent implements IEvent {
    */
   @Override
   public int hashCode() {
-    return Objects.hash(events);
-  }
-
-  // throws an exception if any of the characters in the string are not valid
-  private void checkValidWeekdays(String weekdays) {
-    for (char c : weekdays.toCharArray()) {
-      if ("MTWRFSU".indexOf(c) == -1) {
-        throw new IllegalArgumentException("Invalid weekday character: " + c);
-      }
-    }
+    return getEvents().hashCode();
   }
 
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
-    for (IEvent event : events) {
+    for (IEvent event : occurrences()) {
       sb.append(event.toString());
       sb.append("\n");
     }
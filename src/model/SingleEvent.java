@@ -4,7 +4,6 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 
@@ -51,8 +50,8 @@ public class SingleEvent implements IEvent {
     }
   }
 
-  // Constructor for the builder class
-  private SingleEvent(String subject, LocalDateTime startDateTime, LocalDateTime endDateTime,
+  // Constructor for the builder class and for the occurrences a series generates
+  SingleEvent(String subject, LocalDateTime startDateTime, LocalDateTime endDateTime,
                       Location location, Status status, String description)
       throws IllegalArgumentException {
     if (subject == null || startDateTime == null) {
@@ -122,6 +121,7 @@ public class SingleEvent implements IEvent {
       this.endDateTime = singleEvent.endDateTime;
       this.location = singleEvent.location;
       this.status = singleEvent.status;
+      this.description = singleEvent.description;
     }
 
     /**
@@ -269,6 +269,17 @@ public class SingleEvent implements IEvent {
     return null;
   }
 
+  /**
+   * Checks whether the event overlaps the range at all, including its ends.
+   *
+   * @param startTime The lower date range to check
+   * @param endTime   The upper date range to check
+   * @return whether the event overlaps the range
+   */
+  boolean overlaps(LocalDateTime startTime, LocalDateTime endTime) {
+    return !startDateTime.isAfter(endTime) && !endDateTime.isBefore(startTime);
+  }
+
   /**
    * Checks whether the event is between two DateTimes.
    *
@@ -324,12 +335,22 @@ public class SingleEvent implements IEvent {
   @Override
   public IEvent getEdittedCopy(String property, String newProperty)
       throws IllegalArgumentException {
-    return applyEditToBuilder(property, newProperty).build();
+    return getEdittedCopy(EventEdit.parse(property, newProperty));
+  }
+
+  @Override
+  public IEvent getEdittedCopy(EventEdit edit) throws IllegalArgumentException {
+    return applyEditToBuilder(edit).build();
   }
 
   @Override
   public void editEvent(String property, String newProperty) throws IllegalArgumentException {
-    SingleEventBuilder builder = applyEditToBuilder(property, newProperty);
+    editEvent(EventEdit.parse(property, newProperty));
+  }
+
+  @Override
+  public void editEvent(EventEdit edit) throws IllegalArgumentException {
+    SingleEventBuilder builder = applyEditToBuilder(edit);
     SingleEvent updated = builder.build();
 
     this.subject = updated.subject;
@@ -377,90 +398,52 @@ public class SingleEvent implements IEvent {
     return Objects.hash(subject, startDateTime, endDateTime);
   }
 
-  // Applies an edit to the builder using the given property and given new value
-  // Valid properties include: start, end, description, location, status, endWithStart,
-  // tzAndDateChange, and tzAndRelativeDateChange
-  private SingleEventBuilder applyEditToBuilder(String property, String newProperty) {
-    SingleEventBuilder builder;
+  // Applies an edit to the builder
+  private SingleEventBuilder applyEditToBuilder(EventEdit edit) {
+    SingleEventBuilder builder = new SingleEventBuilder(this);
     Duration betweenStartAndEnd = Duration.between(this.startDateTime, this.endDateTime);
 
-    if (property.equals("subject")) {
-      builder = new SingleEventBuilder(this.subject, this.startDateTime, this.endDateTime)
-          .changeSubject(newProperty);
-    } else {
-      builder = new SingleEventBuilder(this);
-      switch (property) {
-        case "start":
-          try {
-            builder = builder.changeStart(LocalDateTime.parse(newProperty));
-          } catch (DateTimeParseException e) {
-            throw new IllegalArgumentException("Invalid date time format");
-          }
-          break;
-        case "end":
-          try {
-            builder = builder.changeEnd(LocalDateTime.parse(newProperty));
-          } catch (DateTimeParseException e) {
-            throw new IllegalArgumentException("Invalid date time format");
-          }
-          break;
-        case "description":
-          builder = builder.setDescription(newProperty);
-          break;
-        case "location":
-          switch (newProperty) {
-            case "online":
-              builder = builder.isOnline();
-              break;
-            case "physical":
-              builder = builder.isInPerson();
-              break;
-            default:
-              throw new IllegalArgumentException("Invalid location property must be one of" +
-                  "'online', 'physical'");
-          }
-          break;
-        case "status":
-          switch (newProperty) {
-            case "public":
-              builder = builder.isPublic();
-              break;
-            case "private":
-              builder = builder.isPrivate();
-              break;
-            default:
-              throw new IllegalArgumentException("Invalid status property must be one of" +
-                  "'public', 'private'");
-          }
-          break;
-        case "endWithStart": {
-          LocalDateTime newStart = LocalDateTime.parse(newProperty);
-          builder = builder.changeStart(newStart).changeEnd(newStart.plus(betweenStartAndEnd));
-          break;
-        }
-        case "tzAndDateChange": {
-          String[] info = newProperty.split("/");
-          LocalDate newDate = LocalDate.parse(info[0]);
-          Duration diff = Duration.parse(info[1]);
-          LocalDateTime newStart = newDate.atTime(this.startDateTime.toLocalTime());
-          newStart = newStart.plus(diff);
-          builder = builder.changeStart(newStart).changeEnd(newStart.plus(betweenStartAndEnd));
-          break;
-        }
-        case "tzAndRelativeDateChange": {
-          String[] info = newProperty.split("/");
-          LocalDate relativeTo = LocalDate.parse(info[0]);
-          LocalDate newDate = LocalDate.parse(info[1]);
-          Duration diff = Duration.parse(info[2]);
-          LocalTime newTime = this.startDateTime.toLocalTime().plus(diff);
-          long daysBetween = ChronoUnit.DAYS.between(relativeTo, this.startDateTime.toLocalDate());
-          LocalDateTime newStart = newDate.plusDays(daysBetween).atTime(newTime);
-          builder = builder.changeStart(newStart).changeEnd(newStart.plus(betweenStartAndEnd));
-          break;
-        }
-        default:
-          throw new IllegalArgumentException("Unknown property: " + property);
+    switch (edit.getKind()) {
+      case SUBJECT:
+        builder = builder.changeSubject(edit.getText());
+        break;
+      case START:
+        builder = builder.changeStart(edit.getDateTime());
+        break;
+      case END:
+        builder = builder.changeEnd(edit.getDateTime());
+        break;
+      case DESCRIPTION:
+        builder = builder.setDescription(edit.getText());
+        break;
+      case LOCATION:
+        builder = edit.getLocation() == Location.ONLINE ? builder.isOnline()
+            : builder.isInPerson();
+        break;
+      case STATUS:
+        builder = edit.getStatus() == Status.PUBLIC ? builder.isPublic() : builder.isPrivate();
+        break;
+      case MOVE_START: {
+        LocalDateTime newStart = edit.getDateTime();
+        builder = builder.changeStart(newStart).changeEnd(newStart.plus(betweenStartAndEnd));
+        break;
+      }
+      case MOVE_TO_DATE: {
+        LocalDateTime newStart = edit.getDate().atTime(this.startDateTime.toLocalTime())
+            .plus(edit.getShift());
+        builder = builder.changeStart(newStart).changeEnd(newStart.plus(betweenStartAndEnd));
+        break;
+      }
+      case MOVE_RELATIVE: {
+        LocalTime newTime = this.startDateTime.toLocalTime().plus(edit.getShift());
+        long daysBetween = ChronoUnit.DAYS.between(edit.getRelativeTo(),
+            this.startDateTime.toLocalDate());
+        LocalDateTime newStart = edit.getDate().plusDays(daysBetween).atTime(newTime);
+        builder = builder.changeStart(newStart).changeEnd(newStart.plus(betweenStartAndEnd));
+        break;
       }
+      default:
+        throw new IllegalArgumentException("Unknown property: " + edit.getKind());
     }
 
     return builder;
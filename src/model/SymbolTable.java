@@ -0,0 +1,99 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A table of strings (subjects and descriptions) that hands out a small int id for each distinct
+ * string so that many events can share one copy of it and compare it with ==. The table counts how
+ * many times each id is in use and forgets a string once nothing uses it, its id is then reused.
+ */
+class SymbolTable {
+  /**
+   * The id returned for a string that is not in the table.
+   */
+  static final int ABSENT = -1;
+
+  private final Map<String, Integer> ids;
+  private String[] symbols;
+  private int[] references;
+  // ids that were released and can be handed out again, used as a stack
+  private int[] free;
+  private int freeCount;
+  private int next;
+
+  SymbolTable() {
+    this.ids = new HashMap<>();
+    this.symbols = new String[16];
+    this.references = new int[16];
+    this.free = new int[16];
+  }
+
+  /**
+   * Gets the id of a string and counts one more use of it, adding it to the table if needed.
+   *
+   * @param symbol the string to look up
+   * @return the id of the string
+   */
+  int acquire(String symbol) {
+    Integer id = ids.get(symbol);
+    if (id == null) {
+      id = freeCount > 0 ? free[--freeCount] : next++;
+      if (id == symbols.length) {
+        symbols = Arrays.copyOf(symbols, id * 2);
+        references = Arrays.copyOf(references, id * 2);
+      }
+      symbols[id] = symbol;
+      ids.put(symbol, id);
+    }
+    references[id]++;
+    return id;
+  }
+
+  /**
+   * Counts one less use of an id, the string is removed once nothing uses it.
+   *
+   * @param id the id that is no longer used
+   */
+  void release(int id) {
+    if (--references[id] == 0) {
+      ids.remove(symbols[id]);
+      symbols[id] = null;
+      if (freeCount == free.length) {
+        free = Arrays.copyOf(free, freeCount * 2);
+      }
+      free[freeCount++] = id;
+    }
+  }
+
+  /**
+   * Gets the id of a string without counting a use of it.
+   *
+   * @param symbol the string to look up
+   * @return the id of the string or {@link #ABSENT} if it is not in the table
+   */
+  int idOf(String symbol) {
+    Integer id = ids.get(symbol);
+    return id == null ? ABSENT : id;
+  }
+
+  /**
+   * Gets the string with the given id.
+   *
+   * @param id the id of the string
+   * @return the string
+   */
+  String get(int id) {
+    return symbols[id];
+  }
+
+  /**
+   * Gets how many distinct strings are in the table.
+   *
+   * @return the number of strings
+   */
+  int size() {
+    return ids.size();
+  }
+}
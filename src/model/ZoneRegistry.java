@@ -0,0 +1,118 @@
+package model;
+
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+
+import model.exceptions.InvalidTimeZoneFormat;
+
+/**
+ * Every timezone ID Java knows about, looked up once when the class is first used so that finding
+ * a timezone by ID afterwards is a single map lookup. Each ID is kept with its {@link ZoneId} and
+ * {@link ZoneRules} so that code converting times between calendars does not have to work them out
+ * again. The registry never changes after it is built and may be used from any thread.
+ */
+public final class ZoneRegistry {
+  private static final Map<String, Zone> ZONES = build();
+
+  private ZoneRegistry() {
+  }
+
+  /**
+   * Checks whether the ID names a known timezone.
+   *
+   * @param id the timezone ID, for example "America/New_York"
+   * @return whether the timezone exists
+   */
+  public static boolean contains(String id) {
+    return ZONES.containsKey(id);
+  }
+
+  /**
+   * Gets every known timezone ID.
+   *
+   * @return the IDs, the set cannot be changed
+   */
+  public static Set<String> getIds() {
+    return ZONES.keySet();
+  }
+
+  /**
+   * Gets the timezone with the given ID.
+   *
+   * @param id the timezone ID
+   * @return a new TimeZone for that ID, it is the caller's to change
+   * @throws InvalidTimeZoneFormat if there is no timezone with that ID
+   */
+  public static TimeZone getTimeZone(String id) throws InvalidTimeZoneFormat {
+    return (TimeZone) find(id).timeZone.clone();
+  }
+
+  /**
+   * Gets the ZoneId with the given timezone ID.
+   *
+   * @param id the timezone ID
+   * @return the ZoneId
+   * @throws InvalidTimeZoneFormat if there is no timezone with that ID
+   */
+  public static ZoneId getZoneId(String id) throws InvalidTimeZoneFormat {
+    return find(id).zoneId;
+  }
+
+  /**
+   * Gets the rules of the timezone with the given ID.
+   *
+   * @param id the timezone ID
+   * @return the rules of the timezone
+   * @throws InvalidTimeZoneFormat if there is no timezone with that ID
+   */
+  public static ZoneRules getRules(String id) throws InvalidTimeZoneFormat {
+    return find(id).rules;
+  }
+
+  /**
+   * Gets the ZoneId of a TimeZone, from the registry when its ID is a known one.
+   *
+   * @param timeZone the timezone to convert
+   * @return the ZoneId of the timezone
+   */
+  public static ZoneId zoneIdOf(TimeZone timeZone) {
+    Zone zone = ZONES.get(timeZone.getID());
+    return zone == null ? timeZone.toZoneId() : zone.zoneId;
+  }
+
+  private static Zone find(String id) throws InvalidTimeZoneFormat {
+    Zone zone = ZONES.get(id);
+    if (zone == null) {
+      throw new InvalidTimeZoneFormat("Could not find timezone with id " + id);
+    }
+    return zone;
+  }
+
+  private static Map<String, Zone> build() {
+    Map<String, Zone> zones = new HashMap<>();
+    for (String id : TimeZone.getAvailableIDs()) {
+      TimeZone timeZone = TimeZone.getTimeZone(id);
+      ZoneId zoneId = timeZone.toZoneId();
+      zones.put(id, new Zone(timeZone, zoneId, zoneId.getRules()));
+    }
+    return Collections.unmodifiableMap(zones);
+  }
+
+  // What is kept for each timezone ID
+  private static final class Zone {
+    private final TimeZone timeZone;
+    private final ZoneId zoneId;
+    private final ZoneRules rules;
+
+    private Zone(TimeZone timeZone, ZoneId zoneId, ZoneRules rules) {
+      this.timeZone = timeZone;
+      this.zoneId = zoneId;
+      this.rules = rules;
+    }
+  }
+}
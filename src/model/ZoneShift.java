@@ -0,0 +1,215 @@
+package model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Converts local times and events from one timezone to another so that they stay at the same
+ * instants. Each time is converted with the offsets in effect at that instant, so an event on the
+ * other side of a daylight saving change moves by a different amount than one before it.
+ */
+final class ZoneShift {
+  private final ZoneId from;
+  private final ZoneId to;
+  private final ZoneRules fromRules;
+  private final ZoneRules toRules;
+
+  /**
+   * Creates a conversion between two timezones.
+   *
+   * @param from the timezone times are given in
+   * @param to   the timezone times are converted to
+   */
+  ZoneShift(ZoneId from, ZoneId to) {
+    this.from = from;
+    this.to = to;
+    this.fromRules = from.getRules();
+    this.toRules = to.getRules();
+  }
+
+  /**
+   * Converts a local time.
+   *
+   * @param time the time in the timezone converted from
+   * @return the same instant in the timezone converted to
+   */
+  LocalDateTime convert(LocalDateTime time) {
+    return ZonedDateTime.of(time, from).withZoneSameInstant(to).toLocalDateTime();
+  }
+
+  /**
+   * Gets the timezone times are given in.
+   *
+   * @return the timezone converted from
+   */
+  ZoneId getFrom() {
+    return from;
+  }
+
+  /**
+   * Gets the timezone times are converted to.
+   *
+   * @return the timezone converted to
+   */
+  ZoneId getTo() {
+    return to;
+  }
+
+  /**
+   * Gets the conversion that undoes this one.
+   *
+   * @return a conversion from the timezone converted to back to the one converted from
+   */
+  ZoneShift reversed() {
+    return new ZoneShift(to, from);
+  }
+
+  /**
+   * Converts every time of an event. A series whose occurrences all move by the same amount has
+   * its rule moved by that amount, otherwise it keeps its rule in the timezone the rule was made
+   * in and each regular occurrence is converted when it is generated.
+   *
+   * @param event the event in the timezone converted from
+   * @return a converted copy of the event
+   */
+  IEvent convert(IEvent event) {
+    if (event instanceof SingleEvent) {
+      return convert((SingleEvent) event);
+    }
+    if (!(event instanceof SeriesEvent)) {
+      return event;
+    }
+    SeriesEvent series = (SeriesEvent) event;
+    LocalDateTime start = series.spanStart();
+    if (start == null) {
+      return series;
+    }
+    if (series.getZone() == null) {
+      Duration shift = uniformShift(start, series.spanEnd());
+      if (shift != null) {
+        return series.getEdittedCopy(
+            EventEdit.moveToDate(series.getStart().toLocalDate(), shift));
+      }
+    }
+    return series.convertedBy(this);
+  }
+
+  /**
+   * Converts the start and end of a single event.
+   *
+   * @param event the event in the timezone converted from
+   * @return a converted copy of the event
+   */
+  SingleEvent convert(SingleEvent event) {
+    return new SingleEvent(event.subject, convert(event.startDateTime),
+        convert(event.endDateTime), event.location, event.status, event.description);
+  }
+
+  /**
+   * Converts occurrences that are in {@link EventIndex#ORDER} as they are consumed and keeps them
+   * in that order. Converting only changes the order of occurrences that start in an hour the
+   * timezone converted to repeats when it falls back, or in or just after an hour the timezone
+   * converted from skips, so just a run of those is held back and sorted.
+   *
+   * @param occurrences the occurrences in the timezone converted from, in order
+   * @return the converted occurrences in order
+   */
+  Iterator<IEvent> convertInOrder(Iterator<? extends IEvent> occurrences) {
+    return new Iterator<>() {
+      private final Deque<SingleEvent> ready = new ArrayDeque<>();
+      // the converted occurrence that ended the last run held back
+      private SingleEvent pending;
+
+      @Override
+      public boolean hasNext() {
+        if (ready.isEmpty()) {
+          fill();
+        }
+        return !ready.isEmpty();
+      }
+
+      @Override
+      public IEvent next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return ready.poll();
+      }
+
+      private void fill() {
+        if (pending != null) {
+          ready.add(pending);
+          pending = null;
+          return;
+        }
+        List<SingleEvent> run = null;
+        while (occurrences.hasNext()) {
+          SingleEvent next = (SingleEvent) occurrences.next();
+          SingleEvent converted = convert(next);
+          if (!mayMove(next.startDateTime, converted.startDateTime)) {
+            if (run == null) {
+              ready.add(converted);
+              return;
+            }
+            pending = converted;
+            break;
+          }
+          if (run == null) {
+            run = new ArrayList<>();
+          }
+          run.add(converted);
+        }
+        if (run != null) {
+          run.sort(EventIndex.ORDER);
+          ready.addAll(run);
+        }
+      }
+    };
+  }
+
+  // Whether an occurrence starting at the given time can end up before or after its neighbours
+  // once converted
+  private boolean mayMove(LocalDateTime start, LocalDateTime converted) {
+    if (toRules.getValidOffsets(converted).size() > 1) {
+      return true;
+    }
+    ZoneOffsetTransition previous = fromRules.previousTransition(
+        ZonedDateTime.of(start, from).toInstant().plusNanos(1));
+    return previous != null && previous.isGap()
+        && start.isBefore(previous.getDateTimeAfter().plus(previous.getDuration()));
+  }
+
+  // The amount every local time between the two moves by, or null if the offsets of the two
+  // timezones change relative to each other somewhere in between
+  private Duration uniformShift(LocalDateTime start, LocalDateTime end) {
+    Instant first = ZonedDateTime.of(start, from).toInstant();
+    Instant last = ZonedDateTime.of(end, from).toInstant();
+    Duration shift = shiftAt(first);
+    for (ZoneRules rules : new ZoneRules[]{fromRules, toRules}) {
+      ZoneOffsetTransition transition = rules.nextTransition(first);
+      while (transition != null && !transition.getInstant().isAfter(last)) {
+        if (!shiftAt(transition.getInstant()).equals(shift)) {
+          return null;
+        }
+        transition = rules.nextTransition(transition.getInstant());
+      }
+    }
+    return shift;
+  }
+
+  private Duration shiftAt(Instant instant) {
+    return Duration.ofSeconds(toRules.getOffset(instant).getTotalSeconds()
+        - fromRules.getOffset(instant).getTotalSeconds());
+  }
+}
@@ -7,8 +7,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import model.CalendarModel;
+import model.EventSpec;
 import model.IEvent;
 
 import static org.junit.Assert.assertEquals;
@@ -172,6 +175,210 @@ public abstract class ACalendarTest {
     assertTrue(model.getStatus(start.plusMinutes(15)));
   }
 
+  @Test
+  public void testQueryEventByDateMultiDayEvent() {
+    model.addSingleEvent("Trip", start, end.plusDays(2));
+    assertEquals(1, model.queryEvent(LocalDate.of(2025, 6, 5)).size());
+    assertEquals(1, model.queryEvent(LocalDate.of(2025, 6, 6)).size());
+    assertEquals(1, model.queryEvent(LocalDate.of(2025, 6, 7)).size());
+    assertTrue(model.queryEvent(LocalDate.of(2025, 6, 8)).isEmpty());
+  }
+
+  @Test
+  public void testQueryEventByDateAfterMovingEvent() {
+    model.addSingleEvent("Meeting", start, end);
+    assertTrue(model.editSingleEvent("Meeting", start, end, "end",
+        end.plusDays(1).toString()));
+    assertTrue(model.editSingleEvent("Meeting", start, end.plusDays(1), "start",
+        start.plusDays(1).toString()));
+    assertTrue(model.queryEvent(LocalDate.of(2025, 6, 5)).isEmpty());
+    assertEquals(1, model.queryEvent(LocalDate.of(2025, 6, 6)).size());
+    assertEquals(1, model.queryEvent(start.plusDays(1), end.plusDays(1)).size());
+  }
+
+  @Test
+  public void testDuplicateCheckFollowsEdits() {
+    model.addSingleEvent("Meeting", start, end);
+    assertTrue(model.editSingleEvent("Meeting", start, end, "subject", "Standup"));
+    assertTrue(model.addSingleEvent("Meeting", start, end));
+    assertFalse(model.addSingleEvent("Standup", start, end));
+    assertFalse(model.addRepeatingEvent("Standup", start, end, "R", 2));
+  }
+
+  @Test
+  public void testEditSingleOccurrenceOfSeriesLeavesOthers() {
+    model.addRepeatingEvent("Class", start, end, "MWF", 3);
+    LocalDateTime monday = LocalDateTime.of(2025, 6, 9, 9, 0);
+    assertTrue(model.editSingleEvent("Class", monday, monday.plusHours(1), "start",
+        monday.minusHours(1).toString()));
+    assertTrue(model.getStatus(monday.minusMinutes(30)));
+    assertFalse(model.getStatus(monday.plusDays(2).minusMinutes(30)));
+    assertTrue(model.getStatus(start.plusDays(1).plusMinutes(30)));
+    assertTrue(model.addSingleEvent("Class", monday, monday.plusHours(1)));
+  }
+
+  @Test
+  public void testEditFutureSeriesEventsOnlyChangesLaterOccurrences() {
+    model.addRepeatingEvent("Meeting", start, end, "MWF", 4);
+    assertTrue(model.editFutureSeriesEvents("Meeting", LocalDateTime.of(2025, 6, 9, 9, 0),
+        "subject", "Homework"));
+    assertTrue(model.queryEvent(LocalDate.of(2025, 6, 6)).iterator().next().toString()
+        .contains("Meeting"));
+    assertTrue(model.queryEvent(LocalDate.of(2025, 6, 9)).iterator().next().toString()
+        .contains("Homework"));
+    assertTrue(model.queryEvent(LocalDate.of(2025, 6, 11)).iterator().next().toString()
+        .contains("Homework"));
+    assertFalse(model.addSingleEvent("Homework", LocalDateTime.of(2025, 6, 11, 9, 0),
+        LocalDateTime.of(2025, 6, 11, 10, 0)));
+    assertTrue(model.addSingleEvent("Meeting", LocalDateTime.of(2025, 6, 11, 9, 0),
+        LocalDateTime.of(2025, 6, 11, 10, 0)));
+  }
+
+  @Test
+  public void testQueryEventsInOrderPagesThroughOccurrences() {
+    model.addRepeatingEvent("Class", start, end, "MWF", 20);
+    model.addSingleEvent("Lunch", start.plusDays(4).plusHours(3), end.plusDays(4).plusHours(3));
+    model.addSingleEvent("Breakfast", start.minusHours(2), end.minusHours(2));
+
+    List<IEvent> first = model.queryEventsInOrder(start.minusHours(2), end.plusDays(60), 0, 4);
+    assertEquals(4, first.size());
+    assertTrue(first.get(0).toString().startsWith("- Breakfast | 2025-06-05T07:00"));
+    assertTrue(first.get(1).toString().startsWith("- Class | 2025-06-06T09:00"));
+    assertTrue(first.get(2).toString().startsWith("- Class | 2025-06-09T09:00"));
+    assertTrue(first.get(3).toString().startsWith("- Lunch | 2025-06-09T12:00"));
+
+    List<IEvent> rest = model.queryEventsInOrder(start.minusHours(2), end.plusDays(60), 4, 100);
+    assertEquals(18, rest.size());
+    assertTrue(rest.get(0).toString().startsWith("- Class | 2025-06-11T09:00"));
+
+    List<IEvent> onDay = model.queryEventsInOrder(LocalDate.of(2025, 6, 9), 0, 10);
+    assertEquals(2, onDay.size());
+    assertTrue(onDay.get(1).toString().startsWith("- Lunch"));
+    assertTrue(model.queryEventsInOrder(LocalDate.of(2025, 6, 9), 1, 0).isEmpty());
+  }
+
+  @Test
+  public void testStreamEventsIsLazyAndInOrder() {
+    model.addRepeatingEvent("Class", start, end, "MTWRFSU", LocalDate.of(2035, 6, 5));
+    model.addSingleEvent("Lunch", start.plusHours(3), end.plusHours(3));
+
+    List<String> firstThree = model.streamEvents(start, end.plusYears(10)).limit(3)
+        .map(IEvent::toString).collect(Collectors.toList());
+    assertEquals(3, firstThree.size());
+    assertTrue(firstThree.get(0).startsWith("- Class | 2025-06-05T09:00"));
+    assertTrue(firstThree.get(1).startsWith("- Lunch | 2025-06-05T12:00"));
+    assertTrue(firstThree.get(2).startsWith("- Class | 2025-06-06T09:00"));
+
+    assertEquals(2, model.streamEvents(start.toLocalDate()).count());
+    assertEquals(0, model.streamEvents(start.minusDays(3), end.minusDays(3)).count());
+  }
+
+  @Test
+  public void testIdsFollowEventsThroughEditsAndSplits() {
+    model.addSingleEvent("Meeting", start, end);
+    model.addRepeatingEvent("Class", start.plusHours(2), end.plusHours(2), "MWF", 4);
+    assertTrue(model.queryById(1).toString().startsWith("- Meeting | 2025-06-05T09:00"));
+    assertEquals(4, model.queryById(2).toString().split("\n").length);
+    assertEquals(null, model.queryById(3));
+
+    assertTrue(model.editById(1, "subject", "Standup"));
+    assertTrue(model.queryById(1).toString().startsWith("- Standup | 2025-06-05T09:00"));
+    assertTrue(model.editById(2, "location", "online"));
+    assertFalse(model.editById(1, "start", "2025-06-05T11:00"));
+    assertFalse(model.editById(3, "subject", "Nothing"));
+
+    model.editFutureSeriesEvents("Class", LocalDateTime.of(2025, 6, 9, 11, 0), "subject",
+        "Lab");
+    assertEquals(1, model.queryById(2).toString().split("\n").length);
+    assertTrue(model.queryById(3).toString().startsWith("- Lab | 2025-06-09T11:00"));
+  }
+
+  @Test
+  public void testRenamingSeriesKeepsPropertiesOfEveryOccurrence() {
+    model.addRepeatingEvent("Class", start, end, "TR", 4);
+    assertTrue(model.editEntireSeries("Class", start, "location", "online"));
+    assertTrue(model.editSingleEvent("Class", start.plusDays(5), end.plusDays(5),
+        "description", "Quiz"));
+    assertTrue(model.editEntireSeries("Class", start, "subject", "Lab"));
+
+    List<String> occurrences = model.queryEventsInOrder(start, start.plusDays(14), 0, 10)
+        .stream().map(IEvent::toString).collect(Collectors.toList());
+    assertEquals(4, occurrences.size());
+    for (String occurrence : occurrences) {
+      assertTrue(occurrence, occurrence.startsWith("- Lab | "));
+      assertTrue(occurrence, occurrence.contains(" | Location: "));
+    }
+    assertTrue(occurrences.get(1).endsWith(" | Description: Quiz"));
+  }
+
+  @Test
+  public void testSeriesEditThatWouldDuplicateWithinItselfIsRejected() {
+    assertTrue(model.addRepeatingEvent("Class", start, end, "TR", 3));
+    assertTrue(model.addRepeatingEvent("Class", start, end.plusHours(1), "TR", 3));
+    assertFalse(model.editEntireSeries("Class", start, "end", "2025-06-05T12:00"));
+    assertEquals(2, model.queryEvent(LocalDate.of(2025, 6, 10)).size());
+    assertTrue(model.editEntireSeries("Class", start, "location", "online"));
+  }
+
+  @Test
+  public void testAddAllAddsEveryEventInOrder() {
+    model.addSingleEvent("Lunch", start.plusHours(3), end.plusHours(3));
+    assertTrue(model.addAll(List.of(
+        EventSpec.single("Review", start.plusHours(1), end.plusHours(1)),
+        EventSpec.repeating("Class", start, end, "MTWRF", 3),
+        EventSpec.repeatingUntil("Gym", start.plusHours(5), end.plusHours(5), "R",
+            LocalDate.of(2025, 6, 19)),
+        EventSpec.single("Meeting", start, end))));
+
+    List<String> firstDay = model.streamEvents(start.toLocalDate())
+        .map(IEvent::toString).collect(Collectors.toList());
+    assertEquals(5, firstDay.size());
+    assertTrue(firstDay.get(0).startsWith("- Class | 2025-06-05T09:00"));
+    assertTrue(firstDay.get(1).startsWith("- Meeting | 2025-06-05T09:00"));
+    assertTrue(firstDay.get(2).startsWith("- Review | 2025-06-05T10:00"));
+    assertTrue(firstDay.get(3).startsWith("- Lunch | 2025-06-05T12:00"));
+    assertTrue(firstDay.get(4).startsWith("- Gym | 2025-06-05T14:00"));
+    assertEquals(9, model.streamEvents(start, end.plusDays(20)).count());
+    assertTrue(model.queryById(3).toString().startsWith("- Class | 2025-06-05T09:00"));
+  }
+
+  @Test
+  public void testAddAllAddsNothingIfAnyEventCannotBeAdded() {
+    model.addRepeatingEvent("Class", start, end, "MTWRF", 3);
+    assertFalse(model.addAll(List.of(
+        EventSpec.single("Review", start.plusHours(1), end.plusHours(1)),
+        EventSpec.single("Class", start.plusDays(1), end.plusDays(1)))));
+    assertFalse(model.addAll(List.of(
+        EventSpec.single("Review", start.plusHours(1), end.plusHours(1)),
+        EventSpec.repeating("Review", start.minusDays(1).plusHours(1),
+            end.minusDays(1).plusHours(1), "WR", 2))));
+    assertFalse(model.addAll(List.of(
+        EventSpec.single("Review", start.plusHours(1), end.plusHours(1)),
+        EventSpec.repeating("Lab", start, end, "MTWRF", 0))));
+    assertEquals(3, model.streamEvents(start, end.plusDays(20)).count());
+    assertTrue(model.addAll(List.of()));
+  }
+
+  @Test
+  public void testGetStatusFollowsAddsAndEdits() {
+    assertFalse(model.getStatus(start));
+    model.addSingleEvent("Meeting", start, end);
+    assertTrue(model.getStatus(start));
+    assertFalse(model.getStatus(end.plusMinutes(1)));
+
+    model.editSingleEvent("Meeting", start, end, "end", "2025-06-05T11:00");
+    assertTrue(model.getStatus(end.plusMinutes(30)));
+    assertFalse(model.getStatus(end.plusHours(1).plusMinutes(1)));
+
+    model.addRepeatingEvent("Class", start.plusDays(1), end.plusDays(1), "F", 2);
+    assertTrue(model.getStatus(start.plusDays(1).plusMinutes(59)));
+    model.editEntireSeries("Class", start.plusDays(1), "start", "2025-06-06T09:30");
+    assertFalse(model.getStatus(start.plusDays(1).plusMinutes(29)));
+    assertTrue(model.getStatus(start.plusDays(8).plusMinutes(30)));
+    assertTrue(model.getStatus(start.plusDays(1).plusSeconds(1800)));
+    assertFalse(model.getStatus(start.plusDays(1).plusSeconds(1799)));
+  }
+
   @Test
   public void testEmptyCalendarStatusAlwaysFalse() {
     assertFalse(model.getStatus(start));
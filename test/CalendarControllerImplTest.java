@@ -2,6 +2,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 
 import controller.CalendarController;
 import controller.CalendarControllerImpl;
@@ -23,7 +24,7 @@ public class CalendarControllerImplTest extends ControllersTest {
     mockModel = new MockCalendarModel();
   }
 
-  protected CalendarController makeController(ByteArrayInputStream in,
+  protected CalendarController makeController(InputStream in,
                                               MockCalendarView mockView) {
     return new CalendarControllerImpl(mockModel, in, mockView);
   }
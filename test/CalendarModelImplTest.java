@@ -1,6 +1,12 @@
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
 import model.CalendarModel;
 import model.CalendarModelImpl;
 
+import static org.junit.Assert.assertEquals;
+
 /**
  * Tests the {@code model.CalendarModelImpl} class.
  */
@@ -11,4 +17,18 @@ public class CalendarModelImplTest extends ACalendarTest {
     return new CalendarModelImpl();
   }
 
+  @Test
+  public void testGetBusyMinutesCountsOverlapsOnce() {
+    CalendarModelImpl calendar = new CalendarModelImpl();
+    LocalDateTime start = LocalDateTime.of(2025, 6, 5, 9, 0);
+    calendar.addSingleEvent("Meeting", start, start.plusHours(1));
+    calendar.addSingleEvent("Call", start.plusMinutes(30), start.plusMinutes(90));
+    calendar.addSingleEvent("Night Shift", start.plusHours(14), start.plusHours(16));
+
+    assertEquals(91, calendar.getBusyMinutes(start, start.plusHours(2)));
+    assertEquals(30, calendar.getBusyMinutes(start.plusMinutes(61), start.plusMinutes(91)));
+    assertEquals(91 + 121, calendar.getBusyMinutes(start.minusDays(1), start.plusDays(1)));
+    assertEquals(0, calendar.getBusyMinutes(start.plusHours(3), start.plusHours(4)));
+  }
+
 }
@@ -0,0 +1,93 @@
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+
+import model.CalendarModel;
+import model.ColumnarCalendarModelImpl;
+import model.EventSpec;
+import model.IEvent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@code model.ColumnarCalendarModelImpl} class.
+ */
+public class ColumnarCalendarModelImplTest extends ACalendarTest {
+
+  @Override
+  protected CalendarModel getCalendarModel() {
+    return new ColumnarCalendarModelImpl();
+  }
+
+  @Test
+  public void testPropertiesSurviveStorage() {
+    model.addSingleEvent("Meeting", start, end);
+    assertTrue(model.editSingleEvent("Meeting", start, end, "location", "online"));
+    assertTrue(model.editSingleEvent("Meeting", start, end, "status", "private"));
+    assertTrue(model.editSingleEvent("Meeting", start, end, "description", "Weekly sync"));
+    String stored = model.queryEvent(start.toLocalDate()).iterator().next().toString();
+    assertEquals("- Meeting | 2025-06-05T09:00 to 2025-06-05T10:00 | Location: ONLINE"
+        + " | Status: PRIVATE | Description: Weekly sync", stored);
+  }
+
+  @Test
+  public void testSeriesQueriedAsOneEvent() {
+    model.addRepeatingEvent("Class", start, end, "MWF", 6);
+    HashSet<IEvent> found = model.queryEvent(start, end.plusDays(7));
+    assertEquals(1, found.size());
+    assertEquals(3, found.iterator().next().toString().split("\n").length);
+  }
+
+  @Test
+  public void testEditEntireSeriesChangesTimeOfDay() {
+    model.addRepeatingEvent("Class", start, end, "MWF", 3);
+    assertTrue(model.editEntireSeries("Class", LocalDateTime.of(2025, 6, 9, 9, 0), "end",
+        end.plusHours(1).toString()));
+    assertTrue(model.getStatus(LocalDateTime.of(2025, 6, 11, 10, 30)));
+    assertFalse(model.getStatus(LocalDateTime.of(2025, 6, 10, 10, 30)));
+    assertEquals(1, model.queryEvent(LocalDate.of(2025, 6, 6)).size());
+  }
+
+  @Test
+  public void testRenamingReusesReleasedSubjects() {
+    model.addRepeatingEvent("Class", start, end, "MWF", 3);
+    model.addSingleEvent("Lunch", start.plusHours(3), end.plusHours(3));
+    assertTrue(model.editEntireSeries("Class", start.plusDays(1), "subject", "Lecture"));
+    assertTrue(model.editSingleEvent("Lunch", start.plusHours(3), end.plusHours(3), "subject",
+        "Class"));
+    assertTrue(model.editEntireSeries("Lecture", start.plusDays(1), "subject", "Lab"));
+    HashSet<IEvent> found = model.queryEvent(start, end.plusDays(7));
+    assertEquals(2, found.size());
+    assertTrue(found.stream().anyMatch(e -> e.toString().contains("- Class | 2025-06-05T12:00")));
+    assertTrue(found.stream().anyMatch(e -> e.toString().contains("- Lab | 2025-06-11T09:00")));
+    assertFalse(model.editEntireSeries("Lecture", start.plusDays(1), "subject", "Lab"));
+  }
+
+  @Test
+  public void testIdsFindTheirRowsAfterOtherRowsShift() {
+    model.addSingleEvent("Late", start.plusDays(30), end.plusDays(30));
+    model.addRepeatingEvent("Class", start.plusDays(20), end.plusDays(20), "MWF", 3);
+    // every row inserted before them moves the rows of events 1 and 2
+    model.addAll(List.of(EventSpec.single("Early", start, end),
+        EventSpec.repeating("Gym", start.plusHours(3), end.plusHours(3), "TR", 4)));
+    model.addSingleEvent("Earlier", start.minusDays(1), end.minusDays(1));
+    assertTrue(model.queryById(1).toString().startsWith("- Late | 2025-07-05T09:00"));
+    assertEquals(3, model.queryById(2).toString().split("\n").length);
+    assertTrue(model.queryById(3).toString().startsWith("- Early | 2025-06-05T09:00"));
+    assertEquals(4, model.queryById(4).toString().split("\n").length);
+    assertTrue(model.queryById(5).toString().startsWith("- Earlier | 2025-06-04T09:00"));
+
+    // moving an event keeps its id pointing at its new row
+    assertTrue(model.editById(1, "start", "2025-06-01T09:00"));
+    assertTrue(model.queryById(1).toString().startsWith("- Late | 2025-06-01T09:00"));
+    assertTrue(model.editById(2, "subject", "Lecture"));
+    assertTrue(model.queryById(2).toString().startsWith("- Lecture | 2025-06-25T09:00"));
+    assertNull(model.queryById(6));
+  }
+}
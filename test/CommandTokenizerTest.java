@@ -0,0 +1,82 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import controller.CommandTokenizer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@code controller.CommandTokenizer} class.
+ */
+public class CommandTokenizerTest {
+  private CommandTokenizer tokenizer;
+
+  @Before
+  public void setUp() {
+    tokenizer = new CommandTokenizer();
+  }
+
+  @Test
+  public void testWordsAreSplitOnAnyRunOfSpaces() {
+    assertEquals(4, tokenizer.tokenize("print  events\ton   2025-06-10"));
+    assertArrayEquals(new String[]{"print", "events", "on", "2025-06-10"}, tokenizer.tokens());
+    assertFalse(tokenizer.hasUnclosedQuote());
+  }
+
+  @Test
+  public void testQuotedTokensKeepTheirSpaces() {
+    String line = "create event \"Birthday  Party\" from 2025-06-10T09:00";
+    assertEquals(5, tokenizer.tokenize(line));
+    assertEquals("Birthday  Party", tokenizer.token(2));
+    assertEquals(line.indexOf('B'), tokenizer.start(2));
+    assertEquals(line.lastIndexOf('"'), tokenizer.end(2));
+    assertEquals("from", tokenizer.token(3));
+  }
+
+  @Test
+  public void testQuotesOnlyCloseBeforeASeparator() {
+    tokenizer.tokenize("edit \"a\"b c\" \"\" x\"y");
+    assertArrayEquals(new String[]{"edit", "a\"b c", "", "x\"y"}, tokenizer.tokens());
+  }
+
+  @Test
+  public void testEscapesInsideQuotes() {
+    tokenizer.tokenize("create event \"A \\\"quoted\\\" \\\\ name\" C:\\dir\\");
+    assertEquals("A \"quoted\" \\ name", tokenizer.token(2));
+    assertTrue(tokenizer.matches(2, "a \"QUOTED\" \\ NAME", true));
+    assertEquals("C:\\dir\\", tokenizer.token(3));
+  }
+
+  @Test
+  public void testUnclosedQuote() {
+    assertEquals(3, tokenizer.tokenize("create event \"Birthday Party from"));
+    assertTrue(tokenizer.hasUnclosedQuote());
+    assertEquals("Birthday Party from", tokenizer.token(2));
+    tokenizer.tokenize("exit");
+    assertFalse(tokenizer.hasUnclosedQuote());
+  }
+
+  @Test
+  public void testMatchesWithoutMakingStrings() {
+    tokenizer.tokenize("PRINT events");
+    assertTrue(tokenizer.matches(0, "print", true));
+    assertFalse(tokenizer.matches(0, "print", false));
+    assertFalse(tokenizer.matches(1, "event", true));
+  }
+
+  @Test
+  public void testBuffersAreReusedAndGrown() {
+    StringBuilder line = new StringBuilder();
+    for (int i = 0; i < 40; i++) {
+      line.append(i).append(' ');
+    }
+    assertEquals(40, tokenizer.tokenize(line));
+    assertEquals("39", tokenizer.token(39));
+    assertEquals(0, tokenizer.tokenize("   "));
+    assertThrows(IndexOutOfBoundsException.class, () -> tokenizer.token(0));
+  }
+}
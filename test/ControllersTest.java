@@ -2,11 +2,16 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 
 import controller.CalendarController;
 import mocks.MockCalendarView;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -21,7 +26,7 @@ public abstract class ControllersTest {
     mockView = new MockCalendarView();
   }
 
-  abstract protected CalendarController makeController(ByteArrayInputStream in,
+  abstract protected CalendarController makeController(InputStream in,
                                                        MockCalendarView view);
 
 
@@ -173,4 +178,40 @@ public abstract class ControllersTest {
     assertEquals("Invalid command: delete", mockView.errors.get(0));
   }
 
+  @Test
+  public void testInputEndingWithoutExit() {
+    String input = "delete\nshow";
+    ByteArrayInputStream in = new ByteArrayInputStream(input.getBytes());
+
+    controller = makeController(in, mockView);
+    assertFalse(controller.runController());
+    assertEquals(2, mockView.errors.size());
+    assertEquals("Invalid show command.", mockView.errors.get(1));
+  }
+
+  @Test
+  public void testInputThatCannotBeReadIsNotTakenForItsEnd() {
+    InputStream in = new InputStream() {
+      @Override
+      public int read() throws IOException {
+        throw new IOException("disk gone");
+      }
+    };
+
+    controller = makeController(in, mockView);
+    UncheckedIOException e = assertThrows(UncheckedIOException.class,
+        () -> controller.runController());
+    assertEquals("disk gone", e.getCause().getMessage());
+    assertTrue(mockView.errors.isEmpty());
+  }
+
+  @Test
+  public void testLinesAfterExitAreNotRun() {
+    String input = "delete\n  EXIT  \ndelete\n";
+    ByteArrayInputStream in = new ByteArrayInputStream(input.getBytes());
+
+    controller = makeController(in, mockView);
+    assertTrue(controller.runController());
+    assertEquals(1, mockView.errors.size());
+  }
 }
@@ -0,0 +1,181 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import model.IEvent;
+import model.ImportResult;
+import model.ModifiableCalendar;
+import model.ModifiableCalendarImpl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests exporting and importing iCalendar documents with {@code model.ModifiableCalendarImpl}.
+ */
+public class ICalendarTest {
+  private static final LocalDateTime FROM = LocalDateTime.of(2020, 1, 1, 0, 0);
+  private static final LocalDateTime TO = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+  private ModifiableCalendar calendar;
+
+  @Before
+  public void setUp() {
+    calendar = new ModifiableCalendarImpl("Work", TimeZone.getTimeZone("America/New_York"));
+  }
+
+  // Every occurrence in the calendar as text, in order
+  private static List<String> describe(ModifiableCalendar calendar) {
+    return calendar.queryEventsInOrder(FROM, TO, 0, Integer.MAX_VALUE).stream()
+        .map(IEvent::toString).collect(Collectors.toList());
+  }
+
+  private static String export(ModifiableCalendar calendar) throws IOException {
+    StringWriter out = new StringWriter();
+    calendar.exportICalendar(out);
+    return out.toString();
+  }
+
+  @Test
+  public void testExportThenImportKeepsEveryEvent() throws IOException {
+    calendar.addSingleEvent("Review, final", LocalDateTime.of(2025, 3, 3, 9, 0),
+        LocalDateTime.of(2025, 3, 3, 10, 0));
+    calendar.editSingleEvent("Review, final", LocalDateTime.of(2025, 3, 3, 9, 0),
+        LocalDateTime.of(2025, 3, 3, 10, 0), "description", "Bring notes;\nand a pen");
+    calendar.editSingleEvent("Review, final", LocalDateTime.of(2025, 3, 3, 9, 0),
+        LocalDateTime.of(2025, 3, 3, 10, 0), "location", "online");
+    calendar.addRepeatingEvent("Class", LocalDateTime.of(2025, 3, 4, 22, 0),
+        LocalDateTime.of(2025, 3, 4, 23, 30), "TR", 6);
+    calendar.editSingleEvent("Class", LocalDateTime.of(2025, 3, 6, 22, 0),
+        LocalDateTime.of(2025, 3, 6, 23, 30), "status", "private");
+    calendar.editTimeZone(TimeZone.getTimeZone("Europe/London"));
+
+    ModifiableCalendar copy = new ModifiableCalendarImpl("Copy",
+        TimeZone.getTimeZone("Europe/London"));
+    assertEquals(2, copy.importICalendar(new StringReader(export(calendar))).getAdded());
+    assertEquals(describe(calendar), describe(copy));
+
+    // the series is still one series
+    assertTrue(copy.editEntireSeries("Class", LocalDateTime.of(2025, 3, 5, 3, 0), "subject",
+        "Lecture"));
+    assertEquals(6, describe(copy).stream().filter(e -> e.startsWith("- Lecture")).count());
+  }
+
+  @Test
+  public void testExportWritesRulesAndFoldsLongLines() throws IOException {
+    calendar.addRepeatingEvent("Class", LocalDateTime.of(2025, 3, 4, 10, 0),
+        LocalDateTime.of(2025, 3, 4, 11, 0), "TR", 6);
+    calendar.editSingleEvent("Class", LocalDateTime.of(2025, 3, 6, 10, 0),
+        LocalDateTime.of(2025, 3, 6, 11, 0), "description", "A very long description that "
+            + "goes on for well past the seventy five octets a line may hold in iCalendar");
+    String document = export(calendar);
+
+    assertTrue(document.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+    assertTrue(document.endsWith("END:VCALENDAR\r\n"));
+    assertTrue(document.contains("DTSTART;TZID=America/New_York:20250304T100000\r\n"));
+    assertTrue(document.contains("RRULE:FREQ=WEEKLY;BYDAY=TU,TH;COUNT=6\r\n"));
+    assertTrue(document.contains("RECURRENCE-ID;TZID=America/New_York:20250306T100000\r\n"));
+    for (String line : document.split("\r\n")) {
+      assertTrue(line, line.getBytes(StandardCharsets.UTF_8).length <= 75);
+    }
+    assertEquals(2, document.split("BEGIN:VEVENT").length - 1);
+  }
+
+  @Test
+  public void testImportReadsDocumentsFromOtherPrograms() throws IOException {
+    String document = String.join("\r\n",
+        "BEGIN:VCALENDAR",
+        "VERSION:2.0",
+        "BEGIN:VTIMEZONE",
+        "TZID:Custom",
+        "BEGIN:STANDARD",
+        "DTSTART:19701101T020000",
+        "END:STANDARD",
+        "END:VTIMEZONE",
+        "BEGIN:VEVENT",
+        "UID:a",
+        "DTSTART:20250303T140000Z",
+        "DTEND:20250303T150000Z",
+        "SUMMARY:Stand",
+        " up",
+        "CLASS:CONFIDENTIAL",
+        "BEGIN:VALARM",
+        "ACTION:DISPLAY",
+        "DESCRIPTION:Not the event's description",
+        "END:VALARM",
+        "END:VEVENT",
+        "BEGIN:VEVENT",
+        "UID:b",
+        "DTSTART;VALUE=DATE:20250305",
+        "DTEND;VALUE=DATE:20250306",
+        "SUMMARY:Offsite",
+        "END:VEVENT",
+        "BEGIN:VEVENT",
+        "UID:c",
+        "DTSTART;TZID=Europe/Paris:20250310T180000",
+        "DURATION:PT1H",
+        "RRULE:FREQ=DAILY;UNTIL=20250312T170000Z",
+        "EXDATE;TZID=Europe/Paris:20250311T180000",
+        "SUMMARY:Call",
+        "END:VEVENT",
+        "BEGIN:VEVENT",
+        "UID:d",
+        "DTSTART:20250401T090000",
+        "DTEND:20250401T100000",
+        "RRULE:FREQ=MONTHLY;COUNT=3",
+        "SUMMARY:Monthly",
+        "END:VEVENT",
+        "BEGIN:VEVENT",
+        "UID:d",
+        "RECURRENCE-ID:20250501T090000",
+        "DTSTART:20250502T090000",
+        "DTEND:20250502T100000",
+        "SUMMARY:Monthly",
+        "END:VEVENT",
+        "END:VCALENDAR", "");
+
+    ImportResult result = calendar.importICalendar(new StringReader(document));
+    assertEquals(3, result.getAdded());
+    // the monthly series and its edited occurrence
+    assertEquals(2, result.getSkipped());
+    assertEquals(List.of(
+        "- Standup | 2025-03-03T09:00 to 2025-03-03T10:00 | Status: PRIVATE",
+        "- Offsite | 2025-03-05T08:00 to 2025-03-05T17:00",
+        "- Call | 2025-03-10T13:00 to 2025-03-10T14:00",
+        "- Call | 2025-03-12T13:00 to 2025-03-12T14:00"), describe(calendar));
+
+    // importing the same document again adds nothing
+    assertEquals(0, calendar.importICalendar(new StringReader(document)).getAdded());
+  }
+
+  @Test
+  public void testImportSkipsOnlyTheDuplicatesOfABatch() throws IOException {
+    calendar.addSingleEvent("Standup", LocalDateTime.of(2025, 3, 3, 9, 0),
+        LocalDateTime.of(2025, 3, 3, 10, 0));
+    StringBuilder document = new StringBuilder("BEGIN:VCALENDAR\r\n");
+    for (int day = 1; day <= 5; day++) {
+      document.append("BEGIN:VEVENT\r\nUID:").append(day).append("\r\n")
+          .append("DTSTART:2025030").append(day).append("T090000\r\n")
+          .append("DTEND:2025030").append(day).append("T100000\r\n")
+          .append("SUMMARY:Standup\r\nEND:VEVENT\r\n");
+    }
+    document.append("END:VCALENDAR\r\n");
+
+    assertEquals(4, calendar.importICalendar(new StringReader(document.toString())).getAdded());
+    assertEquals(5, calendar.queryEvent(LocalDateTime.of(2025, 3, 1, 0, 0),
+        LocalDateTime.of(2025, 3, 6, 0, 0)).size());
+    assertFalse(new TreeSet<>(describe(calendar)).size() < 5);
+    assertEquals(1, calendar.queryEvent(LocalDate.of(2025, 3, 3)).size());
+  }
+}
@@ -0,0 +1,142 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import model.IntervalTree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@code model.IntervalTree} class.
+ */
+public class IntervalTreeTest {
+  private IntervalTree<String> tree;
+  private LocalDateTime start;
+
+  @Before
+  public void setUp() {
+    tree = new IntervalTree<>();
+    start = LocalDateTime.of(2025, 6, 5, 9, 0);
+    tree.insert(start, start.plusHours(1), "Meeting");
+    tree.insert(start.plusHours(2), start.plusHours(3), "Workout");
+    tree.insert(start.minusDays(1), start.plusDays(1), "Conference");
+    tree.insert(start.plusDays(3), start.plusDays(3).plusHours(1), "Lunch");
+  }
+
+  @Test
+  public void testFindWithin() {
+    assertEquals(Arrays.asList("Meeting", "Workout"),
+        tree.findWithin(start, start.plusHours(3)));
+    assertEquals(Arrays.asList("Conference", "Meeting", "Workout"),
+        tree.findWithin(start.minusDays(1), start.plusDays(1)));
+    assertTrue(tree.findWithin(start.plusMinutes(1), start.plusHours(1)).isEmpty());
+  }
+
+  @Test
+  public void testIterateWithinMatchesFindWithin() {
+    Iterator<String> it = tree.iterateWithin(start.minusDays(1), start.plusDays(1));
+    assertEquals("Conference", it.next());
+    assertEquals("Meeting", it.next());
+    assertEquals("Workout", it.next());
+    assertFalse(it.hasNext());
+    assertFalse(tree.iterateWithin(start.plusMinutes(1), start.plusHours(1)).hasNext());
+  }
+
+  @Test
+  public void testFindOverlapping() {
+    assertEquals(Arrays.asList("Conference", "Meeting"),
+        tree.findOverlapping(start.plusMinutes(30), start.plusMinutes(45)));
+    assertEquals(Arrays.asList("Lunch"),
+        tree.findOverlapping(start.plusDays(2), start.plusDays(4)));
+  }
+
+  @Test
+  public void testAnyContaining() {
+    assertTrue(tree.anyContaining(start.plusHours(1)));
+    assertTrue(tree.anyContaining(start.plusDays(3)));
+    assertFalse(tree.anyContaining(start.plusDays(2)));
+    assertFalse(tree.anyContaining(start.minusDays(2)));
+  }
+
+  @Test
+  public void testRemoveByIdentity() {
+    String other = new String("Meeting");
+    tree.insert(start, start.plusHours(1), other);
+    assertEquals(5, tree.size());
+    assertTrue(tree.remove(start, start.plusHours(1), other));
+    assertFalse(tree.remove(start, start.plusHours(1), other));
+    assertEquals(4, tree.size());
+    List<String> found = tree.findWithin(start, start.plusHours(1));
+    assertEquals(1, found.size());
+    assertTrue(tree.remove(start, start.plusHours(1), found.get(0)));
+    assertFalse(tree.anyContaining(start.plusDays(1).plusMinutes(1)));
+    assertEquals(Arrays.asList("Conference", "Workout"),
+        tree.findOverlapping(start.minusDays(1), start.plusDays(1)));
+  }
+
+  @Test
+  public void testManyIntervalsStayBalancedAndSearchable() {
+    IntervalTree<Integer> large = new IntervalTree<>();
+    Integer[] values = new Integer[10000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = i;
+      large.insert(start.plusHours(i), start.plusHours(i).plusMinutes(30), values[i]);
+    }
+    for (int i = 0; i < values.length; i += 2) {
+      assertTrue(large.remove(start.plusHours(i), start.plusHours(i).plusMinutes(30), values[i]));
+    }
+    assertEquals(5000, large.size());
+    assertEquals(Arrays.asList(101, 103), large.findWithin(start.plusHours(100),
+        start.plusHours(104)));
+    assertFalse(large.anyContaining(start.plusHours(100).plusMinutes(10)));
+    assertTrue(large.anyContaining(start.plusHours(101).plusMinutes(10)));
+  }
+
+  @Test
+  public void testEndBeforeStart() {
+    assertThrows(IllegalArgumentException.class,
+        () -> tree.insert(start, start.minusMinutes(1), "Bad"));
+  }
+
+  @Test
+  public void testInsertAllBuildsTheSameTreeAsInserting() {
+    IntervalTree<LocalDateTime> built = new IntervalTree<>();
+    IntervalTree<LocalDateTime> inserted = new IntervalTree<>();
+    List<LocalDateTime> starts = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      // every start twice so some values share a node
+      starts.add(start.plusMinutes(30L * (i / 2)));
+    }
+    built.insertAll(starts, s -> s, s -> s.plusMinutes(20));
+    for (LocalDateTime s : starts) {
+      inserted.insert(s, s.plusMinutes(20), s);
+    }
+    assertEquals(1000, built.size());
+    assertEquals(inserted.findWithin(start, start.plusDays(30)),
+        built.findWithin(start, start.plusDays(30)));
+    assertEquals(inserted.findOverlapping(start.plusHours(5), start.plusHours(9)),
+        built.findOverlapping(start.plusHours(5), start.plusHours(9)));
+    assertTrue(built.remove(start, start.plusMinutes(20), start));
+    assertEquals(999, built.size());
+  }
+
+  @Test
+  public void testInsertAllIntoATreeOrOutOfOrderInsertsEachValue() {
+    tree.insertAll(Arrays.asList("Late", "Early"), s -> s.equals("Late")
+        ? start.plusHours(5) : start.plusHours(4), s -> start.plusHours(6));
+    assertEquals(Arrays.asList("Meeting", "Workout", "Early", "Late"),
+        tree.findWithin(start, start.plusHours(6)));
+    tree.insertAll(List.of(), s -> start, s -> start);
+    assertEquals(6, tree.size());
+    assertThrows(IllegalArgumentException.class, () -> new IntervalTree<String>()
+        .insertAll(List.of("Backwards"), s -> start, s -> start.minusHours(1)));
+  }
+}
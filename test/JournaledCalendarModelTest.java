@@ -0,0 +1,327 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import model.EventSpec;
+import model.IEvent;
+import model.JournaledCalendarModel;
+import model.ModifiableCalendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the {@code model.JournaledCalendarModel} class.
+ */
+public class JournaledCalendarModelTest {
+  private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+  private static final LocalDateTime TO = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+  private Path directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("journal-test");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  // Makes calendars with a bit of everything the journal has to replay
+  private void populate(JournaledCalendarModel model) {
+    model.create("Work", "America/New_York");
+    model.create("Home", "Europe/Paris");
+    model.use("Work");
+    assertTrue(model.addSingleEvent("Standup", LocalDateTime.of(2025, 3, 3, 9, 0),
+        LocalDateTime.of(2025, 3, 3, 9, 15)));
+    assertTrue(model.addRepeatingEvent("Class", LocalDateTime.of(2025, 3, 4, 10, 0),
+        LocalDateTime.of(2025, 3, 4, 11, 0), "TR", 6));
+    assertTrue(model.addAll(List.of(
+        EventSpec.single("Lunch", LocalDateTime.of(2025, 3, 5, 12, 0),
+            LocalDateTime.of(2025, 3, 5, 13, 0)),
+        EventSpec.repeatingUntil("Gym", LocalDateTime.of(2025, 3, 3, 18, 0),
+            LocalDateTime.of(2025, 3, 3, 19, 0), "MW", LocalDate.of(2025, 3, 20)))));
+    assertTrue(model.editFutureSeriesEvents("Class", LocalDateTime.of(2025, 3, 11, 10, 0),
+        "description", "Room\t204\nupstairs"));
+    assertTrue(model.editById(1, "location", "online"));
+    assertTrue(model.copyEvents(LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 7), "Home",
+        LocalDate.of(2025, 4, 7)));
+    model.edit("Work", "timezone", "Asia/Tokyo");
+    model.edit("Home", "name", "Family");
+  }
+
+  // Everything visible about the calendars, in a stable order
+  private String describe(JournaledCalendarModel model) {
+    StringBuilder sb = new StringBuilder();
+    String current = model.getCurrentCalendar().getName();
+    for (String name : model.getCalendarNames()) {
+      model.use(name);
+      sb.append(name).append(' ').append(model.getCurrentCalendar().getTimeZone().getID())
+          .append('\n');
+      for (IEvent event : model.queryEventsInOrder(FROM, TO, 0, Integer.MAX_VALUE)) {
+        sb.append(event).append('\n');
+      }
+    }
+    model.use(current);
+    return sb.toString();
+  }
+
+  @Test
+  public void testReopeningReplaysTheJournal() throws IOException {
+    String before;
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory)) {
+      populate(model);
+      before = describe(model);
+    }
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory)) {
+      assertEquals(before, describe(model));
+      assertEquals("Work", model.getCurrentCalendar().getName());
+      assertTrue(model.queryById(1).toString().startsWith("- Standup | "));
+      assertTrue(model.addSingleEvent("After", LocalDateTime.of(2025, 5, 1, 9, 0),
+          LocalDateTime.of(2025, 5, 1, 10, 0)));
+    }
+  }
+
+  @Test
+  public void testFailedOperationsAreNotJournaled() throws IOException {
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory)) {
+      model.create("Work", "America/New_York");
+      model.use("Work");
+      assertTrue(model.addSingleEvent("Standup", LocalDateTime.of(2025, 3, 3, 9, 0),
+          LocalDateTime.of(2025, 3, 3, 9, 15)));
+      assertFalse(model.addSingleEvent("Standup", LocalDateTime.of(2025, 3, 3, 9, 0),
+          LocalDateTime.of(2025, 3, 3, 9, 15)));
+      try {
+        model.create("Work", "America/New_York");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+    assertEquals(3, Files.readAllLines(directory.resolve("journal")).size());
+  }
+
+  @Test
+  public void testSnapshotsLeaveOnlyTheTailInTheJournal() throws IOException {
+    String before;
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory, 4)) {
+      populate(model);
+      before = describe(model);
+    }
+    assertTrue(Files.exists(directory.resolve("snapshot")));
+    // populate and describe journal 14 operations, 12 of them are in the snapshot
+    assertEquals(2, Files.readAllLines(directory.resolve("journal")).size());
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory, 4)) {
+      assertEquals(before, describe(model));
+    }
+  }
+
+  @Test
+  public void testExplicitSnapshotRestoresSeriesAndIds() throws IOException {
+    String before;
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory)) {
+      populate(model);
+      before = describe(model);
+      model.snapshot();
+    }
+    assertEquals(0, Files.size(directory.resolve("journal")));
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory)) {
+      assertEquals(before, describe(model));
+      // the series still edits as one after being restored, now in Tokyo time
+      assertTrue(model.editEntireSeries("Gym", LocalDateTime.of(2025, 3, 6, 8, 0),
+          "subject", "Run"));
+      String after = describe(model);
+      assertFalse(after.contains("- Gym | 2025-03-04"));
+      assertTrue(after.contains("- Run | 2025-03-04T08:00"));
+      assertTrue(after.contains("- Run | 2025-03-20T07:00"));
+      assertNull(model.queryById(1000));
+      // restored calendars are still keyed by their names when renamed
+      model.edit("Family", "name", "Kin");
+      assertEquals(List.of("Kin", "Work"), model.getCalendarNames());
+      model.use("Kin");
+    }
+  }
+
+  @Test
+  public void testLoadedEventsAreQueriedBeforeAndAfterTheirIndexIsBuilt() throws IOException {
+    LocalDate day = LocalDate.of(2025, 3, 3);
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory)) {
+      model.create("Work", "America/New_York");
+      model.use("Work");
+      assertTrue(model.addSingleEvent("Standup", day.atTime(9, 0), day.atTime(9, 15)));
+      assertTrue(model.addSingleEvent("Overnight", day.minusDays(1).atTime(22, 0),
+          day.atTime(1, 0)));
+      assertTrue(model.addRepeatingEvent("Class", day.atTime(10, 0), day.atTime(11, 0), "MW",
+          4));
+      model.snapshot();
+    }
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory)) {
+      // reads are answered from the interval trees alone
+      assertEquals(3, model.queryEvent(day).size());
+      try (Stream<IEvent> events = model.streamEvents(day)) {
+        assertEquals(3, events.count());
+      }
+      assertTrue(model.getStatus(day.atTime(9, 5)));
+      assertFalse(model.getStatus(day.atTime(9, 30)));
+      // the first check for duplicates indexes the loaded events
+      assertFalse(model.addSingleEvent("Standup", day.atTime(9, 0), day.atTime(9, 15)));
+      assertFalse(model.addSingleEvent("Class", day.plusDays(2).atTime(10, 0),
+          day.plusDays(2).atTime(11, 0)));
+      assertTrue(model.editSingleEvent("Standup", day.atTime(9, 0), day.atTime(9, 15),
+          "start", day.atTime(9, 10).toString()));
+      assertEquals(3, model.queryEvent(day).size());
+      assertFalse(model.getStatus(day.atTime(9, 5)));
+      assertTrue(model.getStatus(day.atTime(9, 12)));
+      assertTrue(model.addSingleEvent("Standup", day.atTime(9, 0), day.atTime(9, 15)));
+      assertEquals(4, model.queryEvent(day).size());
+    }
+  }
+
+  @Test
+  public void testTornLastRecordIsDropped() throws IOException {
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory)) {
+      model.create("Work", "America/New_York");
+      model.use("Work");
+      assertTrue(model.addSingleEvent("Standup", LocalDateTime.of(2025, 3, 3, 9, 0),
+          LocalDateTime.of(2025, 3, 3, 9, 15)));
+    }
+    Path journal = directory.resolve("journal");
+    Files.write(journal, "0badc0de\t4\taddSingleEvent\tHalf".getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.APPEND);
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory)) {
+      assertEquals(1, model.queryEvent(LocalDate.of(2025, 3, 3)).size());
+      assertTrue(model.addSingleEvent("Review", LocalDateTime.of(2025, 3, 3, 10, 0),
+          LocalDateTime.of(2025, 3, 3, 11, 0)));
+    }
+    assertEquals(4, Files.readAllLines(journal).size());
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory)) {
+      assertEquals(2, model.queryEvent(LocalDate.of(2025, 3, 3)).size());
+    }
+  }
+
+  @Test
+  public void testCalendarsCanOnlyBeChangedThroughTheModel() throws IOException {
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory)) {
+      populate(model);
+      ModifiableCalendar current = model.getCurrentCalendar();
+      assertEquals("Work", current.getName());
+      assertEquals(List.of("Family", "Work"), model.getCalendars().stream()
+          .map(ModifiableCalendar::getName).sorted().collect(Collectors.toList()));
+      assertThrows(UnsupportedOperationException.class,
+          () -> current.addSingleEvent("Sneaky", FROM, FROM.plusHours(1)));
+      assertThrows(UnsupportedOperationException.class,
+          () -> model.getCalendars().get(0).editName("Renamed"));
+
+    }
+  }
+
+  @Test
+  public void testStreamsHoldOffChangesUntilClosed() throws Exception {
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory)) {
+      populate(model);
+      ExecutorService other = Executors.newSingleThreadExecutor();
+      try {
+        Future<Boolean> change;
+        try (Stream<IEvent> events = model.streamEvents(FROM, TO)) {
+          assertEquals("- Standup", events.findFirst().get().toString().split(" \\|")[0]);
+          // reads and exports share the lock with the open stream
+          assertEquals(model.queryEvent(FROM, TO), other.submit(() -> model.queryEvent(FROM, TO))
+              .get(5, TimeUnit.SECONDS));
+          other.submit(() -> {
+            model.getCurrentCalendar().exportCsv(Channels.newChannel(new ByteArrayOutputStream()));
+            return null;
+          }).get(5, TimeUnit.SECONDS);
+          // a change waits for the stream, and cannot be made by the thread holding it
+          change = other.submit(() -> model.addSingleEvent("Late",
+              LocalDateTime.of(2025, 12, 1, 9, 0), LocalDateTime.of(2025, 12, 1, 10, 0)));
+          assertThrows(TimeoutException.class, () -> change.get(200, TimeUnit.MILLISECONDS));
+          assertThrows(IllegalStateException.class,
+              () -> model.addSingleEvent("Early", FROM, FROM.plusHours(1)));
+          assertThrows(IllegalStateException.class, model::snapshot);
+          assertThrows(IllegalStateException.class, model::close);
+        }
+        assertTrue(change.get(5, TimeUnit.SECONDS));
+      } finally {
+        other.shutdown();
+      }
+    }
+  }
+
+  @Test
+  public void testChangesAreRefusedOnceTheJournalIsClosed() throws IOException {
+    JournaledCalendarModel model = new JournaledCalendarModel(directory);
+    model.create("Work", "America/New_York");
+    model.use("Work");
+    model.close();
+    assertThrows(UncheckedIOException.class, () -> model.addSingleEvent("Standup",
+        LocalDateTime.of(2025, 3, 3, 9, 0), LocalDateTime.of(2025, 3, 3, 9, 15)));
+    assertThrows(UncheckedIOException.class, () -> model.create("Home", "Europe/Paris"));
+    // the refused changes were not made in memory either
+    assertTrue(model.queryEvent(LocalDate.of(2025, 3, 3)).isEmpty());
+    assertEquals(List.of("Work"), model.getCalendarNames());
+  }
+
+  @Test
+  public void testImportedEventsAreKeptWithoutBeingJournaled() throws IOException {
+    String document = "BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\nUID:1@calendar\r\n"
+        + "DTSTART;TZID=America/New_York:20250303T090000\r\n"
+        + "DTEND;TZID=America/New_York:20250303T091500\r\n"
+        + "RRULE:FREQ=WEEKLY;BYDAY=MO;COUNT=3\r\nSUMMARY:Standup\r\nEND:VEVENT\r\n"
+        + "END:VCALENDAR\r\n";
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory)) {
+      model.create("Work", "America/New_York");
+      model.use("Work");
+      assertEquals(1, model.importCalendar("Work", new StringReader(document)).getAdded());
+    }
+    assertEquals(0, Files.size(directory.resolve("journal")));
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory)) {
+      assertEquals(3, model.queryEventsInOrder(FROM, TO, 0, 10).size());
+    }
+  }
+
+  @Test
+  public void testUnknownSnapshotVersionIsRejected() throws IOException {
+    try (JournaledCalendarModel model = new JournaledCalendarModel(directory)) {
+      populate(model);
+      model.snapshot();
+    }
+    Path snapshot = directory.resolve("snapshot");
+    byte[] bytes = Files.readAllBytes(snapshot);
+    bytes[7] = 99;
+    Files.write(snapshot, bytes);
+    try {
+      new JournaledCalendarModel(directory).close();
+      fail("Expected the snapshot to be rejected");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().startsWith("Unsupported calendar snapshot version 99"));
+    }
+  }
+}
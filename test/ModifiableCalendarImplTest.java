@@ -1,8 +1,14 @@
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -230,8 +236,8 @@ public class ModifiableCalendarImplTest extends ACalendarTest {
       }
     }
     assertNotNull(String.valueOf(actual), "Expected a SeriesEvent but none found");
-    List<IEvent> expectedSub = (List<IEvent>) ((SeriesEvent) expected).getEvents();
-    List<IEvent> actualSub = (List<IEvent>) actual.getEvents();
+    List<IEvent> expectedSub = ((SeriesEvent) expected).getEvents();
+    List<IEvent> actualSub = actual.getEvents();
 
     assertEquals(expectedSub.size(), actualSub.size());
 
@@ -395,8 +401,8 @@ public class ModifiableCalendarImplTest extends ACalendarTest {
 
     assertNotNull(String.valueOf(actualSeries), "SeriesEvent was not found in the set");
 
-    List<IEvent> expectedSubs = (List<IEvent>) expected3.getEvents();
-    List<IEvent> actualSubs = (List<IEvent>) actualSeries.getEvents();
+    List<IEvent> expectedSubs = expected3.getEvents();
+    List<IEvent> actualSubs = actualSeries.getEvents();
 
     assertEquals(String.valueOf(expectedSubs.size()), actualSubs.size(), "Mismatch in number of sub-events");
 
@@ -417,4 +423,142 @@ public class ModifiableCalendarImplTest extends ACalendarTest {
     assertTrue(events.contains(expected2));
   }
 
-}
\ No newline at end of file
+
+  @Test
+  public void testChangeTimeZoneConvertsOnReadAndBack() {
+    estCal.addSingleEvent("Meeting", start, end);
+    estCal.addRepeatingEvent("Class", start.plusDays(1), end.plusDays(1), "F", 2);
+    estCal.editTimeZone(TimeZone.getTimeZone("America/Los_Angeles"));
+
+    assertTrue(estCal.queryEvent(start.toLocalDate())
+        .contains(new SingleEvent("Meeting", start.minusHours(3), end.minusHours(3))));
+    List<IEvent> inOrder = estCal.queryEventsInOrder(start.minusDays(1), end.plusDays(10), 0, 10);
+    assertEquals(3, inOrder.size());
+    assertEquals(new SingleEvent("Class", start.plusDays(8).minusHours(3),
+        end.plusDays(8).minusHours(3)), inOrder.get(2));
+    assertTrue(estCal.getStatus(start.minusHours(3)));
+    assertNull(estCal.queryExactEvent("Meeting", start));
+    assertNotNull(estCal.queryExactEvent("Meeting", start.minusHours(3)));
+
+    estCal.editTimeZone(TimeZone.getTimeZone("America/New_York"));
+    assertTrue(estCal.queryEvent(start, end).contains(new SingleEvent("Meeting", start, end)));
+  }
+
+  @Test
+  public void testAddAndEditAfterChangeTimeZoneUseNewTimeZone() {
+    estCal.editTimeZone(TimeZone.getTimeZone("America/Los_Angeles"));
+    estCal.addSingleEvent("Meeting", start, end);
+    assertTrue(estCal.editSingleEvent("Meeting", start, end, "start", "2025-06-05T08:00"));
+    assertEquals(new SingleEvent("Meeting", start.minusHours(1), end),
+        estCal.queryExactEvent("Meeting", start.minusHours(1)));
+
+    estCal.editTimeZone(TimeZone.getTimeZone("America/New_York"));
+    assertEquals(new SingleEvent("Meeting", start.plusHours(2), end.plusHours(3)),
+        estCal.queryExactEvent("Meeting", start.plusHours(2)));
+  }
+
+  @Test
+  public void testChangeTimeZoneFollowsDaylightSavingOfBothZones() {
+    LocalDateTime monday = LocalDateTime.of(2025, 3, 3, 9, 0);
+    estCal.addRepeatingEvent("Standup", monday, monday.plusMinutes(15), "M", 5);
+    estCal.editTimeZone(TimeZone.getTimeZone("Europe/London"));
+
+    List<IEvent> standups = estCal.queryEventsInOrder(monday.minusDays(1),
+        monday.plusDays(40), 0, 10);
+    assertEquals(5, standups.size());
+    int[] hours = {14, 13, 13, 13, 14};
+    for (int i = 0; i < hours.length; i++) {
+      assertEquals(monday.plusWeeks(i).withHour(hours[i]), standups.get(i).getStart());
+    }
+    assertEquals(1, estCal.queryEvent(LocalDate.of(2025, 3, 31)).size());
+  }
+
+  @Test
+  public void testSeriesAddedAcrossDaylightSavingKeepsItsRule() throws IOException {
+    LocalDateTime monday = LocalDateTime.of(2025, 3, 3, 9, 0);
+    estCal.editTimeZone(TimeZone.getTimeZone("Europe/London"));
+    estCal.addRepeatingEvent("Standup", monday, monday.plusMinutes(15), "M", 6);
+    assertTrue(estCal.editEntireSeries("Standup", monday, "start", "2025-03-03T08:30"));
+    for (IEvent standup : estCal.queryEventsInOrder(monday.minusDays(1), monday.plusDays(40),
+        0, 10)) {
+      assertEquals(LocalTime.of(8, 30), standup.getStart().toLocalTime());
+    }
+
+    estCal.editTimeZone(TimeZone.getTimeZone("America/New_York"));
+    estCal.editTimeZone(TimeZone.getTimeZone("Europe/London"));
+    List<IEvent> standups = estCal.queryEventsInOrder(monday.minusDays(1), monday.plusDays(40),
+        0, 10);
+    assertEquals(6, standups.size());
+    for (int i = 0; i < standups.size(); i++) {
+      assertEquals(monday.plusWeeks(i).withHour(8).withMinute(30), standups.get(i).getStart());
+    }
+    StringWriter out = new StringWriter();
+    estCal.exportICalendar(out);
+    assertTrue(out.toString().contains("DTSTART;TZID=Europe/London:20250303T083000\r\n"
+        + "DTEND;TZID=Europe/London:20250303T091500\r\n"
+        + "RRULE:FREQ=WEEKLY;BYDAY=MO;COUNT=6\r\n"));
+  }
+
+  @Test
+  public void testOccurrencesInTheRepeatedHourAreReadInOrder() {
+    ModifiableCalendarImpl tokyo = new ModifiableCalendarImpl("Trip",
+        TimeZone.getTimeZone("Asia/Tokyo"));
+    LocalDateTime day = LocalDateTime.of(2025, 11, 2, 0, 0);
+    tokyo.addSingleEvent("Early", day.withHour(13), day.withHour(13).plusMinutes(10));
+    tokyo.addSingleEvent("Daylight", day.withHour(14).plusMinutes(30),
+        day.withHour(14).plusMinutes(45));
+    tokyo.addSingleEvent("Standard", day.withHour(15).plusMinutes(15),
+        day.withHour(15).plusMinutes(30));
+    tokyo.addSingleEvent("Late", day.withHour(16), day.withHour(16).plusMinutes(30));
+    tokyo.editTimeZone(TimeZone.getTimeZone("America/New_York"));
+
+    List<LocalDateTime> expected = List.of(day, day.withHour(1).plusMinutes(15),
+        day.withHour(1).plusMinutes(30), day.withHour(2));
+    for (List<IEvent> inOrder : List.of(tokyo.queryEventsInOrder(day.toLocalDate(), 0, 10),
+        tokyo.queryEventsInOrder(day, day.withHour(3), 0, 10))) {
+      List<LocalDateTime> starts = new ArrayList<>();
+      for (IEvent event : inOrder) {
+        starts.add(event.getStart());
+      }
+      assertEquals(expected, starts);
+    }
+  }
+
+  @Test
+  public void testExportCsvWritesOccurrencesInStartOrder() throws IOException {
+    estCal.addRepeatingEvent("Class", LocalDateTime.of(2025, 3, 4, 10, 0),
+        LocalDateTime.of(2025, 3, 4, 11, 0), "TR", 2);
+    estCal.addSingleEvent("Review, \"final\"", LocalDateTime.of(2025, 3, 4, 9, 0),
+        LocalDateTime.of(2025, 3, 4, 9, 30));
+    estCal.editSingleEvent("Review, \"final\"", LocalDateTime.of(2025, 3, 4, 9, 0),
+        LocalDateTime.of(2025, 3, 4, 9, 30), "description", "Caf\u00e9\nnotes");
+    estCal.editSingleEvent("Class", LocalDateTime.of(2025, 3, 6, 10, 0),
+        LocalDateTime.of(2025, 3, 6, 11, 0), "location", "online");
+    estCal.editTimeZone(TimeZone.getTimeZone("America/Los_Angeles"));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    estCal.exportCsv(Channels.newChannel(out));
+    assertEquals("Subject,Start,End,Location,Status,Description\r\n"
+        + "\"Review, \"\"final\"\"\",2025-03-04T06:00,2025-03-04T06:30,,,\"Caf\u00e9\nnotes\"\r\n"
+        + "Class,2025-03-04T07:00,2025-03-04T08:00,,,\r\n"
+        + "Class,2025-03-06T07:00,2025-03-06T08:00,ONLINE,,\r\n",
+        out.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testExportCsvWritesTheRepeatedHourInStartOrder() throws IOException {
+    ModifiableCalendarImpl utc = new ModifiableCalendarImpl("Night",
+        TimeZone.getTimeZone("UTC"));
+    LocalDateTime day = LocalDateTime.of(2025, 11, 2, 0, 0);
+    utc.addSingleEvent("A", day.withHour(5).plusMinutes(50), day.withHour(5).plusMinutes(55));
+    utc.addSingleEvent("B", day.withHour(6).plusMinutes(10), day.withHour(6).plusMinutes(20));
+    utc.editTimeZone(TimeZone.getTimeZone("America/New_York"));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    utc.exportCsv(Channels.newChannel(out));
+    assertEquals("Subject,Start,End,Location,Status,Description\r\n"
+        + "B,2025-11-02T01:10,2025-11-02T01:20,,,\r\n"
+        + "A,2025-11-02T01:50,2025-11-02T01:55,,,\r\n",
+        out.toString(StandardCharsets.UTF_8));
+  }
+}
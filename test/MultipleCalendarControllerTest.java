@@ -2,6 +2,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 
 import controller.CalendarController;
 import controller.MultipleCalendarController;
@@ -23,7 +24,7 @@ public class MultipleCalendarControllerTest extends ControllersTest {
     mockModel = new MockMultipleCalendarModel();
   }
 
-  protected CalendarController makeController(ByteArrayInputStream in,
+  protected CalendarController makeController(InputStream in,
                                               MockCalendarView view) {
     return new MultipleCalendarController(mockModel, in, view);
   }
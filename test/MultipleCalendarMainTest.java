@@ -7,6 +7,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
 
 import main.MultipleCalendarMain;
 
@@ -71,6 +75,40 @@ public class MultipleCalendarMainTest {
     assertFalse(outContent.toString().contains("File not found"));
   }
 
+  @Test
+  public void testDataDirectoryKeepsCalendarsBetweenRuns() throws IOException {
+    Path directory = Files.createTempDirectory("main-test");
+    try {
+      Path commands = directory.resolve("commands.txt");
+      Files.writeString(commands, "create calendar --name School --timezone Europe/Berlin\n"
+          + "use calendar --name School\n"
+          + "create event \"Team Meeting\" from 2025-06-10T10:00 to 2025-06-10T11:00\n"
+          + "exit\n");
+      Path data = directory.resolve("data");
+      MultipleCalendarMain.main(new String[]{"--headless", commands.toString(),
+          "--data", data.toString()});
+
+      Files.writeString(commands, "use calendar --name School\n"
+          + "print events on 2025-06-10\n"
+          + "exit\n");
+      outContent.reset();
+      MultipleCalendarMain.main(new String[]{"--headless", commands.toString(),
+          "--data", data.toString()});
+      assertTrue(outContent.toString().contains("Team Meeting"));
+      assertFalse(outContent.toString().contains("Error"));
+    } finally {
+      try (Stream<Path> files = Files.walk(directory)) {
+        files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+      }
+    }
+  }
+
+  @Test
+  public void testDataWithoutDirectory() {
+    MultipleCalendarMain.main(new String[]{"--interactive", "--data"});
+    assertTrue(outContent.toString().contains("Please enter a directory after --data"));
+  }
+
   @Test
   public void testInteractiveMode() {
     String input = "exit\n";
@@ -78,4 +116,17 @@ public class MultipleCalendarMainTest {
     MultipleCalendarMain.main(new String[]{"--interactive"});
     assertFalse(outContent.toString().contains("Error"));
   }
+
+  @Test
+  public void testInputThatCannotBeReadIsReportedOnce() {
+    System.setIn(new InputStream() {
+      @Override
+      public int read() throws IOException {
+        throw new IOException("disk gone");
+      }
+    });
+    MultipleCalendarMain.main(new String[]{"--interactive"});
+    assertTrue(outContent.toString().contains("Could not read input: disk gone"));
+    assertFalse(outContent.toString().contains("exit"));
+  }
 }
@@ -63,6 +63,38 @@ public class MultipleCalendarModelImplTest extends ACalendarTest {
     assertEquals("New Name", multipleCalendarModel.getCurrentCalendar().getName());
   }
 
+  @Test
+  public void testRenamedCalendarIsFoundByNewNameOnly() {
+    multipleCalendarModel.create("Work", "America/Chicago");
+    multipleCalendarModel.edit("Work", "name", "Office");
+    multipleCalendarModel.use("Office");
+    assertEquals("Office", multipleCalendarModel.getCurrentCalendar().getName());
+    multipleCalendarModel.create("Work", "America/Chicago");
+    assertEquals(List.of("Default", "Office", "Work"), multipleCalendarModel.getCalendarNames());
+  }
+
+  @Test
+  public void testRenameThroughCalendarKeepsNamesInSync() {
+    multipleCalendarModel.getCurrentCalendar().editName("Home");
+    multipleCalendarModel.use("Home");
+    assertEquals(List.of("Home"), multipleCalendarModel.getCalendarNames());
+    multipleCalendarModel.create("Default", "America/Chicago");
+    assertEquals("Default", multipleCalendarModel.getCalendars().get(0).getName());
+    assertEquals("Home", multipleCalendarModel.getCalendars().get(1).getName());
+  }
+
+  @Test(expected = InvalidProperty.class)
+  public void testRenameThroughCalendarToTakenName() {
+    multipleCalendarModel.create("Work", "America/Chicago");
+    multipleCalendarModel.getCurrentCalendar().editName("Work");
+  }
+
+  @Test(expected = InvalidCalendar.class)
+  public void testOldNameGoneAfterRename() {
+    multipleCalendarModel.edit("Default", "name", "New Name");
+    multipleCalendarModel.use("Default");
+  }
+
   @Test
   public void testEditCalendarTimeZone() {
     multipleCalendarModel.addSingleEvent("Meeting", start, end);
@@ -314,8 +346,8 @@ public class MultipleCalendarModelImplTest extends ACalendarTest {
       }
     }
     assertNotNull("Expected SeriesEvent not found", outSeries);
-    List<IEvent> expectedSubs = (List<IEvent>) expected3.getEvents();
-    List<IEvent> actualSubs = (List<IEvent>) outSeries.getEvents();
+    List<IEvent> expectedSubs = expected3.getEvents();
+    List<IEvent> actualSubs = outSeries.getEvents();
     assertEquals(expectedSubs.size(), actualSubs.size());
     for (int i = 0; i < expectedSubs.size(); i++) {
       assertEquals(expectedSubs.get(i), actualSubs.get(i));
@@ -341,8 +373,8 @@ public class MultipleCalendarModelImplTest extends ACalendarTest {
       }
     }
     assertNotNull("SeriesEvent not found in copied events", outSeries);
-    List<IEvent> expectedSubs = (List<IEvent>) expected.getEvents();
-    List<IEvent> actualSubs = (List<IEvent>) outSeries.getEvents();
+    List<IEvent> expectedSubs = expected.getEvents();
+    List<IEvent> actualSubs = outSeries.getEvents();
     assertEquals(expectedSubs.size(), actualSubs.size());
     for (int i = 0; i < expectedSubs.size(); i++) {
       assertEquals(expectedSubs.get(i), actualSubs.get(i));
@@ -359,8 +391,8 @@ public class MultipleCalendarModelImplTest extends ACalendarTest {
       }
     }
     assertNotNull("SeriesEvent not found after editing", outSeries);
-    expectedSubs = (List<IEvent>) expected2.getEvents();
-    actualSubs = (List<IEvent>) outSeries.getEvents();
+    expectedSubs = expected2.getEvents();
+    actualSubs = outSeries.getEvents();
     assertEquals(expectedSubs.size(), actualSubs.size());
     for (int i = 0; i < expectedSubs.size(); i++) {
       assertEquals(expectedSubs.get(i), actualSubs.get(i));
@@ -0,0 +1,125 @@
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+import model.RecurrenceRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@code model.RecurrenceRule} class.
+ */
+public class RecurrenceRuleTest {
+  private final LocalDateTime start = LocalDateTime.of(2025, 6, 5, 9, 0);
+  private final LocalDateTime end = LocalDateTime.of(2025, 6, 5, 10, 30);
+
+  @Test
+  public void testRepeatFor() {
+    RecurrenceRule rule = RecurrenceRule.repeatFor(start, end, "MWF", 4);
+    assertEquals(LocalDate.of(2025, 6, 6), rule.getFirstDate());
+    assertEquals(LocalDate.of(2025, 6, 13), rule.getLastDate());
+    assertEquals(4, rule.getCount());
+    assertEquals(LocalTime.of(9, 0), rule.getStartTime());
+    assertEquals(Duration.ofMinutes(90), rule.getDuration());
+  }
+
+  @Test
+  public void testRepeatUntil() {
+    RecurrenceRule rule = RecurrenceRule.repeatUntil(start, end, "TR", LocalDate.of(2025, 6, 17));
+    assertEquals(Arrays.asList(LocalDate.of(2025, 6, 5), LocalDate.of(2025, 6, 10),
+        LocalDate.of(2025, 6, 12), LocalDate.of(2025, 6, 17)),
+        rule.datesBetween(LocalDate.MIN, LocalDate.MAX));
+  }
+
+  @Test
+  public void testOccursOn() {
+    RecurrenceRule rule = RecurrenceRule.repeatFor(start, end, "MWF", 4);
+    assertTrue(rule.occursOn(LocalDate.of(2025, 6, 9)));
+    assertFalse(rule.occursOn(LocalDate.of(2025, 6, 10)));
+    assertFalse(rule.occursOn(LocalDate.of(2025, 6, 2)));
+    assertFalse(rule.occursOn(LocalDate.of(2025, 6, 16)));
+  }
+
+  @Test
+  public void testSplit() {
+    RecurrenceRule rule = RecurrenceRule.repeatFor(start, end, "MWF", 6);
+    LocalDate split = LocalDate.of(2025, 6, 11);
+    assertEquals(2, rule.countBefore(split));
+    assertEquals(2, rule.endingBefore(split).getCount());
+    assertEquals(LocalDate.of(2025, 6, 9), rule.endingBefore(split).getLastDate());
+    assertEquals(4, rule.startingAt(split).getCount());
+    assertEquals(split, rule.startingAt(split).getFirstDate());
+    assertEquals(rule.getLastDate(), rule.startingAt(split).getLastDate());
+  }
+
+  @Test
+  public void testShiftedMovesWeekdays() {
+    RecurrenceRule rule = RecurrenceRule.repeatFor(start, end, "MWF", 3).shifted(2,
+        LocalTime.of(12, 0));
+    assertEquals(RecurrenceRule.parseWeekdays("WFU"), rule.getWeekdayMask());
+    assertEquals(LocalDate.of(2025, 6, 8), rule.getFirstDate());
+    assertEquals(LocalDate.of(2025, 6, 13), rule.getLastDate());
+    assertEquals(LocalTime.of(12, 0), rule.getStartTime());
+  }
+
+  @Test
+  public void testNoWeekdays() {
+    RecurrenceRule rule = RecurrenceRule.repeatFor(start, end, "", 3);
+    assertEquals(0, rule.getCount());
+    assertNull(rule.getLastDate());
+    assertTrue(rule.datesBetween(LocalDate.MIN, LocalDate.MAX).isEmpty());
+  }
+
+  @Test
+  public void testNthDateAndCountBetween() {
+    RecurrenceRule rule = RecurrenceRule.repeatFor(start, end, "TRS", 1000);
+    assertEquals(LocalDate.of(2025, 6, 5), rule.nthDate(0));
+    assertEquals(LocalDate.of(2025, 6, 7), rule.nthDate(1));
+    assertEquals(LocalDate.of(2025, 6, 10), rule.nthDate(2));
+    assertEquals(rule.getLastDate(), rule.nthDate(999));
+    assertEquals(3, rule.countBetween(LocalDate.of(2025, 6, 9), LocalDate.of(2025, 6, 15)));
+    assertEquals(1000, rule.countBetween(LocalDate.MIN, LocalDate.MAX));
+    assertThrows(IndexOutOfBoundsException.class, () -> rule.nthDate(1000));
+  }
+
+  @Test
+  public void testArithmeticMatchesDayByDay() {
+    RecurrenceRule rule = RecurrenceRule.repeatUntil(start, end, "MRU",
+        LocalDate.of(2030, 1, 1));
+    int k = 0;
+    for (LocalDate d = start.toLocalDate(); !d.isAfter(LocalDate.of(2030, 1, 1));
+         d = d.plusDays(1)) {
+      String day = d.getDayOfWeek().toString();
+      if (day.equals("MONDAY") || day.equals("THURSDAY") || day.equals("SUNDAY")) {
+        assertEquals(d, rule.nthDate(k));
+        assertEquals(k, rule.countBefore(d));
+        k++;
+      }
+    }
+    assertEquals(k, rule.getCount());
+  }
+
+  @Test
+  public void testFirstOccurrenceOnOrAfter() {
+    RecurrenceRule rule = RecurrenceRule.repeatFor(start, end, "MWF", 4);
+    assertEquals(LocalDate.of(2025, 6, 6), rule.firstOccurrenceOnOrAfter(LocalDate.MIN));
+    assertEquals(LocalDate.of(2025, 6, 9), rule.firstOccurrenceOnOrAfter(
+        LocalDate.of(2025, 6, 7)));
+    assertEquals(LocalDate.of(2025, 6, 11), rule.firstOccurrenceOnOrAfter(
+        LocalDate.of(2025, 6, 11)));
+    assertNull(rule.firstOccurrenceOnOrAfter(LocalDate.of(2025, 6, 14)));
+  }
+
+  @Test
+  public void testInvalidWeekday() {
+    assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parseWeekdays("MX"));
+  }
+}
@@ -8,6 +8,7 @@ import org.junit.Test;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -186,6 +187,25 @@ public class SeriesEventTest {
     }
   }
 
+  @Test
+  public void testGetAllMatchingEventsAfterReturnsLaterOccurrencesInOrder() {
+    weeklyMeeting.editEvent("description", "weekly sync");
+    SeriesEvent result = (SeriesEvent) weeklyMeeting.getAllMatchingEventsAfter("Meeting",
+        LocalDateTime.of(2025, 6, 6, 9, 0));
+    List<IEvent> events = result.getEvents();
+
+    assertEquals(4, events.size());
+    LocalDate[] expectedDates = {
+        LocalDate.of(2025, 6, 6),
+        LocalDate.of(2025, 6, 9),
+        LocalDate.of(2025, 6, 11),
+        LocalDate.of(2025, 6, 13)
+    };
+    for (int i = 0; i < expectedDates.length; i++) {
+      assertEquals(expectedDates[i], events.get(i).getStart().toLocalDate());
+    }
+  }
+
   @Test
   public void testGetAllMatchingEventsFindAll() {
     SeriesEvent result = (SeriesEvent) weeklyMeeting.getAllMatchingEvents("Meeting", start);
@@ -302,4 +322,17 @@ public class SeriesEventTest {
     assertEquals(expected, weeklyMeeting.getEdittedCopy("tzAndRelativeDateChange",
         newPropertyString));
   }
+
+  @Test
+  public void testEditEventMetadataAppliesToEveryOccurrence() {
+    weeklyMeeting.editEvent("location", "online");
+    weeklyMeeting.editEvent("description", "Standup");
+    IEvent wednesday = weeklyMeeting.getExactMatch("Meeting", start.plusDays(2));
+    weeklyMeeting.editEvent("status", "private");
+    for (IEvent e : ((SeriesEvent) weeklyMeeting).getEvents()) {
+      assertTrue(e.toString().endsWith("| Location: ONLINE | Status: PRIVATE"
+          + " | Description: Standup"));
+    }
+    assertFalse(wednesday.toString().contains("PRIVATE"));
+  }
 }
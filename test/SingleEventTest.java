@@ -5,6 +5,7 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import model.EventEdit;
 import model.IEvent;
 import model.SingleEvent;
 
@@ -412,4 +413,31 @@ public class SingleEventTest {
         Duration.ofHours(3).toString();
     assertEquals(expected, event.getEdittedCopy("tzAndRelativeDateChange", newPropertyString));
   }
+
+  @Test
+  public void testTypedEditMatchesParsedEdit() {
+    assertEquals(event.getEdittedCopy("endWithStart", start.minusDays(2).toString()),
+        event.getEdittedCopy(EventEdit.moveStartTo(start.minusDays(2))));
+    assertEquals(event.getEdittedCopy("tzAndDateChange", "2025-06-03/PT3H"),
+        event.getEdittedCopy(EventEdit.moveToDate(LocalDate.of(2025, 6, 3),
+            Duration.ofHours(3))));
+    assertEquals(new SingleEvent("Meeting", start, end.plusHours(1)),
+        event.getEdittedCopy(EventEdit.setEnd(end.plusHours(1))));
+  }
+
+  @Test
+  public void testParseEditRejectsBadValuesBeforeApplying() {
+    try {
+      EventEdit.parse("tzAndDateChange", "2025-06-03");
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Invalid tzAndDateChange value", e.getMessage());
+    }
+    try {
+      EventEdit.parse("start", "tomorrow");
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Invalid date time format", e.getMessage());
+    }
+  }
 }
@@ -0,0 +1,56 @@
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.TimeZone;
+
+import model.ZoneRegistry;
+import model.exceptions.InvalidTimeZoneFormat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@code model.ZoneRegistry} class.
+ */
+public class ZoneRegistryTest {
+
+  @Test
+  public void testKnowsEveryAvailableId() {
+    for (String id : TimeZone.getAvailableIDs()) {
+      assertTrue(ZoneRegistry.contains(id));
+      assertEquals(TimeZone.getTimeZone(id), ZoneRegistry.getTimeZone(id));
+      assertEquals(TimeZone.getTimeZone(id).toZoneId(), ZoneRegistry.getZoneId(id));
+    }
+    assertEquals(TimeZone.getAvailableIDs().length, ZoneRegistry.getIds().size());
+  }
+
+  @Test
+  public void testRulesMatchTheZone() {
+    LocalDateTime summer = LocalDateTime.of(2025, 7, 1, 12, 0);
+    assertEquals(ZoneOffset.ofHours(-4),
+        ZoneRegistry.getRules("America/New_York").getOffset(summer.toInstant(ZoneOffset.UTC)));
+  }
+
+  @Test
+  public void testTimeZonesAreCopies() {
+    TimeZone first = ZoneRegistry.getTimeZone("Europe/Paris");
+    first.setRawOffset(0);
+    assertNotSame(first, ZoneRegistry.getTimeZone("Europe/Paris"));
+    assertEquals(TimeZone.getTimeZone("Europe/Paris"), ZoneRegistry.getTimeZone("Europe/Paris"));
+  }
+
+  @Test
+  public void testZoneIdOfUnknownTimeZoneFallsBack() {
+    assertEquals(ZoneId.of("GMT+03:00"), ZoneRegistry.zoneIdOf(TimeZone.getTimeZone("GMT+3")));
+    assertFalse(ZoneRegistry.contains("Hello!"));
+  }
+
+  @Test(expected = InvalidTimeZoneFormat.class)
+  public void testUnknownId() {
+    ZoneRegistry.getZoneId("Hello!");
+  }
+}
@@ -0,0 +1,146 @@
+package commands;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import controller.CommandTokenizer;
+import controller.commands.CalendarControllerCommands;
+import controller.commands.CommandGrammar;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@code controller.commands.CommandGrammar} class.
+ */
+public class CommandGrammarTest {
+  private List<String> ran;
+  private CommandGrammar grammar;
+
+  @Before
+  public void setUp() {
+    ran = new ArrayList<>();
+    grammar = CommandGrammar.builder("Invalid book command.")
+        .rule("room <name> on <date:date>", match -> ran.add("on " + match.date("date")))
+        .rule("room <name> from <start:datetime> for <count:count>",
+            match -> ran.add(match.text("name") + " x" + match.number("count")))
+        .rule("id <id:id>", match -> ran.add("id " + match.id("id")))
+        .rule("raw ...", match -> ran.add(String.join(" ", match.getWords())))
+        .error("", "Unknown booking: %s")
+        .error("room <name>", "Please say when the room is booked.")
+        .build();
+  }
+
+  private String error(String... words) {
+    return grammar.match(words).getError();
+  }
+
+  @Test
+  public void testMatchesRunTheirRuleWithTypedValues() {
+    CommandGrammar.Match match = grammar.match(new String[]{"book", "ROOM", "Lab", "from",
+        "2025-06-05T09:00", "for", "3"});
+    assertNull(match.getError());
+    assertEquals(LocalDateTime.of(2025, 6, 5, 9, 0), match.dateTime("start"));
+    assertTrue(match.has("count"));
+    assertFalse(match.has("date"));
+    match.run();
+    grammar.match(new String[]{"book", "room", "Lab", "on", "2025-06-05"}).run();
+    grammar.match(new String[]{"book", "id", "12"}).run();
+    assertEquals(List.of("Lab x3", "on " + LocalDate.of(2025, 6, 5), "id 12"), ran);
+  }
+
+  @Test
+  public void testRestOfTheLineIsHandedOverAsItIs() {
+    CommandGrammar.Match match = grammar.match(new String[]{"book", "raw", "a", "b"});
+    match.run();
+    assertArrayEquals(new String[]{"book", "raw", "a", "b"}, match.getWords());
+    grammar.match(new String[]{"book", "raw"}).run();
+    assertEquals(List.of("book raw a b", "book raw"), ran);
+  }
+
+  @Test
+  public void testLinesAreMatchedStraightFromTheTokenizer() {
+    CommandTokenizer tokens = new CommandTokenizer();
+    tokens.tokenize("book Room \"Lab \\\"B\\\"\" from 2025-06-05T09:00 FOR 3");
+    CommandGrammar.Match match = grammar.match(tokens);
+    assertNull(match.getError());
+    assertEquals("Lab \"B\"", match.text("name"));
+    match.run();
+    tokens.tokenize("book desk");
+    assertEquals("Unknown booking: desk", grammar.match(tokens).getError());
+    tokens.tokenize("book \"room\" Lab on June");
+    assertEquals("Invalid date format! Should be: yyyy-MM-dd", grammar.match(tokens).getError());
+    assertEquals(List.of("Lab \"B\" x3"), ran);
+  }
+
+  @Test
+  public void testRestOfATokenizedLineIsHandedOverAsTokens() {
+    List<String> handed = new ArrayList<>();
+    CalendarControllerCommands other = new CalendarControllerCommands() {
+      @Override
+      public void execute(String[] inputTokens) {
+        handed.add("words");
+      }
+
+      @Override
+      public void execute(CommandTokenizer tokens) {
+        handed.add(tokens.token(2) + " of " + tokens.count());
+      }
+    };
+    CommandTokenizer tokens = new CommandTokenizer();
+    tokens.tokenize("book raw a b");
+    grammar.match(tokens).handTo(other);
+    grammar.match(new String[]{"book", "raw", "a"}).handTo(other);
+    assertEquals(List.of("a of 4", "words"), handed);
+    assertArrayEquals(new String[]{"book", "raw", "a", "b"}, grammar.match(tokens).getWords());
+  }
+
+  @Test
+  public void testErrorsSayWhatWentWrongFirst() {
+    assertEquals("Unknown booking: desk", error("book", "desk", "Lab"));
+    assertEquals("Please say when the room is booked.", error("book", "room", "Lab", "at"));
+    assertEquals("Please say when the room is booked.",
+        error("book", "room", "Lab", "on", "2025-06-05", "extra"));
+    assertEquals("Invalid date format! Should be: yyyy-MM-dd",
+        error("book", "room", "Lab", "on", "June"));
+    assertEquals(CommandGrammar.SlotType.COUNT.getError(),
+        error("book", "room", "Lab", "from", "2025-06-05T09:00", "for", "0"));
+    assertEquals(CommandGrammar.SlotType.ID.getError(), error("book", "id", "x"));
+  }
+
+  @Test
+  public void testLinesThatEndEarlyGetTheUsageError() {
+    assertEquals("Invalid book command.", error("book"));
+    assertEquals("Invalid book command.", error("book", "room", "Lab", "from"));
+    assertEquals("Invalid book command.",
+        CommandGrammar.builder("Invalid book command.").minimumWords(3)
+            .rule("id <id:id>", match -> { })
+            .error("", "Unknown booking: %s")
+            .build().match(new String[]{"book", "desk"}).getError());
+    assertThrows(IllegalStateException.class,
+        () -> grammar.match(new String[]{"book"}).run());
+  }
+
+  @Test
+  public void testConflictingRulesAreRejectedWhenBuilt() {
+    CommandGrammar.Builder builder = CommandGrammar.builder("usage")
+        .rule("room <name> on <date:date>", match -> { });
+    assertThrows(IllegalArgumentException.class,
+        () -> builder.rule("room <date:date>", match -> { }));
+    assertThrows(IllegalArgumentException.class,
+        () -> builder.rule("room <name> on <date:date>", match -> { }));
+    assertThrows(IllegalArgumentException.class,
+        () -> builder.rule("room <name> on <date:day>", match -> { }));
+    assertThrows(IllegalArgumentException.class,
+        () -> builder.rule("room ...", match -> { }));
+  }
+}
@@ -3,11 +3,14 @@ package commands;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
+
 import controller.commands.CreateCommand;
 import mocks.MockCalendarModel;
 import mocks.MockCalendarView;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests the {@code controller.commands.CreateCommand} class using mock CalendarModel and
@@ -78,4 +81,30 @@ public class CreateCommandTest {
         "TR", "for", "2"});
     assertEquals("All day repeating event created.", mockView.messages.get(0));
   }
+
+  @Test
+  public void testIncompleteLinesReportWhatIsMissing() {
+    command.execute(new String[]{"create", "event", "Meeting", "from", "2025-06-05T09:00"});
+    command.execute(new String[]{"create", "event", "Meeting", "from", "2025-06-05T09:00", "to",
+        "2025-06-05T10:00", "repeats", "MWF"});
+    command.execute(new String[]{"create", "event", "Meeting", "from", "2025-06-05T09:00", "to",
+        "2025-06-05T10:00", "repeats", "MWF", "often", "3"});
+    command.execute(new String[]{"create", "event", "Meeting", "at", "noon"});
+    assertEquals(List.of("Invalid create command.", "Invalid create command.",
+        "Please say how long the event repeats, either 'for <count> times' or 'until <date>'.",
+        "Please say when the event is, either 'from <dateTime> to <dateTime>' or 'on <date>'."),
+        mockView.errors);
+    assertTrue(mockModel.log.isEmpty());
+  }
+
+  @Test
+  public void testRepeatingEventWithInvalidWeekdaysOrCount() {
+    command.execute(new String[]{"create", "event", "Class", "on", "2025-06-05", "repeats",
+        "MXF", "for", "3"});
+    command.execute(new String[]{"create", "event", "Class", "on", "2025-06-05", "repeats",
+        "MWF", "for", "three"});
+    assertEquals(List.of("Invalid weekdays! Should be some of the letters MTWRFSU.",
+        "Invalid number of times to repeat! Should be a whole number greater than 0."),
+        mockView.errors);
+  }
 }
@@ -8,6 +8,7 @@ import mocks.MockCalendarModel;
 import mocks.MockCalendarView;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests the {@code controller.commands.EditCommand} class using mock CalendarModel and
@@ -62,6 +63,25 @@ public class EditCommandTest {
     assertEquals("Entire series edited.", mockView.messages.get(0));
   }
 
+  @Test
+  public void testEditById() {
+    mockModel.testBoolean = true;
+    command.execute(new String[]{"edit", "id", "Subject", "12", "with", "Standup"});
+    assertEquals("Event 12 edited.", mockView.messages.get(0));
+    assertTrue(mockModel.log.contains("editById:12:subject:Standup"));
+  }
+
+  @Test
+  public void testEditByIdInvalid() {
+    command.execute(new String[]{"edit", "id", "subject", "twelve", "with", "Standup"});
+    command.execute(new String[]{"edit", "id", "subject", "12", "Standup"});
+    assertEquals("Invalid event id! Should be a whole number greater than 0.",
+        mockView.errors.get(0));
+    assertEquals("Invalid format edit command.  Please give a property, the event id, " +
+        "and the new value.", mockView.errors.get(1));
+    assertTrue(mockModel.log.isEmpty());
+  }
+
   @Test
   public void testInvalidFormatTooShort() {
     command.execute(new String[]{"edit", "event"});
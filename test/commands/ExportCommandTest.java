@@ -0,0 +1,158 @@
+package commands;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.stream.Stream;
+
+import controller.commands.ExportCommand;
+import mocks.MockCalendarView;
+import mocks.MockMultipleCalendarModel;
+import model.ModifiableCalendar;
+import model.ModifiableCalendarImpl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@code controller.commands.ExportCommand} class using a mock MultipleCalendarModel
+ * holding real calendars and a mock CalendarView.
+ */
+public class ExportCommandTest {
+  private MockMultipleCalendarModel mockModel;
+  private MockCalendarView mockView;
+  private ExportCommand command;
+  private Path directory;
+
+  @Before
+  public void setUp() throws IOException {
+    mockModel = new MockMultipleCalendarModel();
+    mockView = new MockCalendarView();
+    command = new ExportCommand(mockModel, mockView);
+    directory = Files.createTempDirectory("export-test");
+
+    ModifiableCalendar work = new ModifiableCalendarImpl("Work",
+        TimeZone.getTimeZone("America/New_York"));
+    work.addSingleEvent("Standup", LocalDateTime.of(2025, 3, 3, 9, 0),
+        LocalDateTime.of(2025, 3, 3, 9, 15));
+    work.addRepeatingEvent("Class", LocalDateTime.of(2025, 3, 3, 8, 0),
+        LocalDateTime.of(2025, 3, 3, 8, 50), "MW", 2);
+    ModifiableCalendar home = new ModifiableCalendarImpl("Home",
+        TimeZone.getTimeZone("Europe/Paris"));
+    home.addSingleEvent("Dinner", LocalDateTime.of(2025, 3, 3, 19, 0),
+        LocalDateTime.of(2025, 3, 3, 21, 0));
+    mockModel.multipleCalendarModels.add(work);
+    mockModel.multipleCalendarModels.add(home);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Test
+  public void testExportOneCalendarAsCsv() throws IOException {
+    Path file = directory.resolve("work.csv");
+    command.execute(new String[]{"export", "calendar", "--name", "Work", "--format", "csv",
+        "--file", file.toString()});
+    assertEquals("Exported Work to " + file, mockView.messages.get(0));
+    assertEquals(List.of("Subject,Start,End,Location,Status,Description",
+        "Class,2025-03-03T08:00,2025-03-03T08:50,,,",
+        "Standup,2025-03-03T09:00,2025-03-03T09:15,,,",
+        "Class,2025-03-05T08:00,2025-03-05T08:50,,,"), Files.readAllLines(file));
+  }
+
+  @Test
+  public void testExportOneCalendarAsIcs() throws IOException {
+    Path file = directory.resolve("home.ics");
+    command.execute(new String[]{"export", "calendar", "--format", "ics", "--name", "Home",
+        "--file", file.toString()});
+    assertEquals("Exported Home to " + file, mockView.messages.get(0));
+    String document = Files.readString(file);
+    assertTrue(document.startsWith("BEGIN:VCALENDAR"));
+    assertTrue(document.contains("SUMMARY:Dinner"));
+  }
+
+  @Test
+  public void testExportAllCalendarsIntoADirectory() throws IOException {
+    command.execute(new String[]{"export", "calendars", "--format", "csv", "--dir",
+        directory.toString()});
+    assertEquals(List.of("Exported Work to " + directory.resolve("Work.csv"),
+        "Exported Home to " + directory.resolve("Home.csv")), mockView.messages);
+    assertEquals(4, Files.readAllLines(directory.resolve("Work.csv")).size());
+    assertEquals(List.of("Subject,Start,End,Location,Status,Description",
+        "Dinner,2025-03-03T19:00,2025-03-03T21:00,,,"),
+        Files.readAllLines(directory.resolve("Home.csv")));
+  }
+
+  @Test
+  public void testExportOnlyTheNamedCalendars() {
+    command.execute(new String[]{"export", "calendars", "--name", "Home", "--format", "csv",
+        "--dir", directory.toString()});
+    assertEquals(List.of("Exported Home to " + directory.resolve("Home.csv")),
+        mockView.messages);
+    assertFalse(Files.exists(directory.resolve("Work.csv")));
+  }
+
+  @Test
+  public void testExportFailureIsReportedPerCalendar() {
+    command.execute(new String[]{"export", "calendars", "--format", "csv", "--dir",
+        directory.resolve("missing").toString()});
+    assertEquals(2, mockView.errors.size());
+    assertTrue(mockView.errors.get(0).startsWith("Could not export Work: "));
+    assertTrue(mockView.errors.get(1).startsWith("Could not export Home: "));
+  }
+
+  @Test
+  public void testWhenCalendarDoesNotExist() {
+    command.execute(new String[]{"export", "calendar", "--name", "School", "--format", "csv",
+        "--file", directory.resolve("school.csv").toString()});
+    assertEquals("Could not find calendar School", mockView.errors.get(0));
+  }
+
+  @Test
+  public void testWhenFormatIsUnknown() {
+    command.execute(new String[]{"export", "calendar", "--name", "Work", "--format", "xml",
+        "--file", directory.resolve("work.xml").toString()});
+    assertEquals("Please specify the format as csv or ics", mockView.errors.get(0));
+  }
+
+  @Test
+  public void testWhenCommandIsMalformed() {
+    command.execute(new String[]{"export", "calendar", "--name"});
+    assertEquals("Invalid export command.", mockView.errors.get(0));
+    command.execute(new String[]{"export", "calendar", "--name", "Work", "--format", "csv"});
+    assertEquals("Please specify the file", mockView.errors.get(1));
+    command.execute(new String[]{"export", "calendar", "--format", "csv", "--file", "a.csv"});
+    assertEquals("Please specify the name", mockView.errors.get(2));
+  }
+
+  @Test
+  public void testCalendarNamesCannotLeaveTheDirectory() {
+    mockModel.multipleCalendarModels.add(new ModifiableCalendarImpl("../escape",
+        TimeZone.getTimeZone("Europe/Paris")));
+    mockModel.multipleCalendarModels.add(new ModifiableCalendarImpl("a/b",
+        TimeZone.getTimeZone("Europe/Paris")));
+    Path inside = directory.resolve("inside");
+    inside.toFile().mkdir();
+    command.execute(new String[]{"export", "calendars", "--format", "csv", "--dir",
+        inside.toString()});
+    assertEquals(List.of("Exported Work to " + inside.resolve("Work.csv"),
+        "Exported Home to " + inside.resolve("Home.csv")), mockView.messages.subList(0, 2));
+    assertEquals(List.of("Could not export ../escape: a calendar name used as a file name "
+        + "cannot contain a path separator", "Could not export a/b: a calendar name used as a "
+        + "file name cannot contain a path separator"), mockView.errors);
+    assertFalse(Files.exists(directory.resolve("escape.csv")));
+  }
+}
@@ -0,0 +1,128 @@
+package commands;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.stream.Stream;
+
+import controller.commands.ImportCommand;
+import mocks.MockCalendarView;
+import mocks.MockMultipleCalendarModel;
+import model.ModifiableCalendar;
+import model.ModifiableCalendarImpl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@code controller.commands.ImportCommand} class using a mock MultipleCalendarModel
+ * holding real calendars and a mock CalendarView.
+ */
+public class ImportCommandTest {
+  private MockMultipleCalendarModel mockModel;
+  private MockCalendarView mockView;
+  private ImportCommand command;
+  private Path directory;
+  private Path file;
+  private ModifiableCalendar home;
+
+  @Before
+  public void setUp() throws IOException {
+    mockModel = new MockMultipleCalendarModel();
+    mockView = new MockCalendarView();
+    command = new ImportCommand(mockModel, mockView);
+    directory = Files.createTempDirectory("import-test");
+
+    ModifiableCalendar work = new ModifiableCalendarImpl("Work",
+        TimeZone.getTimeZone("America/New_York"));
+    work.addSingleEvent("Standup", LocalDateTime.of(2025, 3, 3, 9, 0),
+        LocalDateTime.of(2025, 3, 3, 9, 15));
+    work.addRepeatingEvent("Class", LocalDateTime.of(2025, 3, 3, 8, 0),
+        LocalDateTime.of(2025, 3, 3, 8, 50), "MW", 2);
+    file = directory.resolve("work.ics");
+    try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      work.exportICalendar(out);
+    }
+    home = new ModifiableCalendarImpl("Home", TimeZone.getTimeZone("Europe/Paris"));
+    mockModel.multipleCalendarModels.add(home);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Test
+  public void testImportAddsTheEventsOfTheFile() {
+    command.execute(new String[]{"import", "calendar", "--name", "Home", "--file",
+        file.toString()});
+    assertEquals("Imported 2 events into Home from " + file, mockView.messages.get(0));
+    assertEquals(List.of("importCalendar:Home"), mockModel.log);
+    assertEquals(2, home.queryEvent(LocalDate.of(2025, 3, 3)).size());
+    assertEquals(LocalDateTime.of(2025, 3, 3, 15, 0),
+        home.queryEventsInOrder(LocalDate.of(2025, 3, 3), 0, 10).get(1).getStart());
+  }
+
+  @Test
+  public void testImportingTwiceAddsNothingTheSecondTime() {
+    String[] line = {"import", "calendar", "--name", "Home", "--file", file.toString()};
+    command.execute(line);
+    command.execute(line);
+    assertEquals("Imported 0 events into Home from " + file, mockView.messages.get(1));
+  }
+
+  @Test
+  public void testEventsThatCannotBeImportedAreReported() throws IOException {
+    Path other = directory.resolve("other.ics");
+    Files.writeString(other, String.join("\r\n", "BEGIN:VCALENDAR",
+        "BEGIN:VEVENT", "UID:a", "DTSTART:20250303T090000", "DTEND:20250303T100000",
+        "SUMMARY:Standup", "END:VEVENT",
+        "BEGIN:VEVENT", "UID:b", "DTSTART:20250304T090000", "DTEND:20250304T100000",
+        "RRULE:FREQ=WEEKLY;INTERVAL=2;COUNT=3", "SUMMARY:Sync", "END:VEVENT",
+        "BEGIN:VEVENT", "UID:c", "DTSTART:20250305T090000", "DTEND:20250305T100000",
+        "RRULE:FREQ=MONTHLY;COUNT=3", "SUMMARY:Review", "END:VEVENT",
+        "END:VCALENDAR", ""));
+    command.execute(new String[]{"import", "calendar", "--name", "Home", "--file",
+        other.toString()});
+    assertEquals("Imported 1 event into Home from " + other
+        + ", skipped 2 events that could not be read or have an unsupported rule",
+        mockView.messages.get(0));
+    assertEquals(1, home.queryEvent(LocalDate.of(2025, 3, 3)).size());
+  }
+
+  @Test
+  public void testMissingCalendarOrFileIsReported() {
+    command.execute(new String[]{"import", "calendar", "--name", "Nowhere", "--file",
+        file.toString()});
+    command.execute(new String[]{"import", "calendar", "--name", "Home", "--file",
+        directory.resolve("missing.ics").toString()});
+    assertEquals(List.of("Could not find Nowhere",
+        "File not found: " + directory.resolve("missing.ics")), mockView.errors);
+  }
+
+  @Test
+  public void testIncompleteCommandsAreRejected() {
+    command.execute(new String[]{"import", "calendar"});
+    command.execute(new String[]{"import", "calendar", "--name", "Home"});
+    command.execute(new String[]{"import", "calendar", "--name", "Home", "--dir", "x"});
+    command.execute(new String[]{"import", "calendar", "--file", "x"});
+    command.execute(new String[]{"import", "events", "--name", "Home"});
+    assertEquals(List.of("Invalid import command.", "Invalid import command.",
+        "Please specify the file", "Please specify the name", "Invalid import command."),
+        mockView.errors);
+    assertTrue(mockModel.log.isEmpty());
+  }
+}
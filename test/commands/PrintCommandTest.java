@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
 import controller.commands.PrintCommand;
 import mocks.MockCalendarModel;
 import mocks.MockCalendarView;
+import model.EventEdit;
 import model.IEvent;
 
 import static org.junit.Assert.assertEquals;
@@ -43,6 +44,26 @@ public class PrintCommandTest {
     assertEquals(2, mockView.messages.size());
   }
 
+  @Test
+  public void testPrintById() {
+    command.execute(new String[]{"print", "id", "4"});
+    mockModel.events.add(new MockEvent("Event A"));
+    command.execute(new String[]{"print", "id", "4"});
+
+    assertEquals("No event with id 4", mockView.messages.get(0));
+    assertEquals("Event A", mockView.messages.get(1));
+    assertTrue(mockModel.log.contains("queryById:4"));
+  }
+
+  @Test
+  public void testPrintByIdTakesNoLimit() {
+    mockModel.events.add(new MockEvent("Event A"));
+    command.execute(new String[]{"print", "id", "4", "limit", "1"});
+
+    assertEquals("Invalid print command format.", mockView.errors.get(0));
+    assertTrue(mockModel.log.isEmpty());
+  }
+
   @Test
   public void testPrintEventsOnDateNoResults() {
     command.execute(new String[]{"print", "events", "on", "2025-06-05"});
@@ -85,6 +106,40 @@ public class PrintCommandTest {
     assertEquals("Invalid date format! Should be: yyyy-MM-dd", mockView.errors.get(0));
   }
 
+  @Test
+  public void testPrintEventsFromToWithLimit() {
+    mockModel.events.add(new MockEvent("Meeting 1"));
+    mockModel.events.add(new MockEvent("Meeting 2"));
+
+    command.execute(new String[]{"print", "events", "from", "2025-06-05T09:00", "to",
+        "2025-06-05T12:00", "limit", "1"});
+
+    assertEquals(1, mockView.messages.size());
+    assertTrue(mockModel.log.contains(
+        "streamEvents:2025-06-05T09:00 to 2025-06-05T12:00"));
+  }
+
+  @Test
+  public void testPrintEventsOnDateWithLimit() {
+    mockModel.events.add(new MockEvent("Event A"));
+
+    command.execute(new String[]{"print", "events", "on", "2025-06-05", "limit", "50"});
+
+    assertEquals(1, mockView.messages.size());
+    assertTrue(mockModel.log.contains("streamEvents:2025-06-05"));
+  }
+
+  @Test
+  public void testPrintEventsInvalidLimit() {
+    command.execute(new String[]{"print", "events", "on", "2025-06-05", "limit", "-3"});
+    command.execute(new String[]{"print", "events", "on", "2025-06-05", "limit", "many"});
+
+    assertEquals(2, mockView.errors.size());
+    assertEquals("Invalid limit! Should be a whole number that is 0 or more.",
+        mockView.errors.get(0));
+    assertTrue(mockModel.log.isEmpty());
+  }
+
   /**
    * Mock implementation of IEvent used to simulate event output.
    */
@@ -150,6 +205,16 @@ public class PrintCommandTest {
       // not used for testing
     }
 
+    @Override
+    public IEvent getEdittedCopy(EventEdit edit) {
+      return null;
+    }
+
+    @Override
+    public void editEvent(EventEdit edit) {
+      // not used for testing
+    }
+
     @Override
     public LocalDateTime getStart() {
       return null;
@@ -3,17 +3,25 @@ package commands;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.TimeZone;
+import java.util.stream.Stream;
 
 import controller.commands.UseCommand;
 import mocks.MockCalendarView;
 import mocks.MockMultipleCalendarModel;
 import model.exceptions.InvalidEvent;
+import model.EventSpec;
 import model.IEvent;
+import model.ImportResult;
 import model.ModifiableCalendar;
 
 import static org.junit.Assert.assertEquals;
@@ -159,6 +167,21 @@ public class UseCommandTest {
       return null;
     }
 
+    @Override
+    public void exportICalendar(Writer out) {
+      //not necessary for testing
+    }
+
+    @Override
+    public ImportResult importICalendar(Reader in) {
+      return new ImportResult(0, 0);
+    }
+
+    @Override
+    public void exportCsv(WritableByteChannel out) {
+      //not necessary for testing
+    }
+
     @Override
     public boolean addSingleEvent(String subject, LocalDateTime start, LocalDateTime end) {
       return false;
@@ -194,6 +217,52 @@ public class UseCommandTest {
       return false;
     }
 
+    @Override
+    public boolean addAll(Collection<EventSpec> specs) {
+      return false;
+    }
+
+    @Override
+    public boolean editById(long id, String property, String newProperty) {
+      return false;
+    }
+
+    @Override
+    public IEvent queryById(long id) {
+      return null;
+    }
+
+    @Override
+    public List<IEvent> queryEventsInOrder(LocalDate date, int offset, int limit) {
+      return null;
+    }
+
+    @Override
+    public List<IEvent> queryEventsInOrder(LocalDateTime startTime, LocalDateTime endTime,
+                                           int offset, int limit) {
+      return null;
+    }
+
+    @Override
+    public Stream<IEvent> streamEvents(LocalDate date) {
+      return null;
+    }
+
+    @Override
+    public Stream<IEvent> streamEvents(LocalDateTime startTime, LocalDateTime endTime) {
+      return null;
+    }
+
+    @Override
+    public Stream<IEvent> streamQuery(LocalDate date) {
+      return null;
+    }
+
+    @Override
+    public Stream<IEvent> streamQuery(LocalDateTime startTime, LocalDateTime endTime) {
+      return null;
+    }
+
     @Override
     public HashSet<IEvent> queryEvent(LocalDate date) {
       return null;
@@ -3,9 +3,13 @@ package mocks;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
 
 import model.CalendarModel;
+import model.EventSpec;
 import model.IEvent;
 
 /**
@@ -49,6 +53,38 @@ public class MockCalendarModel implements CalendarModel {
     return events;
   }
 
+  @Override
+  public List<IEvent> queryEventsInOrder(LocalDate date, int offset, int limit) {
+    log.add("queryEventsInOrder:" + date + " limit " + limit);
+    return page(offset, limit);
+  }
+
+  @Override
+  public List<IEvent> queryEventsInOrder(LocalDateTime start, LocalDateTime end, int offset,
+                                         int limit) {
+    log.add("queryEventsInOrder:" + start + " to " + end + " limit " + limit);
+    return page(offset, limit);
+  }
+
+  @Override
+  public Stream<IEvent> streamEvents(LocalDate date) {
+    log.add("streamEvents:" + date);
+    return new ArrayList<>(events).stream();
+  }
+
+  @Override
+  public Stream<IEvent> streamEvents(LocalDateTime start, LocalDateTime end) {
+    log.add("streamEvents:" + start + " to " + end);
+    return new ArrayList<>(events).stream();
+  }
+
+  // Returns the requested part of the mock events
+  private List<IEvent> page(int offset, int limit) {
+    List<IEvent> all = new ArrayList<>(events);
+    int from = Math.min(offset, all.size());
+    return all.subList(from, (int) Math.min((long) from + limit, all.size()));
+  }
+
   @Override
   public boolean getStatus(LocalDateTime dateTime) {
     log.add("getStatus:" + dateTime);
@@ -75,4 +111,22 @@ public class MockCalendarModel implements CalendarModel {
     log.add("editEntireSeries:" + subject);
     return testBoolean;
   }
+
+  @Override
+  public boolean addAll(Collection<EventSpec> specs) {
+    log.add("addAll:" + specs.size());
+    return testBoolean;
+  }
+
+  @Override
+  public boolean editById(long id, String property, String newValue) {
+    log.add("editById:" + id + ":" + property + ":" + newValue);
+    return testBoolean;
+  }
+
+  @Override
+  public IEvent queryById(long id) {
+    log.add("queryById:" + id);
+    return events.isEmpty() ? null : events.iterator().next();
+  }
 }
\ No newline at end of file
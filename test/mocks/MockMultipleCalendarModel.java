@@ -1,17 +1,24 @@
 package mocks;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.TimeZone;
+import java.util.stream.Stream;
 
 import model.exceptions.InvalidCalendar;
 import model.exceptions.InvalidEvent;
 import model.exceptions.InvalidProperty;
 import model.exceptions.InvalidTimeZoneFormat;
 import model.exceptions.NoCalendar;
+import model.EventSpec;
 import model.IEvent;
+import model.ImportResult;
 import model.ModifiableCalendar;
 import model.ModifiableCalendarImpl;
 import model.MultipleCalendarModel;
@@ -59,6 +66,38 @@ public class MockMultipleCalendarModel implements MultipleCalendarModel {
     return events;
   }
 
+  @Override
+  public List<IEvent> queryEventsInOrder(LocalDate date, int offset, int limit) {
+    log.add("queryEventsInOrder:" + date + " limit " + limit);
+    return page(offset, limit);
+  }
+
+  @Override
+  public List<IEvent> queryEventsInOrder(LocalDateTime start, LocalDateTime end, int offset,
+                                         int limit) {
+    log.add("queryEventsInOrder:" + start + " to " + end + " limit " + limit);
+    return page(offset, limit);
+  }
+
+  @Override
+  public Stream<IEvent> streamEvents(LocalDate date) {
+    log.add("streamEvents:" + date);
+    return new ArrayList<>(events).stream();
+  }
+
+  @Override
+  public Stream<IEvent> streamEvents(LocalDateTime start, LocalDateTime end) {
+    log.add("streamEvents:" + start + " to " + end);
+    return new ArrayList<>(events).stream();
+  }
+
+  // Returns the requested part of the mock events
+  private List<IEvent> page(int offset, int limit) {
+    List<IEvent> all = new ArrayList<>(events);
+    int from = Math.min(offset, all.size());
+    return all.subList(from, (int) Math.min((long) from + limit, all.size()));
+  }
+
   @Override
   public boolean getStatus(LocalDateTime dateTime) {
     log.add("getStatus:" + dateTime);
@@ -86,6 +125,24 @@ public class MockMultipleCalendarModel implements MultipleCalendarModel {
     return testBoolean;
   }
 
+  @Override
+  public boolean addAll(Collection<EventSpec> specs) {
+    log.add("addAll:" + specs.size());
+    return testBoolean;
+  }
+
+  @Override
+  public boolean editById(long id, String property, String newValue) {
+    log.add("editById:" + id + ":" + property + ":" + newValue);
+    return testBoolean;
+  }
+
+  @Override
+  public IEvent queryById(long id) {
+    log.add("queryById:" + id);
+    return events.isEmpty() ? null : events.iterator().next();
+  }
+
   @Override
   public void create(String calendarName, String timezone) throws InvalidProperty,
       InvalidTimeZoneFormat {
@@ -167,9 +224,33 @@ public class MockMultipleCalendarModel implements MultipleCalendarModel {
     return testBoolean;
   }
 
+  @Override
+  public ImportResult importCalendar(String calendarName, Reader in)
+      throws InvalidCalendar, IOException {
+    log.add("importCalendar:" + calendarName);
+    for (ModifiableCalendar calendar : multipleCalendarModels) {
+      if (calendar.getName().equals(calendarName)) {
+        return calendar.importICalendar(in);
+      }
+    }
+    throw new InvalidCalendar("Could not find " + calendarName);
+  }
+
   @Override
   public ModifiableCalendar getCurrentCalendar() {
     log.add("getCurrentCalendar");
     return this.currentCal;
   }
+
+  @Override
+  public List<String> getCalendarNames() {
+    log.add("getCalendarNames");
+    return new ArrayList<>();
+  }
+
+  @Override
+  public List<ModifiableCalendar> getCalendars() {
+    log.add("getCalendars");
+    return multipleCalendarModels;
+  }
 }
\ No newline at end of file